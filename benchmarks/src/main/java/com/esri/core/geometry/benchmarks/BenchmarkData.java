@@ -0,0 +1,213 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Random;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.JsonParserReader;
+import com.esri.core.geometry.MultiPoint;
+import com.esri.core.geometry.OperatorImportFromJson;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.Polyline;
+import com.esri.core.geometry.SyntheticGeometryGenerator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The geometries used by the benchmarks: the fixtures from the data
+ * directory of the repository, and synthetic geometries of any size. The
+ * synthetic geometries are generated from a fixed seed, so every run
+ * measures the same input.
+ *
+ * The data directory is taken from the geometry.data system property, or
+ * found as data or ../data relative to the working directory.
+ */
+public final class BenchmarkData {
+	public static final String INTERSTATE10 = "INTERSTATE10";
+	public static final String AK_MULTIPOINTS = "AK_MULTIPOINTS";
+
+	private static final long SEED = 1234567;
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Returns the fixture with the given name.
+	 */
+	public static Geometry fixture(String name) throws IOException {
+		if (INTERSTATE10.equals(name))
+			return interstate10();
+		if (AK_MULTIPOINTS.equals(name))
+			return akMultiPoints();
+
+		throw new IllegalArgumentException(name);
+	}
+
+	/**
+	 * The polyline of the Interstate 10 in the ESRI:102009 projection.
+	 */
+	public static Polyline interstate10() throws IOException {
+		String json = read("INTERSTATE10_102009_POLYLINE_GEOMETRY2.TXT").trim();
+		// the file is an array with one geometry
+		if (json.startsWith("["))
+			json = json.substring(1, json.lastIndexOf(']'));
+
+		return (Polyline) OperatorImportFromJson.local()
+				.execute(Geometry.Type.Polyline, json).getGeometry();
+	}
+
+	/**
+	 * The points of all multipoints of the AK fixture, in the EPSG:3338
+	 * projection, as one multipoint.
+	 */
+	public static MultiPoint akMultiPoints() throws IOException {
+		String json = read("AK_3338_MULTIPOINTS_JSON_GEOMETRY.TXT");
+		MultiPoint result = new MultiPoint();
+		JsonParser parser = new JsonFactory().createParser(json);
+		try {
+			while (parser.nextToken() != null) {
+				if (parser.getCurrentToken() != JsonToken.FIELD_NAME
+						|| !"geometries".equals(parser.getCurrentName()))
+					continue;
+
+				parser.nextToken();// the start of the array
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					MultiPoint multiPoint = (MultiPoint) OperatorImportFromJson
+							.local()
+							.execute(Geometry.Type.MultiPoint,
+									new JsonParserReader(parser)).getGeometry();
+					result.add(multiPoint, 0, multiPoint.getPointCount());
+				}
+			}
+		} finally {
+			parser.close();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns a synthetic geometry of the given type with the given number of
+	 * vertices. The type is Polygon, Polyline, MultiPoint or one of the
+	 * shapes of SyntheticGeometryGenerator.Shape, which fill a 1000 by 1000
+	 * square.
+	 */
+	public static Geometry synthetic(String type, int vertexCount) {
+		if ("Polygon".equals(type))
+			return polygon(vertexCount);
+		if ("Polyline".equals(type))
+			return polyline(vertexCount);
+		if ("MultiPoint".equals(type))
+			return multiPoint(vertexCount);
+
+		return new SyntheticGeometryGenerator(SEED).generate(
+				SyntheticGeometryGenerator.Shape.valueOf(type), vertexCount,
+				new Envelope2D(0, 0, 1000, 1000));
+	}
+
+	/**
+	 * A simple polygon, a clockwise star shaped ring around the origin with
+	 * the radius between 500 and 1000.
+	 */
+	public static Polygon polygon(int vertexCount) {
+		Random random = new Random(SEED);
+		double[] xy = new double[2 * vertexCount];
+		double step = 2 * Math.PI / vertexCount;
+		for (int i = 0; i < vertexCount; i++) {
+			double radius = 500 + 500 * random.nextDouble();
+			xy[2 * i] = radius * Math.cos(-i * step);
+			xy[2 * i + 1] = radius * Math.sin(-i * step);
+		}
+
+		Polygon polygon = new Polygon();
+		polygon.addPaths(xy, null, null, new int[] { 0, vertexCount }, 1);
+		return polygon;
+	}
+
+	/**
+	 * A polyline of one path, a random walk that crosses itself.
+	 */
+	public static Polyline polyline(int vertexCount) {
+		Random random = new Random(SEED);
+		double[] xy = new double[2 * vertexCount];
+		double x = 0;
+		double y = 0;
+		for (int i = 0; i < vertexCount; i++) {
+			x += random.nextDouble() - 0.5;
+			y += random.nextDouble() - 0.5;
+			xy[2 * i] = x;
+			xy[2 * i + 1] = y;
+		}
+
+		Polyline polyline = new Polyline();
+		polyline.addPaths(xy, null, null, new int[] { 0, vertexCount }, 1);
+		return polyline;
+	}
+
+	/**
+	 * Points spread uniformly over a 1000 by 1000 square.
+	 */
+	public static MultiPoint multiPoint(int vertexCount) {
+		Random random = new Random(SEED);
+		double[] xy = new double[2 * vertexCount];
+		for (int i = 0; i < xy.length; i++)
+			xy[i] = 1000 * random.nextDouble();
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoints(xy, null, null, vertexCount);
+		return multiPoint;
+	}
+
+	private static String read(String fileName) throws IOException {
+		File file = new File(dataDirectory(), fileName);
+		return new String(Files.readAllBytes(file.toPath()),
+				Charset.forName("UTF-8"));
+	}
+
+	private static File dataDirectory() throws IOException {
+		String property = System.getProperty("geometry.data");
+		if (property != null)
+			return new File(property);
+
+		String[] candidates = { "data", "../data" };
+		for (String candidate : candidates) {
+			File directory = new File(candidate);
+			if (new File(directory, "INTERSTATE10_102009_POLYLINE_GEOMETRY2.TXT")
+					.exists())
+				return directory;
+		}
+
+		throw new IOException(
+				"The data directory was not found. Set the geometry.data system property.");
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options, and writes the
+ * results as JSON to benchmark-results.json unless -rf or -rff say
+ * otherwise. Keep the files of two commits to compare them.
+ */
+public final class BenchmarkMain {
+	private BenchmarkMain() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions options = new CommandLineOptions(args);
+		if (options.shouldHelp() || options.shouldList()
+				|| options.shouldListWithParams()
+				|| options.shouldListProfilers()
+				|| options.shouldListResultFormats()) {
+			Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+		if (!options.getResultFormat().hasValue())
+			builder.resultFormat(ResultFormatType.JSON);
+		if (!options.getResult().hasValue())
+			builder.result("benchmark-results.json");
+
+		new Runner(builder.build()).run();
+	}
+}
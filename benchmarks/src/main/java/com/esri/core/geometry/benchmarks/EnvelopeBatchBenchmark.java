@@ -0,0 +1,98 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.EnvelopeBatch;
+
+/**
+ * Compares filtering envelopes against a query window one Envelope2D at a
+ * time with the bulk test of EnvelopeBatch on the same data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnvelopeBatchBenchmark {
+	@Param({ "1000", "100000" })
+	public int count;
+
+	private Envelope2D[] m_envelopes;
+	private EnvelopeBatch m_batch;
+	private Envelope2D m_query;
+	private BitSet m_result;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(1);
+		m_envelopes = new Envelope2D[count];
+		m_batch = new EnvelopeBatch(count);
+		for (int i = 0; i < count; i++) {
+			double x = random.nextDouble() * 1000;
+			double y = random.nextDouble() * 1000;
+			m_envelopes[i] = new Envelope2D(x, y, x + 5, y + 5);
+			m_batch.add(m_envelopes[i]);
+		}
+
+		m_query = new Envelope2D(400, 400, 600, 600);
+		m_result = new BitSet(count);
+	}
+
+	@Benchmark
+	public BitSet envelope2DArray() {
+		m_result.clear();
+		for (int i = 0; i < m_envelopes.length; i++) {
+			if (m_envelopes[i].isIntersecting(m_query))
+				m_result.set(i);
+		}
+
+		return m_result;
+	}
+
+	@Benchmark
+	public BitSet envelopeBatch() {
+		m_result.clear();
+		m_batch.intersects(m_query, m_result);
+		return m_result;
+	}
+}
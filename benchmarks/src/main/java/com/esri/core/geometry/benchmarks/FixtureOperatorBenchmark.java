@@ -0,0 +1,89 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Operator;
+import com.esri.core.geometry.SpatialReference;
+
+/**
+ * Measures every implemented operator on the fixtures of the data
+ * directory: the Interstate 10 polyline and the points of the AK
+ * multipoints. Select the operators with -p operator=Union,Relate.
+ * Offset is not defined for points, so it is not in the default sweep. Run
+ * it on the polyline with -p operator=Offset -p dataset=INTERSTATE10.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FixtureOperatorBenchmark {
+	@Param({ BenchmarkData.INTERSTATE10, BenchmarkData.AK_MULTIPOINTS })
+	public String dataset;
+
+	@Param({ "ExportToJson", "ImportFromJson", "ExportToESRIShape",
+			"ImportFromESRIShape", "ExportToWkb", "ImportFromWkb", "ExportToWkt",
+			"ImportFromWkt", "ExportToGeoJson", "ImportFromGeoJson",
+			"ExportToGeoArrow", "ImportFromGeoArrow", "Union", "Difference",
+			"SymmetricDifference", "Intersection", "Proximity2D", "Centroid2D",
+			"Relate", "Equals", "Disjoint", "Intersects", "Within", "Contains",
+			"Crosses", "Touches", "Overlaps", "Buffer", "Distance", "Clip", "Cut",
+			"DensifyByLength", "Simplify", "SimplifyOGC", "Generalize",
+			"ConvexHull", "Boundary" })
+	public String operator;
+
+	private OperatorWorkload m_workload;
+
+	@Setup
+	public void setup() throws IOException {
+		// both fixtures are in projected coordinate systems
+		m_workload = new OperatorWorkload(Operator.Type.valueOf(operator),
+				BenchmarkData.fixture(dataset),
+				SpatialReference.create(BenchmarkData.INTERSTATE10
+						.equals(dataset) ? 102009 : 3338));
+	}
+
+	@Benchmark
+	public Object execute() {
+		return m_workload.execute();
+	}
+}
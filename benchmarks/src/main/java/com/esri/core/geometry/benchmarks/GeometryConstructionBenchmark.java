@@ -0,0 +1,146 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Point2D;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.Polyline;
+
+/**
+ * Measures the construction of geometries, which calls Geometry._touch on
+ * every vertex, from one thread and from all available threads. Each thread
+ * builds its own geometries, so the multi-threaded score shows whether the
+ * change tracking scales. Build the benchmark against the library before and
+ * after a change to compare the two.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryConstructionBenchmark {
+	@Param({ "16", "1024" })
+	public int pointCount;
+
+	@Benchmark
+	@Threads(1)
+	public Polyline polylineSingleThread() {
+		return buildPolyline();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Polyline polylineAllThreads() {
+		return buildPolyline();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Polygon polygonSingleThread() {
+		return buildPolygon();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Polygon polygonAllThreads() {
+		return buildPolygon();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public int setXYSingleThread(ThreadGeometry state) {
+		return state.moveVertices();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public int setXYAllThreads(ThreadGeometry state) {
+		return state.moveVertices();
+	}
+
+	private Polyline buildPolyline() {
+		Polyline polyline = new Polyline();
+		polyline.startPath(0, 0);
+		for (int i = 1; i < pointCount; i++)
+			polyline.lineTo(i, i & 1);
+
+		return polyline;
+	}
+
+	private Polygon buildPolygon() {
+		Polygon polygon = new Polygon();
+		double step = 2 * Math.PI / pointCount;
+		polygon.startPath(1, 0);
+		for (int i = 1; i < pointCount; i++)
+			polygon.lineTo(Math.cos(-i * step), Math.sin(-i * step));
+
+		polygon.closeAllPaths();
+		return polygon;
+	}
+
+	/**
+	 * A polyline owned by one benchmark thread. Moving its vertices touches
+	 * the geometry without allocating.
+	 */
+	@State(Scope.Thread)
+	public static class ThreadGeometry {
+		Polyline m_polyline;
+		Point2D m_pt = new Point2D();
+		int m_round;
+
+		@Setup
+		public void setup(GeometryConstructionBenchmark benchmark) {
+			m_polyline = benchmark.buildPolyline();
+		}
+
+		int moveVertices() {
+			m_round++;
+			int n = m_polyline.getPointCount();
+			for (int i = 0; i < n; i++) {
+				m_pt.setCoords(i, m_round);
+				m_polyline.setXY(i, m_pt);
+			}
+
+			return m_polyline.getStateFlag();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Point2D;
+import com.esri.core.geometry.Polyline;
+import com.esri.core.geometry.Segment;
+import com.esri.core.geometry.SegmentIterator;
+import com.esri.core.geometry.SegmentVisitor;
+
+/**
+ * Computes the sum of the heading changes of a long polyline with a
+ * SegmentIterator and with a SegmentVisitor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeometryVisitorBenchmark {
+	private Polyline m_polyline;
+
+	@Setup
+	public void setUp() {
+		m_polyline = new Polyline();
+		m_polyline.startPath(0, 0);
+		for (int i = 1; i < 100000; i++)
+			m_polyline.lineTo(i, (i * 7919) % 13);
+	}
+
+	@Benchmark
+	public double segmentIterator() {
+		double sum = 0;
+		double heading = Double.NaN;
+		SegmentIterator iter = m_polyline.querySegmentIterator();
+		while (iter.nextPath()) {
+			while (iter.hasNextSegment()) {
+				Segment segment = iter.nextSegment();
+				Point2D start = segment.getStartXY();
+				Point2D end = segment.getEndXY();
+				double h = Math.atan2(end.y - start.y, end.x - start.x);
+				if (!Double.isNaN(heading))
+					sum += Math.abs(h - heading);
+				heading = h;
+			}
+		}
+
+		return sum;
+	}
+
+	@Benchmark
+	public double segmentVisitor() {
+		HeadingChange visitor = new HeadingChange();
+		m_polyline.visitSegments(visitor);
+		return visitor.sum;
+	}
+
+	private static final class HeadingChange extends SegmentVisitor {
+		double sum;
+		double heading = Double.NaN;
+
+		@Override
+		public boolean visit(int pathIndex, int startPointIndex, double x1,
+				double y1, double x2, double y2) {
+			double h = Math.atan2(y2 - y1, x2 - x1);
+			if (!Double.isNaN(heading))
+				sum += Math.abs(h - heading);
+			heading = h;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.GeoArrowBuffers;
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.GeometryCursor;
+import com.esri.core.geometry.MultiPath;
+import com.esri.core.geometry.Operator;
+import com.esri.core.geometry.OperatorBoundary;
+import com.esri.core.geometry.OperatorBuffer;
+import com.esri.core.geometry.OperatorCentroid2D;
+import com.esri.core.geometry.OperatorClip;
+import com.esri.core.geometry.OperatorConvexHull;
+import com.esri.core.geometry.OperatorCut;
+import com.esri.core.geometry.OperatorDensifyByLength;
+import com.esri.core.geometry.OperatorDifference;
+import com.esri.core.geometry.OperatorDistance;
+import com.esri.core.geometry.OperatorExportToESRIShape;
+import com.esri.core.geometry.OperatorExportToGeoArrow;
+import com.esri.core.geometry.OperatorExportToGeoJson;
+import com.esri.core.geometry.OperatorExportToJson;
+import com.esri.core.geometry.OperatorExportToWkb;
+import com.esri.core.geometry.OperatorExportToWkt;
+import com.esri.core.geometry.OperatorFactoryLocal;
+import com.esri.core.geometry.OperatorGeneralize;
+import com.esri.core.geometry.OperatorImportFromESRIShape;
+import com.esri.core.geometry.OperatorImportFromGeoArrow;
+import com.esri.core.geometry.OperatorImportFromGeoJson;
+import com.esri.core.geometry.OperatorImportFromJson;
+import com.esri.core.geometry.OperatorImportFromWkb;
+import com.esri.core.geometry.OperatorImportFromWkt;
+import com.esri.core.geometry.OperatorIntersection;
+import com.esri.core.geometry.OperatorOffset;
+import com.esri.core.geometry.OperatorProximity2D;
+import com.esri.core.geometry.OperatorRelate;
+import com.esri.core.geometry.OperatorSimpleRelation;
+import com.esri.core.geometry.OperatorSimplify;
+import com.esri.core.geometry.OperatorSimplifyOGC;
+import com.esri.core.geometry.OperatorSymmetricDifference;
+import com.esri.core.geometry.OperatorUnion;
+import com.esri.core.geometry.Point;
+import com.esri.core.geometry.Polyline;
+import com.esri.core.geometry.SimpleGeometryCursor;
+import com.esri.core.geometry.SpatialReference;
+import com.esri.core.geometry.Transformation2D;
+
+/**
+ * One call of an operator on a prepared input. The binary operators take
+ * the geometry and a copy of it shifted by a tenth of its width. The
+ * distances and tolerances of the other operators are relative to the size
+ * of the geometry, so the work grows with the vertex count and not with the
+ * coordinate range. The import operators read the geometry exported in
+ * their format, which is prepared once.
+ *
+ * Project, GeodesicBuffer, GeodeticDensifyByLength, ShapePreservingDensify,
+ * GeodeticLength and GeodeticArea are registered but not implemented, so
+ * they are not benchmarked. Offset is not defined for points.
+ */
+public final class OperatorWorkload {
+	private final Operator.Type m_type;
+	private final Geometry m_geometry;
+	private final Geometry m_other;
+	private final SpatialReference m_sr;
+	private final double m_size;
+	private final Envelope2D m_envelope;
+	private Object m_input;
+
+	public OperatorWorkload(Operator.Type type, Geometry geometry,
+			SpatialReference sr) {
+		if (!OperatorFactoryLocal.getInstance().isOperatorSupported(type))
+			throw new IllegalArgumentException(type.name());
+		if (type == Operator.Type.Offset && geometry.getDimension() == 0)
+			throw new IllegalArgumentException("Offset needs lines or areas");
+
+		m_type = type;
+		m_geometry = geometry;
+		m_sr = sr;
+		m_envelope = new Envelope2D();
+		geometry.queryEnvelope2D(m_envelope);
+		m_size = Math.max(m_envelope.getWidth(), m_envelope.getHeight());
+
+		Transformation2D shift = new Transformation2D();
+		shift.setShift(m_size / 10, m_size / 10);
+		m_other = geometry.copy();
+		m_other.applyTransformation(shift);
+
+		m_input = prepareInput_();
+	}
+
+	/**
+	 * Runs the operator once and returns the result for the Blackhole.
+	 */
+	public Object execute() {
+		switch (m_type) {
+		case ExportToJson:
+			return OperatorExportToJson.local().execute(m_sr, m_geometry);
+		case ImportFromJson:
+			return OperatorImportFromJson.local().execute(
+					Geometry.Type.Unknown, (String) m_input);
+		case ExportToESRIShape:
+			return OperatorExportToESRIShape.local().execute(0, m_geometry);
+		case ImportFromESRIShape:
+			return OperatorImportFromESRIShape.local().execute(0,
+					Geometry.Type.Unknown, (ByteBuffer) m_input);
+		case ExportToWkb:
+			return OperatorExportToWkb.local().execute(0, m_geometry, null);
+		case ImportFromWkb:
+			return OperatorImportFromWkb.local().execute(0,
+					Geometry.Type.Unknown, (ByteBuffer) m_input, null);
+		case ExportToWkt:
+			return OperatorExportToWkt.local().execute(0, m_geometry, null);
+		case ImportFromWkt:
+			return OperatorImportFromWkt.local().execute(0,
+					Geometry.Type.Unknown, (String) m_input, null);
+		case ExportToGeoJson:
+			return OperatorExportToGeoJson.local().execute(m_geometry);
+		case ImportFromGeoJson:
+			return OperatorImportFromGeoJson.local().execute(0,
+					Geometry.Type.Unknown, (String) m_input, null);
+		case ExportToGeoArrow:
+			return OperatorExportToGeoArrow.local().execute(
+					geoArrowEncoding_(), false, false,
+					new SimpleGeometryCursor(m_geometry), null);
+		case ImportFromGeoArrow:
+			return OperatorImportFromGeoArrow.local()
+					.execute((GeoArrowBuffers) m_input, null).next();
+		case Union:
+			return OperatorUnion.local().execute(m_geometry, m_other, m_sr,
+					null);
+		case Difference:
+			return OperatorDifference.local().execute(m_geometry, m_other,
+					m_sr, null);
+		case SymmetricDifference:
+			return OperatorSymmetricDifference.local().execute(m_geometry,
+					m_other, m_sr, null);
+		case Intersection:
+			return OperatorIntersection.local().execute(m_geometry, m_other,
+					m_sr, null);
+		case Proximity2D:
+			return OperatorProximity2D.local().getNearestCoordinate(
+					m_geometry, (Point) m_input, false);
+		case Centroid2D:
+			return OperatorCentroid2D.local().execute(m_geometry, null);
+		case Relate:
+			return OperatorRelate.local().execute(m_geometry, m_other, m_sr,
+					"T*F**F***", null);
+		case Equals:
+		case Disjoint:
+		case Intersects:
+		case Within:
+		case Contains:
+		case Crosses:
+		case Touches:
+		case Overlaps:
+			return ((OperatorSimpleRelation) OperatorFactoryLocal
+					.getInstance().getOperator(m_type)).execute(m_geometry,
+					m_other, m_sr, null);
+		case Buffer:
+			return OperatorBuffer.local().execute(m_geometry, m_sr,
+					m_size / 100, null);
+		case Distance:
+			return OperatorDistance.local().execute(m_geometry, m_other, null);
+		case Clip:
+			return OperatorClip.local().execute(m_geometry,
+					(Envelope2D) m_input, m_sr, null);
+		case Cut:
+			return OperatorCut.local().execute(false, m_geometry,
+					(Polyline) m_input, m_sr, null).next();
+		case DensifyByLength:
+			return OperatorDensifyByLength.local().execute(m_geometry,
+					(Double) m_input, null);
+		case Simplify:
+			return OperatorSimplify.local().execute(m_geometry, m_sr, true,
+					null);
+		case SimplifyOGC:
+			return OperatorSimplifyOGC.local().execute(m_geometry, m_sr, true,
+					null);
+		case Offset:
+			return OperatorOffset.local().execute(m_geometry, m_sr,
+					m_size / 100, OperatorOffset.JoinType.Round, 4,
+					m_size / 10000, null);
+		case Generalize:
+			return OperatorGeneralize.local().execute(m_geometry,
+					m_size / 1000, false, null);
+		case ConvexHull:
+			return OperatorConvexHull.local().execute(m_geometry, null);
+		case Boundary:
+			return OperatorBoundary.local().execute(m_geometry, null);
+		default:
+			throw new IllegalArgumentException(m_type.name());
+		}
+	}
+
+	private Object prepareInput_() {
+		switch (m_type) {
+		case ImportFromJson:
+			return OperatorExportToJson.local().execute(m_sr, m_geometry);
+		case ImportFromESRIShape:
+			return OperatorExportToESRIShape.local().execute(0, m_geometry);
+		case ImportFromWkb:
+			return OperatorExportToWkb.local().execute(0, m_geometry, null);
+		case ImportFromWkt:
+			return OperatorExportToWkt.local().execute(0, m_geometry, null);
+		case ImportFromGeoJson:
+			return OperatorExportToGeoJson.local().execute(m_geometry);
+		case ImportFromGeoArrow:
+			return OperatorExportToGeoArrow.local().execute(
+					geoArrowEncoding_(), false, false,
+					new SimpleGeometryCursor(m_geometry), null);
+		case Proximity2D:
+			return new Point(m_envelope.getCenterX(), m_envelope.getCenterY());
+		case Clip:
+			Envelope2D clipper = new Envelope2D();
+			clipper.setCoords(m_envelope);
+			clipper.inflate(-m_envelope.getWidth() / 4,
+					-m_envelope.getHeight() / 4);
+			return clipper;
+		case Cut:
+			// a vertical line through the middle
+			return new Polyline(new Point(m_envelope.getCenterX(),
+					m_envelope.ymin - 1), new Point(m_envelope.getCenterX(),
+					m_envelope.ymax + 1));
+		case DensifyByLength:
+			// about twice as many vertices
+			if (!(m_geometry instanceof MultiPath))
+				return m_size;
+
+			MultiPath multiPath = (MultiPath) m_geometry;
+			return multiPath.calculateLength2D()
+					/ Math.max(multiPath.getPointCount(), 1) / 2;
+		default:
+			return null;
+		}
+	}
+
+	private GeoArrowBuffers.Encoding geoArrowEncoding_() {
+		switch (m_geometry.getType()) {
+		case Polygon:
+			return GeoArrowBuffers.Encoding.MultiPolygon;
+		case Polyline:
+			return GeoArrowBuffers.Encoding.MultiLineString;
+		case MultiPoint:
+			return GeoArrowBuffers.Encoding.MultiPoint;
+		default:
+			return GeoArrowBuffers.Encoding.Point;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Operator;
+
+/**
+ * Measures every implemented operator on synthetic geometries from 10 to
+ * 10^7 vertices, to show how the operators scale. The whole sweep takes
+ * many hours; narrow it with -p, for example
+ * -p operator=Union -p shape=Polygon -p vertexCount=1000,100000.
+ * The large inputs need a large heap, pass -jvmArgs -Xmx8g. The shape can
+ * also be any of SyntheticGeometryGenerator.Shape, for example
+ * -p shape=PolygonWithHoles,RoadNetwork.
+ * Offset is not defined for points, so it is not in the default sweep. Run
+ * it with -p operator=Offset -p shape=Polygon,Polyline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SyntheticOperatorBenchmark {
+	@Param({ "Polygon", "Polyline", "MultiPoint" })
+	public String shape;
+
+	@Param({ "10", "100", "1000", "10000", "100000", "1000000", "10000000" })
+	public int vertexCount;
+
+	@Param({ "ExportToJson", "ImportFromJson", "ExportToESRIShape",
+			"ImportFromESRIShape", "ExportToWkb", "ImportFromWkb", "ExportToWkt",
+			"ImportFromWkt", "ExportToGeoJson", "ImportFromGeoJson",
+			"ExportToGeoArrow", "ImportFromGeoArrow", "Union", "Difference",
+			"SymmetricDifference", "Intersection", "Proximity2D", "Centroid2D",
+			"Relate", "Equals", "Disjoint", "Intersects", "Within", "Contains",
+			"Crosses", "Touches", "Overlaps", "Buffer", "Distance", "Clip", "Cut",
+			"DensifyByLength", "Simplify", "SimplifyOGC", "Generalize",
+			"ConvexHull", "Boundary" })
+	public String operator;
+
+	private OperatorWorkload m_workload;
+
+	@Setup
+	public void setup() {
+		m_workload = new OperatorWorkload(Operator.Type.valueOf(operator),
+				BenchmarkData.synthetic(shape, vertexCount), null);
+	}
+
+	@Benchmark
+	public Object execute() {
+		return m_workload.execute();
+	}
+}
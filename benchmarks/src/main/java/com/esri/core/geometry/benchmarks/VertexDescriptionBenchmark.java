@@ -0,0 +1,96 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Polyline;
+import com.esri.core.geometry.VertexDescription;
+
+/**
+ * Measures the creation of small polylines with M and ID values. Each new
+ * geometry looks up its vertex description, which used to take a lock shared
+ * by all threads for any description other than XY and XYZ. Compare the
+ * single-threaded score with the per-thread score on all threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VertexDescriptionBenchmark {
+
+	@Benchmark
+	@Threads(1)
+	public Polyline polylineXYMSingleThread() {
+		return buildPolyline(false);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Polyline polylineXYMAllThreads() {
+		return buildPolyline(false);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Polyline polylineXYMIDSingleThread() {
+		return buildPolyline(true);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Polyline polylineXYMIDAllThreads() {
+		return buildPolyline(true);
+	}
+
+	private static Polyline buildPolyline(boolean withID) {
+		Polyline polyline = new Polyline();
+		polyline.addAttribute(VertexDescription.Semantics.M);
+		if (withID)
+			polyline.addAttribute(VertexDescription.Semantics.ID);
+
+		polyline.startPath(0, 0);
+		polyline.lineTo(1, 1);
+		polyline.lineTo(2, 0);
+		for (int i = 0; i < 3; i++)
+			polyline.setAttribute(VertexDescription.Semantics.M, i, 0, i);
+
+		return polyline;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ Copyright 1995-2018 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esri.core.geometry.Envelope;
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.GeometryEngine;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.WorkingMemory;
+
+/**
+ * Runs union and simplify with and without the reuse of the working memory.
+ * Run with -prof gc to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkingMemoryBenchmark {
+	@Param({ "0", "16777216" })
+	public long threadLimit;
+
+	@Param({ "100", "10000" })
+	public int pointCount;
+
+	private Polygon m_star;
+	private Envelope m_envelope;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		WorkingMemory.setThreadLimit(threadLimit);
+		m_star = new Polygon();
+		m_star.startPath(0, 10);
+		for (int i = 1; i < pointCount; i++) {
+			double angle = i * 4 * Math.PI / pointCount;
+			double r = i % 2 == 0 ? 10 : 3;
+			m_star.lineTo(r * Math.sin(angle), r * Math.cos(angle));
+		}
+
+		m_envelope = new Envelope(-2, -2, 12, 2);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		WorkingMemory.setThreadLimit(0);
+		WorkingMemory.releaseThreadMemory();
+	}
+
+	@Benchmark
+	public Geometry union() {
+		return GeometryEngine.union(new Geometry[] { m_star, m_envelope },
+				null);
+	}
+
+	@Benchmark
+	public Geometry simplify() {
+		return GeometryEngine.simplify(m_star, null);
+	}
+}
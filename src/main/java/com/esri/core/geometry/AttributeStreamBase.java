@@ -26,6 +26,8 @@
 package com.esri.core.geometry;
 
 import com.esri.core.geometry.VertexDescription.Persistence;
+
+import java.io.File;
 import java.nio.ByteBuffer;
 
 /**
@@ -365,6 +367,21 @@ abstract class AttributeStreamBase {
 		return m_bLockedInSize;
 	}
 
+	/**
+	 * Returns true if the stream keeps the elements outside of the java heap.
+	 */
+	boolean isDirect() {
+		return false;
+	}
+
+	/**
+	 * Frees the memory of a direct stream immediately, instead of waiting for
+	 * the garbage collector. The stream cannot be used after this call. Does
+	 * nothing for the heap streams.
+	 */
+	void release() {
+	}
+
 	/**
 	 * Creates a new attribute stream of given persistence type and size.
 	 * 
@@ -458,6 +475,42 @@ abstract class AttributeStreamBase {
 				* ncomps, VertexDescription.getDefaultValue(semantics));
 	}
 
+	/**
+	 * Creates a new attribute stream for the given semantics and vertex count
+	 * that keeps the elements outside of the java heap.
+	 * 
+	 * @param semantics
+	 *            The semantics of the attribute (see VertexDescription).
+	 * @param vertexCount
+	 *            The number of vertices in the geometry.
+	 * @param directory
+	 *            The directory for the memory mapped file backing the stream.
+	 *            Can be null, then the stream uses a direct ByteBuffer.
+	 */
+	static AttributeStreamBase createDirectAttributeStreamWithSemantics(
+			int semantics, int vertexCount, File directory) {
+		int size = vertexCount * VertexDescription.getComponentCount(semantics);
+		double defaultValue = VertexDescription.getDefaultValue(semantics);
+		AttributeStreamBase newStream;
+		switch (VertexDescription.getPersistence(semantics)) {
+		case (Persistence.enumFloat):
+			newStream = new AttributeStreamOfFloatDirect(directory, size,
+					defaultValue);
+			break;
+		case (Persistence.enumDouble):
+			newStream = new AttributeStreamOfDblDirect(directory, size,
+					defaultValue);
+			break;
+		case (Persistence.enumInt32):
+			newStream = new AttributeStreamOfInt32Direct(directory, size,
+					defaultValue);
+			break;
+		default:
+			throw new GeometryException("Internal Error");
+		}
+		return newStream;
+	}
+
 	/**
 	 * Creates a new attribute stream for storing vertex indices.
 	 * 
@@ -34,7 +34,7 @@ import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
 import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_INT32;
 import static com.esri.core.geometry.SizeOf.sizeOfDoubleArray;
 
-final class AttributeStreamOfDbl extends AttributeStreamBase {
+class AttributeStreamOfDbl extends AttributeStreamBase {
 
 	private double[] m_buffer = null;
 	private int m_size;
@@ -81,8 +81,7 @@ final class AttributeStreamOfDbl extends AttributeStreamBase {
 	}
 
 	public AttributeStreamOfDbl(AttributeStreamOfDbl other) {
-		m_buffer = other.m_buffer.clone();
-		m_size = other.m_size;
+		this(other, other.size());
 	}
 
 	public AttributeStreamOfDbl(AttributeStreamOfDbl other, int maxSize) {
@@ -93,7 +92,48 @@ final class AttributeStreamOfDbl extends AttributeStreamBase {
 		if (sz < 2)
 			sz = 2;
 		m_buffer = new double[sz];
-		System.arraycopy(other.m_buffer, 0, m_buffer, 0, m_size);
+		other.copyToArray(0, m_buffer, 0, m_size, true, 1);
+	}
+
+	/**
+	 * Used by the direct stream, which does not have the array.
+	 */
+	AttributeStreamOfDbl() {
+	}
+
+	/**
+	 * Copies count elements starting at srcStart to the array.
+	 * 
+	 * @param bForward
+	 *            When False, the elements are copied in reversed order.
+	 * @param stride
+	 *            The number of elements not to be reversed when copying in
+	 *            reversed order.
+	 */
+	void copyToArray(int srcStart, double[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			System.arraycopy(m_buffer, srcStart, dst, dstStart, count);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+
+			for (int s = 0; s < stride; s++) {
+				dst[dstStart + i + s] = m_buffer[srcStart + n + s];
+			}
+		}
+	}
+
+	/**
+	 * Returns the array that holds the elements, or null when the stream does
+	 * not keep them in a java array (direct and compact streams). The array
+	 * can be longer than the stream and is replaced when the stream grows.
+	 */
+	double[] getHeapArray() {
+		return m_buffer;
 	}
 
 	/**
@@ -371,21 +411,8 @@ final class AttributeStreamOfDbl extends AttributeStreamBase {
 		int newSize = oldSize + count;
 		resize(newSize);
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfDbl) src).m_buffer, start,
-					m_buffer, oldSize, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[oldSize + i + s] = ((AttributeStreamOfDbl) src).m_buffer[start
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfDbl) src).copyToArray(start, m_buffer, oldSize,
+				count, bForward, stride);
 	}
 
 	// public void addRange(AttributeStreamBase src, int start,
@@ -435,21 +462,8 @@ final class AttributeStreamOfDbl extends AttributeStreamBase {
 				srcStart += count;
 		}
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfDbl) src).m_buffer, srcStart,
-					m_buffer, start, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[start + i + s] = ((AttributeStreamOfDbl) src).m_buffer[srcStart
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfDbl) src).copyToArray(srcStart, m_buffer, start,
+				count, bForward, stride);
 	}
 
 	@Override
@@ -688,33 +702,8 @@ final class AttributeStreamOfDbl extends AttributeStreamBase {
 			return;
 		}
 
-		if (bForward) {
-			int j = startElement;
-			int offset = srcStart;
-			for (int i = 0; i < count; i++) {
-				m_buffer[j] = src.m_buffer[offset];
-				j++;
-				offset++;
-			}
-		} else {
-			int j = startElement;
-			int offset = srcStart + count - stride;
-			if (stride == 1) {
-				for (int i = 0; i < count; i++) {
-					m_buffer[j] = src.m_buffer[offset];
-					j++;
-					offset--;
-				}
-			} else {
-				for (int i = 0, n = count / stride; i < n; i++) {
-					for (int k = 0; k < stride; k++)
-						m_buffer[j + k] = src.m_buffer[offset + k];
-
-					j += stride;
-					offset -= stride;
-				}
-			}
-		}
+		src.copyToArray(srcStart, m_buffer, startElement, count, bForward,
+				stride);
 	}
 
 	private void _selfWriteRangeImpl(int toElement, int count, int fromElement,
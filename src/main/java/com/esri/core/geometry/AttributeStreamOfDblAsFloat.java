@@ -0,0 +1,95 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+package com.esri.core.geometry;
+
+import java.util.Arrays;
+
+import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+import static com.esri.core.geometry.SizeOf.sizeOfFloatArray;
+
+/**
+ * AttributeStreamOfDbl that keeps the elements as floats. Every value written
+ * is rounded to the nearest float. Used for PositionStorage.singlePrecision.
+ */
+final class AttributeStreamOfDblAsFloat extends AttributeStreamOfDblStorage {
+	private float[] m_buffer;
+
+	public AttributeStreamOfDblAsFloat(int size, double defaultValue) {
+		m_buffer = new float[Math.max(size, 2)];
+		m_size = size;
+		if (defaultValue != 0)
+			Arrays.fill(m_buffer, 0, size, (float) defaultValue);
+	}
+
+	/**
+	 * Creates a copy of the first maxSize elements of the stream, rounded to
+	 * floats.
+	 */
+	public AttributeStreamOfDblAsFloat(AttributeStreamOfDbl other, int maxSize) {
+		this(Math.min(other.size(), maxSize), 0);
+		copyFrom_(0, other, 0, m_size, true, 1);
+	}
+
+	@Override
+	public int capacity() {
+		return m_buffer.length;
+	}
+
+	@Override
+	public double read(int offset) {
+		return m_buffer[offset];
+	}
+
+	@Override
+	void put_(int offset, double value) {
+		m_buffer[offset] = (float) value;
+	}
+
+	@Override
+	void setCapacity_(int capacity) {
+		m_buffer = Arrays.copyOf(m_buffer, capacity);
+	}
+
+	@Override
+	void fill_(int start, int end, double value) {
+		Arrays.fill(m_buffer, start, end, (float) value);
+	}
+
+	@Override
+	void move_(int from, int to, int count) {
+		if (count > 0)
+			System.arraycopy(m_buffer, from, m_buffer, to, count);
+	}
+
+	@Override
+	public AttributeStreamBase restrictedClone(int maxsize) {
+		return new AttributeStreamOfDblAsFloat(this, maxsize);
+	}
+
+	@Override
+	public long estimateMemorySize() {
+		return SIZE_OF_ATTRIBUTE_STREAM_OF_DBL
+				+ sizeOfFloatArray(m_buffer.length);
+	}
+}
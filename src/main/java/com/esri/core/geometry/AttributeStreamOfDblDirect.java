@@ -0,0 +1,216 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+
+/**
+ * AttributeStreamOfDbl that keeps the elements outside of the java heap, in a
+ * direct ByteBuffer or in a memory mapped file. Call release to free the
+ * memory without waiting for the garbage collector.
+ */
+final class AttributeStreamOfDblDirect extends AttributeStreamOfDblStorage {
+	private static final int ELEMENT_SIZE = 8;
+
+	private OffHeapBuffer m_memory;
+	private DoubleBuffer m_view;
+
+	/**
+	 * Creates a stream of the given size in direct memory.
+	 */
+	public AttributeStreamOfDblDirect(int size, double defaultValue) {
+		this(null, size, defaultValue);
+	}
+
+	/**
+	 * Creates a stream of the given size. When the directory is not null, the
+	 * stream is backed by a memory mapped temporary file in the directory.
+	 */
+	public AttributeStreamOfDblDirect(File directory, int size,
+			double defaultValue) {
+		super();
+		long bytes = (long) Math.max(size, 2) * ELEMENT_SIZE;
+		m_memory = directory != null ? new OffHeapBuffer(directory, bytes)
+				: new OffHeapBuffer(bytes);
+		m_view = m_memory.getBytes().asDoubleBuffer();
+		m_size = size;
+		setRange(defaultValue, 0, size);
+	}
+
+	/**
+	 * Creates a direct copy of the first maxSize elements of the stream.
+	 */
+	public AttributeStreamOfDblDirect(AttributeStreamOfDbl other, int maxSize) {
+		this(null, Math.min(other.size(), maxSize), 0);
+		writeRange(0, m_size, other, 0, true, 1);
+	}
+
+	@Override
+	boolean isDirect() {
+		return true;
+	}
+
+	/**
+	 * Frees the memory. The stream cannot be used after this call.
+	 */
+	@Override
+	void release() {
+		if (m_memory != null) {
+			m_memory.release();
+			m_memory = null;
+		}
+
+		m_view = null;
+		m_size = 0;
+	}
+
+	boolean isMapped() {
+		return m_memory != null && m_memory.isMapped();
+	}
+
+	/**
+	 * Returns a view of count elements starting at the start element. The view
+	 * shares the memory with the stream. It is invalidated when the stream is
+	 * resized or released.
+	 */
+	DoubleBuffer getRangeView(int start, int count) {
+		if (start < 0 || count < 0 || start + count > m_size)
+			throw new IllegalArgumentException();
+
+		DoubleBuffer view = m_view.duplicate();
+		view.position(start);
+		view.limit(start + count);
+		return view.slice();
+	}
+
+	/**
+	 * Returns a view of the bytes of count elements starting at the start
+	 * element. See getRangeView.
+	 */
+	ByteBuffer getRangeBytes(int start, int count) {
+		if (start < 0 || count < 0 || start + count > m_size)
+			throw new IllegalArgumentException();
+
+		ByteBuffer view = m_memory.getBytes().duplicate();
+		view.position(start * ELEMENT_SIZE);
+		view.limit((start + count) * ELEMENT_SIZE);
+		return view.slice().order(m_memory.getBytes().order());
+	}
+
+	@Override
+	void copyToArray(int srcStart, double[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			DoubleBuffer view = m_view.duplicate();
+			view.position(srcStart);
+			view.get(dst, dstStart, count);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++)
+				dst[dstStart + i + s] = m_view.get(srcStart + n + s);
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return m_view != null ? m_view.capacity() : 0;
+	}
+
+	@Override
+	public double read(int offset) {
+		return m_view.get(offset);
+	}
+
+	@Override
+	void put_(int offset, double value) {
+		m_view.put(offset, value);
+	}
+
+	@Override
+	void setCapacity_(int capacity) {
+		m_memory.resize((long) capacity * ELEMENT_SIZE,
+				Math.min(m_size, capacity) * ELEMENT_SIZE);
+		m_view = m_memory.getBytes().asDoubleBuffer();
+	}
+
+	@Override
+	boolean canShrink_() {
+		// the file keeps its size, so there is nothing to gain
+		return !m_memory.isMapped();
+	}
+
+	@Override
+	public AttributeStreamBase restrictedClone(int maxsize) {
+		return new AttributeStreamOfDblDirect(this, maxsize);
+	}
+
+	@Override
+	public long estimateMemorySize() {
+		// only the java heap part of the stream
+		return SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+	}
+
+	@Override
+	void copyFrom_(int start, AttributeStreamOfDbl src, int srcStart,
+			int count, boolean bForward, int stride) {
+		if (bForward && src != this && src.isDirect()) {
+			DoubleBuffer from = ((AttributeStreamOfDblDirect) src).m_view
+					.duplicate();
+			from.position(srcStart);
+			from.limit(srcStart + count);
+			DoubleBuffer to = m_view.duplicate();
+			to.position(start);
+			to.put(from);
+			return;
+		}
+
+		super.copyFrom_(start, src, srcStart, count, bForward, stride);
+	}
+
+	@Override
+	public void writeRange(int streamOffset, int count, double[] src,
+			int arrayOffset, boolean bForward) {
+		if (!bForward || streamOffset < 0 || count < 0 || arrayOffset < 0
+				|| src.length < arrayOffset + count) {
+			super.writeRange(streamOffset, count, src, arrayOffset, bForward);
+			return;
+		}
+
+		if (size() < count + streamOffset)
+			resize(count + streamOffset);
+
+		DoubleBuffer to = m_view.duplicate();
+		to.position(streamOffset);
+		to.put(src, arrayOffset, count);
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+package com.esri.core.geometry;
+
+import java.util.Arrays;
+
+import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+import static com.esri.core.geometry.SizeOf.sizeOfIntArray;
+
+/**
+ * AttributeStreamOfDbl of xy pairs that keeps each ordinate as an integer
+ * number of resolution units from the origin. Even elements are x, odd
+ * elements are y. Every value written is snapped to the grid. Used for
+ * PositionStorage.quantized.
+ */
+final class AttributeStreamOfDblQuantized extends AttributeStreamOfDblStorage {
+	// NaN is stored as the smallest integer, which is excluded from the grid.
+	private static final int NAN_VALUE = Integer.MIN_VALUE;
+
+	private final PositionStorage m_storage;
+	private final double m_originX;
+	private final double m_originY;
+	private final double m_resolution;
+	private int[] m_buffer;
+
+	public AttributeStreamOfDblQuantized(PositionStorage storage, int size) {
+		m_storage = storage;
+		m_originX = storage.getOriginX();
+		m_originY = storage.getOriginY();
+		m_resolution = storage.getResolution();
+		m_buffer = new int[Math.max(size, 2)];
+		m_size = size;
+	}
+
+	/**
+	 * Creates a copy of the first maxSize elements of the stream, snapped to
+	 * the grid of the storage.
+	 */
+	public AttributeStreamOfDblQuantized(PositionStorage storage,
+			AttributeStreamOfDbl other, int maxSize) {
+		this(storage, Math.min(other.size(), maxSize));
+		copyFrom_(0, other, 0, m_size, true, 1);
+	}
+
+	PositionStorage getStorage() {
+		return m_storage;
+	}
+
+	@Override
+	public int capacity() {
+		return m_buffer.length;
+	}
+
+	@Override
+	public double read(int offset) {
+		int q = m_buffer[offset];
+		if (q == NAN_VALUE)
+			return NumberUtils.NaN();
+
+		return ((offset & 1) == 0 ? m_originX : m_originY) + q * m_resolution;
+	}
+
+	@Override
+	void put_(int offset, double value) {
+		m_buffer[offset] = quantize_(offset, value);
+	}
+
+	private int quantize_(int offset, double value) {
+		int q = quantizeOrNaN_(offset, value);
+		if (q == NAN_VALUE && !NumberUtils.isNaN(value))
+			throw new GeometryException(
+					"invalid argument. The coordinate is outside of the quantization grid.");
+
+		return q;
+	}
+
+	// Returns NAN_VALUE for NaN and for values outside of the grid.
+	private int quantizeOrNaN_(int offset, double value) {
+		double q = Math.rint((value - ((offset & 1) == 0 ? m_originX
+				: m_originY)) / m_resolution);
+		if (!(q > NAN_VALUE && q <= Integer.MAX_VALUE))
+			return NAN_VALUE;
+
+		return (int) q;
+	}
+
+	@Override
+	void setCapacity_(int capacity) {
+		m_buffer = Arrays.copyOf(m_buffer, capacity);
+	}
+
+	@Override
+	void fill_(int start, int end, double value) {
+		if (start >= end)
+			return;
+
+		// The streams are filled with the default value when they grow. The
+		// default may be off the grid, so it is stored as NaN then.
+		int q0 = quantizeOrNaN_(start, value);
+		int q1 = quantizeOrNaN_(start + 1, value);
+		for (int i = start; i < end; i++)
+			m_buffer[i] = ((i - start) & 1) == 0 ? q0 : q1;
+	}
+
+	@Override
+	void move_(int from, int to, int count) {
+		if (count > 0)
+			System.arraycopy(m_buffer, from, m_buffer, to, count);
+	}
+
+	@Override
+	void copyFrom_(int start, AttributeStreamOfDbl src, int srcStart,
+			int count, boolean bForward, int stride) {
+		if (src instanceof AttributeStreamOfDblQuantized
+				&& ((AttributeStreamOfDblQuantized) src).m_storage
+						.equals(m_storage) && ((start ^ srcStart) & 1) == 0
+				&& (bForward || (stride & 1) == 0)) {
+			// same grid, the integers can be copied as is
+			int[] srcBuffer = ((AttributeStreamOfDblQuantized) src).m_buffer;
+			if (bForward) {
+				System.arraycopy(srcBuffer, srcStart, m_buffer, start, count);
+				return;
+			}
+
+			int n = count;
+			for (int i = 0; i < count; i += stride) {
+				n -= stride;
+				System.arraycopy(srcBuffer, srcStart + n, m_buffer, start + i,
+						stride);
+			}
+			return;
+		}
+
+		super.copyFrom_(start, src, srcStart, count, bForward, stride);
+	}
+
+	@Override
+	public AttributeStreamBase restrictedClone(int maxsize) {
+		return new AttributeStreamOfDblQuantized(m_storage, this, maxsize);
+	}
+
+	@Override
+	public long estimateMemorySize() {
+		return SIZE_OF_ATTRIBUTE_STREAM_OF_DBL
+				+ sizeOfIntArray(m_buffer.length);
+	}
+}
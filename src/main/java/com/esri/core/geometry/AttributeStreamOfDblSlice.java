@@ -0,0 +1,113 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.nio.DoubleBuffer;
+
+import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+
+/**
+ * Readonly AttributeStreamOfDbl over a range of a double array or of a
+ * DoubleBuffer that belongs to someone else, such as the GeometryBatch. The
+ * elements are not copied. The stream cannot grow; restrictedClone returns a
+ * regular stream, so a Geometry copied from a view gets its own coordinates
+ * when it is changed.
+ */
+final class AttributeStreamOfDblSlice extends AttributeStreamOfDblStorage {
+	private final DoubleBuffer m_buffer;
+	private final int m_offset;
+
+	public AttributeStreamOfDblSlice(double[] array, int offset, int size) {
+		this(DoubleBuffer.wrap(array), offset, size);
+	}
+
+	/**
+	 * Creates a slice of the buffer starting at the absolute index offset. The
+	 * position and limit of the buffer are ignored.
+	 */
+	public AttributeStreamOfDblSlice(DoubleBuffer buffer, int offset, int size) {
+		if (offset < 0 || size < 0 || offset + size > buffer.capacity())
+			throw new IllegalArgumentException();
+
+		m_buffer = buffer;
+		m_offset = offset;
+		m_size = size;
+		setReadonly();
+	}
+
+	@Override
+	public int capacity() {
+		return m_size;
+	}
+
+	@Override
+	public double read(int offset) {
+		if (offset >= m_size)
+			throw new IndexOutOfBoundsException();
+
+		return m_buffer.get(m_offset + offset);
+	}
+
+	@Override
+	void put_(int offset, double value) {
+		throw new GeometryException("invalid_call");
+	}
+
+	@Override
+	void setCapacity_(int capacity) {
+		throw new GeometryException("invalid_call");
+	}
+
+	@Override
+	boolean canShrink_() {
+		return false;
+	}
+
+	@Override
+	void copyToArray(int srcStart, double[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			DoubleBuffer view = m_buffer.duplicate();
+			view.limit(view.capacity());
+			view.position(m_offset + srcStart);
+			view.get(dst, dstStart, count);
+			return;
+		}
+
+		super.copyToArray(srcStart, dst, dstStart, count, bForward, stride);
+	}
+
+	@Override
+	public AttributeStreamBase restrictedClone(int maxsize) {
+		return new AttributeStreamOfDbl(this, maxsize);
+	}
+
+	@Override
+	public long estimateMemorySize() {
+		// the elements belong to the owner of the slice
+		return SIZE_OF_ATTRIBUTE_STREAM_OF_DBL;
+	}
+}
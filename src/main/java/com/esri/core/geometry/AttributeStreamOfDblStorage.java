@@ -0,0 +1,523 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Base for the AttributeStreamOfDbl implementations that do not keep the
+ * elements in a double array. The subclasses provide the element access and
+ * the allocation, this class implements the rest of the stream on top of it.
+ */
+abstract class AttributeStreamOfDblStorage extends AttributeStreamOfDbl {
+	private static final int ELEMENT_SIZE = 8;
+
+	protected int m_size;
+
+	/**
+	 * Returns false if the storage should not be reallocated when the stream
+	 * shrinks.
+	 */
+	boolean canShrink_() {
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return m_size;
+	}
+
+	@Override
+	public void reserve(int reserve) {
+		if (reserve <= capacity())
+			return;
+
+		setCapacity_(reserve);
+	}
+
+	@Override
+	public abstract double read(int offset);
+
+	/**
+	 * Writes the element without checking for the readonly flag.
+	 */
+	abstract void put_(int offset, double value);
+
+	@Override
+	public abstract int capacity();
+
+	/**
+	 * Reallocates the storage for the given number of elements. Preserves the
+	 * elements up to the current size.
+	 */
+	abstract void setCapacity_(int capacity);
+
+	@Override
+	void copyToArray(int srcStart, double[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			for (int i = 0; i < count; i++)
+				dst[dstStart + i] = read(srcStart + i);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++)
+				dst[dstStart + i + s] = read(srcStart + n + s);
+		}
+	}
+
+	@Override
+	public double get(int offset) {
+		return read(offset);
+	}
+
+	@Override
+	public void write(int offset, double value) {
+		if (m_bReadonly) {
+			throw new RuntimeException("invalid_call");
+		}
+		put_(offset, value);
+	}
+
+	@Override
+	public void set(int offset, double value) {
+		write(offset, value);
+	}
+
+	@Override
+	public void read(int offset, Point2D outPoint) {
+		outPoint.x = read(offset);
+		outPoint.y = read(offset + 1);
+	}
+
+	@Override
+	void write(int offset, Point2D point) {
+		if (m_bReadonly) {
+			throw new RuntimeException("invalid_call");
+		}
+		put_(offset, point.x);
+		put_(offset + 1, point.y);
+	}
+
+	@Override
+	public void add(double v) {
+		resize(m_size + 1);
+		put_(m_size - 1, v);
+	}
+
+	@Override
+	public void resize(int newSize) {
+		if (m_bLockedInSize)
+			throw new GeometryException(
+					"invalid call. Attribute Stream is locked and cannot be resized.");
+
+		int capacity = capacity();
+		if (newSize <= m_size) {
+			if ((newSize * 5) / 4 < capacity && canShrink_())
+				setCapacity_(Math.max(newSize, 2));
+		} else if (newSize > capacity) {
+			setCapacity_((newSize < 64) ? Math.max(newSize * 2, 4)
+					: (newSize * 5) / 4);
+		}
+
+		m_size = newSize;
+	}
+
+	@Override
+	public void resizePreserveCapacity(int newSize) {
+		if (newSize > capacity())
+			resize(newSize);
+		if (m_bLockedInSize)
+			throw new GeometryException(
+					"invalid call. Attribute Stream is locked and cannot be resized.");
+
+		m_size = newSize;
+	}
+
+	@Override
+	public void resize(int newSize, double defaultValue) {
+		int oldSize = m_size;
+		resize(newSize);
+		if (newSize > oldSize)
+			fill_(oldSize, newSize, defaultValue);
+	}
+
+	void fill_(int start, int end, double value) {
+		for (int i = start; i < end; i++)
+			put_(i, value);
+	}
+
+	// Moves count elements within the stream. The ranges may overlap.
+	void move_(int from, int to, int count) {
+		if (from == to || count <= 0)
+			return;
+
+		if (to < from) {
+			for (int i = 0; i < count; i++)
+				put_(to + i, read(from + i));
+		} else {
+			for (int i = count - 1; i >= 0; i--)
+				put_(to + i, read(from + i));
+		}
+	}
+
+	// Writes count elements of src starting at srcStart to this stream.
+	void copyFrom_(int start, AttributeStreamOfDbl src, int srcStart,
+			int count, boolean bForward, int stride) {
+		if (bForward) {
+			if (src == this) {
+				move_(srcStart, start, count);
+			} else {
+				for (int i = 0; i < count; i++)
+					put_(start + i, src.read(srcStart + i));
+			}
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++)
+				put_(start + i + s, src.read(srcStart + n + s));
+		}
+	}
+
+	@Override
+	public void addRange(AttributeStreamBase src, int start, int count,
+			boolean bForward, int stride) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (!bForward && (stride < 1 || count % stride != 0))
+			throw new IllegalArgumentException();
+
+		int oldSize = m_size;
+		resize(oldSize + count);
+		copyFrom_(oldSize, (AttributeStreamOfDbl) src, start, count,
+				bForward, stride);
+	}
+
+	@Override
+	public void insertRange(int start, AttributeStreamBase src, int srcStart,
+			int count, boolean bForward, int stride, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (!bForward && (stride < 1 || count % stride != 0))
+			throw new IllegalArgumentException();
+
+		int excess_space = m_size - validSize;
+		if (excess_space < count)
+			resize(m_size + count - excess_space);
+
+		move_(start, start + count, validSize - start);
+		if (src == this && start < srcStart)
+			srcStart += count;
+
+		copyFrom_(start, (AttributeStreamOfDbl) src, srcStart, count,
+				bForward, stride);
+	}
+
+	@Override
+	public void insertRange(int start, double value, int count, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		move_(start, start + count, validSize - start);
+		fill_(start, start + count, value);
+	}
+
+	@Override
+	public void insertAttributes(int start, Point pt, int semantics,
+			int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		int comp = VertexDescription.getComponentCount(semantics);
+		move_(start, start + comp, validSize - start);
+		for (int c = 0; c < comp; c++)
+			put_(start + c, pt.getAttributeAsDbl(semantics, c));
+	}
+
+	@Override
+	public void insert(int index, Point2D point, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		move_(index, index + 2, validSize - index);
+		put_(index, point.x);
+		put_(index + 1, point.y);
+	}
+
+	@Override
+	public void writeRange(int streamOffset, int count, double[][] src,
+			int arrayOffset, boolean bForward) {
+		if (streamOffset < 0 || count < 0 || arrayOffset < 0)
+			throw new IllegalArgumentException();
+
+		if (src.length * 2 < (arrayOffset << 1) + count)
+			throw new IllegalArgumentException();
+		if (count == 0)
+			return;
+
+		if (size() < count + streamOffset)
+			resize(count + streamOffset);
+
+		int j = streamOffset;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 2 : -2;
+		int end = arrayOffset + (count >> 1);
+		for (int i = arrayOffset; i < end; i++) {
+			put_(j, src[i][0]);
+			put_(j + 1, src[i][1]);
+			j += dj;
+		}
+	}
+
+	@Override
+	public void writeRange(int streamOffset, int count, double[] src,
+			int arrayOffset, boolean bForward) {
+		if (streamOffset < 0 || count < 0 || arrayOffset < 0)
+			throw new IllegalArgumentException();
+
+		if (src.length < arrayOffset + count)
+			throw new IllegalArgumentException();
+		if (count == 0)
+			return;
+
+		if (size() < count + streamOffset)
+			resize(count + streamOffset);
+
+		if (bForward) {
+			for (int i = 0; i < count; i++)
+				put_(streamOffset + i, src[arrayOffset + i]);
+		} else {
+			int j = streamOffset + count - 1;
+			for (int i = arrayOffset, end = arrayOffset + count; i < end; i++)
+				put_(j--, src[i]);
+		}
+	}
+
+	@Override
+	public void readRange(int streamOffset, int count, double[][] dst,
+			int arrayOffset, boolean bForward) {
+		if (streamOffset < 0 || count < 0 || arrayOffset < 0
+				|| size() < count + streamOffset)
+			throw new IllegalArgumentException();
+
+		if (dst.length * 2 < (arrayOffset << 1) + count)
+			throw new IllegalArgumentException();
+
+		int j = streamOffset;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 2 : -2;
+		int end = arrayOffset + (count >> 1);
+		for (int i = arrayOffset; i < end; i++) {
+			dst[i][0] = read(j);
+			dst[i][1] = read(j + 1);
+			j += dj;
+		}
+	}
+
+	@Override
+	public void eraseRange(int index, int count, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (index + count > m_size)
+			throw new GeometryException("invalid_call");
+
+		move_(index + count, index, validSize - (index + count));
+		m_size -= count;
+	}
+
+	@Override
+	public void readRange(int srcStart, int count, ByteBuffer dst,
+			int dstOffset, boolean bForward) {
+		if (srcStart < 0 || count < 0 || dstOffset < 0
+				|| size() < count + srcStart)
+			throw new IllegalArgumentException();
+
+		if (dst.capacity() < dstOffset + ELEMENT_SIZE * count)
+			throw new IllegalArgumentException();
+
+		int j = srcStart;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 1 : -1;
+		int offset = dstOffset;
+		for (int i = 0; i < count; i++, offset += ELEMENT_SIZE) {
+			dst.putDouble(offset, read(j));
+			j += dj;
+		}
+	}
+
+	@Override
+	public void reverseRange(int index, int count, int stride) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (stride < 1 || count % stride != 0)
+			throw new GeometryException("invalid_call");
+
+		int cIterations = count >> 1;
+		int n = count;
+		for (int i = 0; i < cIterations; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++) {
+				double temp = read(index + i + s);
+				put_(index + i + s, read(index + n + s));
+				put_(index + n + s, temp);
+			}
+		}
+	}
+
+	@Override
+	public void setRange(double value, int start, int count) {
+		if (start < 0 || count < 0 || count + start > size())
+			throw new IllegalArgumentException();
+
+		fill_(start, start + count, value);
+	}
+
+	@Override
+	public void writeRange(int startElement, int count,
+			AttributeStreamBase _src, int srcStart, boolean bForward, int stride) {
+		if (startElement < 0 || count < 0 || srcStart < 0)
+			throw new IllegalArgumentException();
+
+		if (!bForward && (stride <= 0 || (count % stride != 0)))
+			throw new IllegalArgumentException();
+
+		AttributeStreamOfDbl src = (AttributeStreamOfDbl) _src;
+		if (src.size() < srcStart + count)
+			throw new IllegalArgumentException();
+
+		if (count == 0)
+			return;
+
+		if (size() < count + startElement)
+			resize(count + startElement);
+
+		if (_src == (AttributeStreamBase) this) {
+			move_(srcStart, startElement, count);
+			if (!bForward)
+				reverseRange(startElement, count, stride);
+			return;
+		}
+
+		if (bForward) {
+			copyFrom_(startElement, src, srcStart, count, true, 1);
+		} else {
+			int j = startElement;
+			int offset = srcStart + count - stride;
+			for (int i = 0, n = count / stride; i < n; i++) {
+				for (int k = 0; k < stride; k++)
+					put_(j + k, src.read(offset + k));
+
+				j += stride;
+				offset -= stride;
+			}
+		}
+	}
+
+	@Override
+	public void writeRange(int startElement, int count, ByteBuffer src,
+			int offsetBytes, boolean bForward) {
+		if (startElement < 0 || count < 0 || offsetBytes < 0)
+			throw new IllegalArgumentException();
+
+		if (src.capacity() < offsetBytes + ELEMENT_SIZE * count)
+			throw new IllegalArgumentException();
+
+		if (count == 0)
+			return;
+
+		if (size() < count + startElement)
+			resize(count + startElement);
+
+		int j = startElement;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 1 : -1;
+		int offset = offsetBytes;
+		for (int i = 0; i < count; i++, offset += ELEMENT_SIZE) {
+			put_(j, src.getDouble(offset));
+			j += dj;
+		}
+	}
+
+	@Override
+	public void writeRange(int streamOffset, int pointCount, Point2D[] src,
+			int arrayOffset, boolean bForward) {
+		if (streamOffset < 0 || pointCount < 0 || arrayOffset < 0)
+			throw new IllegalArgumentException();
+
+		if (pointCount == 0)
+			return;
+
+		if (size() < (pointCount << 1) + streamOffset)
+			resize((pointCount << 1) + streamOffset);
+
+		int j = streamOffset;
+		if (!bForward)
+			j += (pointCount - 1) << 1;
+
+		final int dj = bForward ? 2 : -2;
+		for (int i = arrayOffset, end = arrayOffset + pointCount; i < end; i++) {
+			put_(j, src[i].x);
+			put_(j + 1, src[i].y);
+			j += dj;
+		}
+	}
+
+	@Override
+	public void readRange(int srcStart, int count, double[] dst, int dstOffset,
+			boolean bForward) {
+		if (srcStart < 0 || count < 0 || dstOffset < 0
+				|| size() < count + srcStart)
+			throw new IllegalArgumentException();
+
+		copyToArray(srcStart, dst, dstOffset, count, bForward, 1);
+	}
+
+	@Override
+	public void sort(int start, int end) {
+		double[] values = new double[end - start];
+		copyToArray(start, values, 0, values.length, true, 1);
+		Arrays.sort(values);
+		writeRange(start, values.length, values, 0, true);
+	}
+}
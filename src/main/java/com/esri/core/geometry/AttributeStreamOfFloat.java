@@ -32,7 +32,7 @@ import java.nio.ByteBuffer;
 import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_FLOAT;
 import static com.esri.core.geometry.SizeOf.sizeOfFloatArray;
 
-final class AttributeStreamOfFloat extends AttributeStreamBase {
+class AttributeStreamOfFloat extends AttributeStreamBase {
 	private float[] m_buffer = null;
 	private int m_size;
 
@@ -79,8 +79,7 @@ final class AttributeStreamOfFloat extends AttributeStreamBase {
 	}
 
 	public AttributeStreamOfFloat(AttributeStreamOfFloat other) {
-		m_buffer = other.m_buffer.clone();
-		m_size = other.m_size;
+		this(other, other.size());
 	}
 
 	public AttributeStreamOfFloat(AttributeStreamOfFloat other, int maxSize) {
@@ -91,7 +90,39 @@ final class AttributeStreamOfFloat extends AttributeStreamBase {
 		if (sz < 2)
 			sz = 2;
 		m_buffer = new float[sz];
-		System.arraycopy(other.m_buffer, 0, m_buffer, 0, m_size);
+		other.copyToArray(0, m_buffer, 0, m_size, true, 1);
+	}
+
+	/**
+	 * Used by the direct stream, which does not have the array.
+	 */
+	AttributeStreamOfFloat() {
+	}
+
+	/**
+	 * Copies count elements starting at srcStart to the array.
+	 * 
+	 * @param bForward
+	 *            When False, the elements are copied in reversed order.
+	 * @param stride
+	 *            The number of elements not to be reversed when copying in
+	 *            reversed order.
+	 */
+	void copyToArray(int srcStart, float[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			System.arraycopy(m_buffer, srcStart, dst, dstStart, count);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+
+			for (int s = 0; s < stride; s++) {
+				dst[dstStart + i + s] = m_buffer[srcStart + n + s];
+			}
+		}
 	}
 
 	/**
@@ -326,21 +357,8 @@ final class AttributeStreamOfFloat extends AttributeStreamBase {
 		int newSize = oldSize + count;
 		resize(newSize);
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfFloat) src).m_buffer, start,
-					m_buffer, oldSize, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[oldSize + i + s] = ((AttributeStreamOfFloat) src).m_buffer[start
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfFloat) src).copyToArray(start, m_buffer, oldSize,
+				count, bForward, stride);
 	}
 
 	@Override
@@ -360,21 +378,8 @@ final class AttributeStreamOfFloat extends AttributeStreamBase {
 				srcStart += count;
 		}
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfFloat) src).m_buffer, srcStart,
-					m_buffer, start, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[start + i + s] = ((AttributeStreamOfFloat) src).m_buffer[srcStart
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfFloat) src).copyToArray(srcStart, m_buffer, start,
+				count, bForward, stride);
 	}
 
 	@Override
@@ -508,33 +513,8 @@ final class AttributeStreamOfFloat extends AttributeStreamBase {
 			return;
 		}
 
-		if (bForward) {
-			int j = startElement;
-			int offset = srcStart;
-			for (int i = 0; i < count; i++) {
-				m_buffer[j] = src.m_buffer[offset];
-				j++;
-				offset++;
-			}
-		} else {
-			int j = startElement;
-			int offset = srcStart + count - stride;
-			if (stride == 1) {
-				for (int i = 0; i < count; i++) {
-					m_buffer[j] = src.m_buffer[offset];
-					j++;
-					offset--;
-				}
-			} else {
-				for (int i = 0, n = count / stride; i < n; i++) {
-					for (int k = 0; k < stride; k++)
-						m_buffer[j + k] = src.m_buffer[offset + k];
-
-					j += stride;
-					offset -= stride;
-				}
-			}
-		}
+		src.copyToArray(srcStart, m_buffer, startElement, count, bForward,
+				stride);
 	}
 
 	private void _selfWriteRangeImpl(int toElement, int count, int fromElement,
@@ -37,7 +37,7 @@ import java.util.Arrays;
 import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_INT32;
 import static com.esri.core.geometry.SizeOf.sizeOfIntArray;
 
-final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serializable {
+class AttributeStreamOfInt32 extends AttributeStreamBase implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	transient private int[] m_buffer = null;
@@ -87,8 +87,7 @@ final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serial
 	}
 
 	public AttributeStreamOfInt32(AttributeStreamOfInt32 other) {
-		m_buffer = other.m_buffer.clone();
-		m_size = other.m_size;
+		this(other, other.size());
 	}
 
 	public AttributeStreamOfInt32(AttributeStreamOfInt32 other, int maxSize) {
@@ -99,7 +98,39 @@ final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serial
 		if (sz < 2)
 			sz = 2;
 		m_buffer = new int[sz];
-		System.arraycopy(other.m_buffer, 0, m_buffer, 0, m_size);
+		other.copyToArray(0, m_buffer, 0, m_size, true, 1);
+	}
+
+	/**
+	 * Used by the direct stream, which does not have the array.
+	 */
+	AttributeStreamOfInt32() {
+	}
+
+	/**
+	 * Copies count elements starting at srcStart to the array.
+	 * 
+	 * @param bForward
+	 *            When False, the elements are copied in reversed order.
+	 * @param stride
+	 *            The number of elements not to be reversed when copying in
+	 *            reversed order.
+	 */
+	void copyToArray(int srcStart, int[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			System.arraycopy(m_buffer, srcStart, dst, dstStart, count);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+
+			for (int s = 0; s < stride; s++) {
+				dst[dstStart + i + s] = m_buffer[srcStart + n + s];
+			}
+		}
 	}
 
 	/**
@@ -370,21 +401,8 @@ final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serial
 		int newSize = oldSize + count;
 		resize(newSize);
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfInt32) src).m_buffer, start,
-					m_buffer, oldSize, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[oldSize + i + s] = ((AttributeStreamOfInt32) src).m_buffer[start
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfInt32) src).copyToArray(start, m_buffer, oldSize,
+				count, bForward, stride);
 	}
 
 	@Override
@@ -404,21 +422,8 @@ final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serial
 				srcStart += count;
 		}
 
-		if (bForward) {
-			System.arraycopy(((AttributeStreamOfInt32) src).m_buffer, srcStart,
-					m_buffer, start, count);
-		} else {
-			int n = count;
-
-			for (int i = 0; i < count; i += stride) {
-				n -= stride;
-
-				for (int s = 0; s < stride; s++) {
-					m_buffer[start + i + s] = ((AttributeStreamOfInt32) src).m_buffer[srcStart
-							+ n + s];
-				}
-			}
-		}
+		((AttributeStreamOfInt32) src).copyToArray(srcStart, m_buffer, start,
+				count, bForward, stride);
 	}
 
 	@Override
@@ -552,36 +557,8 @@ final class AttributeStreamOfInt32 extends AttributeStreamBase implements Serial
 			return;
 		}
 
-		if (bForward) {
-			System.arraycopy(src.m_buffer, srcStart, m_buffer, startElement,
-					count);
-			// int j = startElement;
-			// int offset = srcStart;
-			// for (int i = 0; i < count; i++)
-			// {
-			// m_buffer[j] = src.m_buffer[offset];
-			// j++;
-			// offset++;
-			// }
-		} else {
-			int j = startElement;
-			int offset = srcStart + count - stride;
-			if (stride == 1) {
-				for (int i = 0; i < count; i++) {
-					m_buffer[j] = src.m_buffer[offset];
-					j++;
-					offset--;
-				}
-			} else {
-				for (int i = 0, n = count / stride; i < n; i++) {
-					for (int k = 0; k < stride; k++)
-						m_buffer[j + k] = src.m_buffer[offset + k];
-
-					j += stride;
-					offset -= stride;
-				}
-			}
-		}
+		src.copyToArray(srcStart, m_buffer, startElement, count, bForward,
+				stride);
 	}
 
 	private void _selfWriteRangeImpl(int toElement, int count, int fromElement,
@@ -0,0 +1,545 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.File;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static com.esri.core.geometry.SizeOf.SIZE_OF_ATTRIBUTE_STREAM_OF_INT32;
+
+/**
+ * AttributeStreamOfInt32 that keeps the elements outside of the java heap, in a
+ * direct ByteBuffer or in a memory mapped file. Call release to free the
+ * memory without waiting for the garbage collector.
+ */
+final class AttributeStreamOfInt32Direct extends AttributeStreamOfInt32 {
+	private static final long serialVersionUID = 1L;
+	private static final int ELEMENT_SIZE = 4;
+
+	private OffHeapBuffer m_memory;
+	private IntBuffer m_view;
+	private int m_size;
+
+	/**
+	 * Creates a stream of the given size in direct memory.
+	 */
+	public AttributeStreamOfInt32Direct(int size, double defaultValue) {
+		this(null, size, defaultValue);
+	}
+
+	/**
+	 * Creates a stream of the given size. When the directory is not null, the
+	 * stream is backed by a memory mapped temporary file in the directory.
+	 */
+	public AttributeStreamOfInt32Direct(File directory, int size,
+			double defaultValue) {
+		super();
+		long bytes = (long) Math.max(size, 2) * ELEMENT_SIZE;
+		m_memory = directory != null ? new OffHeapBuffer(directory, bytes)
+				: new OffHeapBuffer(bytes);
+		m_view = m_memory.getBytes().asIntBuffer();
+		m_size = size;
+		setRange(defaultValue, 0, size);
+	}
+
+	/**
+	 * Creates a direct copy of the first maxSize elements of the stream.
+	 */
+	public AttributeStreamOfInt32Direct(AttributeStreamOfInt32 other, int maxSize) {
+		this(null, Math.min(other.size(), maxSize), 0);
+		writeRange(0, m_size, other, 0, true, 1);
+	}
+
+	@Override
+	boolean isDirect() {
+		return true;
+	}
+
+	/**
+	 * Frees the memory. The stream cannot be used after this call.
+	 */
+	@Override
+	void release() {
+		if (m_memory != null) {
+			m_memory.release();
+			m_memory = null;
+		}
+
+		m_view = null;
+		m_size = 0;
+	}
+
+	boolean isMapped() {
+		return m_memory != null && m_memory.isMapped();
+	}
+
+	/**
+	 * Returns a view of count elements starting at the start element. The view
+	 * shares the memory with the stream. It is invalidated when the stream is
+	 * resized or released.
+	 */
+	IntBuffer getRangeView(int start, int count) {
+		if (start < 0 || count < 0 || start + count > m_size)
+			throw new IllegalArgumentException();
+
+		IntBuffer view = m_view.duplicate();
+		view.position(start);
+		view.limit(start + count);
+		return view.slice();
+	}
+
+	/**
+	 * Returns a view of the bytes of count elements starting at the start
+	 * element. See getRangeView.
+	 */
+	ByteBuffer getRangeBytes(int start, int count) {
+		if (start < 0 || count < 0 || start + count > m_size)
+			throw new IllegalArgumentException();
+
+		ByteBuffer view = m_memory.getBytes().duplicate();
+		view.position(start * ELEMENT_SIZE);
+		view.limit((start + count) * ELEMENT_SIZE);
+		return view.slice().order(m_memory.getBytes().order());
+	}
+
+	@Override
+	void copyToArray(int srcStart, int[] dst, int dstStart, int count,
+			boolean bForward, int stride) {
+		if (bForward) {
+			IntBuffer view = m_view.duplicate();
+			view.position(srcStart);
+			view.get(dst, dstStart, count);
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++)
+				dst[dstStart + i + s] = m_view.get(srcStart + n + s);
+		}
+	}
+
+	@Override
+	public int size() {
+		return m_size;
+	}
+
+	@Override
+	public void reserve(int reserve) {
+		if (reserve <= capacity())
+			return;
+
+		setCapacity_(reserve);
+	}
+
+	@Override
+	public int capacity() {
+		return m_view != null ? m_view.capacity() : 0;
+	}
+
+	@Override
+	public int read(int offset) {
+		return m_view.get(offset);
+	}
+
+	@Override
+	public int get(int offset) {
+		return m_view.get(offset);
+	}
+
+	@Override
+	public void write(int offset, int value) {
+		if (m_bReadonly) {
+			throw new RuntimeException("invalid_call");
+		}
+		m_view.put(offset, value);
+	}
+
+	@Override
+	public void set(int offset, int value) {
+		write(offset, value);
+	}
+
+	@Override
+	public void add(int v) {
+		resize(m_size + 1);
+		m_view.put(m_size - 1, v);
+	}
+
+	@Override
+	public AttributeStreamBase restrictedClone(int maxsize) {
+		return new AttributeStreamOfInt32Direct(this, maxsize);
+	}
+
+	@Override
+	public long estimateMemorySize() {
+		// only the java heap part of the stream
+		return SIZE_OF_ATTRIBUTE_STREAM_OF_INT32;
+	}
+
+	@Override
+	public void resize(int newSize) {
+		if (m_bLockedInSize)
+			throw new GeometryException(
+					"invalid call. Attribute Stream is locked and cannot be resized.");
+
+		int capacity = capacity();
+		if (newSize <= m_size) {
+			if ((newSize * 5) / 4 < capacity && !m_memory.isMapped())
+				setCapacity_(Math.max(newSize, 2));
+		} else if (newSize > capacity) {
+			setCapacity_((newSize < 64) ? Math.max(newSize * 2, 4)
+					: (newSize * 5) / 4);
+		}
+
+		m_size = newSize;
+	}
+
+	@Override
+	public void resizePreserveCapacity(int newSize) {
+		if (newSize > capacity())
+			resize(newSize);
+		if (m_bLockedInSize)
+			throw new GeometryException(
+					"invalid call. Attribute Stream is locked and cannot be resized.");
+
+		m_size = newSize;
+	}
+
+	@Override
+	public void resize(int newSize, double defaultValue) {
+		int oldSize = m_size;
+		resize(newSize);
+		if (newSize > oldSize)
+			fill_(oldSize, newSize, (int) defaultValue);
+	}
+
+	private void setCapacity_(int capacity) {
+		m_memory.resize((long) capacity * ELEMENT_SIZE,
+				Math.min(m_size, capacity) * ELEMENT_SIZE);
+		m_view = m_memory.getBytes().asIntBuffer();
+	}
+
+	private void fill_(int start, int end, int value) {
+		for (int i = start; i < end; i++)
+			m_view.put(i, value);
+	}
+
+	// Moves count elements within the stream. The ranges may overlap.
+	private void move_(int from, int to, int count) {
+		if (from == to || count <= 0)
+			return;
+
+		if (to < from) {
+			for (int i = 0; i < count; i++)
+				m_view.put(to + i, m_view.get(from + i));
+		} else {
+			for (int i = count - 1; i >= 0; i--)
+				m_view.put(to + i, m_view.get(from + i));
+		}
+	}
+
+	// Writes count elements of src starting at srcStart to this stream.
+	private void copyFrom_(int start, AttributeStreamOfInt32 src, int srcStart,
+			int count, boolean bForward, int stride) {
+		if (bForward) {
+			if (src == this) {
+				move_(srcStart, start, count);
+			} else if (src.isDirect()) {
+				IntBuffer from = ((AttributeStreamOfInt32Direct) src).m_view
+						.duplicate();
+				from.position(srcStart);
+				from.limit(srcStart + count);
+				IntBuffer to = m_view.duplicate();
+				to.position(start);
+				to.put(from);
+			} else {
+				for (int i = 0; i < count; i++)
+					m_view.put(start + i, src.read(srcStart + i));
+			}
+			return;
+		}
+
+		int n = count;
+		for (int i = 0; i < count; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++)
+				m_view.put(start + i + s, src.read(srcStart + n + s));
+		}
+	}
+
+	@Override
+	public void addRange(AttributeStreamBase src, int start, int count,
+			boolean bForward, int stride) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (!bForward && (stride < 1 || count % stride != 0))
+			throw new IllegalArgumentException();
+
+		int oldSize = m_size;
+		resize(oldSize + count);
+		copyFrom_(oldSize, (AttributeStreamOfInt32) src, start, count,
+				bForward, stride);
+	}
+
+	@Override
+	public void insertRange(int start, AttributeStreamBase src, int srcStart,
+			int count, boolean bForward, int stride, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (!bForward && (stride < 1 || count % stride != 0))
+			throw new IllegalArgumentException();
+
+		int excess_space = m_size - validSize;
+		if (excess_space < count)
+			resize(m_size + count - excess_space);
+
+		move_(start, start + count, validSize - start);
+		if (src == this && start < srcStart)
+			srcStart += count;
+
+		copyFrom_(start, (AttributeStreamOfInt32) src, srcStart, count,
+				bForward, stride);
+	}
+
+	@Override
+	public void insertRange(int start, double value, int count, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		move_(start, start + count, validSize - start);
+		fill_(start, start + count, (int) value);
+	}
+
+	@Override
+	public void insertAttributes(int start, Point pt, int semantics,
+			int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		int comp = VertexDescription.getComponentCount(semantics);
+		move_(start, start + comp, validSize - start);
+		for (int c = 0; c < comp; c++)
+			m_view.put(start + c, (int) pt.getAttributeAsDbl(semantics, c));
+	}
+
+	@Override
+	public void eraseRange(int index, int count, int validSize) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (index + count > m_size)
+			throw new GeometryException("invalid_call");
+
+		move_(index + count, index, validSize - (index + count));
+		m_size -= count;
+	}
+
+	@Override
+	public void readRange(int srcStart, int count, ByteBuffer dst,
+			int dstOffset, boolean bForward) {
+		if (srcStart < 0 || count < 0 || dstOffset < 0
+				|| size() < count + srcStart)
+			throw new IllegalArgumentException();
+
+		if (dst.capacity() < dstOffset + ELEMENT_SIZE * count)
+			throw new IllegalArgumentException();
+
+		int j = srcStart;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 1 : -1;
+		int offset = dstOffset;
+		for (int i = 0; i < count; i++, offset += ELEMENT_SIZE) {
+			dst.putInt(offset, m_view.get(j));
+			j += dj;
+		}
+	}
+
+	@Override
+	public void reverseRange(int index, int count, int stride) {
+		if (m_bReadonly)
+			throw new GeometryException("invalid_call");
+
+		if (stride < 1 || count % stride != 0)
+			throw new GeometryException("invalid_call");
+
+		int cIterations = count >> 1;
+		int n = count;
+		for (int i = 0; i < cIterations; i += stride) {
+			n -= stride;
+			for (int s = 0; s < stride; s++) {
+				int temp = m_view.get(index + i + s);
+				m_view.put(index + i + s, m_view.get(index + n + s));
+				m_view.put(index + n + s, temp);
+			}
+		}
+	}
+
+	@Override
+	public void setRange(double value, int start, int count) {
+		if (start < 0 || count < 0 || count + start > size())
+			throw new IllegalArgumentException();
+
+		fill_(start, start + count, (int) value);
+	}
+
+	@Override
+	public void writeRange(int startElement, int count,
+			AttributeStreamBase _src, int srcStart, boolean bForward, int stride) {
+		if (startElement < 0 || count < 0 || srcStart < 0)
+			throw new IllegalArgumentException();
+
+		if (!bForward && (stride <= 0 || (count % stride != 0)))
+			throw new IllegalArgumentException();
+
+		AttributeStreamOfInt32 src = (AttributeStreamOfInt32) _src;
+		if (src.size() < srcStart + count)
+			throw new IllegalArgumentException();
+
+		if (count == 0)
+			return;
+
+		if (size() < count + startElement)
+			resize(count + startElement);
+
+		if (_src == (AttributeStreamBase) this) {
+			move_(srcStart, startElement, count);
+			if (!bForward)
+				reverseRange(startElement, count, stride);
+			return;
+		}
+
+		if (bForward) {
+			copyFrom_(startElement, src, srcStart, count, true, 1);
+		} else {
+			int j = startElement;
+			int offset = srcStart + count - stride;
+			for (int i = 0, n = count / stride; i < n; i++) {
+				for (int k = 0; k < stride; k++)
+					m_view.put(j + k, src.read(offset + k));
+
+				j += stride;
+				offset -= stride;
+			}
+		}
+	}
+
+	@Override
+	public void writeRange(int startElement, int count, ByteBuffer src,
+			int offsetBytes, boolean bForward) {
+		if (startElement < 0 || count < 0 || offsetBytes < 0)
+			throw new IllegalArgumentException();
+
+		if (src.capacity() < offsetBytes + ELEMENT_SIZE * count)
+			throw new IllegalArgumentException();
+
+		if (count == 0)
+			return;
+
+		if (size() < count + startElement)
+			resize(count + startElement);
+
+		int j = startElement;
+		if (!bForward)
+			j += count - 1;
+
+		final int dj = bForward ? 1 : -1;
+		int offset = offsetBytes;
+		for (int i = 0; i < count; i++, offset += ELEMENT_SIZE) {
+			m_view.put(j, src.getInt(offset));
+			j += dj;
+		}
+	}
+
+	@Override
+	public int getLast() {
+		return m_view.get(m_size - 1);
+	}
+
+	@Override
+	public void setLast(int v) {
+		m_view.put(m_size - 1, v);
+	}
+
+	@Override
+	public void removeLast() {
+		resize(m_size - 1);
+	}
+
+	@Override
+	int findElement(int value) {
+		for (int i = 0, n = m_size; i < n; i++) {
+			if (m_view.get(i) == value)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	void popElement(int index) {
+		assert (index >= 0 && index < m_size);
+		if (index < m_size - 1)
+			m_view.put(index, m_view.get(m_size - 1));
+
+		resize(m_size - 1);
+	}
+
+	@Override
+	public void Sort(int start, int end, IntComparator compare) {
+		AttributeStreamOfInt32 values = new AttributeStreamOfInt32(this,
+				end);
+		values.Sort(start, end, compare);
+		writeRange(start, end - start, values, start, true, 1);
+	}
+
+	@Override
+	void swap(int left, int right) {
+		int tmp = m_view.get(right);
+		m_view.put(right, m_view.get(left));
+		m_view.put(left, tmp);
+	}
+
+	// Direct streams are serialized as heap streams.
+	private Object writeReplace() throws ObjectStreamException {
+		return new AttributeStreamOfInt32(this);
+	}
+
+	@Override
+	public void sort(int start, int end) {
+		int[] values = new int[end - start];
+		copyToArray(start, values, 0, values.length, true, 1);
+		Arrays.sort(values);
+		for (int i = 0; i < values.length; i++)
+			m_view.put(start + i, values[i]);
+	}
+}
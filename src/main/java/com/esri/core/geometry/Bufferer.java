@@ -959,12 +959,7 @@ class Bufferer {
 	}
 
 	private void progress_() {
-		m_progress_counter++;
-		if (m_progress_counter % 1024 == 0) {
-			if ((m_progress_tracker != null)
-					&& !(m_progress_tracker.progress(-1, -1)))
-				throw new RuntimeException("user_canceled");
-		}
+		ProgressTracker.checkAndThrow(m_progress_tracker, ++m_progress_counter);
 	}
 
 	private Polygon bufferCleanup_(MultiPath multi_path, boolean simplify_result) {
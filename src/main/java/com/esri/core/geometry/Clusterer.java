@@ -47,8 +47,14 @@ final class Clusterer {
 	// Uses non-reciprocal clustering (cluster any vertices that are closer than
 	// the tolerance in the first-found-first-clustered order)
 	static boolean executeNonReciprocal(EditShape shape, double tolerance) {
+		return executeNonReciprocal(shape, tolerance, null);
+	}
+
+	static boolean executeNonReciprocal(EditShape shape, double tolerance,
+			ProgressTracker progress_tracker) {
 		Clusterer clusterer = new Clusterer();
 		clusterer.m_shape = shape;
+		clusterer.m_progress_tracker = progress_tracker;
 		clusterer.m_tolerance = tolerance;
 		clusterer.m_sqr_tolerance = tolerance * tolerance;
 		clusterer.m_cell_size = 2 * tolerance;
@@ -66,6 +72,7 @@ final class Clusterer {
 	}
 
 	Point2D m_origin = new Point2D();
+	ProgressTracker m_progress_tracker;
 	double m_tolerance;
 	double m_sqr_tolerance;
 	double m_cell_size;
@@ -491,6 +498,7 @@ final class Clusterer {
 		{// scope for candidates array
 			AttributeStreamOfInt32 candidates = new AttributeStreamOfInt32(0);
 			candidates.reserve(10);
+			int counter = 0;
 
 			for (int geometry = m_shape.getFirstGeometry(); geometry != -1; geometry = m_shape
 					.getNextGeometry(geometry)) {
@@ -498,6 +506,7 @@ final class Clusterer {
 						.getNextPath(path)) {
 					int vertex = m_shape.getFirstVertex(path);
 					for (int index = 0, nindex = m_shape.getPathSize(path); index < nindex; index++) {
+						ProgressTracker.checkAndThrow(m_progress_tracker, ++counter);
 						if (m_shape.getUserIndex(vertex, m_new_clusters) == StridedIndexTypeCollection
 								.impossibleIndex2()) {
 							vertex = m_shape.getNextVertex(vertex);
@@ -70,7 +70,8 @@ final class CrackAndCluster {
 	}
 
 	private boolean _cluster(double toleranceCluster) {
-		boolean res = Clusterer.executeNonReciprocal(m_shape, toleranceCluster);
+		boolean res = Clusterer.executeNonReciprocal(m_shape, toleranceCluster,
+				m_progressTracker);
 		return res;
 	}
 
@@ -262,6 +262,7 @@ final class Cracker {
 
 	boolean planeSweep_() {
 		PlaneSweepCrackerHelper plane_sweep = new PlaneSweepCrackerHelper();
+		plane_sweep.m_progress_tracker = m_progress_tracker;
 		boolean b_cracked = plane_sweep.sweep(m_shape, m_tolerance);
 		return b_cracked;
 	}
@@ -298,7 +299,9 @@ final class Cracker {
 		Point2D cluster_pt = new Point2D();
 
 		// sweep-line algorithm:
+		int counter = 0;
 		for (int vertex = event_q.get(event_q_index++); vertex != -1;) {
+			ProgressTracker.checkAndThrow(m_progress_tracker, ++counter);
 			m_shape.getXY(vertex, cluster_pt);
 			
 			do {
@@ -500,11 +503,17 @@ final class Cracker {
 			b_cracked = cracker.crackBruteForce_();
 		} else {
 			boolean b_cracked_1 = cracker.crackerPlaneSweep_();
+			cracker.releaseMemory_();
 			return b_cracked_1;
 		}
 		return b_cracked;
 	}
 
+	private void releaseMemory_() {
+		if (m_sweep_structure != null)
+			m_sweep_structure.releaseMemory();
+	}
+
 	static boolean execute(EditShape shape, double tolerance,
 			ProgressTracker progress_tracker) {
 		return Cracker.execute(shape, shape.getEnvelope2D(), tolerance,
@@ -527,6 +536,8 @@ final class Cracker {
 			return true;
 		}
 
+		cracker.releaseMemory_();
+
 		// Now swap the coordinates to catch horizontal cases.
 		Transformation2D transform = new Transformation2D();
 		transform.setSwapCoordinates();
@@ -537,6 +548,7 @@ final class Cracker {
 		cracker.m_tolerance = tolerance;
 		cracker.m_bAllowCoincident = allowCoincident;
 		boolean b_res = cracker.needsCrackingImpl_();
+		cracker.releaseMemory_();
 
 		transform.setSwapCoordinates();
 		shape.applyTransformation(transform);// restore shape
@@ -162,7 +162,7 @@ class Cutter {
 
 		ArrayList<CutEvent> cutEvents = _getCutEvents(orderIndex, editShape);
 		_Cut(bConsiderTouch, false, cutEvents, editShape, cutPairs,
-				segmentCounts);
+				segmentCounts, progressTracker);
 		return editShape;
 	}
 
@@ -598,7 +598,7 @@ class Cutter {
 	static void _Cut(boolean bConsiderTouch, boolean bLocalCutsOnly,
 			ArrayList<CutEvent> cutEvents, EditShape shape,
 			ArrayList<OperatorCutLocal.CutPair> cutPairs,
-			AttributeStreamOfInt32 segmentCounts) {
+			AttributeStreamOfInt32 segmentCounts, ProgressTracker progressTracker) {
 		coverageHelper("0");
 		OperatorCutLocal.CutPair cutPair;
 
@@ -622,6 +622,7 @@ class Cutter {
 
 		Segment segmentCuttee = null;
 		int icutEvent = 0;
+		int counter = 0;
 		MultiPath multipath = null;
 
 		Line lineCuttee = new Line();
@@ -667,6 +668,7 @@ class Cutter {
 					.getPathSize(ipath), i = 0; i < n; ivertex = shape
 							.getNextVertex(ivertex), i++) {
 				coverageHelper("3");
+				ProgressTracker.checkAndThrow(progressTracker, ++counter);
 				segmentCuttee = shape.getSegment(ivertex);
 				if (segmentCuttee == null) {
 					coverageHelper("4");
@@ -0,0 +1,113 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ProgressTracker that cancels the operation when a time budget or a work
+ * budget is exhausted. The work is the amount reported by the operation
+ * through addWork, roughly the number of processed vertices.
+ * <p>
+ * The topological operations check the tracker at bounded intervals, so the
+ * operation throws soon after the budget runs out. The tracker can be shared
+ * by operations running on several threads, the budgets are then shared too.
+ */
+public class DeadlineProgressTracker extends ProgressTracker {
+	private final long m_startNanos;
+	private final long m_timeBudgetNanos;
+	private final long m_workBudget;
+	private final AtomicLong m_work = new AtomicLong();
+	private volatile boolean m_bExpired;
+
+	/**
+	 * Creates a tracker with a time budget that starts now.
+	 * 
+	 * @param timeBudget
+	 *            The time the operation may take. Use Long.MAX_VALUE for no
+	 *            time limit.
+	 * @param unit
+	 *            The unit of the time budget.
+	 */
+	public DeadlineProgressTracker(long timeBudget, TimeUnit unit) {
+		this(timeBudget, unit, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a tracker with a time budget that starts now and a work budget.
+	 * 
+	 * @param timeBudget
+	 *            The time the operation may take. Use Long.MAX_VALUE for no
+	 *            time limit.
+	 * @param unit
+	 *            The unit of the time budget.
+	 * @param workBudget
+	 *            The amount of work the operation may do. Use Long.MAX_VALUE
+	 *            for no work limit.
+	 */
+	public DeadlineProgressTracker(long timeBudget, TimeUnit unit,
+			long workBudget) {
+		if (timeBudget < 0 || workBudget < 0 || unit == null)
+			throw new IllegalArgumentException();
+
+		m_startNanos = System.nanoTime();
+		m_timeBudgetNanos = unit.toNanos(timeBudget);
+		m_workBudget = workBudget;
+	}
+
+	@Override
+	public boolean progress(int step, int totalExpectedSteps) {
+		if (m_bExpired)
+			return false;
+
+		if (m_work.get() > m_workBudget
+				|| System.nanoTime() - m_startNanos > m_timeBudgetNanos) {
+			m_bExpired = true;
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void addWork(int amount) {
+		m_work.addAndGet(amount);
+	}
+
+	/**
+	 * Returns the amount of work reported so far.
+	 */
+	public long getWorkDone() {
+		return m_work.get();
+	}
+
+	/**
+	 * Returns true once the progress method has returned false.
+	 */
+	public boolean isExpired() {
+		return m_bExpired;
+	}
+}
@@ -540,6 +540,17 @@ final class EditShape {
 		m_vertex_description = null;
 	}
 
+	// Returns the memory of the index lists to the WorkingMemory of the
+	// thread. The shape cannot be used after this call.
+	void releaseMemory() {
+		if (m_geometry_index_list != null)
+			m_geometry_index_list.deleteAll(true);
+		if (m_path_index_list != null)
+			m_path_index_list.deleteAll(true);
+		if (m_vertex_index_list != null)
+			m_vertex_index_list.deleteAll(true);
+	}
+
 	// Total point count in all geometries
 	int getTotalPointCount() {
 		return m_point_count;
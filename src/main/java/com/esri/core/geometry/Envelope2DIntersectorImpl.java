@@ -23,7 +23,6 @@
  */
 package com.esri.core.geometry;
 
-import java.util.ArrayList;
 
 class Envelope2DIntersectorImpl {
 	/*
@@ -41,7 +40,7 @@ class Envelope2DIntersectorImpl {
 
 		if (m_envelopes_red == null) {
 			m_elements_red = new AttributeStreamOfInt32(0);
-			m_envelopes_red = new ArrayList<Envelope2D>(0);
+			m_envelopes_red = new EnvelopeBatch(0);
 		} else {
 			m_elements_red.resizePreserveCapacity(0);
 			m_envelopes_red.clear();
@@ -52,10 +51,8 @@ class Envelope2DIntersectorImpl {
 		if (!m_b_add_red_red)
 			throw new GeometryException("invalid call");
 
-		Envelope2D e = new Envelope2D();
-		e.setCoords(envelope);
 		m_elements_red.add(element);
-		m_envelopes_red.add(e);
+		m_envelopes_red.add(envelope);
 	}
 
 	void endConstruction() {
@@ -76,7 +73,7 @@ class Envelope2DIntersectorImpl {
 
 		if (m_envelopes_red == null) {
 			m_elements_red = new AttributeStreamOfInt32(0);
-			m_envelopes_red = new ArrayList<Envelope2D>(0);
+			m_envelopes_red = new EnvelopeBatch(0);
 		} else {
 			m_elements_red.resizePreserveCapacity(0);
 			m_envelopes_red.clear();
@@ -87,10 +84,8 @@ class Envelope2DIntersectorImpl {
 		if (!m_b_add_red)
 			throw new GeometryException("invalid call");
 
-		Envelope2D e = new Envelope2D();
-		e.setCoords(red_envelope);
 		m_elements_red.add(element);
-		m_envelopes_red.add(e);
+		m_envelopes_red.add(red_envelope);
 	}
 
 	void endRedConstruction() {
@@ -117,7 +112,7 @@ class Envelope2DIntersectorImpl {
 
 		if (m_envelopes_blue == null) {
 			m_elements_blue = new AttributeStreamOfInt32(0);
-			m_envelopes_blue = new ArrayList<Envelope2D>(0);
+			m_envelopes_blue = new EnvelopeBatch(0);
 		} else {
 			m_elements_blue.resizePreserveCapacity(0);
 			m_envelopes_blue.clear();
@@ -128,10 +123,8 @@ class Envelope2DIntersectorImpl {
 		if (!m_b_add_blue)
 			throw new GeometryException("invalid call");
 
-		Envelope2D e = new Envelope2D();
-		e.setCoords(blue_envelope);
 		m_elements_blue.add(element);
-		m_envelopes_blue.add(e);
+		m_envelopes_blue.add(blue_envelope);
 	}
 
 	void endBlueConstruction() {
@@ -253,10 +246,12 @@ class Envelope2DIntersectorImpl {
 	}
 
 	/*
-	 * Returns a reference to the envelope at the given handle. Use this for the red/red intersection case.
+	 * Returns the envelope at the given handle. Use this for the red/red intersection case.
+	 * The returned instance is reused by the next call.
 	 */
 	Envelope2D getEnvelope(int handle) {
-		return m_envelopes_red.get(handle);
+		m_envelopes_red.queryEnvelope(handle, m_envelope_red_out);
+		return m_envelope_red_out;
 	}
 
 	/*
@@ -267,17 +262,19 @@ class Envelope2DIntersectorImpl {
 	}
 
 	/*
-	 * Returns a reference to the red envelope at handle_a.
+	 * Returns the red envelope at handle_a. The returned instance is reused by the next call.
 	 */
 	Envelope2D getRedEnvelope(int handle_a) {
-		return m_envelopes_red.get(handle_a);
+		m_envelopes_red.queryEnvelope(handle_a, m_envelope_red_out);
+		return m_envelope_red_out;
 	}
 
 	/*
-	 * Returns a reference to the blue envelope at handle_b.
+	 * Returns the blue envelope at handle_b. The returned instance is reused by the next call.
 	 */
 	Envelope2D getBlueEnvelope(int handle_b) {
-		return m_envelopes_blue.get(handle_b);
+		m_envelopes_blue.queryEnvelope(handle_b, m_envelope_blue_out);
+		return m_envelope_blue_out;
 	}
 
 	/*
@@ -304,9 +301,11 @@ class Envelope2DIntersectorImpl {
 	private IntervalTreeImpl.IntervalTreeIteratorImpl m_iterator_red;
 	private IntervalTreeImpl.IntervalTreeIteratorImpl m_iterator_blue;
 	private Envelope2D m_envelope_helper = new Envelope2D();
+	private Envelope2D m_envelope_red_out = new Envelope2D();
+	private Envelope2D m_envelope_blue_out = new Envelope2D();
 
-	private ArrayList<Envelope2D> m_envelopes_red;
-	private ArrayList<Envelope2D> m_envelopes_blue;
+	private EnvelopeBatch m_envelopes_red;
+	private EnvelopeBatch m_envelopes_blue;
 	private AttributeStreamOfInt32 m_elements_red;
 	private AttributeStreamOfInt32 m_elements_blue;
 
@@ -542,7 +541,7 @@ class Envelope2DIntersectorImpl {
 			return true;
 		}
 
-		m_iterator_red.resetIterator(m_envelopes_red.get(envelope_handle).xmin, m_envelopes_red.get(envelope_handle).xmax, m_tolerance);
+		m_iterator_red.resetIterator(m_envelopes_red.getXMin(envelope_handle), m_envelopes_red.getXMax(envelope_handle), m_tolerance);
 		m_envelope_handle_a = envelope_handle;
 		m_function = State.iterate;
 
@@ -633,7 +632,7 @@ class Envelope2DIntersectorImpl {
 		}
 
 		if (m_interval_tree_blue.size() > 0) {
-			m_iterator_blue.resetIterator(m_envelopes_red.get(envelope_handle_red).xmin, m_envelopes_red.get(envelope_handle_red).xmax, m_tolerance);
+			m_iterator_blue.resetIterator(m_envelopes_red.getXMin(envelope_handle_red), m_envelopes_red.getXMax(envelope_handle_red), m_tolerance);
 			m_envelope_handle_a = envelope_handle_red;
 			m_function = State.iterateBlue;
 		} else {
@@ -688,7 +687,7 @@ class Envelope2DIntersectorImpl {
 		}
 
 		if (m_interval_tree_red.size() > 0) {
-			m_iterator_red.resetIterator(m_envelopes_blue.get(envelope_handle_blue).xmin, m_envelopes_blue.get(envelope_handle_blue).xmax, m_tolerance);
+			m_iterator_red.resetIterator(m_envelopes_blue.getXMin(envelope_handle_blue), m_envelopes_blue.getXMax(envelope_handle_blue), m_tolerance);
 			m_envelope_handle_b = envelope_handle_blue;
 			m_function = State.iterateRed;
 		} else {
@@ -754,11 +753,8 @@ class Envelope2DIntersectorImpl {
 			return true;
 		}
 
-		m_envelope_helper.setCoords(m_envelopes_red.get(m_sweep_index_red));
-		Envelope2D envelope_b = m_envelopes_red.get(m_sweep_index_blue);
-
-		m_envelope_helper.inflate(m_tolerance, m_tolerance);
-		if (m_envelope_helper.isIntersecting(envelope_b)) {
+		m_envelopes_red.queryEnvelope(m_sweep_index_red, m_envelope_helper);
+		if (m_envelopes_red.isIntersecting(m_sweep_index_blue, m_envelope_helper, m_tolerance)) {
 			m_envelope_handle_b = m_sweep_index_blue;
 			return false;
 		}
@@ -772,11 +768,8 @@ class Envelope2DIntersectorImpl {
 			return true;
 		}
 
-		m_envelope_helper.setCoords(m_envelopes_red.get(m_sweep_index_red));
-		Envelope2D envelope_b = m_envelopes_blue.get(m_sweep_index_blue);
-
-		m_envelope_helper.inflate(m_tolerance, m_tolerance);
-		if (m_envelope_helper.isIntersecting(envelope_b)) {
+		m_envelopes_red.queryEnvelope(m_sweep_index_red, m_envelope_helper);
+		if (m_envelopes_blue.isIntersecting(m_sweep_index_blue, m_envelope_helper, m_tolerance)) {
 			m_envelope_handle_b = m_sweep_index_blue;
 			return false;
 		}
@@ -866,13 +859,11 @@ class Envelope2DIntersectorImpl {
 	private double getAdjustedValue_(int e, boolean b_red) {
 		double dy = 0.5 * m_tolerance;
 		if (b_red) {
-			Envelope2D envelope_red = m_envelopes_red.get(e >> 1);
-			double y = (isBottom_(e) ? envelope_red.ymin - dy : envelope_red.ymax + dy);
+			double y = (isBottom_(e) ? m_envelopes_red.getYMin(e >> 1) - dy : m_envelopes_red.getYMax(e >> 1) + dy);
 			return y;
 		}
 
-		Envelope2D envelope_blue = m_envelopes_blue.get(e >> 1);
-		double y = (isBottom_(e) ? envelope_blue.ymin - dy : envelope_blue.ymax + dy);
+		double y = (isBottom_(e) ? m_envelopes_blue.getYMin(e >> 1) - dy : m_envelopes_blue.getYMax(e >> 1) + dy);
 		return y;
 	}
 
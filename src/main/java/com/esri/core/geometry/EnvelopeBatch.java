@@ -0,0 +1,381 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.BitSet;
+
+/**
+ * A list of 2D envelopes stored as four arrays of coordinates, one for each
+ * of xmin, ymin, xmax and ymax. Testing many envelopes against a query this
+ * way reads the memory sequentially and lets the JIT compiler vectorize the
+ * loops, which is much faster than calling Envelope2D.isIntersecting on each
+ * element of an array of Envelope2D.
+ *
+ * Empty envelopes are stored with NaN coordinates, same as Envelope2D. They
+ * do not intersect or contain anything.
+ */
+public final class EnvelopeBatch {
+	// The bulk tests that fill a BitSet process the envelopes in blocks of
+	// this size.
+	private static final int BLOCK_SIZE = 1024;
+
+	private double[] m_xmin;
+	private double[] m_ymin;
+	private double[] m_xmax;
+	private double[] m_ymax;
+	private int m_size;
+
+	/**
+	 * Creates an empty batch.
+	 */
+	public EnvelopeBatch() {
+		this(0);
+	}
+
+	/**
+	 * Creates an empty batch with room for the given number of envelopes.
+	 */
+	public EnvelopeBatch(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException();
+
+		m_xmin = new double[capacity];
+		m_ymin = new double[capacity];
+		m_xmax = new double[capacity];
+		m_ymax = new double[capacity];
+		m_size = 0;
+	}
+
+	/**
+	 * Returns the number of envelopes in the batch.
+	 */
+	public int size() {
+		return m_size;
+	}
+
+	/**
+	 * Removes all envelopes. Keeps the memory.
+	 */
+	public void clear() {
+		m_size = 0;
+	}
+
+	/**
+	 * Makes sure the batch can hold the given number of envelopes without
+	 * growing.
+	 */
+	public void reserve(int capacity) {
+		if (capacity > m_xmin.length)
+			setCapacity_(capacity);
+	}
+
+	/**
+	 * Returns the estimate of the memory used by the batch.
+	 */
+	public long estimateMemorySize() {
+		return 4 * SizeOf.sizeOfDoubleArray(m_xmin.length);
+	}
+
+	/**
+	 * Adds a copy of the envelope to the end of the batch.
+	 */
+	public void add(Envelope2D envelope) {
+		add(envelope.xmin, envelope.ymin, envelope.xmax, envelope.ymax);
+	}
+
+	/**
+	 * Adds the envelope with the given coordinates to the end of the batch.
+	 */
+	public void add(double xmin, double ymin, double xmax, double ymax) {
+		if (m_size == m_xmin.length)
+			setCapacity_(Math.max(16, m_size + (m_size >> 1) + 1));
+
+		m_xmin[m_size] = xmin;
+		m_ymin[m_size] = ymin;
+		m_xmax[m_size] = xmax;
+		m_ymax[m_size] = ymax;
+		m_size++;
+	}
+
+	/**
+	 * Replaces the envelope at the given index.
+	 */
+	public void set(int index, Envelope2D envelope) {
+		checkIndex_(index);
+		m_xmin[index] = envelope.xmin;
+		m_ymin[index] = envelope.ymin;
+		m_xmax[index] = envelope.xmax;
+		m_ymax[index] = envelope.ymax;
+	}
+
+	/**
+	 * Copies the envelope at the given index to the output envelope.
+	 */
+	public void queryEnvelope(int index, Envelope2D envelope) {
+		checkIndex_(index);
+		envelope.xmin = m_xmin[index];
+		envelope.ymin = m_ymin[index];
+		envelope.xmax = m_xmax[index];
+		envelope.ymax = m_ymax[index];
+	}
+
+	public double getXMin(int index) {
+		return m_xmin[index];
+	}
+
+	public double getYMin(int index) {
+		return m_ymin[index];
+	}
+
+	public double getXMax(int index) {
+		return m_xmax[index];
+	}
+
+	public double getYMax(int index) {
+		return m_ymax[index];
+	}
+
+	/**
+	 * Returns true if the envelope at the given index intersects the query
+	 * envelope inflated by the tolerance.
+	 */
+	public boolean isIntersecting(int index, Envelope2D query, double tolerance) {
+		return m_xmin[index] <= query.xmax + tolerance
+				&& m_xmax[index] >= query.xmin - tolerance
+				&& m_ymin[index] <= query.ymax + tolerance
+				&& m_ymax[index] >= query.ymin - tolerance;
+	}
+
+	/**
+	 * Tests the envelopes in the range [from, to) against the query envelope
+	 * inflated by the tolerance. Stores the result for the envelope i in
+	 * result[i - from].
+	 *
+	 * @return The number of intersecting envelopes.
+	 */
+	public int intersects(Envelope2D query, double tolerance, int from, int to,
+			boolean[] result) {
+		checkRange_(from, to);
+		double qxmin = query.xmin - tolerance;
+		double qymin = query.ymin - tolerance;
+		double qxmax = query.xmax + tolerance;
+		double qymax = query.ymax + tolerance;
+		double[] xmin = m_xmin;
+		double[] ymin = m_ymin;
+		double[] xmax = m_xmax;
+		double[] ymax = m_ymax;
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			// non short circuit operators keep the loop free of branches
+			boolean b = (xmin[i] <= qxmax) & (xmax[i] >= qxmin)
+					& (ymin[i] <= qymax) & (ymax[i] >= qymin);
+			result[i - from] = b;
+			count += b ? 1 : 0;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Sets the bits of the envelopes that intersect the query envelope. The
+	 * other bits of the result are not changed.
+	 *
+	 * @return The number of intersecting envelopes.
+	 */
+	public int intersects(Envelope2D query, BitSet result) {
+		return intersects(query, 0, result);
+	}
+
+	/**
+	 * Sets the bits of the envelopes that intersect the query envelope
+	 * inflated by the tolerance. The other bits of the result are not
+	 * changed.
+	 *
+	 * @return The number of intersecting envelopes.
+	 */
+	public int intersects(Envelope2D query, double tolerance, BitSet result) {
+		if (query.isEmpty())
+			return 0;
+
+		boolean[] block = new boolean[Math.min(BLOCK_SIZE, m_size)];
+		int count = 0;
+		for (int from = 0; from < m_size; from += BLOCK_SIZE) {
+			int to = Math.min(from + BLOCK_SIZE, m_size);
+			if (intersects(query, tolerance, from, to, block) > 0)
+				count += setBits_(block, from, to, result);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Tests whether the envelopes in the range [from, to) contain the point
+	 * (boundary inclusive). Stores the result for the envelope i in
+	 * result[i - from].
+	 *
+	 * @return The number of envelopes that contain the point.
+	 */
+	public int contains(double x, double y, int from, int to, boolean[] result) {
+		checkRange_(from, to);
+		double[] xmin = m_xmin;
+		double[] ymin = m_ymin;
+		double[] xmax = m_xmax;
+		double[] ymax = m_ymax;
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			boolean b = (x >= xmin[i]) & (x <= xmax[i]) & (y >= ymin[i])
+					& (y <= ymax[i]);
+			result[i - from] = b;
+			count += b ? 1 : 0;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Sets the bits of the envelopes that contain the point (boundary
+	 * inclusive). The other bits of the result are not changed.
+	 *
+	 * @return The number of envelopes that contain the point.
+	 */
+	public int contains(double x, double y, BitSet result) {
+		boolean[] block = new boolean[Math.min(BLOCK_SIZE, m_size)];
+		int count = 0;
+		for (int from = 0; from < m_size; from += BLOCK_SIZE) {
+			int to = Math.min(from + BLOCK_SIZE, m_size);
+			if (contains(x, y, from, to, block) > 0)
+				count += setBits_(block, from, to, result);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Calculates the squared distance from the point to each envelope in the
+	 * range [from, to). Stores the distance of the envelope i in
+	 * result[i - from]. The distance is 0 for the envelopes that contain the
+	 * point and NaN for the empty envelopes.
+	 */
+	public void sqrDistance(double x, double y, int from, int to,
+			double[] result) {
+		checkRange_(from, to);
+		double[] xmin = m_xmin;
+		double[] ymin = m_ymin;
+		double[] xmax = m_xmax;
+		double[] ymax = m_ymax;
+		for (int i = from; i < to; i++) {
+			double dx = Math.max(Math.max(xmin[i] - x, x - xmax[i]), 0.0);
+			double dy = Math.max(Math.max(ymin[i] - y, y - ymax[i]), 0.0);
+			result[i - from] = dx * dx + dy * dy;
+		}
+	}
+
+	/**
+	 * Calculates the envelope of all envelopes in the batch. The result is
+	 * empty when all envelopes are empty.
+	 */
+	public void queryEnvelope(Envelope2D envelope) {
+		double xmin = NumberUtils.positiveInf();
+		double ymin = NumberUtils.positiveInf();
+		double xmax = NumberUtils.negativeInf();
+		double ymax = NumberUtils.negativeInf();
+		for (int i = 0; i < m_size; i++) {
+			// NaN coordinates of the empty envelopes fail the comparisons
+			xmin = m_xmin[i] < xmin ? m_xmin[i] : xmin;
+			ymin = m_ymin[i] < ymin ? m_ymin[i] : ymin;
+			xmax = m_xmax[i] > xmax ? m_xmax[i] : xmax;
+			ymax = m_ymax[i] > ymax ? m_ymax[i] : ymax;
+		}
+
+		if (xmin > xmax || ymin > ymax) {
+			envelope.setEmpty();
+			return;
+		}
+
+		envelope.setCoords(xmin, ymin, xmax, ymax);
+	}
+
+	/**
+	 * Merges the envelope at the given index of the other batch into the
+	 * envelope at the given index of this batch.
+	 */
+	public void merge(int index, EnvelopeBatch other, int otherIndex) {
+		checkIndex_(index);
+		other.checkIndex_(otherIndex);
+		if (NumberUtils.isNaN(other.m_xmin[otherIndex]))
+			return;
+
+		if (NumberUtils.isNaN(m_xmin[index])) {
+			m_xmin[index] = other.m_xmin[otherIndex];
+			m_ymin[index] = other.m_ymin[otherIndex];
+			m_xmax[index] = other.m_xmax[otherIndex];
+			m_ymax[index] = other.m_ymax[otherIndex];
+			return;
+		}
+
+		m_xmin[index] = Math.min(m_xmin[index], other.m_xmin[otherIndex]);
+		m_ymin[index] = Math.min(m_ymin[index], other.m_ymin[otherIndex]);
+		m_xmax[index] = Math.max(m_xmax[index], other.m_xmax[otherIndex]);
+		m_ymax[index] = Math.max(m_ymax[index], other.m_ymax[otherIndex]);
+	}
+
+	private static int setBits_(boolean[] block, int from, int to,
+			BitSet result) {
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (block[i - from]) {
+				result.set(i);
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private void setCapacity_(int capacity) {
+		double[] xmin = new double[capacity];
+		double[] ymin = new double[capacity];
+		double[] xmax = new double[capacity];
+		double[] ymax = new double[capacity];
+		System.arraycopy(m_xmin, 0, xmin, 0, m_size);
+		System.arraycopy(m_ymin, 0, ymin, 0, m_size);
+		System.arraycopy(m_xmax, 0, xmax, 0, m_size);
+		System.arraycopy(m_ymax, 0, ymax, 0, m_size);
+		m_xmin = xmin;
+		m_ymin = ymin;
+		m_xmax = xmax;
+		m_ymax = ymax;
+	}
+
+	private void checkIndex_(int index) {
+		if (index < 0 || index >= m_size)
+			throw new IndexOutOfBoundsException();
+	}
+
+	private void checkRange_(int from, int to) {
+		if (from < 0 || to > m_size || from > to)
+			throw new IndexOutOfBoundsException();
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The buffers of a geometry column in the native GeoArrow layout, with
+ * interleaved coordinates. See OperatorExportToGeoArrow and
+ * OperatorImportFromGeoArrow.
+ *
+ * The coordinates buffer holds the x, y, then optional z and m, of each
+ * vertex as little endian doubles. The offset buffers hold little endian
+ * 32 bit integers, one more than the number of items they describe. Which
+ * offset buffers are present depends on the encoding:
+ * <ul>
+ * <li>Point: none. An empty point has NaN coordinates.</li>
+ * <li>LineString, MultiPoint: geometry offsets into the vertices.</li>
+ * <li>Polygon: geometry offsets into the rings, ring offsets into the
+ * vertices.</li>
+ * <li>MultiLineString: geometry offsets into the parts, part offsets into the
+ * vertices.</li>
+ * <li>MultiPolygon: geometry offsets into the polygons, part offsets into the
+ * rings, ring offsets into the vertices.</li>
+ * </ul>
+ * The rings are closed, the last vertex of a ring repeats the first one.
+ *
+ * The validity buffer is a bitmap with one bit for each geometry, the least
+ * significant bit first. A bit set to 0 marks a null geometry. The validity
+ * buffer is null when all geometries are valid.
+ *
+ * The buffers are read from their position at the time this object is
+ * created. The content is not copied, it has to stay unchanged while this
+ * object is used.
+ */
+public final class GeoArrowBuffers {
+	/**
+	 * The GeoArrow geometry encodings.
+	 */
+	public enum Encoding {
+		Point, LineString, Polygon, MultiPoint, MultiLineString, MultiPolygon
+	}
+
+	private final Encoding m_encoding;
+	private final boolean m_bHasZ;
+	private final boolean m_bHasM;
+	private final int m_length;
+	private final ByteBuffer m_coordinates;
+	private final ByteBuffer m_geometryOffsets;
+	private final ByteBuffer m_partOffsets;
+	private final ByteBuffer m_ringOffsets;
+	private final ByteBuffer m_validity;
+
+	/**
+	 * Creates the buffers of a column.
+	 * 
+	 * @param encoding
+	 *            The geometry encoding of the column.
+	 * @param bHasZ
+	 *            True if the coordinates have z.
+	 * @param bHasM
+	 *            True if the coordinates have m.
+	 * @param length
+	 *            The number of geometries in the column.
+	 * @param coordinates
+	 *            The interleaved coordinates.
+	 * @param geometryOffsets
+	 *            The geometry offsets. Null for the Point encoding.
+	 * @param partOffsets
+	 *            The part offsets for the MultiLineString and MultiPolygon
+	 *            encodings. Null otherwise.
+	 * @param ringOffsets
+	 *            The ring offsets for the Polygon and MultiPolygon encodings.
+	 *            Null otherwise.
+	 * @param validity
+	 *            The validity bitmap, or null when there are no null
+	 *            geometries.
+	 */
+	public GeoArrowBuffers(Encoding encoding, boolean bHasZ, boolean bHasM,
+			int length, ByteBuffer coordinates, ByteBuffer geometryOffsets,
+			ByteBuffer partOffsets, ByteBuffer ringOffsets, ByteBuffer validity) {
+		boolean bGeometryOffsets = encoding != Encoding.Point;
+		boolean bPartOffsets = encoding == Encoding.MultiLineString
+				|| encoding == Encoding.MultiPolygon;
+		boolean bRingOffsets = encoding == Encoding.Polygon
+				|| encoding == Encoding.MultiPolygon;
+		if (length < 0 || coordinates == null
+				|| (geometryOffsets != null) != bGeometryOffsets
+				|| (partOffsets != null) != bPartOffsets
+				|| (ringOffsets != null) != bRingOffsets)
+			throw new IllegalArgumentException();
+
+		m_encoding = encoding;
+		m_bHasZ = bHasZ;
+		m_bHasM = bHasM;
+		m_length = length;
+		m_coordinates = slice_(coordinates);
+		m_geometryOffsets = slice_(geometryOffsets);
+		m_partOffsets = slice_(partOffsets);
+		m_ringOffsets = slice_(ringOffsets);
+		m_validity = slice_(validity);
+
+		if (m_coordinates.capacity() % (8 * getDimensionCount()) != 0)
+			throw new IllegalArgumentException();
+		if (bGeometryOffsets && m_geometryOffsets.capacity() < 4 * (length + 1))
+			throw new IllegalArgumentException();
+		if (encoding == Encoding.Point && getVertexCount() != length)
+			throw new IllegalArgumentException();
+		if (m_validity != null && m_validity.capacity() < (length + 7) / 8)
+			throw new IllegalArgumentException();
+	}
+
+	public Encoding getEncoding() {
+		return m_encoding;
+	}
+
+	public boolean hasZ() {
+		return m_bHasZ;
+	}
+
+	public boolean hasM() {
+		return m_bHasM;
+	}
+
+	/**
+	 * Returns the number of doubles per vertex.
+	 */
+	public int getDimensionCount() {
+		return 2 + (m_bHasZ ? 1 : 0) + (m_bHasM ? 1 : 0);
+	}
+
+	/**
+	 * Returns the number of geometries.
+	 */
+	public int getLength() {
+		return m_length;
+	}
+
+	/**
+	 * Returns the number of vertices in the coordinates buffer.
+	 */
+	public int getVertexCount() {
+		return m_coordinates.capacity() / (8 * getDimensionCount());
+	}
+
+	public ByteBuffer getCoordinates() {
+		return duplicate_(m_coordinates);
+	}
+
+	public ByteBuffer getGeometryOffsets() {
+		return duplicate_(m_geometryOffsets);
+	}
+
+	public ByteBuffer getPartOffsets() {
+		return duplicate_(m_partOffsets);
+	}
+
+	public ByteBuffer getRingOffsets() {
+		return duplicate_(m_ringOffsets);
+	}
+
+	public ByteBuffer getValidity() {
+		return duplicate_(m_validity);
+	}
+
+	/**
+	 * Returns false if the geometry at the given index is null.
+	 */
+	public boolean isValid(int index) {
+		if (index < 0 || index >= m_length)
+			throw new IndexOutOfBoundsException();
+
+		if (m_validity == null)
+			return true;
+
+		return (m_validity.get(index >> 3) & (1 << (index & 7))) != 0;
+	}
+
+	int getGeometryOffset(int index) {
+		return m_geometryOffsets.getInt(4 * index);
+	}
+
+	int getPartOffset(int index) {
+		return m_partOffsets.getInt(4 * index);
+	}
+
+	int getRingOffset(int index) {
+		return m_ringOffsets.getInt(4 * index);
+	}
+
+	double getOrdinate(int index) {
+		return m_coordinates.getDouble(8 * index);
+	}
+
+	private static ByteBuffer slice_(ByteBuffer buffer) {
+		if (buffer == null)
+			return null;
+
+		return buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static ByteBuffer duplicate_(ByteBuffer buffer) {
+		if (buffer == null)
+			return null;
+
+		return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is the geodesic distance on WGS84 within d" for pairs of points.
+ *
+ * A cheap spherical bound with a guaranteed error envelope is evaluated
+ * first. The exact iterative geodesic distance is calculated only when the
+ * distance d falls between the lower and upper bound. The answer is always
+ * the same as comparing GeometryEngine.geodesicDistanceOnWGS84 with d.
+ *
+ * The instance is thread safe. It counts how many times the bound decided
+ * the answer and how many times the exact distance was needed.
+ */
+public final class GeodesicDistanceFilter {
+	private static final double WGS84_A = 6378137.0; // radius of spheroid for WGS_1984
+	private static final double WGS84_E2 = 0.0066943799901413165; // ellipticity for WGS_1984
+	private static final double RPU = Math.PI / 180.0;
+
+	private final double m_distance;
+	private final AtomicLong m_fastAcceptCount = new AtomicLong();
+	private final AtomicLong m_fastRejectCount = new AtomicLong();
+	private final AtomicLong m_exactCount = new AtomicLong();
+
+	/**
+	 * Creates a filter for the given distance.
+	 * @param distance The distance in meters. Must be a non-negative number.
+	 */
+	public GeodesicDistanceFilter(double distance) {
+		if (!(distance >= 0))
+			throw new IllegalArgumentException();
+
+		m_distance = distance;
+	}
+
+	/**
+	 * Returns the distance in meters this filter was created with.
+	 */
+	public double getDistance() {
+		return m_distance;
+	}
+
+	/**
+	 * Returns true if the geodesic distance on WGS84 between the points is
+	 * less or equal to the distance of the filter.
+	 * @param ptFrom The "from" point: long, lat in degrees.
+	 * @param ptTo The "to" point: long, lat in degrees.
+	 */
+	public boolean isWithin(Point ptFrom, Point ptTo) {
+		return isWithin(ptFrom.getX(), ptFrom.getY(), ptTo.getX(), ptTo.getY());
+	}
+
+	/**
+	 * Returns true if the geodesic distance on WGS84 between the points is
+	 * less or equal to the distance of the filter.
+	 * @param lonFrom The longitude of the "from" point in degrees.
+	 * @param latFrom The latitude of the "from" point in degrees.
+	 * @param lonTo The longitude of the "to" point in degrees.
+	 * @param latTo The latitude of the "to" point in degrees.
+	 */
+	public boolean isWithin(double lonFrom, double latFrom, double lonTo,
+			double latTo) {
+		double lam1 = lonFrom * RPU;
+		double phi1 = latFrom * RPU;
+		double lam2 = lonTo * RPU;
+		double phi2 = latTo * RPU;
+
+		PeDouble minDist = new PeDouble();
+		PeDouble maxDist = new PeDouble();
+		GeoDist.geodesic_distance_bounds(WGS84_A, WGS84_E2, lam1, phi1, lam2,
+				phi2, minDist, maxDist);
+		if (maxDist.val <= m_distance) {
+			m_fastAcceptCount.incrementAndGet();
+			return true;
+		}
+
+		if (minDist.val > m_distance) {
+			m_fastRejectCount.incrementAndGet();
+			return false;
+		}
+
+		m_exactCount.incrementAndGet();
+		PeDouble dist = new PeDouble();
+		GeoDist.geodesic_distance_ngs(WGS84_A, WGS84_E2, lam1, phi1, lam2,
+				phi2, dist, null, null);
+		return dist.val <= m_distance;
+	}
+
+	/**
+	 * Returns the number of calls answered true by the bound alone.
+	 */
+	public long getFastAcceptCount() {
+		return m_fastAcceptCount.get();
+	}
+
+	/**
+	 * Returns the number of calls answered false by the bound alone.
+	 */
+	public long getFastRejectCount() {
+		return m_fastRejectCount.get();
+	}
+
+	/**
+	 * Returns the number of calls that needed the exact geodesic distance.
+	 */
+	public long getExactCount() {
+		return m_exactCount.get();
+	}
+
+	/**
+	 * Sets all counters to zero.
+	 */
+	public void resetCounters() {
+		m_fastAcceptCount.set(0);
+		m_fastRejectCount.set(0);
+		m_exactCount.set(0);
+	}
+}
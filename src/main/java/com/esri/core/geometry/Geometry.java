@@ -27,6 +27,7 @@ package com.esri.core.geometry;
 
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import static com.esri.core.geometry.SizeOf.sizeOfDoubleArray;
 
@@ -36,7 +37,13 @@ import static com.esri.core.geometry.SizeOf.sizeOfDoubleArray;
  */
 public abstract class Geometry implements Serializable {
 	VertexDescription m_description;
+	// The low 31 bits count the changes, the sign bit is set when the
+	// geometry has changed since the last getStateFlag call.
 	volatile int m_touchFlag;
+	private static final AtomicIntegerFieldUpdater<Geometry> s_touchFlagUpdater = AtomicIntegerFieldUpdater
+			.newUpdater(Geometry.class, "m_touchFlag");
+	// True when the geometry cannot be changed anymore (see freeze).
+	volatile boolean m_bFrozen;
 
 	Geometry() {
 		m_description = null;
@@ -180,10 +187,10 @@ public abstract class Geometry implements Serializable {
 	 * @param src VertexDescription to assign.
 	 */
 	public void assignVertexDescription(VertexDescription src) {
-		_touch();
 		if (src == m_description)
 			return;
 
+		_touch();
 		_assignVertexDescriptionImpl(src);
 	}
 	
@@ -196,7 +203,6 @@ public abstract class Geometry implements Serializable {
 	 * @param src VertexDescription to merge.
 	 */
 	public void mergeVertexDescription(VertexDescription src) {
-		_touch();
 		if (src == m_description)
 			return;
 
@@ -205,6 +211,7 @@ public abstract class Geometry implements Serializable {
 		if (newdescription == m_description)
 			return;
 		
+		_touch();
 		_assignVertexDescriptionImpl(newdescription);
 	}
 
@@ -223,10 +230,10 @@ public abstract class Geometry implements Serializable {
 	 * @param semantics The VertexDescription.Semantics to add.
 	 */
 	public void addAttribute(int semantics) {
-		_touch();
 		if (m_description.hasAttribute(semantics))
 			return;
-		
+
+		_touch();
 		VertexDescription newvd = VertexDescriptionDesignerImpl.getMergedVertexDescription(m_description, semantics);
 		_assignVertexDescriptionImpl(newvd);
 	}
@@ -239,10 +246,10 @@ public abstract class Geometry implements Serializable {
 	 * @param semantics The VertexDescription.Semantics to drop.
 	 */
 	public void dropAttribute(int semantics) {
-		_touch();
 		if (!m_description.hasAttribute(semantics))
 			return;
 
+		_touch();
 		VertexDescription newvd = VertexDescriptionDesignerImpl.removeSemanticsFromVertexDescription(m_description, semantics);
 		_assignVertexDescriptionImpl(newvd);
 	}
@@ -569,14 +576,58 @@ public abstract class Geometry implements Serializable {
 	 * @return The state of the geometry.
 	 */
 	public int getStateFlag() {
-		m_touchFlag &= 0x7FFFFFFF;
-		return m_touchFlag;
+		while (true) {
+			int flag = m_touchFlag;
+			if (flag >= 0)
+				return flag;
+
+			if (s_touchFlagUpdater.compareAndSet(this, flag, flag & 0x7FFFFFFF))
+				return flag & 0x7FFFFFFF;
+		}
+	}
+
+	/**
+	 * Makes the geometry immutable. Any method that changes a frozen geometry
+	 * throws a GeometryException.
+	 * 
+	 * A frozen geometry can be shared by threads without copying. The values
+	 * that are cached lazily (the envelope, the length, the area) are
+	 * calculated by this call, and the simple flag is cached in a thread safe
+	 * manner. The geometry has to be published to other threads safely, for
+	 * example through a final or volatile field or a concurrent collection.
+	 * 
+	 * Copies of a frozen geometry are not frozen. A copy of a frozen
+	 * MultiPoint, Polyline or Polygon shares the vertex data with it and makes
+	 * its own copy of the data the first time it is changed.
+	 * 
+	 * Accelerate the geometry (see Operator.accelerateGeometry) before
+	 * freezing it, if it is to be used accelerated by several threads.
+	 */
+	public void freeze() {
+		m_bFrozen = true;
+	}
+
+	/**
+	 * Returns true if the geometry is frozen (see freeze).
+	 */
+	public boolean isFrozen() {
+		return m_bFrozen;
+	}
+
+	void throwIfFrozen() {
+		if (m_bFrozen)
+			throw new GeometryException(
+					"invalid call. The geometry is frozen and cannot be modified.");
 	}
 
-	// Called whenever geometry changes
-	synchronized void _touch() {
-		if (m_touchFlag >= 0) {
-			m_touchFlag += 0x80000001;
+	// Called whenever geometry changes. Only the first change after a
+	// getStateFlag call writes the flag, the following ones only read it.
+	void _touch() {
+		throwIfFrozen();
+		int flag;
+		while ((flag = m_touchFlag) >= 0) {
+			if (s_touchFlagUpdater.compareAndSet(this, flag, flag + 0x80000001))
+				break;
 		}
 	}
 
@@ -0,0 +1,488 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.esri.core.geometry.VertexDescription.Semantics;
+
+/**
+ * A list of geometries stored in shared columnar arrays: the vertices of all
+ * geometries in one coordinate array, the part offsets into it, the geometry
+ * offsets into the parts, and the geometry types. Compared to a list of
+ * Polygon or Polyline objects, each with its own streams, envelope and
+ * cached values, this needs several times less memory for many small
+ * geometries.
+ *
+ * The geometries are read through views (see getGeometry). A view is a
+ * frozen Geometry that reads the coordinates from the arrays of the batch
+ * without copying them. Views stay valid when more geometries are added or
+ * the batch is cleared.
+ *
+ * The batch stores Point, MultiPoint, Polyline and Polygon geometries with
+ * linear segments. An Envelope is added as a Polygon and a Line as a
+ * Polyline. The vertex attributes other than those of the batch are not
+ * stored.
+ */
+public final class GeometryBatch {
+	private static final byte TYPE_POINT = 0;
+	private static final byte TYPE_MULTI_POINT = 1;
+	private static final byte TYPE_POLYLINE = 2;
+	private static final byte TYPE_POLYGON = 3;
+
+	private final VertexDescription m_description;
+	private final boolean m_bHasZ;
+	private final boolean m_bHasM;
+	private int m_size;
+	private byte[] m_types;
+	// The parts of the geometry i are m_geometryOffsets[i] to
+	// m_geometryOffsets[i + 1]. Points and multipoints have one part, unless
+	// empty.
+	private int[] m_geometryOffsets;
+	// The vertices of the part i are m_partOffsets[i] to m_partOffsets[i + 1].
+	private int[] m_partOffsets;
+	private byte[] m_partFlags;
+	private int m_partCount;
+	private double[] m_xy;
+	private double[] m_zs;
+	private double[] m_ms;
+	private int m_pointCount;
+	private EnvelopeBatch m_envelopes;
+
+	/**
+	 * Creates an empty batch for the geometries with xy coordinates.
+	 */
+	public GeometryBatch() {
+		this(false, false);
+	}
+
+	/**
+	 * Creates an empty batch that stores the given attributes in addition to
+	 * the xy coordinates. The geometries added without the attributes get the
+	 * default values.
+	 */
+	public GeometryBatch(boolean bHasZ, boolean bHasM) {
+		VertexDescription description = VertexDescriptionDesignerImpl
+				.getDefaultDescriptor2D();
+		if (bHasZ)
+			description = VertexDescriptionDesignerImpl
+					.getMergedVertexDescription(description, Semantics.Z);
+		if (bHasM)
+			description = VertexDescriptionDesignerImpl
+					.getMergedVertexDescription(description, Semantics.M);
+
+		m_description = description;
+		m_bHasZ = bHasZ;
+		m_bHasM = bHasM;
+		clear();
+	}
+
+	/**
+	 * Returns the vertex description of the views.
+	 */
+	public VertexDescription getDescription() {
+		return m_description;
+	}
+
+	/**
+	 * Returns the number of geometries in the batch.
+	 */
+	public int size() {
+		return m_size;
+	}
+
+	/**
+	 * Returns the number of vertices of all geometries in the batch.
+	 */
+	public int getTotalPointCount() {
+		return m_pointCount;
+	}
+
+	/**
+	 * Removes all geometries. The existing views keep their coordinates.
+	 */
+	public void clear() {
+		m_size = 0;
+		m_partCount = 0;
+		m_pointCount = 0;
+		m_types = new byte[16];
+		m_geometryOffsets = new int[17];
+		m_partOffsets = new int[17];
+		m_partFlags = new byte[16];
+		m_xy = new double[32];
+		m_zs = m_bHasZ ? new double[16] : null;
+		m_ms = m_bHasM ? new double[16] : null;
+		m_envelopes = new EnvelopeBatch(16);
+	}
+
+	/**
+	 * Adds a copy of the geometry to the end of the batch.
+	 * 
+	 * @return The index of the geometry in the batch.
+	 */
+	public int add(Geometry geometry) {
+		switch (geometry.getType()) {
+		case Point:
+			addPoint_((Point) geometry);
+			break;
+		case MultiPoint:
+			addMultiVertex_(TYPE_MULTI_POINT,
+					(MultiVertexGeometryImpl) geometry._getImpl());
+			break;
+		case Polyline:
+		case Polygon:
+			MultiPathImpl impl = (MultiPathImpl) geometry._getImpl();
+			if (impl.hasNonLinearSegments())
+				throw new IllegalArgumentException();
+
+			addMultiVertex_(impl.m_bPolygon ? TYPE_POLYGON : TYPE_POLYLINE,
+					impl);
+			break;
+		case Envelope:
+			Polygon polygon = new Polygon(geometry.getDescription());
+			polygon.addEnvelope((Envelope) geometry, false);
+			addMultiVertex_(TYPE_POLYGON,
+					(MultiVertexGeometryImpl) polygon._getImpl());
+			break;
+		case Line:
+			Polyline polyline = new Polyline(geometry.getDescription());
+			polyline.addSegment((Segment) geometry, true);
+			addMultiVertex_(TYPE_POLYLINE,
+					(MultiVertexGeometryImpl) polyline._getImpl());
+			break;
+		default:
+			throw new IllegalArgumentException();
+		}
+
+		return m_size - 1;
+	}
+
+	/**
+	 * Returns the type of the geometry at the given index.
+	 */
+	public Geometry.Type getGeometryType(int index) {
+		checkIndex_(index);
+		switch (m_types[index]) {
+		case TYPE_POINT:
+			return Geometry.Type.Point;
+		case TYPE_MULTI_POINT:
+			return Geometry.Type.MultiPoint;
+		case TYPE_POLYLINE:
+			return Geometry.Type.Polyline;
+		default:
+			return Geometry.Type.Polygon;
+		}
+	}
+
+	/**
+	 * Returns the number of parts of the geometry at the given index. This is
+	 * the path count for polylines and polygons, and 1 for the points and
+	 * multipoints that are not empty.
+	 */
+	public int getPartCount(int index) {
+		checkIndex_(index);
+		return m_geometryOffsets[index + 1] - m_geometryOffsets[index];
+	}
+
+	/**
+	 * Returns the number of vertices of the geometry at the given index.
+	 */
+	public int getPointCount(int index) {
+		checkIndex_(index);
+		return m_partOffsets[m_geometryOffsets[index + 1]]
+				- m_partOffsets[m_geometryOffsets[index]];
+	}
+
+	/**
+	 * Returns true if the geometry at the given index is empty.
+	 */
+	public boolean isEmpty(int index) {
+		return getPointCount(index) == 0;
+	}
+
+	/**
+	 * Returns the 2D envelope of the geometry at the given index.
+	 */
+	public void queryEnvelope2D(int index, Envelope2D envelope) {
+		m_envelopes.queryEnvelope(index, envelope);
+	}
+
+	/**
+	 * Sets the bits of the geometries with the envelopes that intersect the
+	 * query envelope inflated by the tolerance. This is a cheap filter before
+	 * the exact test of the views.
+	 * 
+	 * @return The number of intersecting envelopes.
+	 */
+	public int queryIntersectingEnvelopes(Envelope2D query, double tolerance,
+			BitSet result) {
+		return m_envelopes.intersects(query, tolerance, result);
+	}
+
+	/**
+	 * Returns a frozen view of the geometry at the given index. The view reads
+	 * the coordinates from the batch. Copies of the view made with copyTo
+	 * share the coordinates until they are changed.
+	 */
+	public Geometry getGeometry(int index) {
+		checkIndex_(index);
+		byte type = m_types[index];
+		int part0 = m_geometryOffsets[index];
+		int partCount = m_geometryOffsets[index + 1] - part0;
+		if (type == TYPE_POINT) {
+			Point point = new Point(m_description);
+			if (partCount > 0) {
+				int v = m_partOffsets[part0];
+				point.setXY(m_xy[2 * v], m_xy[2 * v + 1]);
+				if (m_bHasZ)
+					point.setZ(m_zs[v]);
+				if (m_bHasM)
+					point.setM(m_ms[v]);
+			}
+
+			point.freeze();
+			return point;
+		}
+
+		Geometry geometry;
+		if (type == TYPE_MULTI_POINT)
+			geometry = new MultiPoint(m_description);
+		else if (type == TYPE_POLYLINE)
+			geometry = new Polyline(m_description);
+		else
+			geometry = new Polygon(m_description);
+
+		if (partCount == 0) {
+			geometry.freeze();
+			return geometry;
+		}
+
+		int v0 = m_partOffsets[part0];
+		int pointCount = m_partOffsets[part0 + partCount] - v0;
+		MultiVertexGeometryImpl impl = (MultiVertexGeometryImpl) geometry
+				._getImpl();
+		impl.setAttributeStreamRef(Semantics.POSITION,
+				new AttributeStreamOfDblSlice(m_xy, 2 * v0, 2 * pointCount));
+		if (m_bHasZ)
+			impl.setAttributeStreamRef(Semantics.Z,
+					new AttributeStreamOfDblSlice(m_zs, v0, pointCount));
+		if (m_bHasM)
+			impl.setAttributeStreamRef(Semantics.M,
+					new AttributeStreamOfDblSlice(m_ms, v0, pointCount));
+
+		if (type == TYPE_MULTI_POINT) {
+			((MultiPointImpl) impl).resize(pointCount);
+		} else {
+			AttributeStreamOfInt32 paths = (AttributeStreamOfInt32) AttributeStreamBase
+					.createIndexStream(partCount + 1);
+			AttributeStreamOfInt8 pathFlags = (AttributeStreamOfInt8) AttributeStreamBase
+					.createByteStream(partCount + 1, (byte) 0);
+			for (int i = 0; i <= partCount; i++)
+				paths.write(i, m_partOffsets[part0 + i] - v0);
+			for (int i = 0; i < partCount; i++)
+				pathFlags.write(i, m_partFlags[part0 + i]);
+
+			MultiPathImpl mpImpl = (MultiPathImpl) impl;
+			mpImpl.setPathFlagsStreamRef(pathFlags);
+			mpImpl.setPathStreamRef(paths);// sets the point count
+		}
+
+		if (!m_bHasZ && !m_bHasM) {
+			// saves a pass over the coordinates in freeze
+			Envelope2D env = new Envelope2D();
+			m_envelopes.queryEnvelope(index, env);
+			impl.setEnvelope(new Envelope(env));
+		}
+
+		geometry.freeze();
+		return geometry;
+	}
+
+	/**
+	 * Returns a cursor over the views of the geometries in the batch. The
+	 * geometry ID is the index in the batch.
+	 */
+	public GeometryCursor getCursor() {
+		return new BatchCursor();
+	}
+
+	/**
+	 * Returns the estimate of the memory used by the batch.
+	 */
+	public long estimateMemorySize() {
+		long size = SizeOf.sizeOfByteArray(m_types.length)
+				+ SizeOf.sizeOfIntArray(m_geometryOffsets.length)
+				+ SizeOf.sizeOfIntArray(m_partOffsets.length)
+				+ SizeOf.sizeOfByteArray(m_partFlags.length)
+				+ SizeOf.sizeOfDoubleArray(m_xy.length)
+				+ m_envelopes.estimateMemorySize();
+		if (m_zs != null)
+			size += SizeOf.sizeOfDoubleArray(m_zs.length);
+		if (m_ms != null)
+			size += SizeOf.sizeOfDoubleArray(m_ms.length);
+
+		return size;
+	}
+
+	private final class BatchCursor extends GeometryCursor {
+		private int m_index = -1;
+
+		@Override
+		public Geometry next() {
+			if (m_index + 1 >= m_size)
+				return null;
+
+			m_index++;
+			return getGeometry(m_index);
+		}
+
+		@Override
+		public int getGeometryID() {
+			return m_index;
+		}
+	}
+
+	private void addPoint_(Point point) {
+		if (point.isEmpty()) {
+			addGeometry_(TYPE_POINT, 0, 0);
+			m_envelopes.add(NumberUtils.NaN(), NumberUtils.NaN(),
+					NumberUtils.NaN(), NumberUtils.NaN());
+			return;
+		}
+
+		reservePoints_(1);
+		int v = m_pointCount;
+		double x = point.getX();
+		double y = point.getY();
+		m_xy[2 * v] = x;
+		m_xy[2 * v + 1] = y;
+		if (m_bHasZ)
+			m_zs[v] = point.getAttributeAsDbl(Semantics.Z, 0);
+		if (m_bHasM)
+			m_ms[v] = point.getAttributeAsDbl(Semantics.M, 0);
+
+		m_pointCount++;
+		addGeometry_(TYPE_POINT, 1, 1);
+		m_envelopes.add(x, y, x, y);
+	}
+
+	private void addMultiVertex_(byte type, MultiVertexGeometryImpl impl) {
+		int pointCount = impl.getPointCount();
+		if (pointCount == 0) {
+			addGeometry_(type, 0, 0);
+			m_envelopes.add(NumberUtils.NaN(), NumberUtils.NaN(),
+					NumberUtils.NaN(), NumberUtils.NaN());
+			return;
+		}
+
+		impl._verifyAllStreams();
+		reservePoints_(pointCount);
+		int v0 = m_pointCount;
+		((AttributeStreamOfDbl) impl.m_vertexAttributes[0]).readRange(0,
+				2 * pointCount, m_xy, 2 * v0, true);
+		if (m_bHasZ)
+			readAttribute_(impl, Semantics.Z, m_zs, v0, pointCount);
+		if (m_bHasM)
+			readAttribute_(impl, Semantics.M, m_ms, v0, pointCount);
+
+		m_pointCount += pointCount;
+		if (type == TYPE_MULTI_POINT) {
+			addGeometry_(type, 1, pointCount);
+		} else {
+			MultiPathImpl mpImpl = (MultiPathImpl) impl;
+			int pathCount = mpImpl.getPathCount();
+			int part0 = m_partCount;
+			addGeometry_(type, pathCount, pointCount);
+			for (int i = 0; i < pathCount; i++) {
+				m_partOffsets[part0 + i] = v0 + mpImpl.getPathStart(i);
+				// the calculated flags are not valid for the view
+				int flags = mpImpl.m_pathFlags.read(i) & ~PathFlags.enumCalcMask;
+				m_partFlags[part0 + i] = (byte) flags;
+			}
+		}
+
+		Envelope2D env = new Envelope2D();
+		impl.queryEnvelope2D(env);
+		m_envelopes.add(env);
+	}
+
+	private static void readAttribute_(MultiVertexGeometryImpl impl,
+			int semantics, double[] dst, int offset, int count) {
+		int attributeIndex = impl.m_description.getAttributeIndex(semantics);
+		if (attributeIndex < 0) {
+			Arrays.fill(dst, offset, offset + count,
+					VertexDescription.getDefaultValue(semantics));
+			return;
+		}
+
+		((AttributeStreamOfDbl) impl.m_vertexAttributes[attributeIndex])
+				.readRange(0, count, dst, offset, true);
+	}
+
+	// Appends the geometry with the given number of parts. The vertices of
+	// the parts have been written already.
+	private void addGeometry_(byte type, int partCount, int pointCount) {
+		if (m_size == m_types.length) {
+			int capacity = m_size + (m_size >> 1) + 1;
+			m_types = Arrays.copyOf(m_types, capacity);
+			m_geometryOffsets = Arrays.copyOf(m_geometryOffsets, capacity + 1);
+		}
+
+		if (m_partCount + partCount >= m_partFlags.length) {
+			int capacity = Math.max(m_partCount + partCount + 1, m_partCount
+					+ (m_partCount >> 1) + 1);
+			m_partFlags = Arrays.copyOf(m_partFlags, capacity);
+			m_partOffsets = Arrays.copyOf(m_partOffsets, capacity + 1);
+		}
+
+		m_types[m_size] = type;
+		m_partOffsets[m_partCount] = m_pointCount - pointCount;
+		m_partCount += partCount;
+		m_partOffsets[m_partCount] = m_pointCount;
+		m_size++;
+		m_geometryOffsets[m_size] = m_partCount;
+	}
+
+	private void reservePoints_(int count) {
+		int required = m_pointCount + count;
+		if (required <= m_xy.length / 2)
+			return;
+
+		int capacity = Math.max(required, m_pointCount + (m_pointCount >> 1)
+				+ 1);
+		m_xy = Arrays.copyOf(m_xy, 2 * capacity);
+		if (m_zs != null)
+			m_zs = Arrays.copyOf(m_zs, capacity);
+		if (m_ms != null)
+			m_ms = Arrays.copyOf(m_ms, capacity);
+	}
+
+	private void checkIndex_(int index) {
+		if (index < 0 || index >= m_size)
+			throw new IndexOutOfBoundsException();
+	}
+}
@@ -905,4 +905,22 @@ public class GeometryEngine {
 	public static double geodesicDistanceOnWGS84(Point ptFrom, Point ptTo) {
 		return SpatialReferenceImpl.geodesicDistanceOnWGS84Impl(ptFrom, ptTo);
 	}
+
+	/**
+	 * Checks if the geodesic distance between two points on the WGS84 spheroid
+	 * is less or equal to the given distance. A spherical bound is tried first
+	 * and the exact geodesic distance is calculated only when the bound cannot
+	 * decide.
+	 * 
+	 * See GeodesicDistanceFilter.
+	 * 
+	 * @param ptFrom The "from" point: long, lat in degrees.
+	 * @param ptTo The "to" point: long, lat in degrees.
+	 * @param distance The distance in meters.
+	 * @return TRUE if the geodesic distance is less or equal to the distance.
+	 */
+	public static boolean isWithinGeodesicDistanceOnWGS84(Point ptFrom,
+			Point ptTo, double distance) {
+		return new GeodesicDistanceFilter(distance).isWithin(ptFrom, ptTo);
+	}
 }
@@ -260,6 +260,14 @@ class IndexMultiDCList {
 		}
 	}
 
+	// Removes all lists and returns the memory to the WorkingMemory of the
+	// thread.
+	void releaseMemory() {
+		m_list_nodes.deleteAll(true);
+		m_lists.deleteAll(true);
+		m_list_of_lists = nullNode();
+	}
+
 	// Clears all nodes from the list.
 	void clear(int list) {
 		int last = getLast(list);
@@ -318,11 +318,28 @@ final class InternalUtils {
         int hint_index = -1;
         Envelope2D boundingbox = new Envelope2D();
 
+        // Inserting the paths in the Hilbert order makes the hint of the
+        // previous insertion useful for multipaths with many scattered paths.
+        int[] order = null;
+        int npaths = multipathImpl.getPathCount();
+        if (npaths > 16)
+        {
+            Envelope2D[] envelopes = new Envelope2D[npaths];
+            for (int ipath = 0; ipath < npaths; ipath++)
+            {
+                envelopes[ipath] = new Envelope2D();
+                multipathImpl.queryPathEnvelope2D(ipath, envelopes[ipath]);
+            }
+
+            order = SpatialSort.sort(envelopes, SpatialSort.Curve.Hilbert);
+        }
+
         boolean resized_extent = false;
         do
         {
-            for (int ipath = 0, npaths = multipathImpl.getPathCount(); ipath < npaths; ipath++)
+            for (int i = 0; i < npaths; i++)
             {
+                int ipath = order != null ? order[i] : i;
                 multipathImpl.queryPathEnvelope2D(ipath, boundingbox);
                 hint_index = quad_tree_impl.insert(ipath, boundingbox, hint_index);
 
@@ -43,8 +43,7 @@ final class IntervalTreeImpl {
 			return v;
 		}
 
-		Envelope2D interval = m_envelopes_ref.get(e >> 1);
-		double v = (isLeft_(e) ? interval.xmin : interval.xmax);
+		double v = (isLeft_(e) ? m_envelopes_ref.getXMin(e >> 1) : m_envelopes_ref.getXMax(e >> 1));
 		return v;
 	}
 
@@ -94,7 +93,7 @@ final class IntervalTreeImpl {
 		m_b_construction_ended = false;
 	}
 
-	void addEnvelopesRef(ArrayList<Envelope2D> envelopes) {
+	void addEnvelopesRef(EnvelopeBatch envelopes) {
 		reset_(true, true);
 		m_b_envelopes_ref = true;
 		m_envelopes_ref = envelopes;
@@ -191,7 +190,7 @@ final class IntervalTreeImpl {
 	private boolean m_b_envelopes_ref;
 	private boolean m_b_offline_dynamic;
 	private ArrayList<Envelope1D> m_intervals;
-	private ArrayList<Envelope2D> m_envelopes_ref;
+	private EnvelopeBatch m_envelopes_ref;
 	private StridedIndexTypeCollection m_tertiary_nodes; // 5 elements for offline dynamic case, 4 elements for static case
 	private StridedIndexTypeCollection m_interval_nodes; // 3 elements
 	private AttributeStreamOfInt32 m_interval_handles; // for offline dynamic// case
@@ -1125,11 +1124,11 @@ final class IntervalTreeImpl {
 	}
 
 	private double getMin_(int i) {
-		return (!m_b_envelopes_ref ? m_intervals.get(i).vmin : m_envelopes_ref.get(i).xmin);
+		return (!m_b_envelopes_ref ? m_intervals.get(i).vmin : m_envelopes_ref.getXMin(i));
 	}
 
 	private double getMax_(int i) {
-		return (!m_b_envelopes_ref ? m_intervals.get(i).vmax : m_envelopes_ref.get(i).xmax);
+		return (!m_b_envelopes_ref ? m_intervals.get(i).vmax : m_envelopes_ref.getXMax(i));
 	}
 
 	private int getFirst_(int secondary_handle) {
@@ -24,6 +24,7 @@
 
 package com.esri.core.geometry;
 
+import java.io.File;
 import java.io.Serializable;
 
 /**
@@ -249,6 +250,33 @@ public abstract class MultiPath extends MultiVertexGeometry implements
 		m_impl.add((MultiPathImpl) src._getImpl(), bReversePaths);
 	}
 
+	/**
+	 * Appends paths from arrays of coordinates. This is much faster than
+	 * building the paths with startPath and lineTo, because the storage is
+	 * resized once and each array is copied with a single call. The paths of
+	 * a Polygon are marked as closed rings. Empty paths are skipped.
+	 * 
+	 * @param xy
+	 *            The x and y coordinates of the vertices, interleaved (x0, y0,
+	 *            x1, y1, ...).
+	 * @param zs
+	 *            The z coordinates, or null. When not null, the Z attribute
+	 *            is added to the multipath.
+	 * @param ms
+	 *            The m values, or null. When not null, the M attribute is
+	 *            added to the multipath.
+	 * @param pathOffsets
+	 *            The index of the first vertex of each path in the arrays,
+	 *            followed by the index after the last vertex of the last
+	 *            path. Must have pathCount + 1 non-decreasing elements.
+	 * @param pathCount
+	 *            The number of paths to append.
+	 */
+	public void addPaths(double[] xy, double[] zs, double[] ms,
+			int[] pathOffsets, int pathCount) {
+		m_impl.addPaths(xy, zs, ms, pathOffsets, pathCount);
+	}
+
 	/**
 	 * Copies a path from another multipath.
 	 * 
@@ -778,4 +806,64 @@ public abstract class MultiPath extends MultiVertexGeometry implements
     	m_impl.replaceNaNs(semantics, value);
     }
 	
+
+	@Override
+	public void moveToDirectMemory(File directory) {
+		m_impl.moveToDirectMemory(directory);
+	}
+
+	@Override
+	public void moveToHeapMemory() {
+		m_impl.moveToHeapMemory();
+	}
+
+	@Override
+	public void releaseDirectMemory() {
+		m_impl.releaseDirectMemory();
+	}
+
+	@Override
+	public boolean isInDirectMemory() {
+		return m_impl.isInDirectMemory();
+	}
+
+	@Override
+	public void setPositionStorage(PositionStorage storage) {
+		m_impl.setPositionStorage(storage);
+	}
+
+	@Override
+	public PositionStorage getPositionStorage() {
+		return m_impl.getPositionStorage();
+	}
+
+	@Override
+	public void freeze() {
+		m_impl.freeze();
+		super.freeze();
+	}
+
+	@Override
+	public boolean visitVertices(VertexVisitor visitor) {
+		return m_impl.visitVertices(visitor);
+	}
+
+	@Override
+	public boolean visitVerticesZM(VertexVisitor visitor) {
+		return m_impl.visitVerticesZM(visitor);
+	}
+
+	/**
+	 * Calls the visitor for each segment, path by path, with the coordinates
+	 * of the start and end points of the segment. Closed paths include the
+	 * closing segment. No Segment objects are created. The MultiPath must not
+	 * be modified during the visit.
+	 * 
+	 * @param visitor
+	 *            The visitor.
+	 * @return False if the visitor stopped the visit, True otherwise.
+	 */
+	public boolean visitSegments(SegmentVisitor visitor) {
+		return m_impl.visitSegments(visitor);
+	}
 }
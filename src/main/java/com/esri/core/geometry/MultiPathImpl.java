@@ -174,6 +174,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	// Reviewed vs. Native Jan 11, 2011
 	protected void _beforeNewSegment(int resizeBy) {
+		_beforeModify();
 		// Called for each new segment being added.
 		if (m_bPathStarted) {
 			_initPathStartPoint();// make sure the m_movetoPoint exists and has
@@ -318,6 +319,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	// Reviewed vs. Native Jan 11, 2011
 	public void openPath(int pathIndex) {
+		_beforeModify();
 		_touch();
 		if (m_bPolygon)
 			throw GeometryException.GeometryInternalError();// do not call this
@@ -335,6 +337,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void openPathAndDuplicateStartVertex(int pathIndex) {
+		_beforeModify();
 		_touch();
 		if (m_bPolygon)
 			throw GeometryException.GeometryInternalError();// do not call this
@@ -380,6 +383,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	// Reviewed vs. Native Jan 11, 2011
 	// Major Changes on 16th of January
 	public void openAllPathsAndDuplicateStartVertex() {
+		_beforeModify();
 		_touch();
 		if (m_bPolygon)
 			throw GeometryException.GeometryInternalError();// do not call this
@@ -457,6 +461,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	void closePathWithLine(int path_index) {
+		_beforeModify();
 		// touch_();
 		throwIfEmpty();
 
@@ -470,6 +475,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	void closePathWithLine() {
+		_beforeModify();
 		throwIfEmpty();
 		m_bPathStarted = false;
 		closePathWithLine(getPathCount() - 1);
@@ -481,6 +487,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 * point to the start point.
 	 */
 	public void closeAllPaths() {
+		_beforeModify();
 		_touch();
 		if (m_bPolygon || isEmptyImpl())
 			return;
@@ -522,6 +529,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 * point of the bezier is the first point of the path.
 	 */
 	public void closePathWithBezier(Point2D controlPoint1, Point2D controlPoint2) {
+		_beforeModify();
 		_touch();
 		if (isEmptyImpl())
 			throw new GeometryException(
@@ -573,6 +581,41 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 		return ((byte) (m_pathFlags.read(ipath) & PathFlags.enumClosed)) != 0;
 	}
 
+	/**
+	 * Calls the visitor for each segment with the end points of the segment.
+	 * See MultiPath.visitSegments.
+	 */
+	public boolean visitSegments(SegmentVisitor visitor) {
+		if (m_pointCount == 0)
+			return true;
+
+		_verifyAllStreams();
+		AttributeStreamOfDbl xy = (AttributeStreamOfDbl) m_vertexAttributes[0];
+		double[] array = xy.getHeapArray();
+		for (int ipath = 0, npaths = getPathCount(); ipath < npaths; ipath++) {
+			int start = getPathStart(ipath);
+			int end = getPathEnd(ipath);
+			int last = isClosedPath(ipath) ? end : end - 1;
+			for (int i = start; i < last; i++) {
+				int inext = i + 1 < end ? i + 1 : start;
+				boolean bContinue;
+				if (array != null)
+					bContinue = visitor.visit(ipath, i, array[2 * i],
+							array[2 * i + 1], array[2 * inext],
+							array[2 * inext + 1]);
+				else
+					bContinue = visitor.visit(ipath, i, xy.read(2 * i),
+							xy.read(2 * i + 1), xy.read(2 * inext),
+							xy.read(2 * inext + 1));
+
+				if (!bContinue)
+					return false;
+			}
+		}
+
+		return true;
+	}
+
 	public boolean isClosedPathInXYPlane(int path_index) {
 		if (isClosedPath(path_index))
 			return true;
@@ -597,6 +640,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	// Reviewed vs. Native Jan 11, 2011
 	public void addSegment(Segment segment, boolean bStartNewPath) {
+		_beforeModify();
 		mergeVertexDescription(segment.getDescription());
 		if (segment.getType() == Type.Line) {
 			Point point = new Point();
@@ -622,6 +666,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 *            Creates reversed path.
 	 */
 	public void addEnvelope(Envelope2D envSrc, boolean bReverse) {
+		_beforeModify();
 		boolean bWasEmpty = m_pointCount == 0;
 
 		startPath(envSrc.xmin, envSrc.ymin);
@@ -655,6 +700,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 *            Creates reversed path.
 	 */
 	public void addEnvelope(Envelope envSrc, boolean bReverse) {
+		_beforeModify();
 		if (envSrc.isEmpty())
 			return;
 
@@ -679,6 +725,69 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 																// envelope
 	}
 
+	public void addPaths(double[] xy, double[] zs, double[] ms,
+			int[] pathOffsets, int pathCount) {
+		if (pathOffsets == null || pathCount < 0
+				|| pathOffsets.length < pathCount + 1 || pathOffsets[0] < 0)
+			throw new IllegalArgumentException();
+
+		int newPathCount = 0;
+		for (int i = 0; i < pathCount; i++) {
+			if (pathOffsets[i + 1] < pathOffsets[i])
+				throw new IllegalArgumentException();
+
+			if (pathOffsets[i + 1] > pathOffsets[i])
+				newPathCount++;
+		}
+
+		int end = pathOffsets[pathCount];
+		if (xy == null || xy.length < 2 * end
+				|| (zs != null && zs.length < end)
+				|| (ms != null && ms.length < end))
+			throw new IllegalArgumentException();
+
+		if (newPathCount == 0)
+			return;
+
+		if (m_bPathStarted)
+			throw new GeometryException("invalid call");
+
+		_beforeModify();
+		// addAttribute recalculates the point count from m_paths, so it has to
+		// be called before the new paths are written
+		if (zs != null)
+			addAttribute(VertexDescription.Semantics.Z);
+		if (ms != null)
+			addAttribute(VertexDescription.Semantics.M);
+
+		int from = pathOffsets[0];
+		int count = end - from;
+		int oldPointCount = m_pointCount;
+		if (m_paths == null) {
+			m_paths = (AttributeStreamOfInt32) AttributeStreamBase
+					.createIndexStream(1, 0);
+			m_pathFlags = (AttributeStreamOfInt8) AttributeStreamBase
+					.createByteStream(1, (byte) 0);
+		}
+
+		int ipath = m_paths.size() - 1;
+		m_paths.resize(ipath + newPathCount + 1, 0);
+		m_pathFlags.resize(ipath + newPathCount + 1, 0);
+		byte flags = m_bPolygon ? (byte) PathFlags.enumClosed : 0;
+		for (int i = 0; i < pathCount; i++) {
+			if (pathOffsets[i + 1] == pathOffsets[i])
+				continue;
+
+			m_paths.write(ipath, oldPointCount + pathOffsets[i] - from);
+			m_pathFlags.write(ipath, flags);
+			ipath++;
+		}
+
+		m_paths.write(ipath, oldPointCount + count);
+		m_pathFlags.write(ipath, (byte) 0);
+		_addVertices(xy, zs, ms, from, count);
+	}
+
 	// Reviewed vs. Native Jan 11, 2011
 	public void add(MultiPathImpl src, boolean bReversePaths) {
 		for (int i = 0; i < src.getPathCount(); i++)
@@ -697,6 +806,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	public void addSegmentsFromPath(MultiPathImpl src, int src_path_index,
 			int src_segment_from, int src_segment_count,
 			boolean b_start_new_path) {
+		_beforeModify();
 		if (!b_start_new_path && getPathCount() == 0)
 			b_start_new_path = true;
 
@@ -823,6 +933,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	// Reviewed vs. Native Jan 11, 2011
 	public void reverseAllPaths() {
+		_beforeModify();
 		for (int i = 0, n = getPathCount(); i < n; i++) {
 			reversePath(i);
 		}
@@ -830,6 +941,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	// Reviewed vs. Native Jan 11, 2011
 	public void reversePath(int pathIndex) {
+		_beforeModify();
 		_verifyAllStreams();
 		int pathCount = getPathCount();
 		if (pathIndex >= pathCount)
@@ -858,6 +970,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	// Reviewed vs. Native Jan 11, 2011
 	// TODO: Nonlinearsegments
 	public void removePath(int pathIndex) {
+		_beforeModify();
 		_verifyAllStreams();
 		int pathCount = getPathCount();
 
@@ -906,6 +1019,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	// TODO: Nonlinearsegments
 	public void insertPath(int pathIndex, MultiPathImpl src, int srcPathIndex,
 			boolean bForward) {
+		_beforeModify();
 		if (src == this)
 			throw new IllegalArgumentException();
 
@@ -1003,6 +1117,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	public void insertPath(int pathIndex, Point2D[] points, int pointsOffset,
 			int count, boolean bForward) {
+		_beforeModify();
 		int oldPathCount = getPathCount();
 		if (pathIndex > oldPathCount)
 			throw new IllegalArgumentException();
@@ -1079,6 +1194,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	public void insertPoints(int pathIndex, int beforePointIndex,
 			MultiPathImpl src, int srcPathIndex, int srcPointIndexFrom,
 			int srcPointCount, boolean bForward) {
+		_beforeModify();
 		if (pathIndex < 0)
 			pathIndex = getPathCount();
 
@@ -1187,6 +1303,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	public void insertPoints(int pathIndex, int beforePointIndex,
 			Point2D[] src, int srcPointIndexFrom, int srcPointCount,
 			boolean bForward) {
+		_beforeModify();
 		if (pathIndex < 0)
 			pathIndex = getPathCount();
 
@@ -1267,6 +1384,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void insertPoint(int pathIndex, int beforePointIndex, Point2D pt) {
+		_beforeModify();
 		int pathCount = getPathCount();
 
 		if (pathIndex < 0)
@@ -1316,6 +1434,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void insertPoint(int pathIndex, int beforePointIndex, Point pt) {
+		_beforeModify();
 		int pathCount = getPathCount();
 
 		if (pathIndex < 0)
@@ -1370,6 +1489,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void removePoint(int pathIndex, int pointIndex) {
+		_beforeModify();
 		int pathCount = getPathCount();
 
 		if (pathIndex < 0)
@@ -1623,6 +1743,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	void interpolateAttributes_(int semantics, int from_path_index,
 			int from_point_index, int to_path_index, int to_point_index,
 			double sub_length, int ordinate) {
+		_beforeModify();
 		SegmentIteratorImpl seg_iter = querySegmentIterator();
 
 		int absolute_from_index = getPathStart(from_path_index)
@@ -1674,6 +1795,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	void interpolateAttributes_(int semantics, int path_index,
 			int from_point_index, int to_point_index, double sub_length,
 			int ordinate) {
+		_beforeModify();
 		assert (m_bPolygon);
 		SegmentIteratorImpl seg_iter = querySegmentIterator();
 
@@ -1709,6 +1831,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	@Override
 	public void setEmpty() {
+		throwIfFrozen();
 		m_curveParamwritePoint = 0;
 		m_bPathStarted = false;
 		m_paths = null;
@@ -1725,6 +1848,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void applyTransformation(Transformation2D transform, int pathIndex) {
+		_beforeModify();
 		if (isEmpty())
 			return;
 
@@ -1792,6 +1916,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	@Override
 	public void applyTransformation(Transformation3D transform) {
+		_beforeModify();
 		if (isEmpty())
 			return;
 
@@ -1873,31 +1998,41 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 		dstPoly.m_curveParamwritePoint = m_curveParamwritePoint;
 		dstPoly.m_fill_rule = m_fill_rule;
 		
-		if (m_paths != null)
-			dstPoly.m_paths = new AttributeStreamOfInt32(m_paths);
-		else
-			dstPoly.m_paths = null;
+		if (isFrozen()) {
+			// the frozen streams never change, the copy shares them until it
+			// is modified
+			dstPoly.m_paths = m_paths;
+			dstPoly.m_pathFlags = m_pathFlags;
+			dstPoly.m_segmentParamIndex = m_segmentParamIndex;
+			dstPoly.m_segmentFlags = m_segmentFlags;
+			dstPoly.m_segmentParams = m_segmentParams;
+		} else {
+			if (m_paths != null)
+				dstPoly.m_paths = new AttributeStreamOfInt32(m_paths);
+			else
+				dstPoly.m_paths = null;
 
-		if (m_pathFlags != null)
-			dstPoly.m_pathFlags = new AttributeStreamOfInt8(m_pathFlags);
-		else
-			dstPoly.m_pathFlags = null;
+			if (m_pathFlags != null)
+				dstPoly.m_pathFlags = new AttributeStreamOfInt8(m_pathFlags);
+			else
+				dstPoly.m_pathFlags = null;
 
-		if (m_segmentParamIndex != null)
-			dstPoly.m_segmentParamIndex = new AttributeStreamOfInt32(
-					m_segmentParamIndex);
-		else
-			dstPoly.m_segmentParamIndex = null;
+			if (m_segmentParamIndex != null)
+				dstPoly.m_segmentParamIndex = new AttributeStreamOfInt32(
+						m_segmentParamIndex);
+			else
+				dstPoly.m_segmentParamIndex = null;
 
-		if (m_segmentFlags != null)
-			dstPoly.m_segmentFlags = new AttributeStreamOfInt8(m_segmentFlags);
-		else
-			dstPoly.m_segmentFlags = null;
+			if (m_segmentFlags != null)
+				dstPoly.m_segmentFlags = new AttributeStreamOfInt8(m_segmentFlags);
+			else
+				dstPoly.m_segmentFlags = null;
 
-		if (m_segmentParams != null)
-			dstPoly.m_segmentParams = new AttributeStreamOfDbl(m_segmentParams);
-		else
-			dstPoly.m_segmentParams = null;
+			if (m_segmentParams != null)
+				dstPoly.m_segmentParams = new AttributeStreamOfDbl(m_segmentParams);
+			else
+				dstPoly.m_segmentParams = null;
+		}
 
 		dstPoly.m_cachedLength2D = m_cachedLength2D;
 		dstPoly.m_cachedArea2D = m_cachedArea2D;
@@ -1909,6 +2044,38 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	}
 
+	@Override
+	void _unshareStreamsImpl() {
+		if (m_paths != null)
+			m_paths = new AttributeStreamOfInt32(m_paths);
+		if (m_pathFlags != null)
+			m_pathFlags = new AttributeStreamOfInt8(m_pathFlags);
+		if (m_segmentParamIndex != null)
+			m_segmentParamIndex = new AttributeStreamOfInt32(
+					m_segmentParamIndex);
+		if (m_segmentFlags != null)
+			m_segmentFlags = new AttributeStreamOfInt8(m_segmentFlags);
+		if (m_segmentParams != null)
+			m_segmentParams = new AttributeStreamOfDbl(m_segmentParams);
+		if (m_cachedRingAreas2D != null)
+			m_cachedRingAreas2D = new AttributeStreamOfDbl(m_cachedRingAreas2D);
+	}
+
+	@Override
+	void _freezeImpl() {
+		calculateLength2D();
+		if (m_bPolygon)
+			_updateRingAreas2D();
+
+		AttributeStreamBase[] streams = { m_paths, m_pathFlags,
+				m_segmentParamIndex, m_segmentFlags, m_segmentParams,
+				m_cachedRingAreas2D };
+		for (int i = 0; i < streams.length; i++) {
+			if (streams[i] != null)
+				streams[i].setReadonly();
+		}
+	}
+
 	@Override
 	public double calculateLength2D() {
 		if (!_hasDirtyFlag(DirtyFlags.DirtyLength2D)) {
@@ -2132,16 +2299,41 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 
 	protected void _updateOGCFlags() {
 		if (_hasDirtyFlag(DirtyFlags.DirtyOGCFlags)) {
+			if (isFrozen()) {
+				_updateOGCFlagsFrozen();
+				return;
+			}
+
+			if (m_bSharedStreams)
+				_unshareStreams();
+
 			_updateRingAreas2D();
-			_updateOGCFlagsHelper();
+			m_pathFlags = _updateOGCFlagsHelper(m_pathFlags);
 			_setDirtyFlag(DirtyFlags.DirtyOGCFlags, false);
 		}
 	}
+
+	// The frozen Geometry can be read by other threads, so the flags are
+	// calculated in a copy of the path flags, which then replaces the
+	// readonly one.
+	private synchronized void _updateOGCFlagsFrozen() {
+		if (!_hasDirtyFlag(DirtyFlags.DirtyOGCFlags))
+			return;
+
+		AttributeStreamOfInt8 pathFlags = _updateOGCFlagsHelper(m_pathFlags != null ? new AttributeStreamOfInt8(
+				m_pathFlags) : null);
+		if (pathFlags != null)
+			pathFlags.setReadonly();
+
+		m_pathFlags = pathFlags;
+		_setDirtyFlag(DirtyFlags.DirtyOGCFlags, false);
+	}
 	
-	private void _updateOGCFlagsHelper() {
+	private AttributeStreamOfInt8 _updateOGCFlagsHelper(
+			AttributeStreamOfInt8 pathFlags) {
 		int pathCount = getPathCount();
-		if (pathCount > 0 && (m_pathFlags == null || m_pathFlags.size() < pathCount))
-			m_pathFlags = (AttributeStreamOfInt8) AttributeStreamBase.createByteStream(pathCount + 1);
+		if (pathCount > 0 && (pathFlags == null || pathFlags.size() < pathCount))
+			pathFlags = (AttributeStreamOfInt8) AttributeStreamBase.createByteStream(pathCount + 1);
 
 		// firstSign is the sign of first ring.
 		// a first ring with non zero area defines the
@@ -2156,10 +2348,12 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 			}
 
 			if (area * firstSign > 0.0 || firstSign == 0)
-				m_pathFlags.setBits(ipath, (byte) PathFlags.enumOGCStartPolygon);
+				pathFlags.setBits(ipath, (byte) PathFlags.enumOGCStartPolygon);
 			else
-				m_pathFlags.clearBits(ipath, (byte) PathFlags.enumOGCStartPolygon);
+				pathFlags.clearBits(ipath, (byte) PathFlags.enumOGCStartPolygon);
 		}
+
+		return pathFlags;
 	}
 
 	public int getPathIndexFromPointIndex(int pointIndex) {
@@ -2301,6 +2495,9 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 */
 	public AttributeStreamOfInt32 getPathStreamRef() {
 		throwIfEmpty();
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		return m_paths;
 	}
 
@@ -2308,6 +2505,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 * sets a reference to an AttributeStream of MultiPathImpl paths (Paths).
 	 */
 	public void setPathStreamRef(AttributeStreamOfInt32 paths) {
+		_beforeModify();
 		m_paths = paths;
 		notifyModified(DirtyFlags.DirtyAll);
 	}
@@ -2321,6 +2519,9 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 */
 	public AttributeStreamOfInt8 getSegmentFlagsStreamRef() {
 		throwIfEmpty();
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		return m_segmentFlags;
 	}
 
@@ -2333,6 +2534,9 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 */
 	public AttributeStreamOfInt8 getPathFlagsStreamRef() {
 		throwIfEmpty();
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		return m_pathFlags;
 	}
 
@@ -2340,17 +2544,24 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	 * sets a reference to an AttributeStream of Path flags (PathFlags flags).
 	 */
 	public void setPathFlagsStreamRef(AttributeStreamOfInt8 pathFlags) {
+		_beforeModify();
 		m_pathFlags = pathFlags;
 		notifyModified(DirtyFlags.DirtyAll);
 	}
 
 	public AttributeStreamOfInt32 getSegmentIndexStreamRef() {
 		throwIfEmpty();
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		return m_segmentParamIndex;
 	}
 
 	public AttributeStreamOfDbl getSegmentDataStreamRef() {
 		throwIfEmpty();
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		return m_segmentParams;
 	}
 
@@ -2376,6 +2587,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void setDirtyOGCFlags(boolean bYesNo) {
+		_beforeModify();
 		_setDirtyFlag(DirtyFlags.DirtyOGCFlags, bYesNo);
 	}
 
@@ -2384,6 +2596,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void setDirtyRingAreas2D(boolean bYesNo) {
+		_beforeModify();
 		_setDirtyFlag(DirtyFlags.DirtyRingAreas2D, bYesNo);
 	}
 
@@ -2392,6 +2605,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	public void setRingAreasStreamRef(AttributeStreamOfDbl ringAreas) {
+		_beforeModify();
 		m_cachedRingAreas2D = ringAreas;
 		_setDirtyFlag(DirtyFlags.DirtyRingAreas2D, false);
 	}
@@ -2611,6 +2825,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	void setFillRule(int rule) {
+		_beforeModify();
 		assert (m_bPolygon);
 		m_fill_rule = rule;
 	}
@@ -2620,6 +2835,7 @@ final class MultiPathImpl extends MultiVertexGeometryImpl {
 	}
 
 	void clearDirtyOGCFlags() { 
+		_beforeModify();
 		_setDirtyFlag(DirtyFlags.DirtyOGCFlags, false);
 	}
 }
@@ -24,6 +24,7 @@
 
 package com.esri.core.geometry;
 
+import java.io.File;
 import java.io.Serializable;
 
 import static com.esri.core.geometry.SizeOf.SIZE_OF_MULTI_POINT;
@@ -164,6 +165,26 @@ public class MultiPoint extends MultiVertexGeometry implements
 		m_impl.add((MultiVertexGeometryImpl) src._getImpl(), srcFrom, srcTo);
 	}
 
+	/**
+	 * Appends points from arrays of coordinates. This is much faster than
+	 * adding the points one by one, because the storage is resized once and
+	 * each array is copied with a single call.
+	 * 
+	 * @param xy
+	 *            The x and y coordinates, interleaved (x0, y0, x1, y1, ...).
+	 * @param zs
+	 *            The z coordinates, or null. When not null, the Z attribute
+	 *            is added to the multipoint.
+	 * @param ms
+	 *            The m values, or null. When not null, the M attribute is
+	 *            added to the multipoint.
+	 * @param pointCount
+	 *            The number of points to append.
+	 */
+	public void addPoints(double[] xy, double[] zs, double[] ms, int pointCount) {
+		m_impl.addPoints(xy, zs, ms, pointCount);
+	}
+
 	void addPoints(Point2D[] points) {
 		m_impl.addPoints(points);
 	}
@@ -386,4 +407,50 @@ public class MultiPoint extends MultiVertexGeometry implements
     public void replaceNaNs(int semantics, double value) {
     	m_impl.replaceNaNs(semantics, value);
     }
+
+	@Override
+	public void moveToDirectMemory(File directory) {
+		m_impl.moveToDirectMemory(directory);
+	}
+
+	@Override
+	public void moveToHeapMemory() {
+		m_impl.moveToHeapMemory();
+	}
+
+	@Override
+	public void releaseDirectMemory() {
+		m_impl.releaseDirectMemory();
+	}
+
+	@Override
+	public boolean isInDirectMemory() {
+		return m_impl.isInDirectMemory();
+	}
+
+	@Override
+	public void setPositionStorage(PositionStorage storage) {
+		m_impl.setPositionStorage(storage);
+	}
+
+	@Override
+	public PositionStorage getPositionStorage() {
+		return m_impl.getPositionStorage();
+	}
+
+	@Override
+	public void freeze() {
+		m_impl.freeze();
+		super.freeze();
+	}
+
+	@Override
+	public boolean visitVertices(VertexVisitor visitor) {
+		return m_impl.visitVertices(visitor);
+	}
+
+	@Override
+	public boolean visitVerticesZM(VertexVisitor visitor) {
+		return m_impl.visitVerticesZM(visitor);
+	}
 }
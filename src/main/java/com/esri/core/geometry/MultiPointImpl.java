@@ -121,6 +121,10 @@ final class MultiPointImpl extends MultiVertexGeometryImpl {
 			setXY(oldPointCount + i, points[i]);
 	}
 
+	public void addPoints(double[] xy, double[] zs, double[] ms, int pointCount) {
+		_addVertices(xy, zs, ms, 0, pointCount);
+	}
+
 	public void insertPoint(int beforePointIndex, Point pt) {
 		if (beforePointIndex > getPointCount())
 			throw new GeometryException("index out of bounds");
@@ -157,6 +161,7 @@ final class MultiPointImpl extends MultiVertexGeometryImpl {
 	}
 
 	void removePoint(int pointIndex) {
+		_beforeModify();
 		if (pointIndex < 0 || pointIndex >= getPointCount())
 			throw new GeometryException("index out of bounds");
 
@@ -188,6 +193,14 @@ final class MultiPointImpl extends MultiVertexGeometryImpl {
 	void _copyToImpl(MultiVertexGeometryImpl mvg) {
 	}
 
+	@Override
+	void _unshareStreamsImpl() {
+	}
+
+	@Override
+	void _freezeImpl() {
+	}
+
 	@Override
 	public void setEmpty() {
 		super._setEmptyImpl();
@@ -195,6 +208,7 @@ final class MultiPointImpl extends MultiVertexGeometryImpl {
 
 	@Override
 	public void applyTransformation(Transformation2D transform) {
+		_beforeModify();
 		if (isEmpty())
 			return;
 
@@ -218,6 +232,7 @@ final class MultiPointImpl extends MultiVertexGeometryImpl {
 
 	@Override
 	void applyTransformation(Transformation3D transform) {
+		_beforeModify();
 		if (isEmpty())
 			return;
 
@@ -24,6 +24,7 @@
 
 package com.esri.core.geometry;
 
+import java.io.File;
 import java.io.Serializable;
 
 /**
@@ -216,4 +217,80 @@ public abstract class MultiVertexGeometry extends Geometry implements
 	 */
 	public abstract void setPointByVal(int index, Point pointSrc);
 
+	/**
+	 * Moves the vertex attributes of the Geometry outside of the java heap.
+	 * 
+	 * Use this for very large geometries to avoid long garbage collection
+	 * pauses. The attributes added later are also allocated outside of the
+	 * heap. Copies of the Geometry keep the attributes in direct memory too.
+	 * Call releaseDirectMemory or moveToHeapMemory when the Geometry is not
+	 * needed anymore, to free the memory without waiting for the garbage
+	 * collector.
+	 * 
+	 * @param directory
+	 *            When not null, each attribute is backed by a memory mapped
+	 *            temporary file in this directory. The files are deleted when
+	 *            the memory is released. When null, the attributes are stored
+	 *            in direct ByteBuffers.
+	 */
+	public abstract void moveToDirectMemory(File directory);
+
+	/**
+	 * Moves the vertex attributes back to the java heap and frees the direct
+	 * memory used by this Geometry.
+	 */
+	public abstract void moveToHeapMemory();
+
+	/**
+	 * Frees the direct memory used by this Geometry immediately. The Geometry
+	 * becomes empty. Does nothing if the Geometry is stored on the java heap.
+	 */
+	public abstract void releaseDirectMemory();
+
+	/**
+	 * Returns true if the vertex attributes are stored outside of the java
+	 * heap (see moveToDirectMemory).
+	 */
+	public abstract boolean isInDirectMemory();
+
+	/**
+	 * Changes how the xy coordinates of the Geometry are stored (see
+	 * PositionStorage). The existing coordinates are converted and rounded to
+	 * the new precision. Copies of the Geometry keep the storage.
+	 * 
+	 * The compact storage is not available for Geometries in direct memory.
+	 * moveToDirectMemory switches the Geometry back to double precision.
+	 * 
+	 * @param storage
+	 *            The storage for the coordinates.
+	 */
+	public abstract void setPositionStorage(PositionStorage storage);
+
+	/**
+	 * Returns how the xy coordinates of the Geometry are stored.
+	 */
+	public abstract PositionStorage getPositionStorage();
+
+	/**
+	 * Calls the visitor for each vertex, in the order of the vertices, with
+	 * the xy coordinates of the vertex. The coordinates are read directly from
+	 * the storage of the Geometry, without creating a Point or a Point2D per
+	 * vertex. The Geometry must not be modified during the visit.
+	 * 
+	 * @param visitor
+	 *            The visitor.
+	 * @return False if the visitor stopped the visit, True otherwise.
+	 */
+	public abstract boolean visitVertices(VertexVisitor visitor);
+
+	/**
+	 * Same as visitVertices, but calls the visitor with the z and m values of
+	 * each vertex as well.
+	 * 
+	 * @param visitor
+	 *            The visitor.
+	 * @return False if the visitor stopped the visit, True otherwise.
+	 */
+	public abstract boolean visitVerticesZM(VertexVisitor visitor);
+
 }
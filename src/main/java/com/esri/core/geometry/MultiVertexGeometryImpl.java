@@ -25,6 +25,8 @@
 
 package com.esri.core.geometry;
 
+import java.io.File;
+
 import com.esri.core.geometry.Geometry.GeometryAccelerationDegree;
 import com.esri.core.geometry.VertexDescription.Semantics;
 
@@ -62,6 +64,12 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	 */
 	protected abstract void _verifyStreamsImpl();
 
+	/**
+	 * Makes private copies of the streams specific to the Geometry type, which
+	 * are shared with a frozen Geometry (see _unshareStreams).
+	 */
+	abstract void _unshareStreamsImpl();
+
 	public interface DirtyFlags {
 		/**0 when IsWeakSimple flag is valid*/
 		int DirtyIsKnownSimple = 1;
@@ -150,6 +158,15 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 										// initialized to default value.
 	protected int m_flagsMask;
 	protected double m_simpleTolerance;
+	// True when the vertex attributes are allocated outside of the java heap.
+	boolean m_bDirectMemory;
+	// The directory for the memory mapped files of the direct attributes.
+	File m_directMemoryDirectory;
+	// The storage of the POSITION stream. Null for the double precision.
+	PositionStorage m_positionStorage;
+	// True when the streams are shared with the frozen Geometry this one was
+	// copied from. The streams are copied on the first change.
+	boolean m_bSharedStreams;
 
 	public MultiVertexGeometryImpl() {
 		m_flagsMask = DirtyFlags.DirtyAllInternal;
@@ -186,6 +203,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 
 	@Override
 	public void setPointByVal(int index, Point src) {
+		_beforeModify();
 		if (index < 0 || index >= m_pointCount)
 			throw new GeometryException("index out of bounds");
 
@@ -231,6 +249,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	// Checked vs. Jan 11, 2011
 	@Override
 	public void setXY(int index, Point2D pt) {
+		_beforeModify();
 		if (index < 0 || index >= m_pointCount)
 			// TODO exception
 			throw new IndexOutOfBoundsException();
@@ -245,6 +264,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 
 	// Checked vs. Jan 11, 2011
 	public void setXY(int index, double x, double y) {
+		_beforeModify();
 		if (index < 0 || index >= m_pointCount)
 			// TODO exc
 			throw new IndexOutOfBoundsException();
@@ -283,6 +303,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	// Checked vs. Jan 11, 2011
 	@Override
 	public void setXYZ(int index, Point3D pt) {
+		_beforeModify();
 		if (index < 0 || index >= getPointCount())
 			throw new IndexOutOfBoundsException();
 
@@ -328,6 +349,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	@Override
 	public void setAttribute(int semantics, int offset, int ordinate,
 			double value) {
+		_beforeModify();
 		if (offset < 0 || offset >= m_pointCount)
 			throw new IndexOutOfBoundsException();
 
@@ -353,6 +375,9 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 		throwIfEmpty();
 
 		addAttribute(semantics);
+		if (m_bSharedStreams)
+			_unshareStreams();// the caller may write to the stream
+
 		_verifyAllStreams();
 
 		int attributeIndex = m_description.getAttributeIndex(semantics);
@@ -375,6 +400,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	 * persistence.
 	 */
 	public void setAttributeStreamRef(int semantics, AttributeStreamBase stream) {
+		_beforeModify();
 		// int test1 = VertexDescription.getPersistence(semantics);
 		// int test2 = stream.getPersistence();
 
@@ -571,6 +597,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	 * that of the Geometry.
 	 */
 	public void setEnvelope(Envelope env) {
+		_beforeModify();
 		if (!m_description.equals(env.getDescription()))
 			throw new IllegalArgumentException();
 
@@ -591,15 +618,20 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	
 	//Does not check geometry type. Used to copy Polygon to Polyline
 	void _copyToUnsafe(MultiVertexGeometryImpl dst) {
+		dst.throwIfFrozen();
 		_verifyAllStreams();
 		dst.m_description = m_description;
 		dst.m_vertexAttributes = null;
 		int nattrib = m_description.getAttributeCount();
 		AttributeStreamBase[] cloneAttributes = null;
+		boolean bShare = isFrozen();
 		if (m_vertexAttributes != null) {
 			cloneAttributes = new AttributeStreamBase[nattrib];
 			for (int i = 0; i < nattrib; i++) {
-				if (m_vertexAttributes[i] != null) {
+				if (bShare) {
+					// the frozen streams never change
+					cloneAttributes[i] = m_vertexAttributes[i];
+				} else if (m_vertexAttributes[i] != null) {
 					int ncomps = VertexDescription
 							.getComponentCount(m_description
 									._getSemanticsImpl(i));
@@ -619,6 +651,10 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 		dst.m_pointCount = m_pointCount;
 		dst.m_flagsMask = m_flagsMask;
 		dst.m_vertexAttributes = cloneAttributes;
+		dst.m_bDirectMemory = m_bDirectMemory;
+		dst.m_directMemoryDirectory = null;// clones are not memory mapped
+		dst.m_positionStorage = m_positionStorage;
+		dst.m_bSharedStreams = bShare;
 
 		try {
 			_copyToImpl(dst); // copy child props
@@ -640,8 +676,299 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 		return false;
 	}
 
+	@Override
+	public void moveToDirectMemory(File directory) {
+		_beforeModify();
+		if (!isEmptyImpl())
+			_verifyAllStreams();
+
+		m_bDirectMemory = true;
+		m_directMemoryDirectory = directory;
+		m_positionStorage = null;
+		if (isEmptyImpl())
+			return;
+
+		for (int i = 0, n = m_description.getAttributeCount(); i < n; i++) {
+			int semantics = m_description._getSemanticsImpl(i);
+			AttributeStreamBase stream = m_vertexAttributes[i];
+			AttributeStreamBase direct = AttributeStreamBase
+					.createDirectAttributeStreamWithSemantics(semantics,
+							m_pointCount, directory);
+			int size = m_pointCount
+					* VertexDescription.getComponentCount(semantics);
+			direct.writeRange(0, size, stream, 0, true, 1);
+			m_vertexAttributes[i] = direct;
+			stream.release();
+		}
+
+		m_reservedPointCount = m_pointCount;
+	}
+
+	@Override
+	public void moveToHeapMemory() {
+		_beforeModify();
+		m_bDirectMemory = false;
+		m_directMemoryDirectory = null;
+		if (isEmptyImpl())
+			return;
+
+		_verifyAllStreams();
+		for (int i = 0, n = m_description.getAttributeCount(); i < n; i++) {
+			AttributeStreamBase stream = m_vertexAttributes[i];
+			if (!stream.isDirect())
+				continue;
+
+			int semantics = m_description._getSemanticsImpl(i);
+			int size = m_pointCount
+					* VertexDescription.getComponentCount(semantics);
+			AttributeStreamBase heap = AttributeStreamBase
+					.createAttributeStreamWithSemantics(semantics, 0);
+			heap.writeRange(0, size, stream, 0, true, 1);
+			m_vertexAttributes[i] = heap;
+			stream.release();
+		}
+
+		m_reservedPointCount = m_pointCount;
+	}
+
+	@Override
+	public void releaseDirectMemory() {
+		throwIfFrozen();
+		// the streams shared with a frozen geometry still belong to it, so
+		// only drop the references to them
+		if (m_vertexAttributes != null && !m_bSharedStreams) {
+			for (int i = 0; i < m_vertexAttributes.length; i++) {
+				if (m_vertexAttributes[i] != null)
+					m_vertexAttributes[i].release();
+			}
+		}
+
+		m_bSharedStreams = false;
+		m_bDirectMemory = false;
+		m_directMemoryDirectory = null;
+		setEmpty();
+	}
+
+	@Override
+	public boolean isInDirectMemory() {
+		return m_bDirectMemory;
+	}
+
+	@Override
+	public void setPositionStorage(PositionStorage storage) {
+		_beforeModify();
+		if (storage == null)
+			throw new IllegalArgumentException();
+
+		if (storage.equals(getPositionStorage()))
+			return;
+
+		boolean bDouble = storage.getType() == PositionStorage.Type.DoublePrecision;
+		if (m_bDirectMemory && !bDouble)
+			throw new GeometryException(
+					"invalid call. The compact position storage is not supported in direct memory.");
+
+		if (!isEmptyImpl()) {
+			_verifyAllStreams();
+			AttributeStreamOfDbl stream = (AttributeStreamOfDbl) m_vertexAttributes[0];
+			int size = m_pointCount * 2;
+			AttributeStreamOfDbl converted = bDouble ? new AttributeStreamOfDbl(
+					size) : storage.createStream(size);
+			// throws when the coordinates do not fit before anything changes
+			converted.writeRange(0, size, stream, 0, true, 1);
+			m_vertexAttributes[0] = converted;
+			m_reservedPointCount = m_pointCount;
+			notifyModified(DirtyFlags.DirtyCoordinates);
+		}
+
+		m_positionStorage = bDouble ? null : storage;
+	}
+
+	@Override
+	public PositionStorage getPositionStorage() {
+		return m_positionStorage != null ? m_positionStorage : PositionStorage
+				.doublePrecision();
+	}
+
+	/**
+	 * Appends count vertices with the coordinates from the arrays, starting
+	 * at the vertex from of the arrays. The streams are resized once and each
+	 * array is copied with one call. zs and ms can be null. When the Geometry
+	 * was empty and has no other attributes, the envelope is calculated from
+	 * the arrays, so it does not need another pass over the streams.
+	 */
+	void _addVertices(double[] xy, double[] zs, double[] ms, int from,
+			int count) {
+		if (xy == null || from < 0 || count < 0
+				|| xy.length < 2 * (from + count)
+				|| (zs != null && zs.length < from + count)
+				|| (ms != null && ms.length < from + count))
+			throw new IllegalArgumentException();
+
+		if (count == 0)
+			return;
+
+		_beforeModify();
+		if (zs != null)
+			addAttribute(Semantics.Z);
+		if (ms != null)
+			addAttribute(Semantics.M);
+
+		boolean bWasEmpty = m_pointCount == 0;
+		int oldPointCount = m_pointCount;
+		_resizeImpl(oldPointCount + count);
+		_verifyAllStreams();
+		((AttributeStreamOfDbl) m_vertexAttributes[0]).writeRange(
+				2 * oldPointCount, 2 * count, xy, 2 * from, true);
+		if (zs != null)
+			((AttributeStreamOfDbl) m_vertexAttributes[m_description
+					.getAttributeIndex(Semantics.Z)]).writeRange(oldPointCount,
+					count, zs, from, true);
+		if (ms != null)
+			((AttributeStreamOfDbl) m_vertexAttributes[m_description
+					.getAttributeIndex(Semantics.M)]).writeRange(oldPointCount,
+					count, ms, from, true);
+
+		notifyModified(DirtyFlags.DirtyCoordinates);
+
+		// The compact storages round the coordinates, the envelope has to be
+		// calculated from the stored values then.
+		int attributeCount = 1 + (zs != null ? 1 : 0) + (ms != null ? 1 : 0);
+		if (!bWasEmpty || m_positionStorage != null
+				|| m_description.getAttributeCount() != attributeCount)
+			return;
+
+		Envelope2D env2D = new Envelope2D();
+		env2D.setEmpty();
+		for (int i = from, n = from + count; i < n; i++) {
+			double x = xy[2 * i];
+			double y = xy[2 * i + 1];
+			if (NumberUtils.isNaN(x) || NumberUtils.isNaN(y))
+				return;// leave it to _updateAllDirtyIntervals
+
+			env2D.merge(x, y);
+		}
+
+		Envelope envelope = new Envelope(m_description, env2D);
+		if (zs != null)
+			envelope.setInterval(Semantics.Z, 0, queryInterval_(zs, from, count));
+		if (ms != null)
+			envelope.setInterval(Semantics.M, 0, queryInterval_(ms, from, count));
+
+		m_envelope = envelope;
+		_setDirtyFlag(DirtyFlags.DirtyIntervals, false);
+	}
+
+	private static Envelope1D queryInterval_(double[] values, int from,
+			int count) {
+		Envelope1D interval = new Envelope1D();
+		interval.setEmpty();
+		for (int i = from, n = from + count; i < n; i++)
+			interval.merge(values[i]);
+
+		return interval;
+	}
+
+	@Override
+	public boolean visitVertices(VertexVisitor visitor) {
+		if (m_pointCount == 0)
+			return true;
+
+		_verifyAllStreams();
+		AttributeStreamOfDbl xy = (AttributeStreamOfDbl) m_vertexAttributes[0];
+		double[] array = xy.getHeapArray();
+		int n = m_pointCount;
+		if (array != null) {
+			for (int i = 0; i < n; i++) {
+				if (!visitor.visit(i, array[2 * i], array[2 * i + 1]))
+					return false;
+			}
+		} else {
+			for (int i = 0; i < n; i++) {
+				if (!visitor.visit(i, xy.read(2 * i), xy.read(2 * i + 1)))
+					return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean visitVerticesZM(VertexVisitor visitor) {
+		if (m_pointCount == 0)
+			return true;
+
+		_verifyAllStreams();
+		AttributeStreamOfDbl xy = (AttributeStreamOfDbl) m_vertexAttributes[0];
+		int zIndex = m_description.getAttributeIndex(Semantics.Z);
+		int mIndex = m_description.getAttributeIndex(Semantics.M);
+		AttributeStreamBase zs = zIndex >= 0 ? m_vertexAttributes[zIndex] : null;
+		AttributeStreamBase ms = mIndex >= 0 ? m_vertexAttributes[mIndex] : null;
+		double defaultZ = VertexDescription.getDefaultValue(Semantics.Z);
+		double defaultM = VertexDescription.getDefaultValue(Semantics.M);
+		for (int i = 0, n = m_pointCount; i < n; i++) {
+			double z = zs != null ? zs.readAsDbl(i) : defaultZ;
+			double m = ms != null ? ms.readAsDbl(i) : defaultM;
+			if (!visitor.visit(i, xy.read(2 * i), xy.read(2 * i + 1), z, m))
+				return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void freeze() {
+		if (isFrozen())
+			return;
+
+		// Calculates the cached values, so that the frozen Geometry is not
+		// changed when it is read by several threads.
+		_updateAllDirtyIntervals(true);
+		_freezeImpl();
+		m_bSharedStreams = false;// other frozen geometries do not change either
+		if (m_vertexAttributes != null) {
+			for (int i = 0; i < m_vertexAttributes.length; i++) {
+				if (m_vertexAttributes[i] != null)
+					m_vertexAttributes[i].setReadonly();
+			}
+		}
+
+		super.freeze();
+	}
+
+	/**
+	 * Calculates the cached values specific to the Geometry type and makes
+	 * the streams specific to the type readonly.
+	 */
+	abstract void _freezeImpl();
+
+	/**
+	 * Called before the Geometry is changed. Throws if the Geometry is frozen,
+	 * and makes private copies of the streams shared with a frozen Geometry.
+	 */
+	final void _beforeModify() {
+		throwIfFrozen();
+		if (m_bSharedStreams)
+			_unshareStreams();
+	}
+
+	void _unshareStreams() {
+		m_bSharedStreams = false;
+		if (m_vertexAttributes != null) {
+			for (int i = 0; i < m_vertexAttributes.length; i++) {
+				AttributeStreamBase stream = m_vertexAttributes[i];
+				if (stream != null)
+					m_vertexAttributes[i] = stream.restrictedClone(stream
+							.virtualSize());
+			}
+		}
+
+		_unshareStreamsImpl();
+	}
+
 	// Checked vs. Jan 11, 2011
 	void _setEmptyImpl() {
+		throwIfFrozen();
 		m_pointCount = 0;
 		m_reservedPointCount = -1;
 		m_vertexAttributes = null;// release it all streams.
@@ -774,9 +1101,19 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 					if (size < m_reservedPointCount)
 						m_reservedPointCount = size;
 				} else {
-					m_vertexAttributes[attributeIndex] = AttributeStreamBase
-							.createAttributeStreamWithSemantics(semantics,
-									m_pointCount);
+					if (m_bDirectMemory)
+						m_vertexAttributes[attributeIndex] = AttributeStreamBase
+								.createDirectAttributeStreamWithSemantics(
+										semantics, m_pointCount,
+										m_directMemoryDirectory);
+					else if (m_positionStorage != null
+							&& semantics == VertexDescription.Semantics.POSITION)
+						m_vertexAttributes[attributeIndex] = m_positionStorage
+								.createStream(m_pointCount * 2);
+					else
+						m_vertexAttributes[attributeIndex] = AttributeStreamBase
+								.createAttributeStreamWithSemantics(semantics,
+										m_pointCount);
 					m_reservedPointCount = m_pointCount;
 				}
 			}
@@ -788,6 +1125,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 
 	// Checked vs. Jan 11, 2011
 	void _resizeImpl(int pointCount) {
+		_beforeModify();
 		if (pointCount < 0)
 			throw new IllegalArgumentException();
 
@@ -881,28 +1219,42 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 	}
 
 	void setIsSimple(int isSimpleRes, double tolerance, boolean ogc_known) {
-		m_simpleTolerance = tolerance;
-		if (isSimpleRes == GeometryXSimple.Unknown) {
-			_setDirtyFlag(DirtyFlags.DirtyIsKnownSimple, true);
-			_setDirtyFlag(DirtyFlags.DirtyOGCFlags, true);
+		if (isFrozen()) {
+			// The frozen Geometry caches the simple flag for all threads.
+			synchronized (this) {
+				setIsSimpleImpl_(isSimpleRes, tolerance, ogc_known);
+			}
 			return;
 		}
-		_setDirtyFlag(DirtyFlags.DirtyIsKnownSimple, false);
-
-		if (!ogc_known)
-			_setDirtyFlag(DirtyFlags.DirtyOGCFlags, true);
-
-		if (isSimpleRes == GeometryXSimple.Not) {
-			_setDirtyFlag(DirtyFlags.IsWeakSimple, false);
-			_setDirtyFlag(DirtyFlags.IsStrongSimple, false);
-		} else if (isSimpleRes == GeometryXSimple.Weak) {
-			_setDirtyFlag(DirtyFlags.IsWeakSimple, true);
-			_setDirtyFlag(DirtyFlags.IsStrongSimple, false);
-		} else if (isSimpleRes == GeometryXSimple.Strong) {
-			_setDirtyFlag(DirtyFlags.IsWeakSimple, true);
-			_setDirtyFlag(DirtyFlags.IsStrongSimple, true);
-		} else
-			throw GeometryException.GeometryInternalError();// what?
+
+		setIsSimpleImpl_(isSimpleRes, tolerance, ogc_known);
+	}
+
+	// The flags are written at once, so that a reader on another thread does
+	// not see a partial update.
+	private void setIsSimpleImpl_(int isSimpleRes, double tolerance,
+			boolean ogc_known) {
+		int flags = m_flagsMask;
+		if (isSimpleRes == GeometryXSimple.Unknown) {
+			flags |= DirtyFlags.DirtyIsKnownSimple | DirtyFlags.DirtyOGCFlags;
+		} else {
+			flags &= ~DirtyFlags.DirtyIsKnownSimple;
+			if (!ogc_known)
+				flags |= DirtyFlags.DirtyOGCFlags;
+
+			if (isSimpleRes == GeometryXSimple.Not)
+				flags &= ~(DirtyFlags.IsWeakSimple | DirtyFlags.IsStrongSimple);
+			else if (isSimpleRes == GeometryXSimple.Weak)
+				flags = (flags | DirtyFlags.IsWeakSimple)
+						& ~DirtyFlags.IsStrongSimple;
+			else if (isSimpleRes == GeometryXSimple.Strong)
+				flags |= DirtyFlags.IsWeakSimple | DirtyFlags.IsStrongSimple;
+			else
+				throw GeometryException.GeometryInternalError();// what?
+		}
+
+		m_simpleTolerance = tolerance;
+		m_flagsMask = flags;
 	}
 
 	double _getSimpleTolerance() {
@@ -977,6 +1329,7 @@ abstract class MultiVertexGeometryImpl extends MultiVertexGeometry {
 
 	@Override
 	public void setPoint(int index, Point src) {
+		_beforeModify();
 		if (index < 0 || index >= m_pointCount)
 			throw new IndexOutOfBoundsException();
 
@@ -0,0 +1,205 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory block outside of the java heap used by the direct attribute streams.
+ * The block is either a direct ByteBuffer or a memory mapped region of a file.
+ * The content is in the native byte order.
+ */
+final class OffHeapBuffer {
+	private ByteBuffer m_bytes;
+	private RandomAccessFile m_file;
+	private File m_path;
+
+	/**
+	 * Allocates a direct buffer of the given size in bytes.
+	 */
+	OffHeapBuffer(long capacityBytes) {
+		m_bytes = ByteBuffer.allocateDirect(checkCapacity(capacityBytes))
+				.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Maps a new temporary file created in the given directory. The file is
+	 * deleted when the buffer is released.
+	 */
+	OffHeapBuffer(File directory, long capacityBytes) {
+		try {
+			m_path = File.createTempFile("geom", ".bin", directory);
+			m_path.deleteOnExit();
+			m_file = new RandomAccessFile(m_path, "rw");
+			m_bytes = map_(checkCapacity(capacityBytes));
+		} catch (IOException e) {
+			release();
+			throw new GeometryException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the memory. The instance changes when the buffer is resized.
+	 */
+	ByteBuffer getBytes() {
+		if (m_bytes == null)
+			throw new GeometryException(
+					"invalid call. The direct memory has been released.");
+
+		return m_bytes;
+	}
+
+	boolean isMapped() {
+		return m_file != null;
+	}
+
+	File getMappedFile() {
+		return m_path;
+	}
+
+	int capacity() {
+		return m_bytes != null ? m_bytes.capacity() : 0;
+	}
+
+	/**
+	 * Changes the size of the buffer and preserves the first preserveBytes of
+	 * the content. The memory of the previous buffer is left to the garbage
+	 * collector, because views of it may still be referenced.
+	 */
+	void resize(long capacityBytes, int preserveBytes) {
+		int newCapacity = checkCapacity(capacityBytes);
+		ByteBuffer old = getBytes();
+		if (m_file != null) {
+			// the file keeps the content, remapping is enough
+			try {
+				m_bytes = map_(newCapacity);
+			} catch (IOException e) {
+				throw new GeometryException(e.getMessage());
+			}
+			return;
+		}
+
+		ByteBuffer bytes = ByteBuffer.allocateDirect(newCapacity).order(
+				ByteOrder.nativeOrder());
+		ByteBuffer src = old.duplicate();
+		src.position(0);
+		src.limit(Math.min(preserveBytes, newCapacity));
+		bytes.put(src);
+		bytes.clear();
+		m_bytes = bytes;
+	}
+
+	/**
+	 * Frees the memory immediately. Any view of the memory obtained before
+	 * must not be used after this call.
+	 */
+	void release() {
+		ByteBuffer bytes = m_bytes;
+		m_bytes = null;
+		freeDirectBuffer(bytes);
+		if (m_file != null) {
+			try {
+				m_file.close();
+			} catch (IOException e) {
+				// nothing can be done at this point
+			}
+			m_file = null;
+		}
+
+		if (m_path != null) {
+			m_path.delete();
+			m_path = null;
+		}
+	}
+
+	private ByteBuffer map_(int capacityBytes) throws IOException {
+		if (m_file.length() < capacityBytes)
+			m_file.setLength(capacityBytes);
+
+		return m_file.getChannel()
+				.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes)
+				.order(ByteOrder.nativeOrder());
+	}
+
+	private static int checkCapacity(long capacityBytes) {
+		if (capacityBytes < 0 || capacityBytes > NumberUtils.intMax())
+			throw new GeometryException(
+					"invalid call. Direct attribute stream is limited to 2GB.");
+
+		return (int) capacityBytes;
+	}
+
+	private static Object s_unsafe;
+	private static Method s_invokeCleaner;
+	private static boolean s_cleanerInitialized;
+
+	/**
+	 * Frees the memory of a direct buffer without waiting for the garbage
+	 * collector. Uses Unsafe.invokeCleaner on java 9 and later and the buffer
+	 * cleaner on earlier versions. Does nothing if neither is accessible.
+	 */
+	static void freeDirectBuffer(ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect())
+			return;
+
+		synchronized (OffHeapBuffer.class) {
+			if (!s_cleanerInitialized) {
+				s_cleanerInitialized = true;
+				try {
+					Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+					Method invokeCleaner = unsafeClass.getMethod(
+							"invokeCleaner", ByteBuffer.class);
+					Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+					theUnsafe.setAccessible(true);
+					s_unsafe = theUnsafe.get(null);
+					s_invokeCleaner = invokeCleaner;
+				} catch (Exception e) {
+					s_invokeCleaner = null;// java 8 and earlier
+				}
+			}
+		}
+
+		try {
+			if (s_invokeCleaner != null) {
+				s_invokeCleaner.invoke(s_unsafe, buffer);
+			} else {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null)
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			// The memory is freed when the buffer is garbage collected.
+		}
+	}
+}
@@ -43,7 +43,19 @@ final class OperatorBoundaryLocalCursor extends GeometryCursor {
 			Geometry geometry = m_inputGeometryCursor.next();
 			if (geometry != null) {
 				m_index = m_inputGeometryCursor.getGeometryID();
-				return calculate_boundary(geometry, m_progress_tracker);
+				OperatorTrace trace = OperatorTrace.begin(Operator.Type.Boundary,
+						geometry, null);
+				try {
+					Geometry result = calculate_boundary(geometry,
+							m_progress_tracker);
+					if (trace != null)
+						trace.end(result);
+
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
 			}
 
 			m_b_done = true;
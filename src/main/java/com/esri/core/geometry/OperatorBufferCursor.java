@@ -63,7 +63,18 @@ class OperatorBufferCursor extends GeometryCursor {
 				if (m_dindex + 1 < m_distances.length)
 					m_dindex++;
 
-				return buffer(geom, m_distances[m_dindex]);
+				OperatorTrace trace = OperatorTrace.begin(Operator.Type.Buffer,
+						geom, null);
+				try {
+					Geometry result = buffer(geom, m_distances[m_dindex]);
+					if (trace != null)
+						trace.end(result);
+
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
 			}
 			return null;
 		}
@@ -30,6 +30,21 @@ public class OperatorCentroid2DLocal extends OperatorCentroid2D {
 			return null;
 		}
 
+		OperatorTrace trace = OperatorTrace.begin(Type.Centroid2D, geometry,
+				null);
+		try {
+			Point2D centroid = centroid_(geometry);
+			if (trace != null)
+				trace.end();
+
+			return centroid;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private static Point2D centroid_(Geometry geometry) {
 		Geometry.Type geometryType = geometry.getType();
 		switch (geometryType) {
 		case Point:
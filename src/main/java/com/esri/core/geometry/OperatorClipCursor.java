@@ -50,7 +50,19 @@ class OperatorClipCursor extends GeometryCursor {
 		Geometry geometry;
 		if ((geometry = m_inputGeometryCursor.next()) != null) {
 			m_index = m_inputGeometryCursor.getGeometryID();
-			return Clipper.clip(geometry, m_envelope, m_tolerance, 0.0);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.Clip,
+					geometry, null);
+			try {
+				Geometry result = Clipper.clip(geometry, m_envelope, m_tolerance,
+						0.0);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
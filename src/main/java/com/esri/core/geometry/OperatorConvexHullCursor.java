@@ -46,9 +46,21 @@ class OperatorConvexHullCursor extends GeometryCursor {
 	public Geometry next() {
 		if (m_b_merge) {
 			if (!m_b_done) {
-				Geometry result = calculateConvexHullMerging_(m_inputGeometryCursor, m_progress_tracker);
-				m_b_done = true;
-				return result;
+				// the inputs are read while the trace runs, their vertices are
+				// not counted
+				OperatorTrace trace = OperatorTrace.begin(
+						Operator.Type.ConvexHull, null, null);
+				try {
+					Geometry result = calculateConvexHullMerging_(m_inputGeometryCursor, m_progress_tracker);
+					if (trace != null)
+						trace.end(result);
+
+					m_b_done = true;
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
 			}
 
 			return null;
@@ -58,7 +70,19 @@ class OperatorConvexHullCursor extends GeometryCursor {
 			Geometry geometry = m_inputGeometryCursor.next();
 			if (geometry != null) {
 				m_index = m_inputGeometryCursor.getGeometryID();
-				return calculateConvexHull_(geometry, m_progress_tracker);
+				OperatorTrace trace = OperatorTrace.begin(Operator.Type.ConvexHull,
+						geometry, null);
+				try {
+					Geometry result = calculateConvexHull_(geometry,
+							m_progress_tracker);
+					if (trace != null)
+						trace.end(result);
+
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
 			}
 
 			m_b_done = true;
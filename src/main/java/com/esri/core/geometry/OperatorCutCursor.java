@@ -72,19 +72,33 @@ class OperatorCutCursor extends GeometryCursor {
 			return;
 		
 		m_cuts = new ArrayList<MultiPath>();
-		
-		Geometry.Type type = m_cuttee.getType();
-		switch (type.value()) {
-		case Geometry.GeometryType.Polyline:
-			generate_polyline_cuts_();
-			break;
-
-		case Geometry.GeometryType.Polygon:
-			generate_polygon_cuts_();
-			break;
-
-		default:
-			break; // warning fix
+		OperatorTrace trace = OperatorTrace.begin(Operator.Type.Cut, m_cuttee,
+				m_cutter);
+		try {
+			Geometry.Type type = m_cuttee.getType();
+			switch (type.value()) {
+			case Geometry.GeometryType.Polyline:
+				generate_polyline_cuts_();
+				break;
+
+			case Geometry.GeometryType.Polygon:
+				generate_polygon_cuts_();
+				break;
+
+			default:
+				break; // warning fix
+			}
+
+			if (trace != null) {
+				long vertexCount = 0;
+				for (int i = 0; i < m_cuts.size(); i++)
+					vertexCount += m_cuts.get(i).getPointCount();
+
+				trace.end(vertexCount);
+			}
+		} finally {
+			if (trace != null)
+				trace.close();
 		}
 	}
 	
@@ -48,7 +48,18 @@ class OperatorDensifyByLengthCursor extends GeometryCursor {
 		Geometry geom;
 		if ((geom = m_inputGeoms.next()) != null) {
 			m_index = m_inputGeoms.getGeometryID();
-			return densifyByLength(geom);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.DensifyByLength,
+					geom, null);
+			try {
+				Geometry result = densifyByLength(geom);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
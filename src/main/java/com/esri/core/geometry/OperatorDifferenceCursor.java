@@ -52,8 +52,19 @@ class OperatorDifferenceCursor extends GeometryCursor {
 		Geometry geom;
 		if ((geom = m_inputGeoms.next()) != null) {
 			m_index = m_inputGeoms.getGeometryID();
-			return OperatorDifferenceLocal.difference(geom, m_geomSubtractor,
-					m_Spatial_reference, m_progress_tracker);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.Difference,
+					geom, m_geomSubtractor);
+			try {
+				Geometry result = OperatorDifferenceLocal.difference(geom,
+						m_geomSubtractor, m_Spatial_reference, m_progress_tracker);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
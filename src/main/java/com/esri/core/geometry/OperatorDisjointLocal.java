@@ -28,8 +28,19 @@ class OperatorDisjointLocal extends OperatorDisjoint {
 	@Override
 	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, ProgressTracker progressTracker) {
-		return RelationalOperations.relate(inputGeom1, inputGeom2, sr,
-				RelationalOperations.Relation.disjoint, progressTracker);
+		OperatorTrace trace = OperatorTrace.begin(Type.Disjoint, inputGeom1,
+				inputGeom2);
+		try {
+			boolean bResult = RelationalOperations.relate(inputGeom1, inputGeom2,
+					sr, RelationalOperations.Relation.disjoint, progressTracker);
+			if (trace != null)
+				trace.end();
+
+			return bResult;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 }
@@ -38,6 +38,21 @@ class OperatorDistanceLocal extends OperatorDistance {
 			throw new IllegalArgumentException();
 		}
 
+		OperatorTrace trace = OperatorTrace.begin(Type.Distance, geom1, geom2);
+		try {
+			double distance = distance_(geom1, geom2, progressTracker);
+			if (trace != null)
+				trace.end();
+
+			return distance;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private double distance_(Geometry geom1, Geometry geom2,
+			ProgressTracker progressTracker) {
 		Geometry geometryA = geom1;
 		Geometry geometryB = geom2;
 
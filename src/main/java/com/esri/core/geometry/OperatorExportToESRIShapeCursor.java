@@ -58,13 +58,22 @@ class OperatorExportToESRIShapeCursor extends ByteBufferCursor {
 		Geometry geometry = m_inputGeometryCursor.next();
 		if (geometry != null) {
 			m_index = m_inputGeometryCursor.getGeometryID();
-
-			int size = exportToESRIShape(m_exportFlags, geometry, null);
-			if (m_shapeBuffer == null || size > m_shapeBuffer.capacity())
-				m_shapeBuffer = ByteBuffer.allocate(size).order(
-						ByteOrder.LITTLE_ENDIAN);
-			exportToESRIShape(m_exportFlags, geometry, m_shapeBuffer);
-			return m_shapeBuffer;
+			OperatorTrace trace = OperatorTrace.begin(
+					Operator.Type.ExportToESRIShape, geometry, null);
+			try {
+				int size = exportToESRIShape(m_exportFlags, geometry, null);
+				if (m_shapeBuffer == null || size > m_shapeBuffer.capacity())
+					m_shapeBuffer = ByteBuffer.allocate(size).order(
+							ByteOrder.LITTLE_ENDIAN);
+				exportToESRIShape(m_exportFlags, geometry, m_shapeBuffer);
+				if (trace != null)
+					trace.end();
+
+				return m_shapeBuffer;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
@@ -39,20 +39,41 @@ class OperatorExportToESRIShapeLocal extends OperatorExportToESRIShape {
 
 	@Override
 	public ByteBuffer execute(int exportFlags, Geometry geometry) {
-		ByteBuffer shapeBuffer = null;
-		int size = OperatorExportToESRIShapeCursor.exportToESRIShape(
-				exportFlags, geometry, shapeBuffer);
-		shapeBuffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
-		OperatorExportToESRIShapeCursor.exportToESRIShape(exportFlags,
-				geometry, shapeBuffer);
-		return shapeBuffer;
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ExportToESRIShape, geometry, null);
+		try {
+			ByteBuffer shapeBuffer = null;
+			int size = OperatorExportToESRIShapeCursor.exportToESRIShape(
+					exportFlags, geometry, shapeBuffer);
+			shapeBuffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+			OperatorExportToESRIShapeCursor.exportToESRIShape(exportFlags,
+					geometry, shapeBuffer);
+			if (trace != null)
+				trace.end();
+
+			return shapeBuffer;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
 	public int execute(int exportFlags, Geometry geometry,
 			ByteBuffer shapeBuffer) {
-		shapeBuffer.order(ByteOrder.LITTLE_ENDIAN);
-		return OperatorExportToESRIShapeCursor.exportToESRIShape(exportFlags,
-				geometry, shapeBuffer);
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ExportToESRIShape, geometry, null);
+		try {
+			shapeBuffer.order(ByteOrder.LITTLE_ENDIAN);
+			int size = OperatorExportToESRIShapeCursor.exportToESRIShape(
+					exportFlags, geometry, shapeBuffer);
+			if (trace != null)
+				trace.end();
+
+			return size;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 }
@@ -0,0 +1,69 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+/**
+ * Export to the GeoArrow columnar layout (see GeoArrowBuffers).
+ */
+public abstract class OperatorExportToGeoArrow extends Operator {
+	@Override
+	public Type getType() {
+		return Type.ExportToGeoArrow;
+	}
+
+	/**
+	 * Performs the ExportToGeoArrow operation. Writes all geometries of the
+	 * cursor to one column.
+	 * <p>
+	 * The Point encoding takes points, the MultiPoint encoding points and
+	 * multipoints, the LineString encoding polylines with at most one path
+	 * and the MultiLineString encoding any polyline. The Polygon encoding
+	 * takes polygons with at most one exterior ring and the MultiPolygon
+	 * encoding any polygon. An Envelope is exported as a polygon, a Line as a
+	 * polyline. Curves are not supported.
+	 * 
+	 * @param encoding
+	 *            The GeoArrow encoding of the column.
+	 * @param bHasZ
+	 *            True to export the z coordinates. The geometries without z
+	 *            get the default value.
+	 * @param bHasM
+	 *            True to export the m values. The geometries without m get
+	 *            the default value.
+	 * @param geometries
+	 *            The geometries to export.
+	 * @return Returns the buffers of the column.
+	 */
+	public abstract GeoArrowBuffers execute(GeoArrowBuffers.Encoding encoding,
+			boolean bHasZ, boolean bHasM, GeometryCursor geometries,
+			ProgressTracker progressTracker);
+
+	public static OperatorExportToGeoArrow local() {
+		return (OperatorExportToGeoArrow) OperatorFactoryLocal.getInstance()
+				.getOperator(Type.ExportToGeoArrow);
+	}
+
+}
@@ -0,0 +1,301 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.esri.core.geometry.GeoArrowBuffers.Encoding;
+import com.esri.core.geometry.VertexDescription.Semantics;
+
+class OperatorExportToGeoArrowLocal extends OperatorExportToGeoArrow {
+
+	@Override
+	public GeoArrowBuffers execute(Encoding encoding, boolean bHasZ,
+			boolean bHasM, GeometryCursor geometries,
+			ProgressTracker progressTracker) {
+		OperatorTrace trace = OperatorTrace.begin(Type.ExportToGeoArrow, null,
+				null);
+		try {
+			ColumnWriter writer = new ColumnWriter(encoding, bHasZ, bHasM);
+			int counter = 0;
+			Geometry geometry;
+			while ((geometry = geometries.next()) != null) {
+				if (trace != null)
+					trace.addInputVertexCount(OperatorTrace.vertexCount(geometry));
+
+				writer.write(geometry);
+				ProgressTracker.checkAndThrow(progressTracker, ++counter);
+			}
+
+			GeoArrowBuffers buffers = writer.getBuffers();
+			if (trace != null)
+				trace.end();
+
+			return buffers;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private static final class ColumnWriter {
+		private final Encoding m_encoding;
+		private final boolean m_bHasZ;
+		private final boolean m_bHasM;
+		private final AttributeStreamOfDbl m_coordinates;
+		private final AttributeStreamOfInt32 m_geometryOffsets;
+		private final AttributeStreamOfInt32 m_partOffsets;
+		private final AttributeStreamOfInt32 m_ringOffsets;
+		private int m_length;
+
+		ColumnWriter(Encoding encoding, boolean bHasZ, boolean bHasM) {
+			m_encoding = encoding;
+			m_bHasZ = bHasZ;
+			m_bHasM = bHasM;
+			m_coordinates = new AttributeStreamOfDbl(0);
+			m_geometryOffsets = encoding != Encoding.Point ? newOffsets_()
+					: null;
+			m_partOffsets = encoding == Encoding.MultiLineString
+					|| encoding == Encoding.MultiPolygon ? newOffsets_() : null;
+			m_ringOffsets = encoding == Encoding.Polygon
+					|| encoding == Encoding.MultiPolygon ? newOffsets_() : null;
+			m_length = 0;
+		}
+
+		void write(Geometry geometry) {
+			switch (geometry.getType()) {
+			case Point:
+				writePoint_((Point) geometry);
+				break;
+			case MultiPoint:
+				writeMultiPoint_((MultiPoint) geometry);
+				break;
+			case Polyline:
+				writePolyline_((MultiPathImpl) geometry._getImpl());
+				break;
+			case Polygon:
+				writePolygon_((MultiPathImpl) geometry._getImpl());
+				break;
+			case Envelope:
+				Polygon polygon = new Polygon(geometry.getDescription());
+				polygon.addEnvelope((Envelope) geometry, false);
+				writePolygon_((MultiPathImpl) polygon._getImpl());
+				break;
+			case Line:
+				Polyline polyline = new Polyline(geometry.getDescription());
+				polyline.addSegment((Segment) geometry, true);
+				writePolyline_((MultiPathImpl) polyline._getImpl());
+				break;
+			default:
+				throw new GeometryException("invalid argument");
+			}
+
+			m_length++;
+		}
+
+		GeoArrowBuffers getBuffers() {
+			return new GeoArrowBuffers(m_encoding, m_bHasZ, m_bHasM, m_length,
+					toBuffer_(m_coordinates), toBuffer_(m_geometryOffsets),
+					toBuffer_(m_partOffsets), toBuffer_(m_ringOffsets), null);
+		}
+
+		private void writePoint_(Point point) {
+			if (m_encoding == Encoding.MultiPoint) {
+				if (!point.isEmpty())
+					writeVertex_(point.getX(), point.getY(),
+							point.getAttributeAsDbl(Semantics.Z, 0),
+							point.getAttributeAsDbl(Semantics.M, 0));
+
+				m_geometryOffsets.add(getVertexCount_());
+				return;
+			}
+
+			if (m_encoding != Encoding.Point)
+				throw new GeometryException("invalid argument");
+
+			if (point.isEmpty())
+				writeVertex_(NumberUtils.NaN(), NumberUtils.NaN(),
+						NumberUtils.NaN(), NumberUtils.NaN());
+			else
+				writeVertex_(point.getX(), point.getY(),
+						point.getAttributeAsDbl(Semantics.Z, 0),
+						point.getAttributeAsDbl(Semantics.M, 0));
+		}
+
+		private void writeMultiPoint_(MultiPoint multiPoint) {
+			if (m_encoding != Encoding.MultiPoint)
+				throw new GeometryException("invalid argument");
+
+			MultiVertexGeometryImpl impl = (MultiVertexGeometryImpl) multiPoint
+					._getImpl();
+			writeVertices_(impl, 0, impl.getPointCount());
+			m_geometryOffsets.add(getVertexCount_());
+		}
+
+		private void writePolyline_(MultiPathImpl polyline) {
+			if (polyline.hasNonLinearSegments())
+				throw new GeometryException("invalid argument");
+
+			int pathCount = polyline.getPathCount();
+			if (m_encoding == Encoding.LineString) {
+				if (pathCount > 1)
+					throw new GeometryException("invalid argument");
+
+				if (pathCount == 1)
+					writePath_(polyline, 0, polyline.isClosedPath(0));
+
+				m_geometryOffsets.add(getVertexCount_());
+				return;
+			}
+
+			if (m_encoding != Encoding.MultiLineString)
+				throw new GeometryException("invalid argument");
+
+			for (int ipath = 0; ipath < pathCount; ipath++) {
+				writePath_(polyline, ipath, polyline.isClosedPath(ipath));
+				m_partOffsets.add(getVertexCount_());
+			}
+
+			m_geometryOffsets.add(m_partOffsets.size() - 1);
+		}
+
+		private void writePolygon_(MultiPathImpl polygon) {
+			if (polygon.hasNonLinearSegments())
+				throw new GeometryException("invalid argument");
+
+			int polygonCount = polygon.getOGCPolygonCount();
+			if (m_encoding == Encoding.Polygon) {
+				if (polygonCount > 1)
+					throw new GeometryException("invalid argument");
+			} else if (m_encoding != Encoding.MultiPolygon)
+				throw new GeometryException("invalid argument");
+
+			AttributeStreamOfInt8 pathFlags = polygon.m_pathFlags;
+			for (int ipath = 0, n = polygon.getPathCount(); ipath < n; ipath++) {
+				boolean bStart = (pathFlags.read(ipath) & PathFlags.enumOGCStartPolygon) != 0;
+				if (m_partOffsets != null && ipath > 0 && bStart)
+					m_partOffsets.add(m_ringOffsets.size() - 1);
+
+				// the rings are closed with a copy of the start point
+				writePath_(polygon, ipath, true);
+				m_ringOffsets.add(getVertexCount_());
+			}
+
+			if (m_partOffsets != null) {
+				if (polygonCount > 0)
+					m_partOffsets.add(m_ringOffsets.size() - 1);
+
+				m_geometryOffsets.add(m_partOffsets.size() - 1);
+			} else {
+				m_geometryOffsets.add(m_ringOffsets.size() - 1);
+			}
+		}
+
+		private void writePath_(MultiPathImpl multiPath, int ipath,
+				boolean bClose) {
+			int start = multiPath.getPathStart(ipath);
+			int end = multiPath.getPathEnd(ipath);
+			writeVertices_(multiPath, start, end - start);
+			if (bClose && end > start)
+				writeVertices_(multiPath, start, 1);
+		}
+
+		private void writeVertices_(MultiVertexGeometryImpl impl, int start,
+				int count) {
+			if (count == 0)
+				return;
+
+			impl._verifyAllStreams();
+			AttributeStreamOfDbl xy = (AttributeStreamOfDbl) impl.m_vertexAttributes[0];
+			if (!m_bHasZ && !m_bHasM) {
+				m_coordinates.addRange(xy, 2 * start, 2 * count, true, 2);
+				return;
+			}
+
+			AttributeStreamOfDbl zs = m_bHasZ ? getStream_(impl, Semantics.Z)
+					: null;
+			AttributeStreamOfDbl ms = m_bHasM ? getStream_(impl, Semantics.M)
+					: null;
+			double defaultZ = VertexDescription.getDefaultValue(Semantics.Z);
+			double defaultM = VertexDescription.getDefaultValue(Semantics.M);
+			for (int i = start, end = start + count; i < end; i++)
+				writeVertex_(xy.read(2 * i), xy.read(2 * i + 1),
+						zs != null ? zs.read(i) : defaultZ,
+						ms != null ? ms.read(i) : defaultM);
+		}
+
+		private void writeVertex_(double x, double y, double z, double m) {
+			m_coordinates.add(x);
+			m_coordinates.add(y);
+			if (m_bHasZ)
+				m_coordinates.add(z);
+			if (m_bHasM)
+				m_coordinates.add(m);
+		}
+
+		private int getVertexCount_() {
+			return m_coordinates.size()
+					/ (2 + (m_bHasZ ? 1 : 0) + (m_bHasM ? 1 : 0));
+		}
+
+		private static AttributeStreamOfDbl getStream_(
+				MultiVertexGeometryImpl impl, int semantics) {
+			int attributeIndex = impl.m_description.getAttributeIndex(semantics);
+			if (attributeIndex < 0)
+				return null;
+
+			return (AttributeStreamOfDbl) impl.m_vertexAttributes[attributeIndex];
+		}
+
+		private static AttributeStreamOfInt32 newOffsets_() {
+			AttributeStreamOfInt32 offsets = new AttributeStreamOfInt32(0);
+			offsets.add(0);
+			return offsets;
+		}
+
+		private static ByteBuffer toBuffer_(AttributeStreamOfDbl stream) {
+			ByteBuffer buffer = ByteBuffer.allocate(8 * stream.size()).order(
+					ByteOrder.LITTLE_ENDIAN);
+			stream.readRange(0, stream.size(), buffer, 0, true);
+			return buffer;
+		}
+
+		private static ByteBuffer toBuffer_(AttributeStreamOfInt32 stream) {
+			if (stream == null)
+				return null;
+
+			int size = stream.size();
+			ByteBuffer buffer = ByteBuffer.allocate(4 * size).order(
+					ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < size; i++)
+				buffer.putInt(4 * i, stream.read(i));
+
+			return buffer;
+		}
+
+	}
+}
@@ -85,20 +85,31 @@ class OperatorExportToGeoJsonCursor extends JsonCursor {
 		if (geometry == null)
 			throw new IllegalArgumentException("");
 
-		JsonWriter json_writer = new JsonStringWriter();
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ExportToGeoJson, geometry, null);
+		try {
+			JsonWriter json_writer = new JsonStringWriter();
 
-		json_writer.startObject();
+			json_writer.startObject();
 
-		exportGeometryToGeoJson_(export_flags, geometry, json_writer);
+			exportGeometryToGeoJson_(export_flags, geometry, json_writer);
 
-		if ((export_flags & GeoJsonExportFlags.geoJsonExportSkipCRS) == 0) {
-			json_writer.addFieldName("crs");
-			exportSpatialReference(export_flags, spatial_reference, json_writer);
-		}
+			if ((export_flags & GeoJsonExportFlags.geoJsonExportSkipCRS) == 0) {
+				json_writer.addFieldName("crs");
+				exportSpatialReference(export_flags, spatial_reference, json_writer);
+			}
 
-		json_writer.endObject();
+			json_writer.endObject();
 
-		return (String) json_writer.getJson();
+			String json = (String) json_writer.getJson();
+			if (trace != null)
+				trace.end();
+
+			return json;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	static String exportSpatialReference(int export_flags, SpatialReference spatial_reference) {
@@ -60,9 +60,20 @@ class OperatorExportToJsonCursor extends JsonCursor {
 	}
 
 	static String exportToString(Geometry geometry, SpatialReference spatialReference, Map<String, Object> exportProperties) {
-		JsonWriter jsonWriter = new JsonStringWriter();
-		exportToJson_(geometry, spatialReference, jsonWriter, exportProperties);
-		return (String) jsonWriter.getJson();
+		OperatorTrace trace = OperatorTrace.begin(Operator.Type.ExportToJson,
+				geometry, null);
+		try {
+			JsonWriter jsonWriter = new JsonStringWriter();
+			exportToJson_(geometry, spatialReference, jsonWriter, exportProperties);
+			String json = (String) jsonWriter.getJson();
+			if (trace != null)
+				trace.end();
+
+			return json;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	private static void exportToJson_(Geometry geometry, SpatialReference spatialReference, JsonWriter jsonWriter, Map<String, Object> exportProperties) {
@@ -32,17 +32,38 @@ class OperatorExportToWkbLocal extends OperatorExportToWkb {
 	@Override
 	public ByteBuffer execute(int exportFlags, Geometry geometry,
 			ProgressTracker progressTracker) {
-		int size = exportToWKB(exportFlags, geometry, null);
-		ByteBuffer wkbBuffer = ByteBuffer.allocate(size).order(
-				ByteOrder.nativeOrder());
-		exportToWKB(exportFlags, geometry, wkbBuffer);
-		return wkbBuffer;
+		OperatorTrace trace = OperatorTrace.begin(Type.ExportToWkb, geometry,
+				null);
+		try {
+			int size = exportToWKB(exportFlags, geometry, null);
+			ByteBuffer wkbBuffer = ByteBuffer.allocate(size).order(
+					ByteOrder.nativeOrder());
+			exportToWKB(exportFlags, geometry, wkbBuffer);
+			if (trace != null)
+				trace.end();
+
+			return wkbBuffer;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
 	public int execute(int exportFlags, Geometry geometry,
 			ByteBuffer wkbBuffer, ProgressTracker progressTracker) {
-		return exportToWKB(exportFlags, geometry, wkbBuffer);
+		OperatorTrace trace = OperatorTrace.begin(Type.ExportToWkb, geometry,
+				null);
+		try {
+			int size = exportToWKB(exportFlags, geometry, wkbBuffer);
+			if (trace != null)
+				trace.end();
+
+			return size;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	private static int exportToWKB(int exportFlags, Geometry geometry,
@@ -27,10 +27,19 @@ class OperatorExportToWktLocal extends OperatorExportToWkt {
 	@Override
 	public String execute(int export_flags, Geometry geometry,
 			ProgressTracker progress_tracker) {
-		StringBuilder string = new StringBuilder();
-		exportToWkt(export_flags, geometry, string);
-
-		return string.toString();
+		OperatorTrace trace = OperatorTrace.begin(Type.ExportToWkt, geometry,
+				null);
+		try {
+			StringBuilder string = new StringBuilder();
+			exportToWkt(export_flags, geometry, string);
+			if (trace != null)
+				trace.end();
+
+			return string.toString();
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	static void exportToWkt(int export_flags, Geometry geometry,
@@ -126,6 +126,10 @@ public class OperatorFactoryLocal extends OperatorFactory {
 		st_supportedOperators.put(Type.ConvexHull,
 				new OperatorConvexHullLocal());
 		st_supportedOperators.put(Type.Boundary, new OperatorBoundaryLocal());
+		st_supportedOperators.put(Type.ExportToGeoArrow,
+				new OperatorExportToGeoArrowLocal());
+		st_supportedOperators.put(Type.ImportFromGeoArrow,
+				new OperatorImportFromGeoArrowLocal());
 
 		// LabelPoint, - not ported
 
@@ -0,0 +1,317 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Emits a Java Flight Recorder event for each operator call. The event is
+ * named com.esri.geometry.OperatorExecution and records:
+ * <ul>
+ * <li>the operator type</li>
+ * <li>the call, execute or accelerateGeometry</li>
+ * <li>the input geometry type</li>
+ * <li>the vertex counts of the input and of the output</li>
+ * <li>the duration</li>
+ * <li>the bytes allocated by the thread during the call, where the JVM can
+ * count them</li>
+ * <li>whether the input had accelerators</li>
+ * </ul>
+ *
+ * The events are off until register is called, or until the
+ * com.esri.geometry.jfr system property is set to true. After that they are
+ * recorded only while a flight recording is running, for example one started
+ * with -XX:StartFlightRecording. When no recording runs, each operator call
+ * reads one volatile field and nothing else.
+ *
+ * The library is built for Java 7, which has no flight recorder API, so the
+ * event type is created at run time with jdk.jfr.EventFactory. On JVMs
+ * without it, register returns false and no events are emitted.
+ */
+public final class OperatorFlightRecorder {
+	public static final String EVENT_NAME = "com.esri.geometry.OperatorExecution";
+
+	private static final String PROPERTY = "com.esri.geometry.jfr";
+
+	private static Bridge s_bridge = null;
+
+	static {
+		try {
+			if (Boolean.getBoolean(PROPERTY))
+				register();
+		} catch (SecurityException e) {
+			// the events stay off
+		}
+	}
+
+	private OperatorFlightRecorder() {
+	}
+
+	/**
+	 * Registers the event type with the flight recorder. Returns false when
+	 * the JVM has no flight recorder.
+	 */
+	public static synchronized boolean register() {
+		if (s_bridge != null)
+			return true;
+
+		try {
+			s_bridge = new Bridge();
+		} catch (Exception e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
+		}
+
+		s_bridge.updateEnabled();
+		return true;
+	}
+
+	/**
+	 * Unregisters the event type. The operators stop emitting the events.
+	 */
+	public static synchronized void unregister() {
+		if (s_bridge == null)
+			return;
+
+		s_bridge.close();
+		s_bridge = null;
+		OperatorTrace.setRecording(false);
+	}
+
+	public static synchronized boolean isRegistered() {
+		return s_bridge != null;
+	}
+
+	/**
+	 * Creates and begins an event, or returns null when the event type is not
+	 * registered.
+	 */
+	static Object beginEvent() {
+		Bridge bridge = s_bridge;
+		if (bridge == null)
+			return null;
+
+		return bridge.begin();
+	}
+
+	static void commitEvent(Object event, String operator, String call,
+			String geometryType, long inputVertexCount,
+			long outputVertexCount, long allocatedBytes, boolean bAccelerated) {
+		Bridge bridge = s_bridge;
+		if (bridge == null)
+			return;
+
+		bridge.commit(event, operator, call, geometryType, inputVertexCount,
+				outputVertexCount, allocatedBytes, bAccelerated);
+	}
+
+	/**
+	 * The reflective calls to the jdk.jfr module.
+	 */
+	private static final class Bridge implements InvocationHandler {
+		private final Object m_factory;
+		private final Object m_eventType;
+		private final Object m_listener;
+		private final Class<?> m_flightRecorder;
+		private final Class<?> m_listenerClass;
+		private final Method m_newEvent;
+		private final Method m_begin;
+		private final Method m_end;
+		private final Method m_shouldCommit;
+		private final Method m_set;
+		private final Method m_commit;
+
+		Bridge() throws Exception {
+			Class<?> annotationElement = Class
+					.forName("jdk.jfr.AnnotationElement");
+			Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+			Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+			Class<?> event = Class.forName("jdk.jfr.Event");
+			m_flightRecorder = Class.forName("jdk.jfr.FlightRecorder");
+			m_listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+
+			List<Object> annotations = new ArrayList<Object>();
+			annotations.add(annotation(annotationElement, "jdk.jfr.Name",
+					EVENT_NAME));
+			annotations.add(annotation(annotationElement, "jdk.jfr.Label",
+					"Geometry Operator"));
+			annotations.add(annotation(annotationElement, "jdk.jfr.Category",
+					new String[] { "Esri Geometry" }));
+			annotations.add(annotation(annotationElement,
+					"jdk.jfr.Description",
+					"A call of a geometry operator"));
+
+			List<Object> fields = new ArrayList<Object>();
+			fields.add(field(valueDescriptor, annotationElement, String.class,
+					"operator", "Operator", null));
+			fields.add(field(valueDescriptor, annotationElement, String.class,
+					"call", "Call", null));
+			fields.add(field(valueDescriptor, annotationElement, String.class,
+					"geometryType", "Geometry Type", null));
+			fields.add(field(valueDescriptor, annotationElement, long.class,
+					"inputVertexCount", "Input Vertex Count", null));
+			fields.add(field(valueDescriptor, annotationElement, long.class,
+					"outputVertexCount", "Output Vertex Count", null));
+			fields.add(field(valueDescriptor, annotationElement, long.class,
+					"allocatedBytes", "Allocated Bytes", annotation(
+							annotationElement, "jdk.jfr.DataAmount", "BYTES")));
+			fields.add(field(valueDescriptor, annotationElement,
+					boolean.class, "accelerated", "Accelerated", null));
+
+			m_factory = eventFactory.getMethod("create", List.class,
+					List.class).invoke(null, annotations, fields);
+			m_eventType = eventFactory.getMethod("getEventType").invoke(
+					m_factory);
+			m_newEvent = eventFactory.getMethod("newEvent");
+			m_begin = event.getMethod("begin");
+			m_end = event.getMethod("end");
+			m_shouldCommit = event.getMethod("shouldCommit");
+			m_set = event.getMethod("set", int.class, Object.class);
+			m_commit = event.getMethod("commit");
+
+			// follow the start and the end of the recordings
+			m_listener = Proxy.newProxyInstance(
+					OperatorFlightRecorder.class.getClassLoader(),
+					new Class<?>[] { m_listenerClass }, this);
+			m_flightRecorder.getMethod("addListener", m_listenerClass).invoke(
+					null, m_listener);
+		}
+
+		private static Object annotation(Class<?> annotationElement,
+				String type, Object value) throws Exception {
+			return annotationElement.getConstructor(Class.class, Object.class)
+					.newInstance(Class.forName(type), value);
+		}
+
+		private static Object field(Class<?> valueDescriptor,
+				Class<?> annotationElement, Class<?> type, String name,
+				String label, Object extra) throws Exception {
+			List<Object> annotations = new ArrayList<Object>();
+			annotations.add(annotation(annotationElement, "jdk.jfr.Label",
+					label));
+			if (extra != null)
+				annotations.add(extra);
+
+			return valueDescriptor.getConstructor(Class.class, String.class,
+					List.class).newInstance(type, name, annotations);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("equals"))
+				return proxy == args[0];
+			if (name.equals("hashCode"))
+				return System.identityHashCode(proxy);
+			if (name.equals("toString"))
+				return "OperatorFlightRecorder";
+
+			// recorderInitialized or recordingStateChanged
+			updateEnabled();
+			return null;
+		}
+
+		void updateEnabled() {
+			boolean bEnabled;
+			try {
+				bEnabled = (Boolean) m_eventType.getClass()
+						.getMethod("isEnabled").invoke(m_eventType)
+						|| isRecording();
+			} catch (Exception e) {
+				bEnabled = false;
+			}
+
+			OperatorTrace.setRecording(bEnabled);
+		}
+
+		private boolean isRecording() throws Exception {
+			// the enabled state of the event type may be updated after the
+			// listeners are notified, so look at the recordings too
+			if (!(Boolean) m_flightRecorder.getMethod("isInitialized").invoke(
+					null))
+				return false;
+
+			Object recorder = m_flightRecorder.getMethod("getFlightRecorder")
+					.invoke(null);
+			List<?> recordings = (List<?>) m_flightRecorder.getMethod(
+					"getRecordings").invoke(recorder);
+			for (Object recording : recordings) {
+				Object state = recording.getClass().getMethod("getState")
+						.invoke(recording);
+				if ("RUNNING".equals(state.toString()))
+					return true;
+			}
+
+			return false;
+		}
+
+		Object begin() {
+			try {
+				Object event = m_newEvent.invoke(m_factory);
+				m_begin.invoke(event);
+				return event;
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+		void commit(Object event, String operator, String call,
+				String geometryType, long inputVertexCount,
+				long outputVertexCount, long allocatedBytes,
+				boolean bAccelerated) {
+			try {
+				m_end.invoke(event);
+				if (!(Boolean) m_shouldCommit.invoke(event))
+					return;
+
+				List<Object> values = Arrays.<Object> asList(operator, call,
+						geometryType, inputVertexCount, outputVertexCount,
+						allocatedBytes, bAccelerated);
+				for (int i = 0; i < values.size(); i++)
+					m_set.invoke(event, i, values.get(i));
+
+				m_commit.invoke(event);
+			} catch (Exception e) {
+				// an event is lost, the operator result is not affected
+			}
+		}
+
+		void close() {
+			try {
+				m_flightRecorder.getMethod("removeListener", m_listenerClass)
+						.invoke(null, m_listener);
+				m_factory.getClass().getMethod("unregister").invoke(m_factory);
+			} catch (Exception e) {
+				// the event type stays registered but no events are emitted
+			}
+		}
+	}
+}
@@ -43,7 +43,19 @@ final class OperatorGeneralizeCursor extends GeometryCursor {
 		Geometry geom = m_geoms.next();
 		if (geom == null)
 			return null;
-		return Generalize(geom);
+
+		OperatorTrace trace = OperatorTrace.begin(Operator.Type.Generalize,
+				geom, null);
+		try {
+			Geometry result = Generalize(geom);
+			if (trace != null)
+				trace.end(result);
+
+			return result;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
@@ -52,7 +52,18 @@ class OperatorImportFromESRIShapeCursor extends GeometryCursor {
 		ByteBuffer shapeBuffer = m_inputShapeBuffers.next();
 		if (shapeBuffer != null) {
 			m_index = m_inputShapeBuffers.getByteBufferID();
-			return importFromESRIShape(shapeBuffer);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.ImportFromESRIShape,
+					null, null);
+			try {
+				Geometry result = importFromESRIShape(shapeBuffer);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
@@ -0,0 +1,63 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+/**
+ * Import from the GeoArrow columnar layout (see GeoArrowBuffers).
+ */
+public abstract class OperatorImportFromGeoArrow extends Operator {
+	@Override
+	public Type getType() {
+		return Type.ImportFromGeoArrow;
+	}
+
+	/**
+	 * Performs the ImportFromGeoArrow operation. Returns a cursor over the
+	 * geometries of the column. The geometry ID is the index in the column.
+	 * A null geometry is returned as an empty geometry.
+	 * <p>
+	 * The Point encoding is imported as points, the MultiPoint encoding as
+	 * multipoints, the LineString and MultiLineString encodings as polylines
+	 * and the Polygon and MultiPolygon encodings as polygons. The exterior
+	 * rings are made clockwise and the holes counterclockwise.
+	 * <p>
+	 * The multipoints and polylines with only the xy coordinates are frozen
+	 * views that read the coordinates from the buffer without copying them.
+	 * The buffer must not change while the views are used.
+	 * 
+	 * @param buffers
+	 *            The buffers of the column.
+	 * @return Returns the cursor over the imported geometries.
+	 */
+	public abstract GeometryCursor execute(GeoArrowBuffers buffers,
+			ProgressTracker progressTracker);
+
+	public static OperatorImportFromGeoArrow local() {
+		return (OperatorImportFromGeoArrow) OperatorFactoryLocal.getInstance()
+				.getOperator(Type.ImportFromGeoArrow);
+	}
+
+}
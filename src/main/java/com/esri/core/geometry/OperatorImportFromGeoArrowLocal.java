@@ -0,0 +1,332 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.nio.DoubleBuffer;
+
+import com.esri.core.geometry.GeoArrowBuffers.Encoding;
+import com.esri.core.geometry.VertexDescription.Semantics;
+
+class OperatorImportFromGeoArrowLocal extends OperatorImportFromGeoArrow {
+
+	@Override
+	public GeometryCursor execute(GeoArrowBuffers buffers,
+			ProgressTracker progressTracker) {
+		return new ColumnCursor(buffers, progressTracker);
+	}
+
+	private static final class ColumnCursor extends GeometryCursor {
+		private final GeoArrowBuffers m_buffers;
+		private final ProgressTracker m_progressTracker;
+		private final Encoding m_encoding;
+		private final int m_dimensions;
+		private final int m_vertexCount;
+		private final VertexDescription m_description;
+		// The coordinates for the views, null when the views are not used.
+		private final DoubleBuffer m_coordinates;
+		private int m_index;
+
+		ColumnCursor(GeoArrowBuffers buffers, ProgressTracker progressTracker) {
+			m_buffers = buffers;
+			m_progressTracker = progressTracker;
+			m_encoding = buffers.getEncoding();
+			m_dimensions = buffers.getDimensionCount();
+			m_vertexCount = buffers.getVertexCount();
+			VertexDescription description = VertexDescriptionDesignerImpl
+					.getDefaultDescriptor2D();
+			if (buffers.hasZ())
+				description = VertexDescriptionDesignerImpl
+						.getMergedVertexDescription(description, Semantics.Z);
+			if (buffers.hasM())
+				description = VertexDescriptionDesignerImpl
+						.getMergedVertexDescription(description, Semantics.M);
+			m_description = description;
+			boolean bViews = m_dimensions == 2
+					&& (m_encoding == Encoding.MultiPoint
+							|| m_encoding == Encoding.LineString
+							|| m_encoding == Encoding.MultiLineString);
+			m_coordinates = bViews ? buffers.getCoordinates().asDoubleBuffer()
+					: null;
+			m_index = -1;
+		}
+
+		@Override
+		public Geometry next() {
+			if (m_index + 1 >= m_buffers.getLength())
+				return null;
+
+			OperatorTrace trace = OperatorTrace.begin(
+					Operator.Type.ImportFromGeoArrow, null, null);
+			try {
+				Geometry geometry = next_();
+				if (trace != null)
+					trace.end(geometry);
+
+				return geometry;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
+		}
+
+		private Geometry next_() {
+			m_index++;
+			ProgressTracker.checkAndThrow(m_progressTracker, m_index + 1);
+			boolean bValid = m_buffers.isValid(m_index);
+			switch (m_encoding) {
+			case Point:
+				return importPoint_(bValid);
+			case MultiPoint:
+				return importMultiPoint_(bValid);
+			case LineString:
+				return importPolyline_(bValid, m_index, m_index + 1, false);
+			case MultiLineString:
+				return importPolyline_(bValid,
+						m_buffers.getGeometryOffset(m_index),
+						m_buffers.getGeometryOffset(m_index + 1), true);
+			case Polygon:
+				return importPolygon_(bValid, m_index, m_index + 1, false);
+			default:
+				return importPolygon_(bValid,
+						m_buffers.getGeometryOffset(m_index),
+						m_buffers.getGeometryOffset(m_index + 1), true);
+			}
+		}
+
+		@Override
+		public int getGeometryID() {
+			return m_index;
+		}
+
+		private Point importPoint_(boolean bValid) {
+			Point point = new Point(m_description);
+			int i = m_index * m_dimensions;
+			double x = m_buffers.getOrdinate(i);
+			double y = m_buffers.getOrdinate(i + 1);
+			if (!bValid || NumberUtils.isNaN(x) || NumberUtils.isNaN(y))
+				return point;
+
+			point.setXY(x, y);
+			int d = 2;
+			if (m_buffers.hasZ())
+				point.setZ(m_buffers.getOrdinate(i + d++));
+			if (m_buffers.hasM())
+				point.setM(m_buffers.getOrdinate(i + d));
+
+			return point;
+		}
+
+		private MultiPoint importMultiPoint_(boolean bValid) {
+			MultiPoint multiPoint = new MultiPoint(m_description);
+			if (!bValid)
+				return multiPoint;
+
+			int from = m_buffers.getGeometryOffset(m_index);
+			int to = m_buffers.getGeometryOffset(m_index + 1);
+			checkRange_(from, to, m_vertexCount);
+			if (from == to)
+				return multiPoint;
+
+			if (m_coordinates != null) {
+				MultiPointImpl impl = (MultiPointImpl) multiPoint._getImpl();
+				impl.setAttributeStreamRef(Semantics.POSITION,
+						new AttributeStreamOfDblSlice(m_coordinates, 2 * from,
+								2 * (to - from)));
+				impl.resize(to - from);
+				multiPoint.freeze();
+				return multiPoint;
+			}
+
+			double[][] columns = readVertices_(from, to);
+			multiPoint.addPoints(columns[0], columns[1], columns[2], to - from);
+			return multiPoint;
+		}
+
+		// Imports the line strings from..to. The line string offsets are the
+		// part offsets when bMulti is true, the geometry offsets otherwise.
+		private Polyline importPolyline_(boolean bValid, int from, int to,
+				boolean bMulti) {
+			Polyline polyline = new Polyline(m_description);
+			if (!bValid || from == to)
+				return polyline;
+
+			int[] offsets = new int[to - from + 1];
+			for (int i = from; i <= to; i++)
+				offsets[i - from] = bMulti ? m_buffers.getPartOffset(i)
+						: m_buffers.getGeometryOffset(i);
+			for (int i = 1; i < offsets.length; i++)
+				checkRange_(offsets[i - 1], offsets[i], m_vertexCount);
+
+			int v0 = offsets[0];
+			int v1 = offsets[offsets.length - 1];
+			if (v0 == v1)
+				return polyline;
+
+			if (m_coordinates == null) {
+				double[][] columns = readVertices_(v0, v1);
+				for (int i = 0; i < offsets.length; i++)
+					offsets[i] -= v0;
+				polyline.addPaths(columns[0], columns[1], columns[2], offsets,
+						offsets.length - 1);
+				return polyline;
+			}
+
+			// a view of the coordinates, the empty parts are skipped
+			AttributeStreamOfInt32 paths = (AttributeStreamOfInt32) AttributeStreamBase
+					.createIndexStream(0);
+			for (int i = 0; i < offsets.length - 1; i++) {
+				if (offsets[i + 1] > offsets[i])
+					paths.add(offsets[i] - v0);
+			}
+			paths.add(v1 - v0);
+			AttributeStreamOfInt8 pathFlags = (AttributeStreamOfInt8) AttributeStreamBase
+					.createByteStream(paths.size(), (byte) 0);
+			MultiPathImpl impl = (MultiPathImpl) polyline._getImpl();
+			impl.setAttributeStreamRef(Semantics.POSITION,
+					new AttributeStreamOfDblSlice(m_coordinates, 2 * v0,
+							2 * (v1 - v0)));
+			impl.setPathFlagsStreamRef(pathFlags);
+			impl.setPathStreamRef(paths);
+			polyline.freeze();
+			return polyline;
+		}
+
+		// Imports the polygons from..to. The polygon offsets are the part
+		// offsets when bMulti is true, otherwise each polygon is one geometry.
+		private Polygon importPolygon_(boolean bValid, int from, int to,
+				boolean bMulti) {
+			Polygon polygon = new Polygon(m_description);
+			if (!bValid)
+				return polygon;
+
+			// rings of all polygons, without the closing vertices
+			AttributeStreamOfInt32 ringStarts = (AttributeStreamOfInt32) AttributeStreamBase
+					.createIndexStream(0);
+			AttributeStreamOfInt32 ringEnds = (AttributeStreamOfInt32) AttributeStreamBase
+					.createIndexStream(0);
+			AttributeStreamOfInt8 exteriors = (AttributeStreamOfInt8) AttributeStreamBase
+					.createByteStream(0);
+			int pointCount = 0;
+			for (int ipolygon = from; ipolygon < to; ipolygon++) {
+				int r0 = bMulti ? m_buffers.getPartOffset(ipolygon)
+						: m_buffers.getGeometryOffset(ipolygon);
+				int r1 = bMulti ? m_buffers.getPartOffset(ipolygon + 1)
+						: m_buffers.getGeometryOffset(ipolygon + 1);
+				boolean bExterior = true;
+				for (int iring = r0; iring < r1; iring++) {
+					int start = m_buffers.getRingOffset(iring);
+					int end = m_buffers.getRingOffset(iring + 1);
+					checkRange_(start, end, m_vertexCount);
+					if (end - start > 1 && isSameVertex_(start, end - 1))
+						end--;
+					if (end == start)
+						continue;
+
+					ringStarts.add(start);
+					ringEnds.add(end);
+					exteriors.add((byte) (bExterior ? 1 : 0));
+					pointCount += end - start;
+					bExterior = false;
+				}
+			}
+
+			int ringCount = ringStarts.size();
+			if (ringCount == 0)
+				return polygon;
+
+			double[] xy = new double[2 * pointCount];
+			double[] zs = m_buffers.hasZ() ? new double[pointCount] : null;
+			double[] ms = m_buffers.hasM() ? new double[pointCount] : null;
+			int[] offsets = new int[ringCount + 1];
+			int v = 0;
+			for (int iring = 0; iring < ringCount; iring++) {
+				offsets[iring] = v;
+				int end = ringEnds.read(iring);
+				for (int i = ringStarts.read(iring); i < end; i++, v++)
+					readVertex_(i, xy, zs, ms, v);
+			}
+			offsets[ringCount] = v;
+			polygon.addPaths(xy, zs, ms, offsets, ringCount);
+
+			// Esri polygons have clockwise exterior rings
+			MultiPathImpl impl = (MultiPathImpl) polygon._getImpl();
+			for (int iring = 0; iring < ringCount; iring++) {
+				if (impl.getPathSize(iring) < 3)
+					continue;
+
+				boolean bClockwise = InternalUtils.isClockwiseRing(impl, iring);
+				if (bClockwise != (exteriors.read(iring) != 0))
+					impl.reversePath(iring);
+			}
+
+			return polygon;
+		}
+
+		// Returns the xy, z and m columns of the vertices from..to. The z and
+		// m columns are null when not present.
+		private double[][] readVertices_(int from, int to) {
+			int count = to - from;
+			double[] xy = new double[2 * count];
+			double[] zs = m_buffers.hasZ() ? new double[count] : null;
+			double[] ms = m_buffers.hasM() ? new double[count] : null;
+			for (int i = from; i < to; i++)
+				readVertex_(i, xy, zs, ms, i - from);
+
+			return new double[][] { xy, zs, ms };
+		}
+
+		private void readVertex_(int vertex, double[] xy, double[] zs,
+				double[] ms, int dst) {
+			int i = vertex * m_dimensions;
+			xy[2 * dst] = m_buffers.getOrdinate(i);
+			xy[2 * dst + 1] = m_buffers.getOrdinate(i + 1);
+			int d = 2;
+			if (zs != null)
+				zs[dst] = m_buffers.getOrdinate(i + d++);
+			if (ms != null)
+				ms[dst] = m_buffers.getOrdinate(i + d);
+		}
+
+		private boolean isSameVertex_(int vertex1, int vertex2) {
+			int i1 = vertex1 * m_dimensions;
+			int i2 = vertex2 * m_dimensions;
+			for (int d = 0; d < m_dimensions; d++) {
+				double v1 = m_buffers.getOrdinate(i1 + d);
+				double v2 = m_buffers.getOrdinate(i2 + d);
+				if (v1 != v2
+						&& !(NumberUtils.isNaN(v1) && NumberUtils.isNaN(v2)))
+					return false;
+			}
+
+			return true;
+		}
+
+		private static void checkRange_(int from, int to, int size) {
+			if (from < 0 || to < from || to > size)
+				throw new GeometryException("corrupted geometry");
+		}
+	}
+}
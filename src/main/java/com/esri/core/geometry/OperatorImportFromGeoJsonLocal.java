@@ -52,9 +52,19 @@ class OperatorImportFromGeoJsonLocal extends OperatorImportFromGeoJson {
 	public MapGeometry execute(int importFlags, Geometry.Type type,
 			String geoJsonString, ProgressTracker progressTracker)
 			throws JsonGeometryException {
-		MapGeometry map_geometry = OperatorImportFromGeoJsonHelper
-				.importFromGeoJson(importFlags, type, JsonParserReader.createFromString(geoJsonString), progressTracker, false);
-		return map_geometry;
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ImportFromGeoJson, null, null);
+		try {
+			MapGeometry map_geometry = OperatorImportFromGeoJsonHelper
+					.importFromGeoJson(importFlags, type, JsonParserReader.createFromString(geoJsonString), progressTracker, false);
+			if (trace != null)
+				trace.end(map_geometry != null ? map_geometry.getGeometry() : null);
+
+			return map_geometry;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
@@ -64,8 +74,20 @@ class OperatorImportFromGeoJsonLocal extends OperatorImportFromGeoJson {
 		if (jsonReader == null)
 			return null;
 
-		return OperatorImportFromGeoJsonHelper.importFromGeoJson(importFlags,
-				type, jsonReader, progressTracker, false);
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ImportFromGeoJson, null, null);
+		try {
+			MapGeometry map_geometry = OperatorImportFromGeoJsonHelper
+					.importFromGeoJson(importFlags, type, jsonReader,
+							progressTracker, false);
+			if (trace != null)
+				trace.end(map_geometry != null ? map_geometry.getGeometry() : null);
+
+			return map_geometry;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	static final class OperatorImportFromGeoJsonHelper {
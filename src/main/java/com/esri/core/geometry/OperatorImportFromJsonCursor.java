@@ -59,6 +59,21 @@ class OperatorImportFromJsonCursor extends MapGeometryCursor {
 	}
 
 	static MapGeometry importFromJsonParser(int gt, JsonReader parser) {
+		OperatorTrace trace = OperatorTrace.begin(
+				Operator.Type.ImportFromJson, null, null);
+		try {
+			MapGeometry mp = importFromJsonParser_(gt, parser);
+			if (trace != null)
+				trace.end(mp != null ? mp.getGeometry() : null);
+
+			return mp;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private static MapGeometry importFromJsonParser_(int gt, JsonReader parser) {
 		MapGeometry mp;
 
 		try {
@@ -98,11 +98,19 @@ class OperatorImportFromWkbLocal extends OperatorImportFromWkb {
 			wkbBuffer.order(ByteOrder.BIG_ENDIAN);
 
 		WkbHelper wkbHelper = new WkbHelper(wkbBuffer);
+		OperatorTrace trace = OperatorTrace.begin(Type.ImportFromWkb, null,
+				null);
 
 		try {
-			return importFromWkb(importFlags, type, wkbHelper);
+			Geometry geometry = importFromWkb(importFlags, type, wkbHelper);
+			if (trace != null)
+				trace.end(geometry);
+
+			return geometry;
 		} finally {
 			wkbBuffer.order(initialOrder);
+			if (trace != null)
+				trace.close();
 		}
 	}
 
@@ -29,9 +29,20 @@ class OperatorImportFromWktLocal extends OperatorImportFromWkt {
 	@Override
 	public Geometry execute(int import_flags, Geometry.Type type,
 			String wkt_string, ProgressTracker progress_tracker) {
-		WktParser wkt_parser = new WktParser(wkt_string);
-		int current_token = wkt_parser.nextToken();
-		return importFromWkt(import_flags, type, wkt_parser);
+		OperatorTrace trace = OperatorTrace.begin(Type.ImportFromWkt, null,
+				null);
+		try {
+			WktParser wkt_parser = new WktParser(wkt_string);
+			int current_token = wkt_parser.nextToken();
+			Geometry geometry = importFromWkt(import_flags, type, wkt_parser);
+			if (trace != null)
+				trace.end(geometry);
+
+			return geometry;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
@@ -119,15 +119,25 @@ class OperatorIntersectionCursor extends GeometryCursor {
 
 		while ((geom = m_inputGeoms.next()) != null) {
 			m_index = m_inputGeoms.getGeometryID();
-			if (m_dimensionMask == -1) {
-				Geometry resGeom = intersect(geom);
-				assert (resGeom != null);
-				return resGeom;
-			} else {
-				m_smallCursor = intersectEx(geom);
-				Geometry resGeom = m_smallCursor.next();
+			OperatorTrace trace = OperatorTrace.begin(
+					Operator.Type.Intersection, geom, m_geomIntersector);
+			try {
+				Geometry resGeom;
+				if (m_dimensionMask == -1) {
+					resGeom = intersect(geom);
+				} else {
+					m_smallCursor = intersectEx(geom);
+					resGeom = m_smallCursor.next();
+				}
+
 				assert (resGeom != null);
+				if (trace != null)
+					trace.end(resGeom);
+
 				return resGeom;
+			} finally {
+				if (trace != null)
+					trace.close();
 			}
 		}
 		return null;
@@ -65,12 +65,22 @@ class OperatorIntersectionLocal extends OperatorIntersection {
 		if (!canAccelerateGeometry(geometry))
 			return false;
 
-		double tol = InternalUtils.calculateToleranceFromGeometry(spatialReference, geometry, false);
-		boolean accelerated = ((MultiVertexGeometryImpl) geometry._getImpl())
-				._buildQuadTreeAccelerator(accelDegree);
-		accelerated |= ((MultiVertexGeometryImpl) geometry._getImpl())
-				._buildRasterizedGeometryAccelerator(tol, accelDegree);
-		return accelerated;
+		OperatorTrace trace = OperatorTrace.beginAccelerate(getType(),
+				geometry);
+		try {
+			double tol = InternalUtils.calculateToleranceFromGeometry(spatialReference, geometry, false);
+			boolean accelerated = ((MultiVertexGeometryImpl) geometry._getImpl())
+					._buildQuadTreeAccelerator(accelDegree);
+			accelerated |= ((MultiVertexGeometryImpl) geometry._getImpl())
+					._buildRasterizedGeometryAccelerator(tol, accelDegree);
+			if (trace != null)
+				trace.end();
+
+			return accelerated;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 	@Override
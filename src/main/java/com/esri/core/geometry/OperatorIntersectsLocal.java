@@ -26,13 +26,22 @@ package com.esri.core.geometry;
 
 class OperatorIntersectsLocal extends OperatorIntersects {
 
-	OperatorDisjoint m_disjoint = (OperatorDisjoint) OperatorFactoryLocal
-			.getInstance().getOperator(Type.Disjoint);
-
 	@Override
 	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, ProgressTracker progressTracker) {
-		return !m_disjoint.execute(inputGeom1, inputGeom2, sr, progressTracker);
+		OperatorTrace trace = OperatorTrace.begin(Type.Intersects, inputGeom1,
+				inputGeom2);
+		try {
+			boolean bResult = !RelationalOperations.relate(inputGeom1, inputGeom2,
+					sr, RelationalOperations.Relation.disjoint, progressTracker);
+			if (trace != null)
+				trace.end();
+
+			return bResult;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 }
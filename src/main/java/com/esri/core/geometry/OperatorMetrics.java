@@ -0,0 +1,178 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.Closeable;
+
+/**
+ * The registry of the OperatorMetricsListener instances.
+ *
+ * A listener added with addListener receives the calls made on all threads.
+ * To listen to particular calls only, open a scope on the thread that makes
+ * them:
+ *
+ * <pre>
+ * OperatorMetrics.Scope scope = OperatorMetrics.open(listener);
+ * try {
+ * 	OperatorBuffer.local().execute(geom, sr, distance, null);
+ * } finally {
+ * 	scope.close();
+ * }
+ * </pre>
+ *
+ * While no listener is registered the operators do not measure anything.
+ */
+public final class OperatorMetrics {
+	private static final OperatorMetricsListener[] NONE = new OperatorMetricsListener[0];
+
+	private static volatile OperatorMetricsListener[] s_listeners = NONE;
+	private static final ThreadLocal<OperatorMetricsListener[]> s_scopes = new ThreadLocal<OperatorMetricsListener[]>();
+	private static volatile int s_scopeCount = 0;
+
+	private OperatorMetrics() {
+	}
+
+	/**
+	 * Adds the listener for the calls on all threads. Adding the same listener
+	 * twice makes it receive each call twice.
+	 */
+	public static synchronized void addListener(
+			OperatorMetricsListener listener) {
+		if (listener == null)
+			throw new IllegalArgumentException();
+
+		s_listeners = append_(s_listeners, listener);
+		update_();
+	}
+
+	/**
+	 * Removes the listener added with addListener.
+	 * 
+	 * @return True if the listener was found.
+	 */
+	public static synchronized boolean removeListener(
+			OperatorMetricsListener listener) {
+		OperatorMetricsListener[] listeners = s_listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				OperatorMetricsListener[] res = new OperatorMetricsListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, res, 0, i);
+				System.arraycopy(listeners, i + 1, res, i, res.length - i);
+				s_listeners = res;
+				update_();
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Adds the listener for the calls made by the current thread until the
+	 * returned scope is closed. The scopes can be nested and have to be
+	 * closed in the reverse order on the same thread.
+	 */
+	public static Scope open(OperatorMetricsListener listener) {
+		if (listener == null)
+			throw new IllegalArgumentException();
+
+		Scope scope = new Scope(s_scopes.get());
+		s_scopes.set(append_(scope.m_previous != null ? scope.m_previous
+				: NONE, listener));
+		changeScopeCount_(1);
+		return scope;
+	}
+
+	/**
+	 * The listeners added with open. Closing the scope removes its listener.
+	 */
+	public static final class Scope implements Closeable {
+		private final OperatorMetricsListener[] m_previous;
+		private final Thread m_thread;
+		private boolean m_bClosed;
+
+		private Scope(OperatorMetricsListener[] previous) {
+			m_previous = previous;
+			m_thread = Thread.currentThread();
+			m_bClosed = false;
+		}
+
+		@Override
+		public void close() {
+			if (m_bClosed)
+				return;
+
+			if (Thread.currentThread() != m_thread)
+				throw new GeometryException("invalid_call");
+
+			m_bClosed = true;
+			if (m_previous != null)
+				s_scopes.set(m_previous);
+			else
+				s_scopes.remove();
+
+			changeScopeCount_(-1);
+		}
+	}
+
+	/**
+	 * Returns the listeners for a call on the current thread, or null when
+	 * there are none.
+	 */
+	static OperatorMetricsListener[] getListeners() {
+		OperatorMetricsListener[] listeners = s_listeners;
+		OperatorMetricsListener[] scoped = s_scopeCount > 0 ? s_scopes.get()
+				: null;
+		if (scoped == null)
+			return listeners.length > 0 ? listeners : null;
+
+		if (listeners.length == 0)
+			return scoped;
+
+		OperatorMetricsListener[] res = new OperatorMetricsListener[listeners.length
+				+ scoped.length];
+		System.arraycopy(listeners, 0, res, 0, listeners.length);
+		System.arraycopy(scoped, 0, res, listeners.length, scoped.length);
+		return res;
+	}
+
+	private static synchronized void changeScopeCount_(int delta) {
+		s_scopeCount += delta;
+		update_();
+	}
+
+	private static synchronized void update_() {
+		OperatorTrace.setMetrics(s_listeners.length > 0 || s_scopeCount > 0);
+	}
+
+	private static OperatorMetricsListener[] append_(
+			OperatorMetricsListener[] listeners,
+			OperatorMetricsListener listener) {
+		OperatorMetricsListener[] res = new OperatorMetricsListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, res, 0, listeners.length);
+		res[listeners.length] = listener;
+		return res;
+	}
+}
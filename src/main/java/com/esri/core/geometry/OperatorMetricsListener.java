@@ -0,0 +1,79 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+/**
+ * Receives a callback before and after each execute call of an operator.
+ * Register the listener for all threads with OperatorMetrics.addListener, or
+ * for the calls made by one thread with OperatorMetrics.open.
+ *
+ * The callbacks run on the thread that calls the operator, inside the call,
+ * so they have to be fast and thread safe. Each onStart is followed by
+ * either onEnd, or onAbort when the operator throws.
+ * OperatorMetricsRecorder is a ready made implementation.
+ */
+public interface OperatorMetricsListener {
+	/**
+	 * Called before the operator starts the work.
+	 * 
+	 * @param type
+	 *            The operator.
+	 * @param inputVertexCount
+	 *            The number of vertices of the input geometries known at the
+	 *            start. The operators that read the input from a cursor count
+	 *            the vertices as they go, and report the total in onEnd.
+	 */
+	void onStart(Operator.Type type, long inputVertexCount);
+
+	/**
+	 * Called after the operator finished the work.
+	 * 
+	 * @param type
+	 *            The operator.
+	 * @param inputVertexCount
+	 *            The number of vertices of the input geometries.
+	 * @param outputVertexCount
+	 *            The number of vertices of the result. 0 for the operators
+	 *            that do not produce a geometry.
+	 * @param elapsedNanos
+	 *            The duration of the call in nanoseconds.
+	 */
+	void onEnd(Operator.Type type, long inputVertexCount,
+			long outputVertexCount, long elapsedNanos);
+
+	/**
+	 * Called instead of onEnd when the operator throws, for example when the
+	 * call is canceled.
+	 * 
+	 * @param type
+	 *            The operator.
+	 * @param inputVertexCount
+	 *            The number of vertices of the input geometries read before
+	 *            the call stopped.
+	 * @param elapsedNanos
+	 *            The duration of the call in nanoseconds.
+	 */
+	void onAbort(Operator.Type type, long inputVertexCount, long elapsedNanos);
+}
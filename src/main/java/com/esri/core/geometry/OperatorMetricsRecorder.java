@@ -0,0 +1,286 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An OperatorMetricsListener that counts the calls, the vertices and the
+ * latencies of each operator type. The latencies go to a histogram with
+ * eight buckets per power of two, so a percentile is within 12.5% of the
+ * exact value, whatever the range of the latencies. The recorder only uses
+ * atomic counters, so it can stay registered in production:
+ *
+ * <pre>
+ * OperatorMetricsRecorder recorder = new OperatorMetricsRecorder();
+ * OperatorMetrics.addListener(recorder);
+ * ...
+ * OperatorMetricsRecorder.Snapshot buffer = recorder
+ * 		.getSnapshot(Operator.Type.Buffer);
+ * long p99 = buffer.getPercentileNanos(99);
+ * </pre>
+ */
+public final class OperatorMetricsRecorder implements OperatorMetricsListener {
+	// the number of bits of a latency that select the bucket within a power
+	// of two
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	// the slots of the counters of one operator type, followed by the buckets
+	private static final int COUNT = 0;
+	private static final int IN_FLIGHT = 1;
+	private static final int INPUT_VERTICES = 2;
+	private static final int OUTPUT_VERTICES = 3;
+	private static final int TOTAL_NANOS = 4;
+	private static final int MAX_NANOS = 5;
+	private static final int ABORTED = 6;
+	private static final int BUCKETS = 7;
+
+	private final AtomicReferenceArray<AtomicLongArray> m_counters;
+
+	public OperatorMetricsRecorder() {
+		m_counters = new AtomicReferenceArray<AtomicLongArray>(
+				Operator.Type.values().length);
+	}
+
+	@Override
+	public void onStart(Operator.Type type, long inputVertexCount) {
+		getCounters_(type).incrementAndGet(IN_FLIGHT);
+	}
+
+	@Override
+	public void onEnd(Operator.Type type, long inputVertexCount,
+			long outputVertexCount, long elapsedNanos) {
+		AtomicLongArray counters = getCounters_(type);
+		long nanos = Math.max(elapsedNanos, 0);
+		counters.decrementAndGet(IN_FLIGHT);
+		counters.incrementAndGet(COUNT);
+		counters.addAndGet(INPUT_VERTICES, inputVertexCount);
+		counters.addAndGet(OUTPUT_VERTICES, outputVertexCount);
+		counters.addAndGet(TOTAL_NANOS, nanos);
+		counters.incrementAndGet(BUCKETS + bucketIndex(nanos));
+		long max = counters.get(MAX_NANOS);
+		while (nanos > max && !counters.compareAndSet(MAX_NANOS, max, nanos))
+			max = counters.get(MAX_NANOS);
+	}
+
+	@Override
+	public void onAbort(Operator.Type type, long inputVertexCount,
+			long elapsedNanos) {
+		AtomicLongArray counters = getCounters_(type);
+		counters.decrementAndGet(IN_FLIGHT);
+		counters.incrementAndGet(ABORTED);
+	}
+
+	/**
+	 * Returns a copy of the counters of the operator type. The copy is taken
+	 * without stopping the calls in progress, so the counters of the calls
+	 * that end during the copy can be partially included.
+	 */
+	public Snapshot getSnapshot(Operator.Type type) {
+		AtomicLongArray counters = m_counters.get(type.ordinal());
+		long[] values = new long[BUCKETS + BUCKET_COUNT];
+		if (counters != null) {
+			for (int i = 0; i < values.length; i++)
+				values[i] = counters.get(i);
+		}
+
+		return new Snapshot(type, values);
+	}
+
+	/**
+	 * Sets all counters to zero, except the numbers of the calls in
+	 * progress.
+	 */
+	public void reset() {
+		for (int i = 0, n = m_counters.length(); i < n; i++) {
+			AtomicLongArray counters = m_counters.get(i);
+			if (counters == null)
+				continue;
+
+			for (int j = 0; j < counters.length(); j++) {
+				if (j != IN_FLIGHT)
+					counters.set(j, 0);
+			}
+		}
+	}
+
+	/**
+	 * The counters of one operator type at some point in time.
+	 */
+	public static final class Snapshot {
+		private final Operator.Type m_type;
+		private final long[] m_values;
+
+		private Snapshot(Operator.Type type, long[] values) {
+			m_type = type;
+			m_values = values;
+		}
+
+		public Operator.Type getType() {
+			return m_type;
+		}
+
+		/**
+		 * Returns the number of the calls that ended.
+		 */
+		public long getCount() {
+			return m_values[COUNT];
+		}
+
+		/**
+		 * Returns the number of the calls that threw. They are not included
+		 * in the other counters.
+		 */
+		public long getAbortedCount() {
+			return m_values[ABORTED];
+		}
+
+		/**
+		 * Returns the number of the calls in progress.
+		 */
+		public long getInFlightCount() {
+			return m_values[IN_FLIGHT];
+		}
+
+		/**
+		 * Returns the total number of the input vertices of the calls.
+		 */
+		public long getInputVertexCount() {
+			return m_values[INPUT_VERTICES];
+		}
+
+		/**
+		 * Returns the total number of the output vertices of the calls.
+		 */
+		public long getOutputVertexCount() {
+			return m_values[OUTPUT_VERTICES];
+		}
+
+		/**
+		 * Returns the total duration of the calls.
+		 */
+		public long getTotalNanos() {
+			return m_values[TOTAL_NANOS];
+		}
+
+		/**
+		 * Returns the duration of the slowest call.
+		 */
+		public long getMaxNanos() {
+			return m_values[MAX_NANOS];
+		}
+
+		/**
+		 * Returns the latency that the given percent of the calls did not
+		 * exceed, rounded up to the end of its bucket. Returns 0 when there
+		 * were no calls.
+		 * 
+		 * @param percentile
+		 *            The percent of the calls, in the range [0, 100].
+		 */
+		public long getPercentileNanos(double percentile) {
+			if (percentile < 0 || percentile > 100 || NumberUtils.isNaN(percentile))
+				throw new IllegalArgumentException();
+
+			long count = getCount();
+			if (count == 0)
+				return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				seen += m_values[BUCKETS + i];
+				if (seen >= rank)
+					return Math.min(bucketUpperBound(i), getMaxNanos());
+			}
+
+			return getMaxNanos();
+		}
+
+		/**
+		 * Returns the number of the calls that took at most the given number
+		 * of nanoseconds. The calls are counted by bucket, so a bucket that
+		 * contains the value is counted only when all of it is at most the
+		 * value. Use this to fill the cumulative buckets of a histogram in
+		 * the monitoring system.
+		 */
+		public long getCountAtOrBelow(long nanos) {
+			long count = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				if (bucketUpperBound(i) > nanos)
+					break;
+
+				count += m_values[BUCKETS + i];
+			}
+
+			return count;
+		}
+	}
+
+	/**
+	 * Returns the index of the bucket that counts the latency. The latencies
+	 * below SUB_BUCKET_COUNT have a bucket each. The bucket of a larger
+	 * latency is given by the position of its highest bit and the
+	 * SUB_BUCKET_BITS bits below it.
+	 */
+	static int bucketIndex(long nanos) {
+		if (nanos < SUB_BUCKET_COUNT)
+			return (int) nanos;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (nanos >>> shift) - SUB_BUCKET_COUNT;
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Returns the largest latency counted by the bucket.
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT)
+			return index;
+
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+		long upper = ((subBucket + 1) << shift) - 1;
+		// the last bucket ends at Long.MAX_VALUE
+		return upper < 0 ? Long.MAX_VALUE : upper;
+	}
+
+	private AtomicLongArray getCounters_(Operator.Type type) {
+		int i = type.ordinal();
+		AtomicLongArray counters = m_counters.get(i);
+		if (counters == null) {
+			m_counters.compareAndSet(i, null, new AtomicLongArray(BUCKETS
+					+ BUCKET_COUNT));
+			counters = m_counters.get(i);
+		}
+
+		return counters;
+	}
+}
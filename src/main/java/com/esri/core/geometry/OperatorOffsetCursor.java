@@ -50,7 +50,18 @@ class OperatorOffsetCursor extends GeometryCursor {
 		Geometry geom = m_inputGeoms.next();
 		if (geom != null) {
 			m_index = m_inputGeoms.getGeometryID();
-			return Offset(geom);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.Offset,
+					geom, null);
+			try {
+				Geometry result = Offset(geom);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
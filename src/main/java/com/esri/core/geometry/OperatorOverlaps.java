@@ -28,7 +28,7 @@ import com.esri.core.geometry.Operator.Type;
 public abstract class OperatorOverlaps extends OperatorSimpleRelation {
 	@Override
 	public Type getType() {
-		return Type.Equals;
+		return Type.Overlaps;
 	}
 
 	public static OperatorOverlaps local() {
@@ -27,7 +27,18 @@ class OperatorOverlapsLocal extends OperatorOverlaps {
 	@Override
 	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, ProgressTracker progressTracker) {
-		return RelationalOperations.relate(inputGeom1, inputGeom2, sr,
-				RelationalOperations.Relation.overlaps, progressTracker);
+		OperatorTrace trace = OperatorTrace.begin(Type.Overlaps, inputGeom1,
+				inputGeom2);
+		try {
+			boolean bResult = RelationalOperations.relate(inputGeom1, inputGeom2,
+					sr, RelationalOperations.Relation.overlaps, progressTracker);
+			if (trace != null)
+				trace.end();
+
+			return bResult;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 }
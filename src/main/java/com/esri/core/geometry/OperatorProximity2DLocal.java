@@ -226,6 +226,25 @@ class OperatorProximity2DLocal extends OperatorProximity2D {
 		if (geom.isEmpty())
 			return new Proximity2DResult();
 
+		OperatorTrace trace = OperatorTrace.begin(Type.Proximity2D, geom,
+				inputPoint);
+		try {
+			Proximity2DResult result = getNearestCoordinate_(geom, inputPoint,
+					bTestPolygonInterior, bCalculateLeftRightSide);
+			if (trace != null)
+				trace.end();
+
+			return result;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private Proximity2DResult getNearestCoordinate_(Geometry geom,
+			Point inputPoint, boolean bTestPolygonInterior,
+			boolean bCalculateLeftRightSide) {
+
 		Point2D inputPoint2D = inputPoint.getXY();
 
 		Geometry proxmityTestGeom = geom;
@@ -258,6 +277,22 @@ class OperatorProximity2DLocal extends OperatorProximity2D {
 		if (geom.isEmpty())
 			return new Proximity2DResult();
 
+		OperatorTrace trace = OperatorTrace.begin(Type.Proximity2D, geom,
+				inputPoint);
+		try {
+			Proximity2DResult result = getNearestVertex_(geom, inputPoint);
+			if (trace != null)
+				trace.end();
+
+			return result;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private Proximity2DResult getNearestVertex_(Geometry geom, Point inputPoint) {
+
 		Point2D inputPoint2D = inputPoint.getXY();
 
 		Geometry proxmityTestGeom = geom;
@@ -292,6 +327,24 @@ class OperatorProximity2DLocal extends OperatorProximity2D {
 		if (geom.isEmpty())
 			return new Proximity2DResult[] {};
 
+		OperatorTrace trace = OperatorTrace.begin(Type.Proximity2D, geom,
+				inputPoint);
+		try {
+			Proximity2DResult[] result = getNearestVertices_(geom, inputPoint,
+					searchRadius, maxVertexCountToReturn);
+			if (trace != null)
+				trace.end();
+
+			return result;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private Proximity2DResult[] getNearestVertices_(Geometry geom,
+			Point inputPoint, double searchRadius, int maxVertexCountToReturn) {
+
 		Point2D inputPoint2D = inputPoint.getXY();
 
 		Geometry proxmityTestGeom = geom;
@@ -48,6 +48,18 @@ public abstract class OperatorRelate extends Operator {
 	public abstract boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, String de_9im_string, ProgressTracker progressTracker);
 
+    /**
+    *Computes the DE-9IM matrix of two geometries. Use it to test several relations of the same pair:
+    *the geometries are intersected once, and the result answers all named relations.
+    *@param inputGeom1 The first geometry in the relation.
+    *@param inputGeom2 The second geometry in the relation.
+    *@param sr The spatial reference of the geometries.
+    *@return Returns the DE-9IM matrix of inputGeom1 vs inputGeom2.
+    */
+	public abstract RelateResult execute(Geometry inputGeom1,
+			Geometry inputGeom2, SpatialReference sr,
+			ProgressTracker progressTracker);
+
 	public static OperatorRelate local() {
 		return (OperatorRelate) OperatorFactoryLocal.getInstance().getOperator(
 				Type.Relate);
@@ -63,8 +75,19 @@ public abstract class OperatorRelate extends Operator {
 	public boolean accelerateGeometry(Geometry geometry,
 			SpatialReference spatialReference,
 			GeometryAccelerationDegree accelDegree) {
-		return RelationalOperations.Accelerate_helper.accelerate_geometry(
-				geometry, spatialReference, accelDegree);
+		OperatorTrace trace = OperatorTrace.beginAccelerate(getType(),
+				geometry);
+		try {
+			boolean bAccelerated = RelationalOperations.Accelerate_helper
+					.accelerate_geometry(geometry, spatialReference, accelDegree);
+			if (trace != null)
+				trace.end();
+
+			return bAccelerated;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}	
 
 }
@@ -29,8 +29,44 @@ class OperatorRelateLocal extends OperatorRelate {
 	@Override
 	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, String scl, ProgressTracker progress_tracker) {
-		return RelationalOperationsMatrix.relate(inputGeom1, inputGeom2, sr,
-				scl, progress_tracker);
+		OperatorTrace trace = OperatorTrace.begin(Type.Relate, inputGeom1,
+				inputGeom2);
+		try {
+			boolean bResult = RelationalOperationsMatrix.relate(inputGeom1,
+					inputGeom2, sr, scl, progress_tracker);
+			if (trace != null)
+				trace.end();
+
+			return bResult;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	@Override
+	public RelateResult execute(Geometry inputGeom1, Geometry inputGeom2,
+			SpatialReference sr, ProgressTracker progressTracker) {
+		if (inputGeom1 == null || inputGeom2 == null)
+			throw new IllegalArgumentException();
+
+		OperatorTrace trace = OperatorTrace.begin(Type.Relate, inputGeom1,
+				inputGeom2);
+		try {
+			int[] matrix = RelationalOperationsMatrix.relate(inputGeom1,
+					inputGeom2, sr, progressTracker);
+			if (matrix == null)
+				throw new GeometryException("invalid argument");
+
+			if (trace != null)
+				trace.end();
+
+			return new RelateResult(matrix, inputGeom1.getDimension(),
+					inputGeom2.getDimension());
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 }
@@ -24,12 +24,32 @@
 
 package com.esri.core.geometry;
 
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+
 import com.esri.core.geometry.Geometry.GeometryAccelerationDegree;
 
 /**
  * A base class for simple relation operators.
  */
 public abstract class OperatorSimpleRelation extends Operator {
+	/**
+	 * The result of the approximate relation test.
+	 */
+	public enum ApproximateResult {
+		/**
+		 * The relation holds.
+		 */
+		True,
+		/**
+		 * The relation does not hold.
+		 */
+		False,
+		/**
+		 * The relation cannot be decided without the exact test.
+		 */
+		Unknown
+	}
 
 	/**
 	 * Performs the given relation operation between two geometries.
@@ -39,6 +59,105 @@ public abstract class OperatorSimpleRelation extends Operator {
 	public abstract boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, ProgressTracker progressTracker);
 
+	/**
+	 * Performs the given relation operation between the fixed geometry and
+	 * each geometry of the cursor. The fixed geometry is the first argument
+	 * of the relation, so OperatorContains tests whether the fixed geometry
+	 * contains each candidate. The fixed geometry is accelerated once for the
+	 * whole cursor, unless it is accelerated already. It is not modified.
+	 * 
+	 * @param fixed
+	 *            The geometry tested against all candidates.
+	 * @param candidates
+	 *            The candidates. The cursor is read to the end by this call.
+	 * @param sr
+	 *            The spatial reference of the geometries.
+	 * @param progressTracker
+	 *            Allows cancellation of a long operation. Can be null.
+	 * @return Returns a BitSet with the bit i set if the relation holds for
+	 *         the i-th geometry returned by the cursor.
+	 */
+	public BitSet executeMany(Geometry fixed, GeometryCursor candidates,
+			SpatialReference sr, ProgressTracker progressTracker) {
+		return new SimpleRelationBatch(this, fixed, sr).execute(candidates,
+				progressTracker);
+	}
+
+	/**
+	 * Performs the given relation operation between the fixed geometry and
+	 * each candidate. See executeMany with the GeometryCursor.
+	 * 
+	 * @return Returns an array with True at the index of each candidate for
+	 *         which the relation holds.
+	 */
+	public boolean[] executeMany(Geometry fixed, Geometry[] candidates,
+			SpatialReference sr, ProgressTracker progressTracker) {
+		return new SimpleRelationBatch(this, fixed, sr).execute(candidates,
+				progressTracker, null, 1);
+	}
+
+	/**
+	 * Performs the given relation operation between the fixed geometry and
+	 * each candidate in parallel. The candidates are split into ranges that
+	 * are tested by the executor. The ranges share a frozen, accelerated copy
+	 * of the fixed geometry.
+	 * 
+	 * @param fixed
+	 *            The geometry tested against all candidates.
+	 * @param candidates
+	 *            The candidates.
+	 * @param sr
+	 *            The spatial reference of the geometries.
+	 * @param progressTracker
+	 *            Allows cancellation of a long operation. Can be null. It is
+	 *            called from several threads at once.
+	 * @param executor
+	 *            Runs the ranges. When null, the candidates are tested on the
+	 *            calling thread.
+	 * @param parallelism
+	 *            The maximum number of ranges. Must be positive.
+	 * @return Returns an array with True at the index of each candidate for
+	 *         which the relation holds.
+	 */
+	public boolean[] executeMany(Geometry fixed, Geometry[] candidates,
+			SpatialReference sr, ProgressTracker progressTracker,
+			Executor executor, int parallelism) {
+		return new SimpleRelationBatch(this, fixed, sr).execute(candidates,
+				progressTracker, executor, parallelism);
+	}
+
+	/**
+	 * Performs the given relation operation between two geometries using only
+	 * their envelopes and the rasterized geometry accelerators. It never runs
+	 * the exact topological test, so it is much cheaper than execute. When
+	 * the result is Unknown, call execute to get the exact answer. Accelerate
+	 * the geometry tested many times with accelerateGeometry, otherwise only
+	 * the envelopes can be used and most of the results will be Unknown.
+	 * 
+	 * @return Returns True or False when the result of execute is known, and
+	 *         Unknown otherwise.
+	 */
+	public ApproximateResult executeApproximate(Geometry inputGeom1,
+			Geometry inputGeom2, SpatialReference sr) {
+		if (inputGeom1 == null || inputGeom2 == null)
+			throw new IllegalArgumentException();
+
+		if (getType() == Type.Intersects) {
+			ApproximateResult result = RelationalOperations
+					.relateApproximate(inputGeom1, inputGeom2, sr,
+							RelationalOperations.Relation.disjoint);
+			if (result == ApproximateResult.True)
+				return ApproximateResult.False;
+			if (result == ApproximateResult.False)
+				return ApproximateResult.True;
+
+			return result;
+		}
+
+		return RelationalOperations.relateApproximate(inputGeom1, inputGeom2,
+				sr, relation_());
+	}
+
 	@Override
 	public boolean canAccelerateGeometry(Geometry geometry) {
 		return RelationalOperations.Accelerate_helper
@@ -49,7 +168,39 @@ public abstract class OperatorSimpleRelation extends Operator {
 	public boolean accelerateGeometry(Geometry geometry,
 			SpatialReference spatialReference,
 			GeometryAccelerationDegree accelDegree) {
-		return RelationalOperations.Accelerate_helper.accelerate_geometry(
-				geometry, spatialReference, accelDegree);
+		OperatorTrace trace = OperatorTrace.beginAccelerate(getType(),
+				geometry);
+		try {
+			boolean bAccelerated = RelationalOperations.Accelerate_helper
+					.accelerate_geometry(geometry, spatialReference, accelDegree);
+			if (trace != null)
+				trace.end();
+
+			return bAccelerated;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private int relation_() {
+		switch (getType()) {
+		case Contains:
+			return RelationalOperations.Relation.contains;
+		case Within:
+			return RelationalOperations.Relation.within;
+		case Equals:
+			return RelationalOperations.Relation.equals;
+		case Disjoint:
+			return RelationalOperations.Relation.disjoint;
+		case Touches:
+			return RelationalOperations.Relation.touches;
+		case Crosses:
+			return RelationalOperations.Relation.crosses;
+		case Overlaps:
+			return RelationalOperations.Relation.overlaps;
+		default:
+			throw new GeometryException("invalid_call");
+		}
 	}
 }
@@ -25,6 +25,8 @@ package com.esri.core.geometry;
 
 import com.esri.core.geometry.Operator.Type;
 
+import java.util.concurrent.Executor;
+
 /**
  * Simplifies the geometry or determines if the geometry is simple. The goal of the OperatorSimplify is to produce a geometry that is
  * valid for the Geodatabase to store without additional processing.
@@ -86,6 +88,24 @@ public abstract class OperatorSimplify extends Operator {
 			SpatialReference sr, boolean bForceSimplify,
 			ProgressTracker progressTracker);
 
+	/**
+	 *Performs the Simplify operation on the geometry cursor in parallel.
+	 *@param geoms Geometries to simplify. The cursor is only read from the thread calling next on the result.
+	 *@param sr Spatial reference from which the tolerance is obtained. When null, the tolerance
+	 *will be derived individually for each geometry from its bounds.
+	 *@param bForceSimplify When True, the Geometry will be simplified regardless of the internal IsKnownSimple flag.
+	 *@param progressTracker Allows cancellation of a long operation. Can be null. It is called from several threads at once.
+	 *@param executor Runs the simplification of each geometry.
+	 *@param windowSize The maximum number of geometries being simplified at once. Must be positive.
+	 *@return Returns a GeometryCursor of simplified geometries in the order of the input cursor.
+	 *The getGeometryID of the returned cursor is the ID of the corresponding input geometry.
+	 *
+	 *The isSimpleAsFeature returns true after this method.
+	 */
+	public abstract GeometryCursor execute(GeometryCursor geoms,
+			SpatialReference sr, boolean bForceSimplify,
+			ProgressTracker progressTracker, Executor executor, int windowSize);
+
 	/**
 	 *Performs the Simplify operation on the geometry.
 	 *@param geom Geometry to simplify.
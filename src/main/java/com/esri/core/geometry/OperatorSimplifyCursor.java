@@ -57,7 +57,18 @@ class OperatorSimplifyCursor extends GeometryCursor {
 			if ((m_progressTracker != null)
 					&& !(m_progressTracker.progress(-1, -1)))
 				throw new RuntimeException("user_canceled");
-			return simplify(geometry);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.Simplify,
+					geometry, null);
+			try {
+				Geometry result = simplify(geometry);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
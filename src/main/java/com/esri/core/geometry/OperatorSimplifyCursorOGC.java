@@ -56,7 +56,18 @@ class OperatorSimplifyCursorOGC extends GeometryCursor {
 			if ((m_progressTracker != null)
 					&& !(m_progressTracker.progress(-1, -1)))
 				throw new RuntimeException("user_canceled");
-			return simplify(geometry);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.SimplifyOGC,
+					geometry, null);
+			try {
+				Geometry result = simplify(geometry);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
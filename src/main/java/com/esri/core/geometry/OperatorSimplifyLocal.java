@@ -23,6 +23,8 @@
  */
 package com.esri.core.geometry;
 
+import java.util.concurrent.Executor;
+
 class OperatorSimplifyLocal extends OperatorSimplify {
 
 	// Reviewed vs. Feb 8 2011
@@ -34,6 +36,33 @@ class OperatorSimplifyLocal extends OperatorSimplify {
 				progressTracker);
 	}
 
+	@Override
+	public GeometryCursor execute(GeometryCursor geoms,
+			final SpatialReference spatialRef, final boolean bForceSimplify,
+			final ProgressTracker progressTracker, Executor executor,
+			int windowSize) {
+		return new ParallelGeometryCursor(geoms, executor, windowSize,
+				progressTracker) {
+			@Override
+			Geometry process(Geometry geometry) {
+				OperatorTrace trace = OperatorTrace.begin(Type.Simplify,
+						geometry, null);
+				try {
+					Geometry result = OperatorSimplifyLocalHelper
+							.simplifyAsFeature(geometry, spatialRef,
+									bForceSimplify, progressTracker);
+					if (trace != null)
+						trace.end(result);
+
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
+			}
+		};
+	}
+
 	// Reviewed vs. Feb 8 2011
 	@Override
 	public boolean isSimpleAsFeature(Geometry geom,
@@ -340,9 +340,10 @@ class OperatorSimplifyLocalHelper {
 			result.m_vertexIndex2 = editShape
 					.getVertexIndex(result.m_vertexIndex2);
 			m_nonSimpleResult.Assign(result);
-			return false;
-		} else
-			return true;
+		}
+
+		editShape.releaseMemory();
+		return !bNonSimple;
 	}
 
 	private boolean checkCrackingBrute_() // cracker, that uses brute force (a
@@ -1663,6 +1664,8 @@ class OperatorSimplifyLocalHelper {
 																				// result
 																				// of
 																				// simplify
+		m_editShape.releaseMemory();
+		m_editShape = null;
 
 		if (m_geometry.getType().equals(Geometry.Type.Polygon)) {
 			((MultiPathImpl)m_geometry._getImpl())._updateOGCFlags();
@@ -1687,6 +1690,7 @@ class OperatorSimplifyLocalHelper {
 
 		m_description = geometry.getDescription();
 		m_geometry = geometry;
+		m_progressTracker = progressTracker;
 		m_sr = (SpatialReferenceImpl) spatialReference;
 		m_dbgCounter = 0;
 		m_toleranceIsSimple = InternalUtils.calculateToleranceFromGeometry(
@@ -23,6 +23,8 @@
  */
 package com.esri.core.geometry;
 
+import java.util.concurrent.Executor;
+
 class OperatorSimplifyLocalOGC extends OperatorSimplifyOGC {
 
 	@Override
@@ -33,6 +35,32 @@ class OperatorSimplifyLocalOGC extends OperatorSimplifyOGC {
 				progressTracker);
 	}
 
+	@Override
+	public GeometryCursor execute(GeometryCursor geoms,
+			final SpatialReference spatialRef, final boolean bForceSimplify,
+			final ProgressTracker progressTracker, Executor executor,
+			int windowSize) {
+		return new ParallelGeometryCursor(geoms, executor, windowSize,
+				progressTracker) {
+			@Override
+			Geometry process(Geometry geometry) {
+				OperatorTrace trace = OperatorTrace.begin(Type.SimplifyOGC,
+						geometry, null);
+				try {
+					Geometry result = OperatorSimplifyLocalHelper.simplifyOGC(
+							geometry, spatialRef, bForceSimplify, progressTracker);
+					if (trace != null)
+						trace.end(result);
+
+					return result;
+				} finally {
+					if (trace != null)
+						trace.close();
+				}
+			}
+		};
+	}
+
 	@Override
 	public boolean isSimpleOGC(Geometry geom, SpatialReference spatialRef,
 			boolean bForceTest, NonSimpleResult result,
@@ -23,6 +23,8 @@
  */
 package com.esri.core.geometry;
 
+import java.util.concurrent.Executor;
+
 /**
  * Simplifies the geometry or determines if the geometry is simple. Follows the OGC specification for the Simple Feature Access
  * v. 1.2.1 (06-103r4).
@@ -67,6 +69,24 @@ public abstract class OperatorSimplifyOGC extends Operator {
 			SpatialReference sr, boolean bForceSimplify,
 			ProgressTracker progressTracker);
 
+	/**
+	 * Processes geometry cursor in parallel to ensure its geometries are simple for OGC specification.
+	 * @param geoms Geometries to be simplified. The cursor is only read from the thread calling next on the result.
+	 * @param sr Spatial reference to obtain the tolerance from. When null, the tolerance
+	 * will be derived individually for each geometry from its bounds.
+	 * @param bForceSimplify When True, the Geometry will be simplified regardless of the internal IsKnownSimple flag.
+	 * @param progressTracker Allows cancellation of a long operation. Can be null. It is called from several threads at once.
+	 * @param executor Runs the simplification of each geometry.
+	 * @param windowSize The maximum number of geometries being simplified at once. Must be positive.
+	 * @return Returns a GeometryCursor of simplified geometries in the order of the input cursor.
+	 * The getGeometryID of the returned cursor is the ID of the corresponding input geometry.
+	 * 
+	 * The isSimpleOGC returns true after this call.
+	 */
+	public abstract GeometryCursor execute(GeometryCursor geoms,
+			SpatialReference sr, boolean bForceSimplify,
+			ProgressTracker progressTracker, Executor executor, int windowSize);
+
 	/**
 	 * Processes geometry to ensure it is simple for OGC specification.
 	 * @param geom The geometry to be simplified.
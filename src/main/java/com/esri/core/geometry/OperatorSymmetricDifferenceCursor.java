@@ -51,9 +51,20 @@ class OperatorSymmetricDifferenceCursor extends GeometryCursor {
 		Geometry leftGeom;
 		if ((leftGeom = m_inputGeoms.next()) != null) {
 			m_index = m_inputGeoms.getGeometryID();
-			return OperatorSymmetricDifferenceLocal.symmetricDifference(
-					leftGeom, m_rightGeom, m_spatial_reference,
-					m_progress_tracker);
+			OperatorTrace trace = OperatorTrace.begin(Operator.Type.SymmetricDifference,
+					leftGeom, m_rightGeom);
+			try {
+				Geometry result = OperatorSymmetricDifferenceLocal
+						.symmetricDifference(leftGeom, m_rightGeom,
+								m_spatial_reference, m_progress_tracker);
+				if (trace != null)
+					trace.end(result);
+
+				return result;
+			} finally {
+				if (trace != null)
+					trace.close();
+			}
 		}
 		return null;
 	}
@@ -24,6 +24,8 @@
 
 package com.esri.core.geometry;
 
+import java.util.concurrent.Executor;
+
 import com.esri.core.geometry.Operator.Type;
 
 /**
@@ -36,6 +38,34 @@ public abstract class OperatorTouches extends OperatorSimpleRelation {
 		return Type.Touches;
 	}
 
+	/**
+	 * Tests whether the geometries touch. When one geometry is a polygon and
+	 * the other one is a large multipoint, the points are split into chunks
+	 * that are tested in parallel against the polygon, which is accelerated
+	 * once and shared by the chunks. The chunks stop as soon as a point in
+	 * the interior of the polygon is found. Other geometries are tested on
+	 * the calling thread.
+	 * 
+	 * @param inputGeom1
+	 *            The first geometry.
+	 * @param inputGeom2
+	 *            The second geometry.
+	 * @param sr
+	 *            The spatial reference of the geometries.
+	 * @param progressTracker
+	 *            Allows cancellation of a long operation. Can be null. It is
+	 *            called from several threads at once.
+	 * @param executor
+	 *            Runs the chunks. When null, the points are tested on the
+	 *            calling thread.
+	 * @param parallelism
+	 *            The maximum number of chunks. Must be positive.
+	 * @return Returns True if the geometries touch.
+	 */
+	public abstract boolean execute(Geometry inputGeom1, Geometry inputGeom2,
+			SpatialReference sr, ProgressTracker progressTracker,
+			Executor executor, int parallelism);
+
 	public static OperatorTouches local() {
 		return (OperatorTouches) OperatorFactoryLocal.getInstance()
 				.getOperator(Type.Touches);
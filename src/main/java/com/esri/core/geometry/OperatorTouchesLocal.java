@@ -24,12 +24,36 @@
 
 package com.esri.core.geometry;
 
+import java.util.concurrent.Executor;
+
 class OperatorTouchesLocal extends OperatorTouches {
 	@Override
 	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
 			SpatialReference sr, ProgressTracker progressTracker) {
-		return RelationalOperations.relate(inputGeom1, inputGeom2, sr,
-				RelationalOperations.Relation.touches, progressTracker);
+		return execute(inputGeom1, inputGeom2, sr, progressTracker, null, 1);
+	}
+
+	@Override
+	public boolean execute(Geometry inputGeom1, Geometry inputGeom2,
+			SpatialReference sr, ProgressTracker progressTracker,
+			Executor executor, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException();
+
+		OperatorTrace trace = OperatorTrace.begin(Type.Touches, inputGeom1,
+				inputGeom2);
+		try {
+			boolean bResult = RelationalOperations.relate(inputGeom1, inputGeom2,
+					sr, RelationalOperations.Relation.touches, progressTracker,
+					executor, parallelism);
+			if (trace != null)
+				trace.end();
+
+			return bResult;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
 	}
 
 }
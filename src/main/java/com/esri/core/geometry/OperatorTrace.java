@@ -0,0 +1,295 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures one call of an operator for the flight recorder events and the
+ * metrics listeners. The operators call begin before the work and end after
+ * it:
+ *
+ * <pre>
+ * OperatorTrace trace = OperatorTrace.begin(Operator.Type.Buffer, geom, null);
+ * try {
+ * 	Geometry result = ...;
+ * 	if (trace != null)
+ * 		trace.end(result);
+ * 	return result;
+ * } finally {
+ * 	if (trace != null)
+ * 		trace.close();
+ * }
+ * </pre>
+ *
+ * close does nothing after end. When the operator throws, it reports the call
+ * as aborted, so that each started call is also finished.
+ *
+ * When nothing listens, begin returns null after reading one volatile
+ * field, so the calls cost nothing measurable.
+ */
+final class OperatorTrace {
+	static final String EXECUTE = "execute";
+	static final String ACCELERATE = "accelerateGeometry";
+
+	private static volatile boolean s_bEnabled;
+	private static volatile boolean s_bRecording;
+	private static volatile boolean s_bMetrics;
+
+	static {
+		// registers the flight recorder events when the system property asks
+		// for them
+		OperatorFlightRecorder.isRegistered();
+	}
+
+	private final Operator.Type m_type;
+	private final String m_call;
+	private Geometry.Type m_inputType;
+	private long m_inputVertexCount;
+	private final boolean m_bAccelerated;
+	private final long m_startAllocatedBytes;
+	private final Object m_event;
+	private final OperatorMetricsListener[] m_listeners;
+	private final long m_startNanos;
+	private boolean m_bEnded;
+
+	private OperatorTrace(Operator.Type type, String call, Geometry input,
+			Geometry other, OperatorMetricsListener[] listeners) {
+		m_type = type;
+		m_call = call;
+		m_inputType = input != null ? input.getType() : Geometry.Type.Unknown;
+		m_inputVertexCount = vertexCount(input) + vertexCount(other);
+		m_event = s_bRecording ? OperatorFlightRecorder.beginEvent() : null;
+		// only the events need the slower measurements
+		m_bAccelerated = m_event != null
+				&& (isAccelerated(input) || isAccelerated(other));
+		m_startAllocatedBytes = m_event != null ? allocatedBytes() : -1;
+		m_listeners = listeners;
+		if (listeners != null) {
+			for (int i = 0; i < listeners.length; i++)
+				listeners[i].onStart(type, m_inputVertexCount);
+		}
+
+		m_startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Starts measuring the call of an operator on one or two geometries.
+	 * Either geometry can be null. Returns null when tracing is off.
+	 */
+	static OperatorTrace begin(Operator.Type type, Geometry input,
+			Geometry other) {
+		if (!s_bEnabled)
+			return null;
+
+		OperatorMetricsListener[] listeners = s_bMetrics ? OperatorMetrics
+				.getListeners() : null;
+		if (listeners == null && !s_bRecording)
+			return null;
+
+		return new OperatorTrace(type, EXECUTE, input, other, listeners);
+	}
+
+	/**
+	 * Starts measuring the acceleration of a geometry. Returns null when
+	 * tracing is off.
+	 */
+	static OperatorTrace beginAccelerate(Operator.Type type, Geometry geometry) {
+		// the listeners see the execute calls only
+		if (!s_bRecording)
+			return null;
+
+		return new OperatorTrace(type, ACCELERATE, geometry, null, null);
+	}
+
+	/**
+	 * Turns the flight recorder events on or off.
+	 */
+	static synchronized void setRecording(boolean bRecording) {
+		s_bRecording = bRecording;
+		s_bEnabled = s_bRecording || s_bMetrics;
+	}
+
+	/**
+	 * Turns the calls to the metrics listeners on or off.
+	 */
+	static synchronized void setMetrics(boolean bMetrics) {
+		s_bMetrics = bMetrics;
+		s_bEnabled = s_bRecording || s_bMetrics;
+	}
+
+	static boolean isEnabled() {
+		return s_bEnabled;
+	}
+
+	static boolean isRecording() {
+		return s_bRecording;
+	}
+
+	/**
+	 * Adds the vertices of the inputs that the operator reads from a cursor
+	 * during the call.
+	 */
+	void addInputVertexCount(long vertexCount) {
+		m_inputVertexCount += vertexCount;
+	}
+
+	/**
+	 * Ends the measurement of a call that produced the geometry. The output
+	 * can be null. The importers have no input geometry and report the type
+	 * of the output.
+	 */
+	void end(Geometry output) {
+		if (m_inputType == Geometry.Type.Unknown && output != null)
+			m_inputType = output.getType();
+
+		end(vertexCount(output));
+	}
+
+	/**
+	 * Ends the measurement of a call that does not produce a geometry.
+	 */
+	void end() {
+		end(0);
+	}
+
+	/**
+	 * Ends the measurement of a call that produced the given number of
+	 * vertices.
+	 */
+	void end(long outputVertexCount) {
+		if (m_bEnded)
+			return;
+
+		m_bEnded = true;
+		long elapsedNanos = System.nanoTime() - m_startNanos;
+		if (m_listeners != null) {
+			for (int i = 0; i < m_listeners.length; i++)
+				m_listeners[i].onEnd(m_type, m_inputVertexCount,
+						outputVertexCount, elapsedNanos);
+		}
+
+		long allocatedBytes = -1;
+		if (m_startAllocatedBytes >= 0) {
+			long current = allocatedBytes();
+			if (current >= 0)
+				allocatedBytes = current - m_startAllocatedBytes;
+		}
+
+		if (m_event != null)
+			OperatorFlightRecorder.commitEvent(m_event, m_type.name(), m_call,
+					m_inputType.name(), m_inputVertexCount, outputVertexCount,
+					allocatedBytes, m_bAccelerated);
+	}
+
+	/**
+	 * Reports the call as aborted, unless end was called. Call it in a
+	 * finally block after end. The flight recorder event of an aborted call
+	 * is not committed.
+	 */
+	void close() {
+		if (m_bEnded)
+			return;
+
+		m_bEnded = true;
+		long elapsedNanos = System.nanoTime() - m_startNanos;
+		if (m_listeners != null) {
+			for (int i = 0; i < m_listeners.length; i++)
+				m_listeners[i].onAbort(m_type, m_inputVertexCount,
+						elapsedNanos);
+		}
+	}
+
+	static long vertexCount(Geometry geometry) {
+		if (geometry == null || geometry.isEmpty())
+			return 0;
+
+		if (geometry instanceof MultiVertexGeometry)
+			return ((MultiVertexGeometry) geometry).getPointCount();
+
+		switch (geometry.getType()) {
+		case Point:
+			return 1;
+		case Envelope:
+			return 4;
+		default:
+			// segments
+			return 2;
+		}
+	}
+
+	static boolean isAccelerated(Geometry geometry) {
+		if (geometry == null
+				|| !Geometry.isMultiVertex(geometry.getType().value()))
+			return false;
+
+		return ((MultiVertexGeometryImpl) geometry._getImpl())
+				._getAccelerators() != null;
+	}
+
+	private static long allocatedBytes() {
+		try {
+			return AllocationCounter.read();
+		} catch (LinkageError e) {
+			// no com.sun.management on this JVM
+			return -1;
+		}
+	}
+
+	/**
+	 * The bytes allocated by the current thread, from the HotSpot extension
+	 * of ThreadMXBean. The class is loaded on the first traced call only.
+	 */
+	private static final class AllocationCounter {
+		private static final com.sun.management.ThreadMXBean s_threads = threads();
+
+		static long read() {
+			if (s_threads == null)
+				return -1;
+
+			return s_threads.getThreadAllocatedBytes(Thread.currentThread()
+					.getId());
+		}
+
+		private static com.sun.management.ThreadMXBean threads() {
+			try {
+				java.lang.management.ThreadMXBean bean = ManagementFactory
+						.getThreadMXBean();
+				if (!(bean instanceof com.sun.management.ThreadMXBean))
+					return null;
+
+				com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+				if (!threads.isThreadAllocatedMemorySupported()
+						|| !threads.isThreadAllocatedMemoryEnabled())
+					return null;
+
+				return threads;
+			} catch (Throwable t) {
+				// not a HotSpot JVM
+				return null;
+			}
+		}
+	}
+}
@@ -32,6 +32,7 @@ import java.util.TreeMap;
 final class OperatorUnionCursor extends GeometryCursor {
 
 	private GeometryCursor m_inputGeoms;
+	private long m_inputVertexCount;
 	private ProgressTracker m_progress_tracker;
 	private SpatialReferenceImpl m_spatial_reference;
 	private int m_index = -1;
@@ -114,6 +115,26 @@ final class OperatorUnionCursor extends GeometryCursor {
 		if (m_b_done && m_current_dim == m_max_dimension)
 			return null;
 
+		// the inputs are read by the union, their vertices are counted as
+		// they come
+		OperatorTrace trace = OperatorTrace.begin(Operator.Type.Union, null,
+				null);
+		long inputVertexCount = m_inputVertexCount;
+		try {
+			Geometry result = next_();
+			if (trace != null) {
+				trace.addInputVertexCount(m_inputVertexCount - inputVertexCount);
+				trace.end(result);
+			}
+
+			return result;
+		} finally {
+			if (trace != null)
+				trace.close();
+		}
+	}
+
+	private Geometry next_() {
 		while (!step_()) {
 		}
 
@@ -162,6 +183,7 @@ final class OperatorUnionCursor extends GeometryCursor {
 		ProgressTracker.checkAndThrow(m_progress_tracker);
 
 		if (geom != null) {
+			m_inputVertexCount += OperatorTrace.vertexCount(geom);
 			int dim = geom.getDimension();
 			m_had_geometry[dim] = true;
 			if (dim >= m_max_dimension && !m_b_union_all_dimensions)
@@ -232,6 +254,11 @@ final class OperatorUnionCursor extends GeometryCursor {
 		}
 
 		set.removeAll(entriesToRemove);
+		if (batch_to_union.size() > 2) {
+			// adjacent geometries end up close to each other in the edit shape
+			SpatialSort.sortInPlace(batch_to_union, SpatialSort.Curve.Hilbert);
+		}
+
 		return batch_to_union;
 	}
 	
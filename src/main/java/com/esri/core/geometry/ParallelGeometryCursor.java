@@ -0,0 +1,150 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A cursor that processes the geometries of the input cursor on the threads of
+ * an executor. At most windowSize geometries are in flight at once. The output
+ * keeps the order of the input, and getGeometryID returns the ID of the input
+ * geometry.
+ * 
+ * The input cursor is only read from the thread that calls next. Each
+ * geometry is processed by a single task, so the operation must not share
+ * mutable state between geometries. When a task fails, the pending tasks are
+ * cancelled and the exception is thrown from next.
+ */
+abstract class ParallelGeometryCursor extends GeometryCursor {
+	private final GeometryCursor m_inputGeometryCursor;
+	private final Executor m_executor;
+	private final ProgressTracker m_progressTracker;
+	private final int m_windowSize;
+	private final ArrayDeque<FutureTask<Geometry>> m_pending;
+	private final ArrayDeque<Integer> m_pendingIDs;
+	private boolean m_bInputDone;
+	private int m_index;
+
+	ParallelGeometryCursor(GeometryCursor geoms, Executor executor,
+			int windowSize, ProgressTracker progressTracker) {
+		if (geoms == null || executor == null || windowSize < 1)
+			throw new IllegalArgumentException();
+
+		m_inputGeometryCursor = geoms;
+		m_executor = executor;
+		m_windowSize = windowSize;
+		m_progressTracker = progressTracker;
+		m_pending = new ArrayDeque<FutureTask<Geometry>>(windowSize);
+		m_pendingIDs = new ArrayDeque<Integer>(windowSize);
+		m_index = -1;
+	}
+
+	/**
+	 * Processes one geometry. Called on a thread of the executor.
+	 */
+	abstract Geometry process(Geometry geometry);
+
+	@Override
+	public Geometry next() {
+		fill_();
+		FutureTask<Geometry> task = m_pending.poll();
+		if (task == null)
+			return null;
+
+		// the task being waited on counts against the window, the next call
+		// refills it
+		m_index = m_pendingIDs.poll();
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			cancel_();
+			Thread.currentThread().interrupt();
+			throw new UserCancelException();
+		} catch (CancellationException e) {
+			cancel_();
+			throw new UserCancelException();
+		} catch (ExecutionException e) {
+			cancel_();
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new GeometryException(String.valueOf(cause));
+		}
+	}
+
+	@Override
+	public int getGeometryID() {
+		return m_index;
+	}
+
+	private void fill_() {
+		while (!m_bInputDone && m_pending.size() < m_windowSize) {
+			final Geometry geometry = m_inputGeometryCursor.next();
+			if (geometry == null) {
+				m_bInputDone = true;
+				break;
+			}
+
+			if (m_progressTracker != null && !m_progressTracker.progress(-1, -1)) {
+				cancel_();
+				throw new UserCancelException();
+			}
+
+			FutureTask<Geometry> task = new FutureTask<Geometry>(
+					new Callable<Geometry>() {
+						@Override
+						public Geometry call() {
+							return process(geometry);
+						}
+					});
+			try {
+				m_executor.execute(task);
+			} catch (RuntimeException e) {
+				cancel_();
+				throw e;
+			}
+
+			m_pending.add(task);
+			m_pendingIDs.add(m_inputGeometryCursor.getGeometryID());
+		}
+	}
+
+	private void cancel_() {
+		m_bInputDone = true;
+		for (FutureTask<Geometry> task : m_pending)
+			task.cancel(false);
+
+		m_pending.clear();
+		m_pendingIDs.clear();
+	}
+}
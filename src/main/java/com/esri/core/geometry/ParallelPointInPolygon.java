@@ -0,0 +1,186 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classifies the points of a large MultiPoint against a polygon in parallel.
+ * The points are split into chunks that are tested by an executor against
+ * one frozen, accelerated polygon shared by all chunks. The result is a mask with a
+ * bit for each class of the points found: interior, boundary, or exterior.
+ * The chunks stop early once the mask has all bits of the stop mask, because
+ * the relation is decided at that point.
+ */
+final class ParallelPointInPolygon {
+	static final int INSIDE = 1;
+	static final int BOUNDARY = 2;
+	static final int OUTSIDE = 4;
+
+	// the minimum number of points of a parallel chunk
+	private static final int MIN_PARALLEL_CHUNK = 16384;
+
+	private ParallelPointInPolygon() {
+	}
+
+	/**
+	 * Returns true if classify would use more than one chunk for the given
+	 * number of points.
+	 */
+	static boolean willRunParallel(Executor executor, int parallelism,
+			int pointCount) {
+		return executor != null && parallelism > 1
+				&& pointCount >= 2 * MIN_PARALLEL_CHUNK;
+	}
+
+	/**
+	 * Classifies the points of the multipoint against the polygon.
+	 * 
+	 * @param polygon
+	 *            The polygon. It is not modified. Unless it is frozen and
+	 *            needs no quad tree, a frozen copy of it is used.
+	 * @param multipoint
+	 *            The points to classify.
+	 * @param tolerance
+	 *            The tolerance of the point in polygon tests.
+	 * @param env
+	 *            The points outside of this envelope are exterior without a
+	 *            point in polygon test.
+	 * @param stopMask
+	 *            The classification stops once all of these bits are found.
+	 * @param progressTracker
+	 *            Allows cancellation. Can be null. It is called from several
+	 *            threads at once.
+	 * @param executor
+	 *            Runs the chunks.
+	 * @param parallelism
+	 *            The maximum number of chunks.
+	 * @return Returns the combination of INSIDE, BOUNDARY and OUTSIDE bits.
+	 *         When the classification stopped early, the bits of the points
+	 *         that were not tested are missing.
+	 */
+	static int classify(Polygon polygon, final MultiPoint multipoint,
+			final double tolerance, final Envelope2D env, final int stopMask,
+			final ProgressTracker progressTracker, Executor executor,
+			int parallelism) {
+		if (executor == null || parallelism < 1)
+			throw new IllegalArgumentException();
+
+		final Polygon prepared = prepare_(polygon, multipoint.getPointCount());
+		final AtomicInteger mask = new AtomicInteger(0);
+		int count = multipoint.getPointCount();
+		int chunks = Math.max(1, Math.min(parallelism, count
+				/ MIN_PARALLEL_CHUNK));
+
+		ArrayList<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+		for (int i = 0; i < chunks; i++) {
+			final int from = (int) ((long) count * i / chunks);
+			final int to = (int) ((long) count * (i + 1) / chunks);
+			tasks.add(new FutureTask<Void>(new Runnable() {
+				@Override
+				public void run() {
+					classifyRange_(prepared, multipoint, tolerance, env,
+							stopMask, mask, from, to, progressTracker);
+				}
+			}, null));
+		}
+		ParallelTasks.runAll(executor, tasks);
+		return mask.get();
+	}
+
+	// The chunks share the polygon. The point in polygon test updates lazy
+	// caches of the polygon (the loose envelope), which is thread safe on
+	// frozen geometries only, so the chunks share a frozen polygon.
+	private static Polygon prepare_(Polygon polygon, int pointCount) {
+		MultiPathImpl impl = (MultiPathImpl) polygon._getImpl();
+		GeometryAccelerators accel = impl._getAccelerators();
+		boolean bHasQuadTree = accel != null && accel.getQuadTree() != null;
+		boolean bQuadTree = bHasQuadTree
+				|| PointInPolygonHelper.quadTreeWillHelp(polygon, pointCount);
+		if (polygon.isFrozen() && bHasQuadTree == bQuadTree)
+			return polygon;
+
+		// the copy has no accelerators
+		Polygon prepared = new Polygon();
+		polygon.copyTo(prepared);
+		if (bQuadTree)
+			((MultiPathImpl) prepared._getImpl())
+					._buildQuadTreeAccelerator(Geometry.GeometryAccelerationDegree.enumMedium);
+
+		prepared.freeze();
+		return prepared;
+	}
+
+	private static void classifyRange_(Polygon polygon, MultiPoint multipoint,
+			double tolerance, Envelope2D env, int stopMask,
+			AtomicInteger mask, int from, int to,
+			ProgressTracker progressTracker) {
+		Point2D pt = new Point2D();
+		int local = 0;
+		for (int i = from; i < to; i++) {
+			if ((i - from) % ProgressTracker.CHECK_INTERVAL == 0) {
+				if (local != 0)
+					local = or_(mask, local);
+				else
+					local = mask.get();
+
+				if ((local & stopMask) == stopMask)
+					return;
+
+				ProgressTracker.checkAndThrow(progressTracker, i - from);
+			}
+
+			multipoint.getXY(i, pt);
+			if (!env.contains(pt)) {
+				local |= OUTSIDE;
+				continue;
+			}
+
+			PolygonUtils.PiPResult result = PolygonUtils.isPointInPolygon2D(
+					polygon, pt.x, pt.y, tolerance);
+			if (result == PolygonUtils.PiPResult.PiPInside)
+				local |= INSIDE;
+			else if (result == PolygonUtils.PiPResult.PiPBoundary)
+				local |= BOUNDARY;
+			else
+				local |= OUTSIDE;
+		}
+
+		or_(mask, local);
+	}
+
+	// Merges the bits into the shared mask. Returns the merged mask.
+	private static int or_(AtomicInteger mask, int bits) {
+		while (true) {
+			int current = mask.get();
+			int merged = current | bits;
+			if (merged == current || mask.compareAndSet(current, merged))
+				return merged;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs the chunks of a parallel operation on an executor and waits for all
+ * of them. The chunks share their inputs, so the shared geometries have to
+ * be frozen before the chunks are created.
+ */
+final class ParallelTasks {
+	private ParallelTasks() {
+	}
+
+	/**
+	 * Submits the tasks to the executor and waits until they are done. When
+	 * a task fails, the other tasks are cancelled and the exception of the
+	 * failed task is thrown. When the calling thread is interrupted, the
+	 * tasks are cancelled and a UserCancelException is thrown.
+	 */
+	static void runAll(Executor executor, ArrayList<FutureTask<Void>> tasks) {
+		try {
+			for (int i = 0; i < tasks.size(); i++)
+				executor.execute(tasks.get(i));
+
+			for (int i = 0; i < tasks.size(); i++)
+				tasks.get(i).get();
+		} catch (InterruptedException e) {
+			cancelAll_(tasks);
+			Thread.currentThread().interrupt();
+			throw new UserCancelException();
+		} catch (CancellationException e) {
+			cancelAll_(tasks);
+			throw new UserCancelException();
+		} catch (ExecutionException e) {
+			cancelAll_(tasks);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new GeometryException(String.valueOf(cause));
+		} catch (RuntimeException e) {
+			cancelAll_(tasks);
+			throw e;
+		}
+	}
+
+	private static void cancelAll_(ArrayList<FutureTask<Void>> tasks) {
+		for (int i = 0; i < tasks.size(); i++)
+			tasks.get(i).cancel(false);
+	}
+}
@@ -105,6 +105,7 @@ final class PlaneSweepCrackerHelper {
 	}
 
 	private EditShape m_shape;
+	ProgressTracker m_progress_tracker;
 	private StridedIndexTypeCollection m_edges;
 	private StridedIndexTypeCollection m_clusters;
 	private IndexMultiList m_cluster_vertices;
@@ -1302,6 +1303,7 @@ final class PlaneSweepCrackerHelper {
 
 		for (int eventQnode = m_event_q.getFirst(-1); eventQnode != -1;) {
 			iterationCounter++;
+			ProgressTracker.checkAndThrow(m_progress_tracker, iterationCounter);
 			m_b_continuing_segment_chain_optimization = false;
 
 			int vertex = m_event_q.getElement(eventQnode);
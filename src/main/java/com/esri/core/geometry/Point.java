@@ -164,6 +164,7 @@ public class Point extends Geometry implements Serializable {
 	 *            The X coordinate to be set for this point.
 	 */
 	public void setX(double x) {
+		throwIfFrozen();
 		m_x = x;
 	}
 
@@ -181,6 +182,7 @@ public class Point extends Geometry implements Serializable {
 	 *            The Y coordinate to be set for this point.
 	 */
 	public void setY(double y) {
+		throwIfFrozen();
 		m_y = y;
 	}
 
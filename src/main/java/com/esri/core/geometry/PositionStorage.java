@@ -0,0 +1,209 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+package com.esri.core.geometry;
+
+import java.io.Serializable;
+
+/**
+ * Describes how the xy coordinates of a MultiPoint, Polyline or Polygon are
+ * stored. The default stores the coordinates as doubles. The compact modes
+ * trade precision for memory, which matters for very large point clouds and
+ * tiles.
+ *
+ * The single precision mode keeps each ordinate as a float (half of the memory
+ * of doubles, about 7 significant digits).
+ *
+ * The quantized mode keeps each ordinate as an integer number of resolution
+ * units from an origin, similar to the coordinates of a spatial reference
+ * with a false origin and xy resolution. It uses half of the memory of
+ * doubles and has an absolute error of at most resolution / 2. Coordinates
+ * that do not fit into the integer grid raise a GeometryException when
+ * written.
+ *
+ * Any coordinate written to a geometry with compact storage is rounded to the
+ * storage precision, so the operators see exactly the values that are stored.
+ * Set the storage on a geometry before or after it is populated with
+ * MultiVertexGeometry.setPositionStorage.
+ */
+public final class PositionStorage implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The way the coordinates are stored.
+	 */
+	public enum Type {
+		/**
+		 * 64 bit double per ordinate.
+		 */
+		DoublePrecision,
+		/**
+		 * 32 bit float per ordinate.
+		 */
+		SinglePrecision,
+		/**
+		 * 32 bit integer per ordinate, relative to an origin.
+		 */
+		Quantized
+	}
+
+	private static final PositionStorage s_double = new PositionStorage(
+			Type.DoublePrecision, 0, 0, 0);
+	private static final PositionStorage s_single = new PositionStorage(
+			Type.SinglePrecision, 0, 0, 0);
+
+	private final Type m_type;
+	private final double m_originX;
+	private final double m_originY;
+	private final double m_resolution;
+
+	private PositionStorage(Type type, double originX, double originY,
+			double resolution) {
+		m_type = type;
+		m_originX = originX;
+		m_originY = originY;
+		m_resolution = resolution;
+	}
+
+	/**
+	 * Returns the default storage of the coordinates as doubles.
+	 */
+	public static PositionStorage doublePrecision() {
+		return s_double;
+	}
+
+	/**
+	 * Returns the storage of the coordinates as floats.
+	 */
+	public static PositionStorage singlePrecision() {
+		return s_single;
+	}
+
+	/**
+	 * Returns the storage of the coordinates as integers on a grid.
+	 *
+	 * The stored coordinate is origin + n * resolution, where n is a 32 bit
+	 * integer. The grid covers about 4.29e9 * resolution in each direction
+	 * around the origin.
+	 * @param originX The x of the grid origin.
+	 * @param originY The y of the grid origin.
+	 * @param resolution The grid step. Must be a positive number.
+	 */
+	public static PositionStorage quantized(double originX, double originY,
+			double resolution) {
+		if (!(resolution > 0) || Double.isInfinite(resolution)
+				|| NumberUtils.isNaN(originX) || NumberUtils.isNaN(originY)
+				|| Double.isInfinite(originX) || Double.isInfinite(originY))
+			throw new IllegalArgumentException();
+
+		return new PositionStorage(Type.Quantized, originX, originY,
+				resolution);
+	}
+
+	public Type getType() {
+		return m_type;
+	}
+
+	/**
+	 * The x of the grid origin for the quantized storage.
+	 */
+	public double getOriginX() {
+		return m_originX;
+	}
+
+	/**
+	 * The y of the grid origin for the quantized storage.
+	 */
+	public double getOriginY() {
+		return m_originY;
+	}
+
+	/**
+	 * The grid step for the quantized storage.
+	 */
+	public double getResolution() {
+		return m_resolution;
+	}
+
+	/**
+	 * Returns the number of bytes used per vertex for the xy coordinates.
+	 */
+	public int getBytesPerVertex() {
+		return m_type == Type.DoublePrecision ? 16 : 8;
+	}
+
+	/**
+	 * Creates an empty xy stream with this storage.
+	 */
+	AttributeStreamOfDbl createStream(int size) {
+		switch (m_type) {
+		case SinglePrecision:
+			return new AttributeStreamOfDblAsFloat(size, 0);
+		case Quantized:
+			return new AttributeStreamOfDblQuantized(this, size);
+		default:
+			return new AttributeStreamOfDbl(size, 0);
+		}
+	}
+
+	/**
+	 * Returns the storage of the given xy stream.
+	 */
+	static PositionStorage fromStream(AttributeStreamBase stream) {
+		if (stream instanceof AttributeStreamOfDblAsFloat)
+			return s_single;
+		if (stream instanceof AttributeStreamOfDblQuantized)
+			return ((AttributeStreamOfDblQuantized) stream).getStorage();
+		return s_double;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (other == this)
+			return true;
+
+		if (!(other instanceof PositionStorage))
+			return false;
+
+		PositionStorage o = (PositionStorage) other;
+		return m_type == o.m_type && m_originX == o.m_originX
+				&& m_originY == o.m_originY && m_resolution == o.m_resolution;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = NumberUtils.hash(m_type.ordinal());
+		hash = NumberUtils.hash(hash, m_originX);
+		hash = NumberUtils.hash(hash, m_originY);
+		return NumberUtils.hash(hash, m_resolution);
+	}
+
+	@Override
+	public String toString() {
+		if (m_type != Type.Quantized)
+			return m_type.toString();
+
+		return m_type + "(" + m_originX + ", " + m_originY + ", "
+				+ m_resolution + ")";
+	}
+}
@@ -43,4 +43,27 @@ public abstract class ProgressTracker {
 		if (tracker != null && !tracker.progress(-1, -1))
 			throw new UserCancelException();
 	}
+
+	/**
+	 *Called by a lengthy operation to report the amount of work done since the previous call, for example the number of processed vertices.
+	 *The default implementation does nothing.
+	 *@param amount The amount of work done.
+	 */
+	public void addWork(int amount) {
+	}
+
+	// The number of loop iterations between two checks of the tracker in the
+	// hot loops of the topological operations.
+	static final int CHECK_INTERVAL = 256;
+
+	// Checks the tracker when the counter is a multiple of CHECK_INTERVAL and
+	// reports CHECK_INTERVAL units of work. Use with a counter incremented on
+	// each iteration of a loop.
+	static void checkAndThrow(ProgressTracker tracker, int counter) {
+		if (tracker != null && (counter & (CHECK_INTERVAL - 1)) == 0) {
+			tracker.addWork(CHECK_INTERVAL);
+			if (!tracker.progress(-1, -1))
+				throw new UserCancelException();
+		}
+	}
 }
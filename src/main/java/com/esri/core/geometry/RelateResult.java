@@ -0,0 +1,164 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+/**
+ * The DE-9IM matrix of two geometries, as returned by OperatorRelate. The
+ * matrix is computed once, and all named relations are answered from it
+ * without looking at the geometries again.
+ *
+ * The entries are in the order II, IB, IE, BI, BB, BE, EI, EB, EE, where I,
+ * B and E are the interior, the boundary and the exterior of the first and
+ * the second geometry.
+ *
+ * The named relations follow the DE-9IM definitions and agree with their
+ * operators, with one exception. OperatorContains and OperatorWithin say
+ * that a polyline does not contain a multipoint with a point on the
+ * boundary of the polyline. isContains and isWithin say it does when
+ * another point is in the interior. OperatorRelate uses the operators for
+ * the relation strings of the named relations, so it has the same
+ * exception.
+ */
+public final class RelateResult {
+	private final int[] m_matrix;
+	private final int m_dimA;
+	private final int m_dimB;
+
+	RelateResult(int[] matrix, int dimA, int dimB) {
+		m_matrix = matrix;
+		m_dimA = dimA;
+		m_dimB = dimB;
+	}
+
+	/**
+	 * Returns the dimension of the intersection for the entry of the matrix
+	 * with the given index, or -1 when the sets do not intersect.
+	 */
+	public int getDimension(int index) {
+		return m_matrix[index];
+	}
+
+	/**
+	 * Returns the matrix as a string of nine characters: F for an empty
+	 * intersection, 0, 1 or 2 for the dimension of the intersection.
+	 */
+	public String getMatrix() {
+		char[] chars = new char[9];
+		for (int i = 0; i < 9; i++)
+			chars[i] = m_matrix[i] < 0 ? 'F' : (char) ('0' + m_matrix[i]);
+
+		return new String(chars);
+	}
+
+	/**
+	 * Returns True if the matrix matches the DE-9IM relation string. The
+	 * string has nine characters from T, F, 0, 1, 2 and *.
+	 */
+	public boolean matches(String de_9im_string) {
+		if (de_9im_string == null || de_9im_string.length() != 9)
+			throw new GeometryException(
+					"relation string length has to be 9 characters");
+
+		for (int i = 0; i < 9; i++) {
+			char c = de_9im_string.charAt(i);
+			int dim = m_matrix[i];
+			switch (c) {
+			case '*':
+				break;
+			case 'T':
+				if (dim < 0)
+					return false;
+				break;
+			case 'F':
+				if (dim >= 0)
+					return false;
+				break;
+			case '0':
+			case '1':
+			case '2':
+				if (dim != c - '0')
+					return false;
+				break;
+			default:
+				throw new GeometryException("relation string");
+			}
+		}
+
+		return true;
+	}
+
+	public boolean isEqual() {
+		return matches("T*F**FFF*");
+	}
+
+	public boolean isDisjoint() {
+		return matches("FF*FF****");
+	}
+
+	public boolean isIntersects() {
+		return !isDisjoint();
+	}
+
+	public boolean isTouches() {
+		if (m_dimA == 0 && m_dimB == 0)
+			return false;
+
+		return matches("FT*******") || matches("F**T*****")
+				|| matches("F***T****");
+	}
+
+	public boolean isCrosses() {
+		if (m_dimA < m_dimB)
+			return matches("T*T******");
+
+		if (m_dimA > m_dimB)
+			return matches("T*****T**");
+
+		return m_dimA == 1 && matches("0********");
+	}
+
+	public boolean isWithin() {
+		return matches("T*F**F***");
+	}
+
+	public boolean isContains() {
+		return matches("T*****FF*");
+	}
+
+	public boolean isOverlaps() {
+		if (m_dimA != m_dimB)
+			return false;
+
+		if (m_dimA == 1)
+			return matches("1*T***T**");
+
+		return matches("T*T***T**");
+	}
+
+	@Override
+	public String toString() {
+		return getMatrix();
+	}
+}
@@ -24,6 +24,7 @@
 package com.esri.core.geometry;
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 class RelationalOperations {
 	interface Relation {
@@ -41,6 +42,16 @@ class RelationalOperations {
 
 	static boolean relate(Geometry geometry_a, Geometry geometry_b,
 			SpatialReference sr, int relation, ProgressTracker progress_tracker) {
+		return relate(geometry_a, geometry_b, sr, relation, progress_tracker,
+				null, 1);
+	}
+
+	// Same as relate above. When the executor is not null, the relations of
+	// a polygon and a large multipoint test the points in parallel.
+	static boolean relate(Geometry geometry_a, Geometry geometry_b,
+			SpatialReference sr, int relation,
+			ProgressTracker progress_tracker, Executor executor,
+			int parallelism) {
 		int type_a = geometry_a.getType().value();
 		int type_b = geometry_b.getType().value();
 
@@ -180,7 +191,7 @@ class RelationalOperations {
 			case Geometry.GeometryType.MultiPoint:
 				bRelation = polygonRelateMultiPoint_((Polygon) (_geometry_a),
 						(MultiPoint) (_geometry_b), tolerance, relation,
-						progress_tracker);
+						progress_tracker, executor, parallelism);
 				break;
 
 			case Geometry.GeometryType.Envelope:
@@ -261,7 +272,7 @@ class RelationalOperations {
 			case Geometry.GeometryType.Polygon:
 				bRelation = polygonRelateMultiPoint_((Polygon) (_geometry_b),
 						(MultiPoint) (_geometry_a), tolerance, relation,
-						progress_tracker);
+						progress_tracker, executor, parallelism);
 				break;
 
 			case Geometry.GeometryType.Polyline:
@@ -325,6 +336,84 @@ class RelationalOperations {
 		return bRelation;
 	}
 
+	// Decides the relation from the envelopes of the geometries and from the
+	// rasterized geometry accelerators only. Returns Unknown when the exact
+	// test is needed. The relations of points and envelopes are decided
+	// exactly, because they only need the envelopes.
+	static OperatorSimpleRelation.ApproximateResult relateApproximate(
+			Geometry geometry_a, Geometry geometry_b, SpatialReference sr,
+			int relation) {
+		if (isEnvelopeOrPoint_(geometry_a) && isEnvelopeOrPoint_(geometry_b))
+			return approximateResult_(relate(geometry_a, geometry_b, sr,
+					relation, null));
+
+		if (geometry_a.isEmpty() || geometry_b.isEmpty())
+			return approximateResult_(relation == Relation.disjoint);
+
+		Envelope2D env1 = new Envelope2D();
+		geometry_a.queryEnvelope2D(env1);
+		Envelope2D env2 = new Envelope2D();
+		geometry_b.queryEnvelope2D(env2);
+
+		Envelope2D envMerged = new Envelope2D();
+		envMerged.setCoords(env1);
+		envMerged.merge(env2);
+		double tolerance = InternalUtils.calculateToleranceFromGeometry(sr,
+				envMerged, false);
+
+		if (envelopeDisjointEnvelope_(env1, env2, tolerance, null))
+			return approximateResult_(relation == Relation.disjoint);
+
+		switch (relation) {
+		case Relation.contains:
+			if (!envelopeInfContainsEnvelope_(env1, env2, tolerance))
+				return OperatorSimpleRelation.ApproximateResult.False;
+			break;
+		case Relation.within:
+			if (!envelopeInfContainsEnvelope_(env2, env1, tolerance))
+				return OperatorSimpleRelation.ApproximateResult.False;
+			break;
+		case Relation.equals:
+			if (!envelopeEqualsEnvelope_(env1, env2, tolerance, null))
+				return OperatorSimpleRelation.ApproximateResult.False;
+			break;
+		default:
+			break; // warning fix
+		}
+
+		int raster_relation = tryRasterizedContainsOrDisjoint_(geometry_a,
+				geometry_b, tolerance, relation == Relation.disjoint);
+		switch (raster_relation) {
+		case Relation.disjoint:
+			return approximateResult_(relation == Relation.disjoint);
+		case Relation.contains:
+			// geometry_b is in the interior of geometry_a, which decides
+			// all of the relations
+			return approximateResult_(relation == Relation.contains);
+		case Relation.within:
+			return approximateResult_(relation == Relation.within);
+		case Relation.intersects:
+			if (relation == Relation.disjoint)
+				return OperatorSimpleRelation.ApproximateResult.False;
+			break;
+		default:
+			break; // warning fix
+		}
+
+		return OperatorSimpleRelation.ApproximateResult.Unknown;
+	}
+
+	private static boolean isEnvelopeOrPoint_(Geometry geometry) {
+		Geometry.Type type = geometry.getType();
+		return type == Geometry.Type.Envelope || type == Geometry.Type.Point;
+	}
+
+	private static OperatorSimpleRelation.ApproximateResult approximateResult_(
+			boolean bRelation) {
+		return bRelation ? OperatorSimpleRelation.ApproximateResult.True
+				: OperatorSimpleRelation.ApproximateResult.False;
+	}
+
 	// Computes the necessary 9 intersection relationships of boundary,
 	// interior, and exterior of envelope_a vs envelope_b for the given
 	// relation.
@@ -561,7 +650,8 @@ class RelationalOperations {
 	// Returns true if the relation holds
 	private static boolean polygonRelateMultiPoint_(Polygon polygon_a,
 			MultiPoint multipoint_b, double tolerance, int relation,
-			ProgressTracker progress_tracker) {
+			ProgressTracker progress_tracker, Executor executor,
+			int parallelism) {
 		switch (relation) {
 		case Relation.disjoint:
 			return polygonDisjointMultiPoint_(polygon_a, multipoint_b,
@@ -569,15 +659,15 @@ class RelationalOperations {
 
 		case Relation.contains:
 			return polygonContainsMultiPoint_(polygon_a, multipoint_b,
-					tolerance, progress_tracker);
+					tolerance, progress_tracker, executor, parallelism);
 
 		case Relation.touches:
 			return polygonTouchesMultiPoint_(polygon_a, multipoint_b,
-					tolerance, progress_tracker);
+					tolerance, progress_tracker, executor, parallelism);
 
 		case Relation.crosses:
 			return polygonCrossesMultiPoint_(polygon_a, multipoint_b,
-					tolerance, progress_tracker);
+					tolerance, progress_tracker, executor, parallelism);
 
 		default:
 			break; // warning fix
@@ -1130,7 +1220,8 @@ class RelationalOperations {
 	// Returns true if polygon_a touches multipoint_b.
 	private static boolean polygonTouchesMultiPoint_(Polygon polygon_a,
 			MultiPoint multipoint_b, double tolerance,
-			ProgressTracker progress_tracker) {
+			ProgressTracker progress_tracker, Executor executor,
+			int parallelism) {
 		// Quick rasterize test to see whether the the geometries are disjoint,
 		// or if one is contained in the other.
 		int relation = tryRasterizedContainsOrDisjoint_(polygon_a,
@@ -1143,6 +1234,16 @@ class RelationalOperations {
         polygon_a.queryEnvelope2D(env_a_inflated);
         env_a_inflated.inflate(tolerance, tolerance);
 
+        if (ParallelPointInPolygon.willRunParallel(executor, parallelism,
+                multipoint_b.getPointCount())) {
+            int mask = ParallelPointInPolygon.classify(polygon_a,
+                    multipoint_b, tolerance, env_a_inflated,
+                    ParallelPointInPolygon.INSIDE, progress_tracker,
+                    executor, parallelism);
+            return (mask & ParallelPointInPolygon.INSIDE) == 0
+                    && (mask & ParallelPointInPolygon.BOUNDARY) != 0;
+        }
+
         Point2D ptB;
         boolean b_boundary = false;
 
@@ -1190,7 +1291,8 @@ class RelationalOperations {
 	// Returns true if polygon_a crosses multipoint_b.
 	private static boolean polygonCrossesMultiPoint_(Polygon polygon_a,
 			MultiPoint multipoint_b, double tolerance,
-			ProgressTracker progress_tracker) {
+			ProgressTracker progress_tracker, Executor executor,
+			int parallelism) {
 		// Quick rasterize test to see whether the the geometries are disjoint,
 		// or if one is contained in the other.
 		int relation = tryRasterizedContainsOrDisjoint_(polygon_a,
@@ -1205,6 +1307,16 @@ class RelationalOperations {
         env_a_inflated.setCoords(env_a);
         env_a_inflated.inflate(tolerance, tolerance);
 
+        if (ParallelPointInPolygon.willRunParallel(executor, parallelism,
+                multipoint_b.getPointCount())) {
+            int stop_mask = ParallelPointInPolygon.INSIDE
+                    | ParallelPointInPolygon.OUTSIDE;
+            int mask = ParallelPointInPolygon.classify(polygon_a,
+                    multipoint_b, tolerance, env_a_inflated, stop_mask,
+                    progress_tracker, executor, parallelism);
+            return (mask & stop_mask) == stop_mask;
+        }
+
         boolean b_interior = false, b_exterior = false;
 
         Point2D pt_b;
@@ -1257,7 +1369,8 @@ class RelationalOperations {
 	// Returns true if polygon_a contains multipoint_b.
 	private static boolean polygonContainsMultiPoint_(Polygon polygon_a,
 			MultiPoint multipoint_b, double tolerance,
-			ProgressTracker progress_tracker) {
+			ProgressTracker progress_tracker, Executor executor,
+			int parallelism) {
 		Envelope2D env_a = new Envelope2D(), env_b = new Envelope2D();
 		polygon_a.queryEnvelope2D(env_a);
 		multipoint_b.queryEnvelope2D(env_b);
@@ -1277,6 +1390,16 @@ class RelationalOperations {
 		if (relation == Relation.contains)
 			return true;
 
+        if (ParallelPointInPolygon.willRunParallel(executor, parallelism,
+                multipoint_b.getPointCount())) {
+            int mask = ParallelPointInPolygon.classify(polygon_a,
+                    multipoint_b, tolerance, env_a,
+                    ParallelPointInPolygon.OUTSIDE, progress_tracker,
+                    executor, parallelism);
+            return (mask & ParallelPointInPolygon.OUTSIDE) == 0
+                    && (mask & ParallelPointInPolygon.INSIDE) != 0;
+        }
+
         boolean b_interior = false;
         Point2D ptB;
 
@@ -2058,6 +2181,11 @@ class RelationalOperations {
 		if (envelopeInfContainsEnvelope_(env_b, env_a, tolerance))
 			return false;
 
+		// Quick rasterize test to see whether the the geometries are disjoint.
+		if (tryRasterizedContainsOrDisjoint_(polyline_a, envelope_b,
+				tolerance, false) == Relation.disjoint)
+			return true;
+
 		return !linearPathIntersectsEnvelope_(polyline_a, env_b, tolerance,
 				progress_tracker);
 	}
@@ -2070,6 +2198,11 @@ class RelationalOperations {
 		polyline_a.queryEnvelope2D(env_a);
 		envelope_b.queryEnvelope2D(env_b);
 
+		// Quick rasterize test to see whether the the geometries are disjoint.
+		if (tryRasterizedContainsOrDisjoint_(polyline_a, envelope_b,
+				tolerance, false) == Relation.disjoint)
+			return false;
+
 		if (env_b.getHeight() <= tolerance && env_b.getWidth() <= tolerance) {// Treat
 																				// as
 																				// point
@@ -4418,6 +4551,13 @@ class RelationalOperations {
 							}
 						}
 
+						if (gtB == Geometry.GeometryType.Polyline
+								&& checkSegmentsOutside_(
+										(MultiPathImpl) geom_b._getImpl(),
+										rgeom, tolerance)) {
+							return Relation.disjoint;
+						}
+
 						break;
 					}
 				}
@@ -4461,6 +4601,13 @@ class RelationalOperations {
 							}
 						}
 
+						if (gtA == Geometry.GeometryType.Polyline
+								&& checkSegmentsOutside_(
+										(MultiPathImpl) geom_a._getImpl(),
+										rgeom, tolerance)) {
+							return Relation.disjoint;
+						}
+
 						break;
 					}
 				}
@@ -4489,6 +4636,27 @@ class RelationalOperations {
 		return false;
 	}
 
+	private static boolean checkSegmentsOutside_(MultiPathImpl multipath,
+			RasterizedGeometry2D rgeom, double tolerance) {
+		// The envelope of the polyline touches the rasterized geometry, but
+		// the polyline can still pass between its cells. When the envelope of
+		// each segment is outside, the polyline cannot intersect the geometry:
+		// a polyline has no interior to contain the other geometry with.
+		SegmentIteratorImpl segIter = multipath.querySegmentIterator();
+		Envelope2D env = new Envelope2D();
+		while (segIter.nextPath()) {
+			while (segIter.hasNextSegment()) {
+				Segment segment = segIter.nextSegment();
+				segment.queryEnvelope2D(env);
+				env.inflate(tolerance, tolerance);
+				if (rgeom.queryEnvelopeInGeometry(env) != RasterizedGeometry2D.HitType.Outside)
+					return false;
+			}
+		}
+
+		return true;
+	}
+
 	private static boolean polygonTouchesPolygonImpl_(Polygon polygon_a,
 			Polygon polygon_b, double tolerance, ProgressTracker progressTracker) {
 		MultiPathImpl polygon_impl_a = (MultiPathImpl) polygon_a._getImpl();
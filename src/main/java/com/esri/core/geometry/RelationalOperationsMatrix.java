@@ -81,6 +81,25 @@ class RelationalOperationsMatrix {
 			return RelationalOperations.relate(geometry_a, geometry_b, sr,
 					relation, progress_tracker);
 
+		int[] matrix = relateMatrix_(geometry_a, geometry_b, sr, scl,
+				progress_tracker);
+		return matrix != null && relationCompare_(matrix, scl);
+	}
+
+	// Computes the full DE-9IM matrix of geometry_a vs geometry_b. Returns
+	// null for the geometry types the relation is not defined for.
+	static int[] relate(Geometry geometry_a, Geometry geometry_b,
+			SpatialReference sr, ProgressTracker progress_tracker) {
+		// the dimension predicates are computed to the exact dimension
+		return relateMatrix_(geometry_a, geometry_b, sr, FULL_MATRIX_SCL,
+				progress_tracker);
+	}
+
+	// Computes the entries of the DE-9IM matrix needed to compare it with the
+	// scl string. The matrix is in the order of geometry_a, geometry_b.
+	private static int[] relateMatrix_(Geometry geometry_a,
+			Geometry geometry_b, SpatialReference sr, String scl,
+			ProgressTracker progress_tracker) {
 		Envelope2D env1 = new Envelope2D();
 		geometry_a.queryEnvelope2D(env1);
 		Envelope2D env2 = new Envelope2D();
@@ -96,35 +115,35 @@ class RelationalOperationsMatrix {
 		Geometry _geometryB = convertGeometry_(geometry_b, tolerance);
 
         if (_geometryA.isEmpty() || _geometryB.isEmpty())
-            return relateEmptyGeometries_(_geometryA, _geometryB, scl);
+            return relateEmptyGeometriesMatrix_(_geometryA, _geometryB, scl);
 
 		int typeA = _geometryA.getType().value();
 		int typeB = _geometryB.getType().value();
 
-		boolean bRelation = false;
+		int[] matrix = null;
 
 		switch (typeA) {
 		case Geometry.GeometryType.Polygon:
 			switch (typeB) {
 			case Geometry.GeometryType.Polygon:
-				bRelation = polygonRelatePolygon_((Polygon) (_geometryA),
+				matrix = polygonRelatePolygonMatrix_((Polygon) (_geometryA),
 						(Polygon) (_geometryB), tolerance, scl,
 						progress_tracker);
 				break;
 
 			case Geometry.GeometryType.Polyline:
-				bRelation = polygonRelatePolyline_((Polygon) (_geometryA),
+				matrix = polygonRelatePolylineMatrix_((Polygon) (_geometryA),
 						(Polyline) (_geometryB), tolerance, scl,
 						progress_tracker);
 				break;
 
 			case Geometry.GeometryType.Point:
-				bRelation = polygonRelatePoint_((Polygon) (_geometryA),
+				matrix = polygonRelatePointMatrix_((Polygon) (_geometryA),
 						(Point) (_geometryB), tolerance, scl, progress_tracker);
 				break;
 
 			case Geometry.GeometryType.MultiPoint:
-				bRelation = polygonRelateMultiPoint_((Polygon) (_geometryA),
+				matrix = polygonRelateMultiPointMatrix_((Polygon) (_geometryA),
 						(MultiPoint) (_geometryB), tolerance, scl,
 						progress_tracker);
 				break;
@@ -137,24 +156,25 @@ class RelationalOperationsMatrix {
 		case Geometry.GeometryType.Polyline:
 			switch (typeB) {
 			case Geometry.GeometryType.Polygon:
-				bRelation = polygonRelatePolyline_((Polygon) (_geometryB),
+				matrix = polygonRelatePolylineMatrix_((Polygon) (_geometryB),
 						(Polyline) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			case Geometry.GeometryType.Polyline:
-				bRelation = polylineRelatePolyline_((Polyline) (_geometryA),
+				matrix = polylineRelatePolylineMatrix_((Polyline) (_geometryA),
 						(Polyline) (_geometryB), tolerance, scl,
 						progress_tracker);
 				break;
 
 			case Geometry.GeometryType.Point:
-				bRelation = polylineRelatePoint_((Polyline) (_geometryA),
+				matrix = polylineRelatePointMatrix_((Polyline) (_geometryA),
 						(Point) (_geometryB), tolerance, scl, progress_tracker);
 				break;
 
 			case Geometry.GeometryType.MultiPoint:
-				bRelation = polylineRelateMultiPoint_((Polyline) (_geometryA),
+				matrix = polylineRelateMultiPointMatrix_((Polyline) (_geometryA),
 						(MultiPoint) (_geometryB), tolerance, scl,
 						progress_tracker);
 				break;
@@ -167,26 +187,29 @@ class RelationalOperationsMatrix {
 		case Geometry.GeometryType.Point:
 			switch (typeB) {
 			case Geometry.GeometryType.Polygon:
-				bRelation = polygonRelatePoint_((Polygon) (_geometryB),
+				matrix = polygonRelatePointMatrix_((Polygon) (_geometryB),
 						(Point) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			case Geometry.GeometryType.Polyline:
-				bRelation = polylineRelatePoint_((Polyline) (_geometryB),
+				matrix = polylineRelatePointMatrix_((Polyline) (_geometryB),
 						(Point) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			case Geometry.GeometryType.Point:
-				bRelation = pointRelatePoint_((Point) (_geometryA),
+				matrix = pointRelatePointMatrix_((Point) (_geometryA),
 						(Point) (_geometryB), tolerance, scl, progress_tracker);
 				break;
 
 			case Geometry.GeometryType.MultiPoint:
-				bRelation = multiPointRelatePoint_((MultiPoint) (_geometryB),
+				matrix = multiPointRelatePointMatrix_((MultiPoint) (_geometryB),
 						(Point) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			default:
@@ -197,25 +220,27 @@ class RelationalOperationsMatrix {
 		case Geometry.GeometryType.MultiPoint:
 			switch (typeB) {
 			case Geometry.GeometryType.Polygon:
-				bRelation = polygonRelateMultiPoint_((Polygon) (_geometryB),
+				matrix = polygonRelateMultiPointMatrix_((Polygon) (_geometryB),
 						(MultiPoint) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			case Geometry.GeometryType.Polyline:
-				bRelation = polylineRelateMultiPoint_((Polyline) (_geometryB),
+				matrix = polylineRelateMultiPointMatrix_((Polyline) (_geometryB),
 						(MultiPoint) (_geometryA), tolerance,
 						getTransposeMatrix_(scl), progress_tracker);
+				transposeMatrix_(matrix);
 				break;
 
 			case Geometry.GeometryType.MultiPoint:
-				bRelation = multiPointRelateMultiPoint_(
+				matrix = multiPointRelateMultiPointMatrix_(
 						(MultiPoint) (_geometryA), (MultiPoint) (_geometryB),
 						tolerance, scl, progress_tracker);
 				break;
 
 			case Geometry.GeometryType.Point:
-				bRelation = multiPointRelatePoint_((MultiPoint) (_geometryA),
+				matrix = multiPointRelatePointMatrix_((MultiPoint) (_geometryA),
 						(Point) (_geometryB), tolerance, scl, progress_tracker);
 				break;
 
@@ -224,13 +249,17 @@ class RelationalOperationsMatrix {
 			}
 			break;
 		default:
-			bRelation = false;
+			matrix = null;
 			break;
 		}
 
-		return bRelation;
+		return matrix;
 	}
 
+	// A digit in every entry makes the predicates compute each entry to its
+	// exact dimension.
+	private static final String FULL_MATRIX_SCL = "222222222";
+
 	private RelationalOperationsMatrix() {
 		m_predicate_count = 0;
 		m_topo_graph = new TopoGraph();
@@ -244,6 +273,13 @@ class RelationalOperationsMatrix {
 	// Returns true if the relation holds.
 	static boolean polygonRelatePolygon_(Polygon polygon_a, Polygon polygon_b,
 			double tolerance, String scl, ProgressTracker progress_tracker) {
+		return relationCompare_(polygonRelatePolygonMatrix_(polygon_a, polygon_b, tolerance, scl,
+				progress_tracker), scl);
+	}
+
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polygonRelatePolygonMatrix_(Polygon polygon_a, Polygon polygon_b,
+			double tolerance, String scl, ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
 		relOps.resetMatrix_();
 		relOps.setPredicates_(scl);
@@ -291,8 +327,7 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
     // The relation is based on the simplified-Polygon A containing Polygon B, which may be non-simple.
@@ -398,7 +433,14 @@ class RelationalOperationsMatrix {
     }
 
 	// Returns true if the relation holds.
-	static boolean polygonRelatePolyline_(Polygon polygon_a,
+	static boolean polygonRelatePolyline_(Polygon polygon_a, Polyline polyline_b,
+			double tolerance, String scl, ProgressTracker progress_tracker) {
+		return relationCompare_(polygonRelatePolylineMatrix_(polygon_a, polyline_b, tolerance, scl,
+				progress_tracker), scl);
+	}
+
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polygonRelatePolylineMatrix_(Polygon polygon_a,
 			Polyline polyline_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -459,8 +501,7 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
     static boolean polygonContainsPolyline_(Polygon polygon_a, Polyline polyline_b, double tolerance, ProgressTracker progress_tracker)
@@ -523,8 +564,8 @@ class RelationalOperationsMatrix {
         return bContains;
     }
 
-	// Returns true if the relation holds
-	static boolean polygonRelateMultiPoint_(Polygon polygon_a,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polygonRelateMultiPointMatrix_(Polygon polygon_a,
 			MultiPoint multipoint_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -571,12 +612,11 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean polylineRelatePolyline_(Polyline polyline_a,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polylineRelatePolylineMatrix_(Polyline polyline_a,
 			Polyline polyline_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -632,12 +672,11 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean polylineRelateMultiPoint_(Polyline polyline_a,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polylineRelateMultiPointMatrix_(Polyline polyline_a,
 			MultiPoint multipoint_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -687,12 +726,11 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean multiPointRelateMultiPoint_(MultiPoint multipoint_a,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] multiPointRelateMultiPointMatrix_(MultiPoint multipoint_a,
 			MultiPoint multipoint_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -723,12 +761,11 @@ class RelationalOperationsMatrix {
 			relOps.m_topo_graph.removeShape();
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean polygonRelatePoint_(Polygon polygon_a, Point point_b,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polygonRelatePointMatrix_(Polygon polygon_a, Point point_b,
 			double tolerance, String scl, ProgressTracker progress_tracker) {
         RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
         relOps.resetMatrix_();
@@ -790,12 +827,11 @@ class RelationalOperationsMatrix {
             }
         }
 
-        boolean bRelation = relationCompare_(relOps.m_matrix, scl);
-        return bRelation;
+        return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean polylineRelatePoint_(Polyline polyline_a, Point point_b,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] polylineRelatePointMatrix_(Polyline polyline_a, Point point_b,
 			double tolerance, String scl, ProgressTracker progress_tracker) {
         RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
         relOps.resetMatrix_();
@@ -911,12 +947,11 @@ class RelationalOperationsMatrix {
             }
         }
 
-        boolean bRelation = relationCompare_(relOps.m_matrix, relOps.m_scl);
-        return bRelation;
+        return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean multiPointRelatePoint_(MultiPoint multipoint_a,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] multiPointRelatePointMatrix_(MultiPoint multipoint_a,
 			Point point_b, double tolerance, String scl,
 			ProgressTracker progress_tracker) {
 		RelationalOperationsMatrix relOps = new RelationalOperationsMatrix();
@@ -970,12 +1005,11 @@ class RelationalOperationsMatrix {
 			}
 		}
 
-		boolean bRelation = relationCompare_(relOps.m_matrix, scl);
-		return bRelation;
+		return relOps.m_matrix;
 	}
 
-	// Returns true if the relation holds.
-	static boolean pointRelatePoint_(Point point_a, Point point_b,
+	// Computes the DE-9IM matrix for the scl string.
+	static int[] pointRelatePointMatrix_(Point point_a, Point point_b,
 			double tolerance, String scl, ProgressTracker progress_tracker) {
 		Point2D pt_a = point_a.getXY();
 		Point2D pt_b = point_b.getXY();
@@ -993,8 +1027,7 @@ class RelationalOperationsMatrix {
 
 		matrix[MatrixPredicate.ExteriorExterior] = 2;
 
-		boolean bRelation = relationCompare_(matrix, scl);
-		return bRelation;
+		return matrix;
 	}
 
 	// Compares the DE-9I matrix against the scl string.
@@ -1039,7 +1072,7 @@ class RelationalOperationsMatrix {
 		return true;
 	}
 
-    static boolean relateEmptyGeometries_(Geometry geometry_a, Geometry geometry_b, String scl)
+    static int[] relateEmptyGeometriesMatrix_(Geometry geometry_a, Geometry geometry_b, String scl)
     {
         int[] matrix = new int[9];
 
@@ -1048,7 +1081,7 @@ class RelationalOperationsMatrix {
             for (int i = 0; i < 9; i++)
                 matrix[i] = -1;
 
-            return relationCompare_(matrix, scl);
+            return matrix;
         }
 
         boolean b_transpose = false;
@@ -1115,7 +1148,7 @@ class RelationalOperationsMatrix {
         if (b_transpose)
             transposeMatrix_(matrix);
 
-        return relationCompare_(matrix, scl);
+        return matrix;
     }
 
 	// Checks whether scl string is a predefined relation.
@@ -416,6 +416,7 @@ public abstract class Segment extends Geometry implements Serializable {
 	}
 
 	private void _setXY(int endPoint, Point2D pt) {
+		throwIfFrozen();
 		if (endPoint != 0) {
 			m_xEnd = pt.x;
 			m_yEnd = pt.y;
@@ -0,0 +1,56 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+/**
+ * A callback that receives the end points of the segments of a MultiPath as
+ * primitive values. See MultiPath.visitSegments. Use this instead of a
+ * SegmentIterator to read many segments without creating a Segment object
+ * for each of them.
+ */
+public abstract class SegmentVisitor {
+	/**
+	 * Called for each segment by MultiPath.visitSegments. For curves, only
+	 * the end points are passed.
+	 * 
+	 * @param pathIndex
+	 *            The index of the path of the segment.
+	 * @param startPointIndex
+	 *            The index of the start point of the segment in the
+	 *            geometry. The end point is the next vertex of the path, or
+	 *            the first vertex of the path for the closing segment.
+	 * @param x1
+	 *            The x coordinate of the start point.
+	 * @param y1
+	 *            The y coordinate of the start point.
+	 * @param x2
+	 *            The x coordinate of the end point.
+	 * @param y2
+	 *            The y coordinate of the end point.
+	 * @return Return false to stop the visit.
+	 */
+	public abstract boolean visit(int pathIndex, int startPointIndex,
+			double x1, double y1, double x2, double y2);
+}
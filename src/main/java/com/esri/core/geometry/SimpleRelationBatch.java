@@ -0,0 +1,202 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import com.esri.core.geometry.Geometry.GeometryAccelerationDegree;
+
+/**
+ * Tests one fixed geometry against many candidates with a simple relation
+ * operator. The envelope of the fixed geometry is calculated once, the
+ * candidates with disjoint envelopes are answered without calling the
+ * operator, and the fixed geometry is accelerated once there are enough
+ * candidates to pay for it. The fixed geometry is not modified: when it is
+ * not accelerated already, a copy of it is. The parallel execute always
+ * shares a frozen, accelerated copy between its threads.
+ */
+final class SimpleRelationBatch {
+	// the number of candidates tested before the fixed geometry is
+	// accelerated
+	private static final int ACCELERATE_AFTER = 8;
+	// the minimum number of candidates of a parallel chunk
+	private static final int MIN_PARALLEL_CHUNK = 256;
+
+	private final OperatorSimpleRelation m_operator;
+	private final SpatialReference m_sr;
+	private final Geometry m_fixed;
+	private final Envelope2D m_fixedEnvelope;
+	private final boolean m_bFixedShortcut;
+	private final boolean m_bDisjointResult;
+	private Geometry m_prepared;
+	private boolean m_bPrepared;
+
+	SimpleRelationBatch(OperatorSimpleRelation operator, Geometry fixed,
+			SpatialReference sr) {
+		if (fixed == null)
+			throw new IllegalArgumentException();
+
+		m_operator = operator;
+		m_sr = sr;
+		m_fixed = fixed;
+		m_fixedEnvelope = new Envelope2D();
+		fixed.queryEnvelope2D(m_fixedEnvelope);
+		m_bFixedShortcut = isShortcutType_(fixed);
+		m_bDisjointResult = operator.getType() == Operator.Type.Disjoint;
+		m_prepared = fixed;
+		m_bPrepared = false;
+	}
+
+	BitSet execute(GeometryCursor candidates, ProgressTracker progressTracker) {
+		if (candidates == null)
+			throw new IllegalArgumentException();
+
+		BitSet result = new BitSet();
+		Envelope2D env = new Envelope2D();
+		int index = 0;
+		for (Geometry candidate = candidates.next(); candidate != null; candidate = candidates
+				.next()) {
+			if (index == ACCELERATE_AFTER)
+				prepare_();
+
+			if (test_(candidate, env, progressTracker))
+				result.set(index);
+
+			ProgressTracker.checkAndThrow(progressTracker, ++index);
+		}
+
+		return result;
+	}
+
+	boolean[] execute(final Geometry[] candidates,
+			final ProgressTracker progressTracker, Executor executor,
+			int parallelism) {
+		if (candidates == null || parallelism < 1)
+			throw new IllegalArgumentException();
+
+		final int count = candidates.length;
+		final boolean[] result = new boolean[count];
+		int chunks = executor != null ? Math.min(parallelism, count
+				/ MIN_PARALLEL_CHUNK) : 1;
+		if (chunks <= 1) {
+			if (count > ACCELERATE_AFTER)
+				prepare_();
+
+			testRange_(candidates, 0, count, result, progressTracker);
+			return result;
+		}
+
+		prepareShared_();
+		ArrayList<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+		for (int i = 0; i < chunks; i++) {
+			final int from = (int) ((long) count * i / chunks);
+			final int to = (int) ((long) count * (i + 1) / chunks);
+			tasks.add(new FutureTask<Void>(new Runnable() {
+				@Override
+				public void run() {
+					testRange_(candidates, from, to, result, progressTracker);
+				}
+			}, null));
+		}
+		ParallelTasks.runAll(executor, tasks);
+		return result;
+	}
+
+	private void testRange_(Geometry[] candidates, int from, int to,
+			boolean[] result, ProgressTracker progressTracker) {
+		Envelope2D env = new Envelope2D();
+		for (int i = from; i < to; i++) {
+			Geometry candidate = candidates[i];
+			if (candidate == null)
+				throw new IllegalArgumentException();
+
+			result[i] = test_(candidate, env, progressTracker);
+			ProgressTracker.checkAndThrow(progressTracker, i - from);
+		}
+	}
+
+	private boolean test_(Geometry candidate, Envelope2D env,
+			ProgressTracker progressTracker) {
+		// the operators answer a pair of points and envelopes without
+		// looking at the envelopes, leave those to them
+		if (!m_bFixedShortcut || !isShortcutType_(candidate)) {
+			candidate.queryEnvelope2D(env);
+			if (!env.isEmpty() && !m_fixedEnvelope.isEmpty()) {
+				// same test as RelationalOperations.relate
+				Envelope2D merged = new Envelope2D();
+				merged.setCoords(m_fixedEnvelope);
+				merged.merge(env);
+				double tolerance = InternalUtils
+						.calculateToleranceFromGeometry(m_sr, merged, false);
+				if (RelationalOperations.envelopeDisjointEnvelope_(
+						m_fixedEnvelope, env, tolerance, progressTracker))
+					return m_bDisjointResult;
+			}
+		}
+
+		return m_operator.execute(m_prepared, candidate, m_sr,
+				progressTracker);
+	}
+
+	private void prepare_() {
+		if (m_bPrepared)
+			return;
+
+		m_bPrepared = true;
+		if (!m_operator.canAccelerateGeometry(m_fixed)
+				|| ((MultiVertexGeometryImpl) m_fixed._getImpl())
+						._getAccelerators() != null)
+			return;
+
+		Geometry copy = m_fixed.copy();
+		if (m_operator.accelerateGeometry(copy, m_sr,
+				GeometryAccelerationDegree.enumMedium))
+			m_prepared = copy;
+	}
+
+	// The chunks call the operator on the prepared geometry from several
+	// threads. The operators write lazy caches of their inputs (the ring
+	// areas, the simple and OGC flags), which is thread safe on frozen
+	// geometries only, so the chunks share a frozen copy of the fixed
+	// geometry.
+	private void prepareShared_() {
+		m_bPrepared = true;
+		Geometry copy = m_fixed.copy();
+		if (m_operator.canAccelerateGeometry(copy))
+			m_operator.accelerateGeometry(copy, m_sr,
+					GeometryAccelerationDegree.enumMedium);
+
+		copy.freeze();
+		m_prepared = copy;
+	}
+
+	private static boolean isShortcutType_(Geometry geometry) {
+		Geometry.Type type = geometry.getType();
+		return type == Geometry.Type.Point || type == Geometry.Type.Envelope;
+	}
+}
@@ -471,11 +471,13 @@ class Simplificator {
 			int coincidentCount = 0;
 			Point2D ptFirst = new Point2D();
 			Point2D pt = new Point2D();
+			int counter = 0;
 			// Main loop of the simplificator. Go through the vertices and
 			// for those that have same coordinates,
 			for (int vlistindex = m_sortedVertices
 					.getFirst(m_sortedVerticesListIndex); vlistindex != IndexMultiDCList
 					.nullNode();) {
+				ProgressTracker.checkAndThrow(m_progressTracker, ++counter);
 				int vertex = m_sortedVertices.getData(vlistindex);
 
 				if (m_firstCoincidentVertex != -1) {
@@ -937,6 +939,9 @@ class Simplificator {
 		//simplificator.m_knownSimpleResult = knownSimpleResult;
 		simplificator.m_fixSelfTangency = fixSelfTangency;
 		simplificator.m_progressTracker = progressTracker;
-		return simplificator._simplify();
+		boolean bChanged = simplificator._simplify();
+		if (simplificator.m_sortedVertices != null)
+			simplificator.m_sortedVertices.releaseMemory();
+		return bChanged;
 	}
 }
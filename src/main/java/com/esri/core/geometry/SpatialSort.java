@@ -0,0 +1,363 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Orders geometries along a space filling curve, so that geometries that are
+ * close to each other in space are also close to each other in the order.
+ * Processing a batch in this order improves the locality of quad tree
+ * inserts, unions and joins.
+ *
+ * The order is defined by the code of the envelope center of each geometry
+ * on a grid of 2^15 x 2^15 cells covering the centers of the batch. Geometries
+ * with equal codes keep their relative order. Empty geometries are placed at
+ * the end.
+ */
+public final class SpatialSort {
+	/**
+	 * The space filling curve used to order the geometries.
+	 */
+	public enum Curve {
+		/**
+		 * The Hilbert curve. Consecutive cells are always adjacent, so this
+		 * gives the better locality.
+		 */
+		Hilbert,
+		/**
+		 * The Morton (Z-order) curve. Cheaper to compute than the Hilbert
+		 * curve.
+		 */
+		Morton
+	}
+
+	static final int GRID_BITS = 15;
+	static final int GRID_SIZE = 1 << GRID_BITS;
+
+	// The sort key is the curve code in the upper bits and the index in the
+	// lower 31 bits. The code of an empty envelope is one past the largest
+	// code of the grid.
+	private static final int INDEX_BITS = 31;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	private static final long EMPTY_CODE = 1L << (2 * GRID_BITS);
+
+	// Below this count the parallel sort runs on the calling thread.
+	private static final int MIN_PARALLEL_CHUNK = 4096;
+
+	private SpatialSort() {
+	}
+
+	/**
+	 * Returns the permutation that orders the envelopes along the curve. The
+	 * i-th element of the result is the index of the i-th envelope in the
+	 * order.
+	 *
+	 * @param envelopes
+	 *            The envelopes to order. The array is not modified.
+	 * @param curve
+	 *            The space filling curve.
+	 * @return The permutation of the indices of the envelopes.
+	 */
+	public static int[] sort(Envelope2D[] envelopes, Curve curve) {
+		return sort(envelopes, curve, null, 1);
+	}
+
+	/**
+	 * Returns the permutation that orders the envelopes along the curve. The
+	 * codes are computed and sorted in up to parallelism chunks on the threads
+	 * of the executor. The result is the same as the result of the sequential
+	 * sort.
+	 *
+	 * @param envelopes
+	 *            The envelopes to order. The array is not modified.
+	 * @param curve
+	 *            The space filling curve.
+	 * @param executor
+	 *            The executor that runs the chunks. When null, the sort runs
+	 *            on the calling thread.
+	 * @param parallelism
+	 *            The maximum number of chunks. Must be positive.
+	 * @return The permutation of the indices of the envelopes.
+	 */
+	public static int[] sort(Envelope2D[] envelopes, Curve curve,
+			Executor executor, int parallelism) {
+		if (envelopes == null || curve == null || parallelism < 1)
+			throw new IllegalArgumentException();
+
+		long[] keys = computeKeys_(envelopes, curve, executor, parallelism);
+		int[] permutation = new int[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			permutation[i] = (int) (keys[i] & INDEX_MASK);
+
+		return permutation;
+	}
+
+	/**
+	 * Returns the permutation that orders the geometries along the curve by
+	 * the centers of their envelopes.
+	 *
+	 * @param geometries
+	 *            The geometries to order. The array is not modified.
+	 * @param curve
+	 *            The space filling curve.
+	 * @return The permutation of the indices of the geometries.
+	 */
+	public static int[] sort(Geometry[] geometries, Curve curve) {
+		return sort(queryEnvelopes_(geometries), curve, null, 1);
+	}
+
+	/**
+	 * Reads all geometries of the cursor into memory and returns a cursor
+	 * that returns them ordered along the curve. The getGeometryID method of
+	 * the returned cursor returns the ID the geometry had in the input
+	 * cursor.
+	 *
+	 * @param geometries
+	 *            The input cursor. It is read to the end by this call.
+	 * @param curve
+	 *            The space filling curve.
+	 * @return The sorted cursor.
+	 */
+	public static GeometryCursor sort(GeometryCursor geometries, Curve curve) {
+		if (geometries == null)
+			throw new IllegalArgumentException();
+
+		ArrayList<Geometry> buffer = new ArrayList<Geometry>();
+		AttributeStreamOfInt32 ids = new AttributeStreamOfInt32(0);
+		for (Geometry geom = geometries.next(); geom != null; geom = geometries
+				.next()) {
+			buffer.add(geom);
+			ids.add(geometries.getGeometryID());
+		}
+
+		Geometry[] geoms = buffer.toArray(new Geometry[buffer.size()]);
+		return new SortedGeometryCursor(geoms, ids, sort(geoms, curve));
+	}
+
+	/**
+	 * Reorders the list in place along the curve.
+	 */
+	static void sortInPlace(ArrayList<Geometry> geometries, Curve curve) {
+		Geometry[] geoms = geometries.toArray(new Geometry[geometries.size()]);
+		int[] permutation = sort(geoms, curve);
+		for (int i = 0; i < permutation.length; i++)
+			geometries.set(i, geoms[permutation[i]]);
+	}
+
+	/**
+	 * Returns the Hilbert code of the cell (x, y) of the grid.
+	 */
+	static int hilbertCode(int x, int y) {
+		int n = GRID_SIZE;
+		int d = 0;
+		for (int s = n >>> 1; s > 0; s >>>= 1) {
+			int rx = (x & s) != 0 ? 1 : 0;
+			int ry = (y & s) != 0 ? 1 : 0;
+			d += s * s * ((3 * rx) ^ ry);
+			if (ry == 0) {
+				if (rx == 1) {
+					x = n - 1 - x;
+					y = n - 1 - y;
+				}
+
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+
+		return d;
+	}
+
+	/**
+	 * Returns the Morton code of the cell (x, y) of the grid.
+	 */
+	static int mortonCode(int x, int y) {
+		return spreadBits_(x) | (spreadBits_(y) << 1);
+	}
+
+	private static int spreadBits_(int v) {
+		v &= 0x0000FFFF;
+		v = (v | (v << 8)) & 0x00FF00FF;
+		v = (v | (v << 4)) & 0x0F0F0F0F;
+		v = (v | (v << 2)) & 0x33333333;
+		v = (v | (v << 1)) & 0x55555555;
+		return v;
+	}
+
+	private static Envelope2D[] queryEnvelopes_(Geometry[] geometries) {
+		if (geometries == null)
+			throw new IllegalArgumentException();
+
+		Envelope2D[] envelopes = new Envelope2D[geometries.length];
+		for (int i = 0; i < geometries.length; i++) {
+			envelopes[i] = new Envelope2D();
+			geometries[i].queryEnvelope2D(envelopes[i]);
+		}
+
+		return envelopes;
+	}
+
+	private static long[] computeKeys_(final Envelope2D[] envelopes,
+			final Curve curve, Executor executor, int parallelism) {
+		final int count = envelopes.length;
+		final Envelope2D extent = new Envelope2D();
+		extent.setEmpty();
+		for (int i = 0; i < count; i++) {
+			Envelope2D env = envelopes[i];
+			if (!env.isEmpty())
+				extent.merge(env.getCenterX(), env.getCenterY());
+		}
+
+		final long[] keys = new long[count];
+		int chunks = executor != null ? Math.min(parallelism, count
+				/ MIN_PARALLEL_CHUNK) : 1;
+		if (chunks <= 1) {
+			computeKeyRange_(envelopes, curve, extent, keys, 0, count);
+			Arrays.sort(keys);
+			return keys;
+		}
+
+		// Each chunk computes and sorts its own range, then the sorted runs
+		// are merged in pairs.
+		final int[] bounds = new int[chunks + 1];
+		for (int i = 0; i <= chunks; i++)
+			bounds[i] = (int) ((long) count * i / chunks);
+
+		ArrayList<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+		for (int i = 0; i < chunks; i++) {
+			final int from = bounds[i];
+			final int to = bounds[i + 1];
+			tasks.add(new FutureTask<Void>(new Runnable() {
+				@Override
+				public void run() {
+					computeKeyRange_(envelopes, curve, extent, keys, from, to);
+					Arrays.sort(keys, from, to);
+				}
+			}, null));
+		}
+		ParallelTasks.runAll(executor, tasks);
+
+		long[] src = keys;
+		long[] dst = new long[count];
+		for (int width = 1; width < chunks; width *= 2) {
+			tasks.clear();
+			for (int i = 0; i < chunks; i += 2 * width) {
+				final int from = bounds[i];
+				final int mid = bounds[Math.min(i + width, chunks)];
+				final int to = bounds[Math.min(i + 2 * width, chunks)];
+				final long[] a = src;
+				final long[] b = dst;
+				tasks.add(new FutureTask<Void>(new Runnable() {
+					@Override
+					public void run() {
+						merge_(a, from, mid, to, b);
+					}
+				}, null));
+			}
+			ParallelTasks.runAll(executor, tasks);
+
+			long[] t = src;
+			src = dst;
+			dst = t;
+		}
+
+		return src;
+	}
+
+	private static void computeKeyRange_(Envelope2D[] envelopes, Curve curve,
+			Envelope2D extent, long[] keys, int from, int to) {
+		double scaleX = extent.getWidth() > 0 ? (GRID_SIZE - 1)
+				/ extent.getWidth() : 0;
+		double scaleY = extent.getHeight() > 0 ? (GRID_SIZE - 1)
+				/ extent.getHeight() : 0;
+		boolean bHilbert = curve == Curve.Hilbert;
+		for (int i = from; i < to; i++) {
+			Envelope2D env = envelopes[i];
+			long code;
+			if (env.isEmpty()) {
+				code = EMPTY_CODE;
+			} else {
+				int x = (int) ((env.getCenterX() - extent.xmin) * scaleX);
+				int y = (int) ((env.getCenterY() - extent.ymin) * scaleY);
+				x = Math.min(Math.max(x, 0), GRID_SIZE - 1);
+				y = Math.min(Math.max(y, 0), GRID_SIZE - 1);
+				code = bHilbert ? hilbertCode(x, y) : mortonCode(x, y);
+			}
+
+			keys[i] = (code << INDEX_BITS) | i;
+		}
+	}
+
+	private static void merge_(long[] src, int from, int mid, int to,
+			long[] dst) {
+		int i = from;
+		int j = mid;
+		int k = from;
+		while (i < mid && j < to)
+			dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+
+		System.arraycopy(src, i, dst, k, mid - i);
+		k += mid - i;
+		System.arraycopy(src, j, dst, k, to - j);
+	}
+
+	private static final class SortedGeometryCursor extends GeometryCursor {
+		private final Geometry[] m_geometries;
+		private final AttributeStreamOfInt32 m_ids;
+		private final int[] m_permutation;
+		private int m_index;
+
+		SortedGeometryCursor(Geometry[] geometries, AttributeStreamOfInt32 ids,
+				int[] permutation) {
+			m_geometries = geometries;
+			m_ids = ids;
+			m_permutation = permutation;
+			m_index = -1;
+		}
+
+		@Override
+		public Geometry next() {
+			if (m_index + 1 >= m_permutation.length)
+				return null;
+
+			m_index++;
+			int i = m_permutation[m_index];
+			Geometry geom = m_geometries[i];
+			m_geometries[i] = null;// let the caller own the geometry
+			return geom;
+		}
+
+		@Override
+		public int getGeometryID() {
+			return m_index >= 0 && m_index < m_permutation.length ? m_ids
+					.get(m_permutation[m_index]) : -1;
+		}
+	}
+}
@@ -149,11 +149,17 @@ final class StridedIndexTypeCollection implements Serializable {
 	}
 
 	// Deletes all elements and frees all the memory if b_free_memory is True.
+	// The freed blocks go to the WorkingMemory of the thread.
 	void deleteAll(boolean b_free_memory) {
 		m_firstFree = -1;
 		m_last = 0;
 		m_size = 0;
 		if (b_free_memory) {
+			if (m_buffer != null) {
+				for (int i = 0; i < m_bufferSize; i++)
+					WorkingMemory.recycleIntArray(m_buffer[i]);
+			}
+
 			m_buffer = null;
 			m_capacity = 0;
 		}
@@ -251,9 +257,10 @@ final class StridedIndexTypeCollection implements Serializable {
 				// get the size to allocate. Using fixed sizes to reduce
 				// fragmentation.
 				i++;
-			int[] b = new int[st_sizes[i]];
+			int[] b = WorkingMemory.allocateIntArray(st_sizes[i]);
 			if (m_bufferSize == 1) {
 				System.arraycopy(m_buffer[0], 0, b, 0, m_buffer[0].length);
+				WorkingMemory.recycleIntArray(m_buffer[0]);
 				m_buffer[0] = b;
 			} else {
 				m_buffer[m_bufferSize] = b;
@@ -268,15 +275,17 @@ final class StridedIndexTypeCollection implements Serializable {
 				if (m_buffer[0].length < m_realBlockSize) {
 					// resize the first buffer to ensure it is equal the
 					// m_realBlockSize.
-					int[] b = new int[m_realBlockSize];
+					int[] b = WorkingMemory.allocateIntArray(m_realBlockSize);
 					System.arraycopy(m_buffer[0], 0, b, 0, m_buffer[0].length);
+					WorkingMemory.recycleIntArray(m_buffer[0]);
 					m_buffer[0] = b;
 					m_capacity = m_blockSize;
 				}
 			}
 
 			while (m_bufferSize < nblocks) {
-				m_buffer[m_bufferSize++] = new int[m_realBlockSize];
+				m_buffer[m_bufferSize++] = WorkingMemory
+						.allocateIntArray(m_realBlockSize);
 				m_capacity += m_blockSize;
 			}
 		}
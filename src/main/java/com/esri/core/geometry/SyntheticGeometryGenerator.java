@@ -0,0 +1,410 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.Random;
+
+/**
+ * Generates reproducible geometries for stress tests and benchmarks. The
+ * shapes imitate the data that makes the operators slow in practice, rather
+ * than uniform random coordinates.
+ *
+ * The output depends only on the seed and the arguments. The cursor creates
+ * each geometry when next is called and keeps no reference to it, so it can
+ * produce more data than fits in memory. Each geometry of the cursor is
+ * generated from its own seed, so geometry i is the same regardless of how
+ * many geometries were read before it.
+ */
+public final class SyntheticGeometryGenerator {
+	/**
+	 * The shapes the generator can produce. The vertex count given to the
+	 * generator is approximate, each shape rounds it to fit its structure and
+	 * uses at least the few vertices it needs.
+	 */
+	public enum Shape {
+		/**
+		 * A polygon with an exterior ring and many small holes, about one hole
+		 * per eight vertices.
+		 */
+		PolygonWithHoles,
+		/**
+		 * A polygon with one ring made of petals that all touch at the center
+		 * vertex.
+		 */
+		SelfTouchingPolygon,
+		/**
+		 * A polygon with one long ring that is about a billionth of its length
+		 * wide.
+		 */
+		SliverPolygon,
+		/**
+		 * A polyline with a path for each road of a dense grid of winding
+		 * roads that cross each other.
+		 */
+		RoadNetwork,
+		/**
+		 * A multipoint with points gathered in clusters of about a thousand
+		 * points, and some points scattered between them.
+		 */
+		PointClusters,
+		/**
+		 * A polygon with one large ring with a coastline that is rough at all
+		 * scales.
+		 */
+		ContinentalPolygon
+	}
+
+	private static final int HOLE_SIZE = 8;
+	private static final int PETAL_SIZE = 16;
+	private static final int CLUSTER_SIZE = 1000;
+	private static final double SLIVER_WIDTH = 1e-9;
+
+	private final long m_seed;
+
+	public SyntheticGeometryGenerator(long seed) {
+		m_seed = seed;
+	}
+
+	public long getSeed() {
+		return m_seed;
+	}
+
+	/**
+	 * Generates a geometry of the given shape that fills the extent.
+	 */
+	public Geometry generate(Shape shape, int vertexCount, Envelope2D extent) {
+		checkArguments_(vertexCount, extent);
+		return generate_(shape, vertexCount, extent, new Random(m_seed));
+	}
+
+	/**
+	 * Returns a cursor over geometryCount geometries of the given shape. The
+	 * extent is divided into a grid with a cell for each geometry, and each
+	 * geometry fills most of its cell. The geometry ID is the index of the
+	 * geometry.
+	 */
+	public GeometryCursor generate(Shape shape, int geometryCount,
+			int vertexCount, Envelope2D extent) {
+		if (geometryCount < 0)
+			throw new IllegalArgumentException();
+
+		checkArguments_(vertexCount, extent);
+		return new GeneratorCursor(shape, geometryCount, vertexCount, extent);
+	}
+
+	private final class GeneratorCursor extends GeometryCursor {
+		private final Shape m_shape;
+		private final int m_count;
+		private final int m_vertexCount;
+		private final Envelope2D m_extent;
+		private final int m_columns;
+		private final int m_rows;
+		private int m_index;
+
+		GeneratorCursor(Shape shape, int count, int vertexCount,
+				Envelope2D extent) {
+			m_shape = shape;
+			m_count = count;
+			m_vertexCount = vertexCount;
+			m_extent = new Envelope2D();
+			m_extent.setCoords(extent);
+			m_columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+			m_rows = Math.max(1, (count + m_columns - 1) / m_columns);
+			m_index = -1;
+		}
+
+		@Override
+		public Geometry next() {
+			if (m_index >= m_count - 1)
+				return null;
+
+			m_index++;
+			double width = m_extent.getWidth() / m_columns;
+			double height = m_extent.getHeight() / m_rows;
+			double xmin = m_extent.xmin + (m_index % m_columns) * width;
+			double ymin = m_extent.ymin + (m_index / m_columns) * height;
+			// leave a gap between the cells
+			Envelope2D cell = new Envelope2D(xmin + width * 0.05, ymin
+					+ height * 0.05, xmin + width * 0.95, ymin + height * 0.95);
+			// a different stream of numbers for each geometry
+			Random random = new Random(m_seed + 0x9E3779B97F4A7C15L
+					* (m_index + 1));
+			return generate_(m_shape, m_vertexCount, cell, random);
+		}
+
+		@Override
+		public int getGeometryID() {
+			return m_index;
+		}
+	}
+
+	private static void checkArguments_(int vertexCount, Envelope2D extent) {
+		if (vertexCount < 0 || extent.isEmpty())
+			throw new IllegalArgumentException();
+	}
+
+	private static Geometry generate_(Shape shape, int vertexCount,
+			Envelope2D extent, Random random) {
+		switch (shape) {
+		case PolygonWithHoles:
+			return polygonWithHoles_(vertexCount, extent, random);
+		case SelfTouchingPolygon:
+			return selfTouchingPolygon_(vertexCount, extent, random);
+		case SliverPolygon:
+			return sliverPolygon_(vertexCount, extent, random);
+		case RoadNetwork:
+			return roadNetwork_(vertexCount, extent, random);
+		case PointClusters:
+			return pointClusters_(vertexCount, extent, random);
+		case ContinentalPolygon:
+			return continentalPolygon_(vertexCount, extent, random);
+		default:
+			throw GeometryException.GeometryInternalError();
+		}
+	}
+
+	private static Polygon polygonWithHoles_(int vertexCount,
+			Envelope2D extent, Random random) {
+		int exteriorSize = Math.max(HOLE_SIZE, vertexCount / 4);
+		int holeCount = Math.max(1, (vertexCount - exteriorSize) / HOLE_SIZE);
+		double[] xy = new double[2 * (exteriorSize + holeCount * HOLE_SIZE)];
+		int[] offsets = new int[holeCount + 2];
+		double cx = extent.getCenterX();
+		double cy = extent.getCenterY();
+		double radius = 0.5 * Math.min(extent.getWidth(), extent.getHeight());
+
+		// the exterior ring is clockwise and never closer to the center than
+		// 0.9 of the radius
+		int n = 0;
+		for (int i = 0; i < exteriorSize; i++) {
+			double angle = -2 * Math.PI * i / exteriorSize;
+			double r = radius * (0.9 + 0.1 * random.nextDouble());
+			xy[2 * n] = cx + r * Math.cos(angle);
+			xy[2 * n + 1] = cy + r * Math.sin(angle);
+			n++;
+		}
+
+		// the holes are counterclockwise, one in each cell of a grid in the
+		// square inscribed in the circle of 0.8 radius, which stays inside the
+		// exterior ring even when it has only a few vertices
+		offsets[1] = n;
+		int columns = (int) Math.ceil(Math.sqrt(holeCount));
+		double half = 0.8 * radius / Math.sqrt(2);
+		double cell = 2 * half / columns;
+		for (int h = 0; h < holeCount; h++) {
+			double hx = cx - half + (h % columns + 0.5) * cell
+					+ (random.nextDouble() - 0.5) * 0.2 * cell;
+			double hy = cy - half + (h / columns + 0.5) * cell
+					+ (random.nextDouble() - 0.5) * 0.2 * cell;
+			double phase = random.nextDouble() * 2 * Math.PI;
+			for (int i = 0; i < HOLE_SIZE; i++) {
+				double angle = phase + 2 * Math.PI * i / HOLE_SIZE;
+				double r = cell * (0.2 + 0.1 * random.nextDouble());
+				xy[2 * n] = hx + r * Math.cos(angle);
+				xy[2 * n + 1] = hy + r * Math.sin(angle);
+				n++;
+			}
+
+			offsets[h + 2] = n;
+		}
+
+		Polygon polygon = new Polygon();
+		polygon.addPaths(xy, null, null, offsets, holeCount + 1);
+		return polygon;
+	}
+
+	private static Polygon selfTouchingPolygon_(int vertexCount,
+			Envelope2D extent, Random random) {
+		int petalCount = Math.max(2, vertexCount / PETAL_SIZE);
+		int arcSize = Math.max(2, vertexCount / petalCount - 1);
+		double[] xy = new double[2 * petalCount * (arcSize + 1)];
+		double cx = extent.getCenterX();
+		double cy = extent.getCenterY();
+		double radius = 0.5 * Math.min(extent.getWidth(), extent.getHeight());
+		double sector = 2 * Math.PI / petalCount;
+
+		// each petal leaves the center, goes clockwise along an arc and comes
+		// back, so the ring touches itself at the center
+		int n = 0;
+		for (int p = 0; p < petalCount; p++) {
+			xy[2 * n] = cx;
+			xy[2 * n + 1] = cy;
+			n++;
+			double start = -p * sector - 0.1 * sector;
+			for (int i = 0; i < arcSize; i++) {
+				double angle = start - 0.8 * sector * i / (arcSize - 1);
+				double r = radius * (0.7 + 0.3 * random.nextDouble());
+				xy[2 * n] = cx + r * Math.cos(angle);
+				xy[2 * n + 1] = cy + r * Math.sin(angle);
+				n++;
+			}
+		}
+
+		Polygon polygon = new Polygon();
+		polygon.addPaths(xy, null, null, new int[] { 0, n }, 1);
+		return polygon;
+	}
+
+	private static Polygon sliverPolygon_(int vertexCount, Envelope2D extent,
+			Random random) {
+		int sideSize = Math.max(2, vertexCount / 2);
+		double[] xy = new double[4 * sideSize];
+		double cy = extent.getCenterY();
+		double width = extent.getWidth();
+		double thickness = width * SLIVER_WIDTH;
+
+		// left to right along the top side, then back along the bottom side
+		int n = 0;
+		for (int i = 0; i < sideSize; i++) {
+			xy[2 * n] = extent.xmin + width * i / (sideSize - 1);
+			xy[2 * n + 1] = cy + thickness * (0.5 + 0.5 * random.nextDouble());
+			n++;
+		}
+
+		for (int i = sideSize - 1; i >= 0; i--) {
+			xy[2 * n] = extent.xmin + width * i / (sideSize - 1);
+			xy[2 * n + 1] = cy - thickness * (0.5 + 0.5 * random.nextDouble());
+			n++;
+		}
+
+		Polygon polygon = new Polygon();
+		polygon.addPaths(xy, null, null, new int[] { 0, n }, 1);
+		return polygon;
+	}
+
+	private static Polyline roadNetwork_(int vertexCount, Envelope2D extent,
+			Random random) {
+		int roadCount = Math.max(1, (int) Math.sqrt(vertexCount / 2));
+		int roadSize = Math.max(2, vertexCount / (2 * roadCount));
+		double[] xy = new double[4 * roadCount * roadSize];
+		int[] offsets = new int[2 * roadCount + 1];
+		int n = 0;
+		int path = 0;
+		for (int direction = 0; direction < 2; direction++) {
+			// the roads run along x first, then along y
+			double along = direction == 0 ? extent.getWidth() : extent
+					.getHeight();
+			double across = direction == 0 ? extent.getHeight() : extent
+					.getWidth();
+			double alongMin = direction == 0 ? extent.xmin : extent.ymin;
+			double acrossMin = direction == 0 ? extent.ymin : extent.xmin;
+			double spacing = across / roadCount;
+			for (int road = 0; road < roadCount; road++) {
+				double base = acrossMin + (road + 0.5) * spacing;
+				double phase = random.nextDouble() * 2 * Math.PI;
+				double waves = 1 + random.nextInt(5);
+				for (int i = 0; i < roadSize; i++) {
+					double t = (double) i / (roadSize - 1);
+					double offset = spacing
+							* (0.3 * Math.sin(phase + 2 * Math.PI * waves * t) + 0.05 * (random
+									.nextDouble() - 0.5));
+					double a = alongMin + along * t;
+					double b = base + offset;
+					xy[2 * n + direction] = a;
+					xy[2 * n + 1 - direction] = b;
+					n++;
+				}
+
+				offsets[++path] = n;
+			}
+		}
+
+		Polyline polyline = new Polyline();
+		polyline.addPaths(xy, null, null, offsets, path);
+		return polyline;
+	}
+
+	private static MultiPoint pointClusters_(int vertexCount,
+			Envelope2D extent, Random random) {
+		int clusterCount = Math.max(1, vertexCount / CLUSTER_SIZE);
+		double[] centers = new double[2 * clusterCount];
+		for (int c = 0; c < clusterCount; c++) {
+			centers[2 * c] = extent.xmin + extent.getWidth()
+					* random.nextDouble();
+			centers[2 * c + 1] = extent.ymin + extent.getHeight()
+					* random.nextDouble();
+		}
+
+		double sigma = 0.125 * Math.min(extent.getWidth(), extent.getHeight())
+				/ Math.sqrt(clusterCount);
+		double[] xy = new double[2 * vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			double x;
+			double y;
+			if (random.nextInt(20) == 0) {
+				// one point in twenty is not in a cluster
+				x = extent.xmin + extent.getWidth() * random.nextDouble();
+				y = extent.ymin + extent.getHeight() * random.nextDouble();
+			} else {
+				int c = random.nextInt(clusterCount);
+				x = centers[2 * c] + sigma * random.nextGaussian();
+				y = centers[2 * c + 1] + sigma * random.nextGaussian();
+			}
+
+			xy[2 * i] = Math.min(Math.max(x, extent.xmin), extent.xmax);
+			xy[2 * i + 1] = Math.min(Math.max(y, extent.ymin), extent.ymax);
+		}
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoints(xy, null, null, vertexCount);
+		return multiPoint;
+	}
+
+	private static Polygon continentalPolygon_(int vertexCount,
+			Envelope2D extent, Random random) {
+		int size = Math.max(8, vertexCount);
+		// a wave for each doubling of the frequency up to the vertex spacing,
+		// with the amplitude halved each time
+		int waveCount = Math.max(1, 31 - Integer.numberOfLeadingZeros(size / 4));
+		double[] phases = new double[waveCount];
+		for (int k = 0; k < waveCount; k++)
+			phases[k] = random.nextDouble() * 2 * Math.PI;
+
+		double cx = extent.getCenterX();
+		double cy = extent.getCenterY();
+		double rx = 0.5 * extent.getWidth();
+		double ry = 0.5 * extent.getHeight();
+		double[] xy = new double[2 * size];
+		for (int i = 0; i < size; i++) {
+			double angle = -2 * Math.PI * i / size;
+			double noise = 0;
+			double amplitude = 0.5;
+			for (int k = 0; k < waveCount; k++) {
+				noise += amplitude * Math.sin((2 << k) * angle + phases[k]);
+				amplitude *= 0.5;
+			}
+
+			// the radius stays between 0.55 and 0.95 of the extent, so the
+			// ring is star shaped around the center and simple
+			double r = 0.75 + 0.2 * noise;
+			xy[2 * i] = cx + rx * r * Math.cos(angle);
+			xy[2 * i + 1] = cy + ry * r * Math.sin(angle);
+		}
+
+		Polygon polygon = new Polygon();
+		polygon.addPaths(xy, null, null, new int[] { 0, size }, 1);
+		return polygon;
+	}
+}
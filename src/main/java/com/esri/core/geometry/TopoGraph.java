@@ -69,6 +69,7 @@ final class TopoGraph {
 	int m_universe_geomID = -1;
 	
 	boolean m_buildChains = true;
+	ProgressTracker m_progressTracker;
 	
 	private boolean m_dirty_check_failed = false;
 	private double m_check_dirty_planesweep_tolerance = Double.NaN;
@@ -525,12 +526,7 @@ final class TopoGraph {
 		Point2D pt = new Point2D();
 		// Each cluster is an event of the sweep-line algorithm.
 		for (int cluster = getFirstCluster(); cluster != -1; cluster = getNextCluster(cluster)) {
-			counter++;
-			if ((counter & 0xFF) == 0) {
-				if ((progress_tracker != null)
-						&& !(progress_tracker.progress(-1, -1)))
-					throw new UserCancelException();
-			}
+			ProgressTracker.checkAndThrow(progress_tracker, ++counter);
 
 			int firstHalfEdge = getClusterHalfEdge(cluster);
 			if (firstHalfEdge != -1) {
@@ -988,6 +984,7 @@ final class TopoGraph {
 		m_halfEdgeIndex = m_shape.createUserIndex();
 
 		for (int i = 0, nvert = sorted_vertices.size(); i < nvert; i++) {
+			ProgressTracker.checkAndThrow(m_progressTracker, i + 1);
 			int vertex = sorted_vertices.get(i);
 			int cluster = m_shape.getUserIndex(vertex, m_clusterIndex);
 
@@ -1180,11 +1177,13 @@ final class TopoGraph {
 		AttributeStreamOfInt32 angleSorter = new AttributeStreamOfInt32(0);
 		angleSorter.reserve(10);
 		TopoGraphAngleComparer tgac = new TopoGraphAngleComparer(this);
+		int counter = 0;
 		// Now go through the clusters, sort edges in each cluster by angle, and
 		// reconnect the halfedges of sorted edges in the sorted order.
 		// Also share the parentage information between coinciding edges and
 		// remove duplicates.
 		for (int cluster = getFirstCluster(); cluster != -1; cluster = getNextCluster(cluster)) {
+			ProgressTracker.checkAndThrow(m_progressTracker, ++counter);
 			angleSorter.clear(false);
 			int first = getClusterHalfEdge(cluster);
 			if (first != -1) {
@@ -1443,8 +1442,10 @@ final class TopoGraph {
 
 		int firstChain = -1;
 		int visitedHalfEdgeIndex = createUserIndexForHalfEdges();
+		int counter = 0;
 		// Visit all the clusters
 		for (int cluster = getFirstCluster(); cluster != -1; cluster = getNextCluster(cluster)) {
+			ProgressTracker.checkAndThrow(m_progressTracker, ++counter);
 			// For each cluster visit all half edges on the cluster
 			int first = getClusterHalfEdge(cluster);
 			if (first != -1) {
@@ -1632,6 +1633,7 @@ final class TopoGraph {
 
 		removeShape();
 		m_buildChains = bBuildChains;
+		m_progressTracker = progress_tracker;
 		assert (m_shape == null);
 		m_shape = shape;
 		m_geometryIDIndex = m_shape.createGeometryUserIndex();
@@ -1703,6 +1705,7 @@ final class TopoGraph {
 		Point2D pt = new Point2D();
 		ptFirst.setNaN();
 		for (int i = 0; i <= m_pointCount; i++) {
+			ProgressTracker.checkAndThrow(progress_tracker, i + 1);
 			if (i < m_pointCount) {
 				int vertex = verticesSorter.get(i);
 				m_shape.getXY(vertex, pt);
@@ -1935,6 +1938,7 @@ final class TopoGraph {
 		}
 		
 		m_shape = null;
+		m_progressTracker = null;
 		m_clusterData.deleteAll(true);
 		m_clusterVertices.deleteAll(true);
 		m_firstCluster = -1;
@@ -1131,8 +1131,10 @@ final class TopologicalOperations {
 
 		EditShape shape = new EditShape();
 		int geom = shape.addGeometry(input_geom);
-		return planarSimplify(shape, geom, tolerance,
+		MultiVertexGeometry result = planarSimplify(shape, geom, tolerance,
 				b_use_winding_rule_for_polygons, dirty_result, progress_tracker);
+		shape.releaseMemory();
+		return result;
 	}
 
 	MultiVertexGeometry planarSimplify(EditShape shape, int geom,
@@ -1147,6 +1149,7 @@ final class TopologicalOperations {
 					&& shape.getGeometryType(geom) != Geometry.Type.MultiPoint
 							.value()) {
 				PlaneSweepCrackerHelper plane_sweeper = new PlaneSweepCrackerHelper();
+				plane_sweeper.m_progress_tracker = progress_tracker;
 				plane_sweeper.sweepVertical(shape, tolerance);
 				if (plane_sweeper.hadCompications())// shame. The one pass
 													// planesweep had some
@@ -1606,6 +1609,7 @@ final class TopologicalOperations {
 				progress_tracker);
 		int result = topoOps.difference(geom_a, geom_b);
 		Geometry resGeom = edit_shape.getGeometry(result);
+		topoOps.releaseMemory_(edit_shape);
 
 		Geometry res_geom = normalizeResult_(resGeom, geometry_a, geometry_b,
 				'-');
@@ -1693,6 +1697,7 @@ final class TopologicalOperations {
 
 		Geometry res_geom = normalizeResult_(edit_shape.getGeometry(result),
 				geometry_a, geometry_b, '|');
+		topoOps.releaseMemory_(edit_shape);
 
 		if (Geometry.isMultiPath(res_geom.getType().value())) {
 			((MultiVertexGeometryImpl) res_geom._getImpl()).setIsSimple(
@@ -1754,8 +1759,10 @@ final class TopologicalOperations {
 		double tolerance = InternalUtils.calculateToleranceFromGeometry(psr,
 				envMerged, true);
 		TopologicalOperations topoOps = new TopologicalOperations();
-		return topoOps.planarSimplify(shape, geom, tolerance, winding, true,
-				progress_tracker);
+		Geometry result = topoOps.planarSimplify(shape, geom, tolerance,
+				winding, true, progress_tracker);
+		topoOps.releaseMemory_(shape);
+		return result;
 	}
 
 	// static
@@ -1806,6 +1813,7 @@ final class TopologicalOperations {
 		int result = topoOps.intersection(geom_a, geom_b);
 		Geometry res_geom = normalizeResult_(edit_shape.getGeometry(result),
 				geometry_a, geometry_b, '&');
+		topoOps.releaseMemory_(edit_shape);
 
 		if (Geometry.isMultiPath(res_geom.getType().value())) {
 			((MultiVertexGeometryImpl) res_geom._getImpl()).setIsSimple(
@@ -1885,6 +1893,7 @@ final class TopologicalOperations {
 			res_vec[res_geom.getDimension()] = res_geom;
 		}
 
+		topoOps.releaseMemory_(edit_shape);
 		return res_vec;
 	}
 
@@ -1932,6 +1941,7 @@ final class TopologicalOperations {
 		int result = topoOps.symmetricDifference(geom_a, geom_b);
 		Geometry res_geom = normalizeResult_(edit_shape.getGeometry(result),
 				geometry_a, geometry_b, '^');
+		topoOps.releaseMemory_(edit_shape);
 
 		if (Geometry.isMultiPath(res_geom.getType().value())) {
 			((MultiVertexGeometryImpl) res_geom._getImpl()).setIsSimple(
@@ -2164,4 +2174,11 @@ final class TopologicalOperations {
 			
 	}
 
+	// Removes the shape and returns the working memory of the topograph and
+	// of the shape to the thread. The shape cannot be used after this call.
+	void releaseMemory_(EditShape shape) {
+		removeShape();
+		shape.releaseMemory();
+	}
+
 }
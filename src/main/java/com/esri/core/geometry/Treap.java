@@ -469,6 +469,13 @@ final class Treap {
 		m_defaultTreap = nullNode();
 	}
 
+	// Clears all nodes and returns the memory to the WorkingMemory of the
+	// thread.
+	void releaseMemory() {
+		m_treapData.deleteAll(true);
+		m_defaultTreap = nullNode();
+	}
+
 	// Total number of nodes
 	public int size(int treap) {
 		if (treap == -1)
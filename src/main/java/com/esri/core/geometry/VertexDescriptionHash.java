@@ -26,18 +26,20 @@ package com.esri.core.geometry;
 
 import com.esri.core.geometry.VertexDescription.Semantics;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * A hash object singleton that stores all VertexDescription instances via
- * WeakReference. The purpose of the class is to keep track of created
- * VertexDescription instances to prevent duplicates.
+ * A hash object singleton that stores all VertexDescription instances. The
+ * purpose of the class is to keep track of created VertexDescription instances
+ * to prevent duplicates.
+ *
+ * The instances are kept in an array indexed by the attribute bitset, so the
+ * lookup does not lock. When two threads create the same description at once,
+ * the first one stored wins and the other is dropped.
  */
 final class VertexDescriptionHash {
-	HashMap<Integer, VertexDescription> m_map = new HashMap<Integer, VertexDescription>();
+	private final AtomicReferenceArray<VertexDescription> m_descriptions = new AtomicReferenceArray<VertexDescription>(
+			1 << (Semantics.MAXSEMANTICS + 1));
 
 	private static VertexDescription m_vd2D = new VertexDescription(1);
 	private static VertexDescription m_vd3D = new VertexDescription(3);
@@ -45,8 +47,8 @@ final class VertexDescriptionHash {
 	private static final VertexDescriptionHash INSTANCE = new VertexDescriptionHash();
 
 	private VertexDescriptionHash() {
-		m_map.put(1, m_vd2D);
-		m_map.put(3, m_vd3D);
+		m_descriptions.set(1, m_vd2D);
+		m_descriptions.set(3, m_vd3D);
 	}
 
 	public static VertexDescriptionHash getInstance() {
@@ -67,15 +69,15 @@ final class VertexDescriptionHash {
 		if (bitSet == 3)
 			return m_vd3D;
 
-		synchronized (this) {
-			VertexDescription vd = m_map.get(bitSet);
-			if (vd == null) {
-				vd = new VertexDescription(bitSet);
-				m_map.put(bitSet, vd);
-			}
+		VertexDescription vd = m_descriptions.get(bitSet);
+		if (vd != null)
+			return vd;
 
+		vd = new VertexDescription(bitSet);
+		if (m_descriptions.compareAndSet(bitSet, null, vd))
 			return vd;
-		}
+
+		return m_descriptions.get(bitSet);
 	}
 
 }
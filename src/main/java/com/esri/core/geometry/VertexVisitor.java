@@ -0,0 +1,68 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+/**
+ * A callback that receives the coordinates of the vertices of a
+ * MultiVertexGeometry as primitive values. See
+ * MultiVertexGeometry.visitVertices. Use this instead of getXY or getPoint
+ * to read many vertices without allocating an object per vertex.
+ */
+public abstract class VertexVisitor {
+	/**
+	 * Called for each vertex by MultiVertexGeometry.visitVertices.
+	 * 
+	 * @param index
+	 *            The index of the vertex in the geometry.
+	 * @param x
+	 *            The x coordinate of the vertex.
+	 * @param y
+	 *            The y coordinate of the vertex.
+	 * @return Return false to stop the visit.
+	 */
+	public abstract boolean visit(int index, double x, double y);
+
+	/**
+	 * Called for each vertex by MultiVertexGeometry.visitVerticesZM. The
+	 * default implementation ignores z and m and calls visit(index, x, y).
+	 * 
+	 * @param index
+	 *            The index of the vertex in the geometry.
+	 * @param x
+	 *            The x coordinate of the vertex.
+	 * @param y
+	 *            The y coordinate of the vertex.
+	 * @param z
+	 *            The z coordinate of the vertex, or the default value of Z
+	 *            when the geometry has no Z attribute.
+	 * @param m
+	 *            The m value of the vertex, or NaN when the geometry has no M
+	 *            attribute.
+	 * @return Return false to stop the visit.
+	 */
+	public boolean visit(int index, double x, double y, double z, double m) {
+		return visit(index, x, y);
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+
+/**
+ * Controls the reuse of the working memory of the topological operations.
+ * <p>
+ * Operations like simplify, union, intersection or difference build temporary
+ * index structures and discard them when the operation ends. When a thread
+ * limit is set, the memory blocks of these structures are kept in a cache of
+ * the thread that ran the operation and reused by the next operation on the
+ * same thread. This reduces the allocation rate when many operations run one
+ * after another. The results of the operations do not change.
+ * <p>
+ * The reuse is disabled by default. Each thread caches at most the given
+ * number of bytes, the memory above the limit is left to the garbage collector.
+ * Call releaseThreadMemory to drop the cache of a thread, for example before
+ * returning the thread to a pool that is shared with other code.
+ */
+public final class WorkingMemory {
+	private static final int MIN_BLOCK_POWER = 4;
+	private static final int MAX_BLOCK_POWER = 14;
+
+	private static volatile long s_threadLimit = 0;
+
+	private static final ThreadLocal<BlockCache> s_cache = new ThreadLocal<BlockCache>() {
+		@Override
+		protected BlockCache initialValue() {
+			return new BlockCache();
+		}
+	};
+
+	private WorkingMemory() {
+	}
+
+	/**
+	 * Sets the maximum number of bytes each thread keeps for reuse.
+	 * 
+	 * @param maxBytes
+	 *            The limit in bytes. Zero disables the reuse.
+	 */
+	public static void setThreadLimit(long maxBytes) {
+		if (maxBytes < 0)
+			throw new IllegalArgumentException();
+
+		s_threadLimit = maxBytes;
+	}
+
+	/**
+	 * Returns the maximum number of bytes each thread keeps for reuse. Zero
+	 * means the reuse is disabled.
+	 */
+	public static long getThreadLimit() {
+		return s_threadLimit;
+	}
+
+	/**
+	 * Returns the number of bytes the calling thread keeps for reuse.
+	 */
+	public static long getThreadMemorySize() {
+		BlockCache cache = s_cache.get();
+		return cache.m_bytes;
+	}
+
+	/**
+	 * Drops the memory the calling thread keeps for reuse.
+	 */
+	public static void releaseThreadMemory() {
+		s_cache.remove();
+	}
+
+	/**
+	 * Returns an int array of the given length. The content of the array is
+	 * undefined when it comes from the cache.
+	 */
+	static int[] allocateIntArray(int length) {
+		if (s_threadLimit != 0) {
+			int[] array = s_cache.get().take(length);
+			if (array != null)
+				return array;
+		}
+
+		return new int[length];
+	}
+
+	/**
+	 * Gives the array back for reuse. The caller must not use the array after
+	 * this call.
+	 */
+	static void recycleIntArray(int[] array) {
+		long limit = s_threadLimit;
+		if (limit != 0)
+			s_cache.get().put(array, limit);
+	}
+
+	/**
+	 * The arrays cached by one thread. Only the power of two lengths used by
+	 * StridedIndexTypeCollection are cached.
+	 */
+	private static final class BlockCache {
+		private final ArrayList<ArrayList<int[]>> m_free;
+		long m_bytes;
+
+		BlockCache() {
+			m_free = new ArrayList<ArrayList<int[]>>(MAX_BLOCK_POWER + 1);
+			for (int i = 0; i <= MAX_BLOCK_POWER; i++)
+				m_free.add(i < MIN_BLOCK_POWER ? null : new ArrayList<int[]>());
+		}
+
+		int[] take(int length) {
+			int power = blockPower_(length);
+			if (power < 0)
+				return null;
+
+			ArrayList<int[]> list = m_free.get(power);
+			if (list.isEmpty())
+				return null;
+
+			int[] array = list.remove(list.size() - 1);
+			m_bytes -= SizeOf.sizeOfIntArray(array.length);
+			return array;
+		}
+
+		void put(int[] array, long limit) {
+			int power = blockPower_(array.length);
+			if (power < 0)
+				return;
+
+			long size = SizeOf.sizeOfIntArray(array.length);
+			if (m_bytes + size > limit)
+				return;
+
+			m_free.get(power).add(array);
+			m_bytes += size;
+		}
+
+		private static int blockPower_(int length) {
+			if (Integer.bitCount(length) != 1)
+				return -1;
+
+			int power = Integer.numberOfTrailingZeros(length);
+			return power >= MIN_BLOCK_POWER && power <= MAX_BLOCK_POWER ? power
+					: -1;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated on the java heap by a piece of code, with
+ * the allocation counter of the current thread. The counter is a HotSpot
+ * extension of ThreadMXBean, check isSupported before measuring.
+ */
+final class AllocationMeter {
+	/**
+	 * The code to measure.
+	 */
+	abstract static class Workload {
+		abstract Object run();
+	}
+
+	// the results of the workloads go here, so the JIT cannot remove them
+	static volatile int s_sink;
+
+	private AllocationMeter() {
+	}
+
+	static boolean isSupported() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+			return false;
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		if (!threads.isThreadAllocatedMemorySupported())
+			return false;
+
+		if (!threads.isThreadAllocatedMemoryEnabled())
+			threads.setThreadAllocatedMemoryEnabled(true);
+
+		return true;
+	}
+
+	/**
+	 * Runs the workload warmupCount times, so the JIT compiles it and removes
+	 * the allocations it can, then returns the bytes allocated per run. The
+	 * result is the smallest of roundCount rounds of count runs, which hides
+	 * the allocations of the compiler and of the lazy initialization.
+	 */
+	static long bytesPerOperation(Workload workload, int warmupCount,
+			int roundCount, int count) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int sink = 0;
+		for (int i = 0; i < warmupCount; i++)
+			sink += System.identityHashCode(workload.run());
+
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < roundCount; round++) {
+			long before = threads.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < count; i++)
+				sink += System.identityHashCode(workload.run());
+
+			long after = threads.getThreadAllocatedBytes(threadId);
+			best = Math.min(best, (after - before) / count);
+		}
+
+		s_sink = sink;
+		return best;
+	}
+}
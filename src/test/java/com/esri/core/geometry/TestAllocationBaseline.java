@@ -0,0 +1,196 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+/**
+ * Fails when an operator allocates more than the checked-in baseline in
+ * allocation-baseline.properties, plus a margin. The margin is a fraction of
+ * the baseline taken from the geometry.allocation.margin system property,
+ * 0.5 by default, because the JVM versions differ in what they allocate.
+ *
+ * After a change that is meant to allocate differently, run the test with
+ * -Dgeometry.allocation.update=true and copy the printed values into the
+ * baseline file.
+ */
+public class TestAllocationBaseline extends TestCase {
+	private static final String BASELINE = "allocation-baseline.properties";
+	// allowed on top of the margin, so that the operators that allocate
+	// almost nothing do not fail on a few bytes
+	private static final long SLACK = 256;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testAllocationBaseline() throws IOException {
+		if (!AllocationMeter.isSupported())
+			return;
+
+		boolean bUpdate = Boolean.getBoolean("geometry.allocation.update");
+		double margin = Double.parseDouble(System.getProperty(
+				"geometry.allocation.margin", "0.5"));
+		Properties baseline = new Properties();
+		InputStream in = TestAllocationBaseline.class
+				.getResourceAsStream(BASELINE);
+		try {
+			baseline.load(in);
+		} finally {
+			in.close();
+		}
+
+		StringBuilder failures = new StringBuilder();
+		for (Map.Entry<String, AllocationMeter.Workload> entry : createWorkloads()
+				.entrySet()) {
+			String name = entry.getKey();
+			long bytes = AllocationMeter.bytesPerOperation(entry.getValue(),
+					200, 5, 10);
+			if (bUpdate) {
+				System.out.println(name + "=" + bytes);
+				continue;
+			}
+
+			String expected = baseline.getProperty(name);
+			assertNotNull(name + " has no baseline", expected);
+			long limit = (long) (Long.parseLong(expected) * (1 + margin))
+					+ SLACK;
+			if (bytes > limit)
+				failures.append(name).append(" allocates ").append(bytes)
+						.append(" bytes, the baseline is ").append(expected)
+						.append(". ");
+		}
+
+		assertTrue(failures.toString(), failures.length() == 0);
+	}
+
+	private static Map<String, AllocationMeter.Workload> createWorkloads() {
+		SyntheticGeometryGenerator generator = new SyntheticGeometryGenerator(
+				2024);
+		final Polygon polygon = (Polygon) generator.generate(
+				SyntheticGeometryGenerator.Shape.PolygonWithHoles, 250,
+				new Envelope2D(0, 0, 1000, 1000));
+		final Polygon other = (Polygon) generator.generate(
+				SyntheticGeometryGenerator.Shape.ContinentalPolygon, 250,
+				new Envelope2D(300, 300, 1300, 1300));
+		final Point point = new Point(500, 500);
+		final SpatialReference sr = SpatialReference.create(3857);
+		final ByteBuffer wkb = OperatorExportToWkb.local().execute(0, polygon,
+				null);
+		final String json = OperatorExportToJson.local().execute(sr, polygon);
+		final String wkt = OperatorExportToWkt.local().execute(0, polygon,
+				null);
+
+		Map<String, AllocationMeter.Workload> workloads = new LinkedHashMap<String, AllocationMeter.Workload>();
+		workloads.put("ImportFromWkb", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorImportFromWkb.local().execute(0,
+						Geometry.Type.Unknown, wkb, null);
+			}
+		});
+		workloads.put("ExportToWkb", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorExportToWkb.local().execute(0, polygon, null);
+			}
+		});
+		workloads.put("ImportFromJson", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorImportFromJson.local().execute(
+						Geometry.Type.Unknown, json);
+			}
+		});
+		workloads.put("ExportToJson", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorExportToJson.local().execute(sr, polygon);
+			}
+		});
+		workloads.put("ImportFromWkt", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorImportFromWkt.local().execute(0,
+						Geometry.Type.Unknown, wkt, null);
+			}
+		});
+		workloads.put("ExportToWkt", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorExportToWkt.local().execute(0, polygon, null);
+			}
+		});
+		workloads.put("Contains", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorContains.local().execute(polygon, point, sr,
+						null);
+			}
+		});
+		workloads.put("Intersects", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorIntersects.local().execute(polygon, other, sr,
+						null);
+			}
+		});
+		workloads.put("Simplify", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorSimplify.local().execute(polygon, sr, true,
+						null);
+			}
+		});
+		workloads.put("Buffer", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorBuffer.local().execute(polygon, sr, 5, null);
+			}
+		});
+		workloads.put("Union", new AllocationMeter.Workload() {
+			@Override
+			Object run() {
+				return OperatorUnion.local().execute(polygon, other, sr, null);
+			}
+		});
+		return workloads;
+	}
+}
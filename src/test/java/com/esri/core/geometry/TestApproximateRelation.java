@@ -0,0 +1,176 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestApproximateRelation extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static final Operator.Type[] s_types = new Operator.Type[] {
+			Operator.Type.Contains, Operator.Type.Within,
+			Operator.Type.Equals, Operator.Type.Disjoint,
+			Operator.Type.Intersects, Operator.Type.Touches,
+			Operator.Type.Crosses, Operator.Type.Overlaps };
+
+	private static Polygon makeStar_() {
+		Polygon polygon = new Polygon();
+		int count = 40;
+		for (int i = 0; i < count; i++) {
+			double a = 2 * Math.PI * i / count;
+			double r = (i % 2) == 0 ? 100 : 60;
+			if (i == 0)
+				polygon.startPath(r * Math.cos(a), r * Math.sin(a));
+			else
+				polygon.lineTo(r * Math.cos(a), r * Math.sin(a));
+		}
+
+		return polygon;
+	}
+
+	private static Geometry makeCandidate_(Random random) {
+		double x = random.nextDouble() * 300 - 150;
+		double y = random.nextDouble() * 300 - 150;
+		switch (random.nextInt(4)) {
+		case 0:
+			return new Point(x, y);
+		case 1: {
+			MultiPoint multipoint = new MultiPoint();
+			for (int i = 0; i < 3; i++)
+				multipoint.add(x + random.nextDouble() * 20,
+						y + random.nextDouble() * 20);
+			return multipoint;
+		}
+		case 2: {
+			Polyline polyline = new Polyline();
+			polyline.startPath(x, y);
+			polyline.lineTo(x + random.nextDouble() * 40 - 20,
+					y + random.nextDouble() * 40 - 20);
+			polyline.lineTo(x + random.nextDouble() * 40 - 20,
+					y + random.nextDouble() * 40 - 20);
+			return polyline;
+		}
+		default: {
+			double size = random.nextDouble() * 30;
+			Polygon polygon = new Polygon();
+			polygon.addEnvelope(new Envelope(x, y, x + size, y + size), false);
+			return polygon;
+		}
+		}
+	}
+
+	@Test
+	public void testAgreesWithExact() {
+		SpatialReference sr = SpatialReference.create(4326);
+		Polygon star = makeStar_();
+		Random random = new Random(13);
+		Geometry[] candidates = new Geometry[400];
+		for (int i = 0; i < candidates.length; i++)
+			candidates[i] = makeCandidate_(random);
+
+		OperatorFactoryLocal factory = OperatorFactoryLocal.getInstance();
+		for (int t = 0; t < s_types.length; t++)
+			assertEquals(factory.getOperator(s_types[t]).getType(), s_types[t]);
+
+		int[] decided = new int[2];
+		for (int pass = 0; pass < 2; pass++) {
+			if (pass == 1)
+				OperatorContains.local().accelerateGeometry(star, sr,
+						Geometry.GeometryAccelerationDegree.enumMedium);
+
+			for (int t = 0; t < s_types.length; t++) {
+				OperatorSimpleRelation op = (OperatorSimpleRelation) factory
+						.getOperator(s_types[t]);
+				for (int i = 0; i < candidates.length; i++) {
+					for (int order = 0; order < 2; order++) {
+						Geometry a = order == 0 ? star : candidates[i];
+						Geometry b = order == 0 ? candidates[i] : star;
+						OperatorSimpleRelation.ApproximateResult approx = op
+								.executeApproximate(a, b, sr);
+						if (approx == OperatorSimpleRelation.ApproximateResult.Unknown)
+							continue;
+
+						decided[pass]++;
+						boolean exact = op.execute(a, b, sr, null);
+						assertEquals(exact,
+								approx == OperatorSimpleRelation.ApproximateResult.True);
+					}
+				}
+			}
+		}
+
+		// the raster decides more than the envelopes alone
+		assertTrue(decided[1] > decided[0]);
+	}
+
+	@Test
+	public void testRasterLevels() {
+		SpatialReference sr = SpatialReference.create(4326);
+		Polygon star = makeStar_();
+		OperatorContains contains = OperatorContains.local();
+		Point center = new Point(0, 0);
+		Point far = new Point(500, 500);
+		Point tip = new Point(95, 0);
+
+		// without the accelerator, only the envelopes are used
+		assertEquals(contains.executeApproximate(star, center, sr),
+				OperatorSimpleRelation.ApproximateResult.Unknown);
+		assertEquals(contains.executeApproximate(star, far, sr),
+				OperatorSimpleRelation.ApproximateResult.False);
+
+		contains.accelerateGeometry(star, sr,
+				Geometry.GeometryAccelerationDegree.enumMedium);
+		assertEquals(contains.executeApproximate(star, center, sr),
+				OperatorSimpleRelation.ApproximateResult.True);
+		assertEquals(OperatorWithin.local().executeApproximate(center, star,
+				sr), OperatorSimpleRelation.ApproximateResult.True);
+		assertEquals(OperatorIntersects.local().executeApproximate(star,
+				center, sr), OperatorSimpleRelation.ApproximateResult.True);
+		assertEquals(OperatorTouches.local().executeApproximate(star, center,
+				sr), OperatorSimpleRelation.ApproximateResult.False);
+		// the point near the boundary needs the exact test
+		assertEquals(contains.executeApproximate(star, tip, sr),
+				OperatorSimpleRelation.ApproximateResult.Unknown);
+
+		// empty geometries and envelopes are always decided
+		assertEquals(OperatorDisjoint.local().executeApproximate(star,
+				new Polyline(), sr),
+				OperatorSimpleRelation.ApproximateResult.True);
+		assertEquals(contains.executeApproximate(new Envelope(0, 0, 10, 10),
+				new Point(5, 5), sr),
+				OperatorSimpleRelation.ApproximateResult.True);
+	}
+}
@@ -346,4 +346,34 @@ public class TestAttributes extends TestCase{
 		
 	}
 	
+	@Test
+	public void testDescriptionInterning() throws Exception {
+		final VertexDescription[] found = new VertexDescription[8];
+		Thread[] threads = new Thread[found.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					Polyline line = new Polyline();
+					line.addAttribute(VertexDescription.Semantics.M);
+					line.addAttribute(VertexDescription.Semantics.ID);
+					found[index] = line.getDescription();
+				}
+			};
+			threads[i].start();
+		}
+
+		for (int i = 0; i < threads.length; i++)
+			threads[i].join();
+
+		VertexDescription vd = VertexDescriptionDesignerImpl
+				.getVertexDescription(1 | (1 << VertexDescription.Semantics.M)
+						| (1 << VertexDescription.Semantics.ID));
+		for (int i = 0; i < found.length; i++)
+			assertTrue(found[i] == vd);
+
+		assertTrue(VertexDescriptionDesignerImpl.getDefaultDescriptor2D() == new Polyline().getDescription());
+	}
+	
 }
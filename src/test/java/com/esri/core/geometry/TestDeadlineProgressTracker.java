@@ -0,0 +1,91 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestDeadlineProgressTracker extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Polygon makeZigzag(int count) {
+		// a self intersecting ring, all vertices have to go through the
+		// cracker and the topograph
+		Polygon poly = new Polygon();
+		poly.startPath(0, 0);
+		for (int i = 1; i < count; i++)
+			poly.lineTo(i, (i & 1) * 100);
+		poly.lineTo(count / 2, -50);
+		return poly;
+	}
+
+	@Test
+	public void testWorkBudget() {
+		Polygon poly = makeZigzag(20000);
+		DeadlineProgressTracker tracker = new DeadlineProgressTracker(
+				Long.MAX_VALUE, TimeUnit.MILLISECONDS, 1000);
+		try {
+			OperatorSimplify.local().execute(poly, null, true, tracker);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		assertTrue(tracker.isExpired());
+		assertTrue(tracker.getWorkDone() > 1000);
+		assertTrue(tracker.getWorkDone() <= 1000 + 4 * ProgressTracker.CHECK_INTERVAL);
+	}
+
+	@Test
+	public void testTimeBudget() {
+		Polygon poly = makeZigzag(20000);
+		DeadlineProgressTracker tracker = new DeadlineProgressTracker(0,
+				TimeUnit.MILLISECONDS);
+		try {
+			OperatorBuffer.local().execute(poly, null, 1.0, tracker);
+			fail();
+		} catch (RuntimeException e) {
+		}
+
+		assertTrue(tracker.isExpired());
+
+		DeadlineProgressTracker unlimited = new DeadlineProgressTracker(
+				Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		Geometry simple = OperatorSimplify.local().execute(poly, null, true,
+				unlimited);
+		assertFalse(simple.isEmpty());
+		assertFalse(unlimited.isExpired());
+		assertTrue(unlimited.getWorkDone() > 0);
+	}
+}
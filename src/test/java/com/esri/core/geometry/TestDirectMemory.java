@@ -0,0 +1,180 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.File;
+import java.nio.DoubleBuffer;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestDirectMemory extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Polygon makePolygon() {
+		Polygon poly = new Polygon();
+		poly.startPath(0, 0);
+		poly.lineTo(0, 10);
+		poly.lineTo(10, 10);
+		poly.lineTo(10, 0);
+		poly.startPath(2, 2);
+		poly.lineTo(8, 2);
+		poly.lineTo(8, 8);
+		poly.lineTo(2, 8);
+		for (int i = 0; i < poly.getPointCount(); i++) {
+			poly.setAttribute(VertexDescription.Semantics.Z, i, 0, i * 1.5);
+			poly.setAttribute(VertexDescription.Semantics.ID, i, 0, i + 100);
+		}
+		return poly;
+	}
+
+	@Test
+	public void testDirectPolygon() {
+		Polygon poly = makePolygon();
+		Polygon expected = (Polygon) poly.copy();
+		poly.moveToDirectMemory(null);
+		assertTrue(poly.isInDirectMemory());
+		assertTrue(poly.equals(expected));
+		assertEquals(poly.calculateArea2D(), 64.0, 0.0);
+		assertEquals(poly.getAttributeAsDbl(VertexDescription.Semantics.Z, 3, 0), 4.5, 0.0);
+		assertEquals(poly.getAttributeAsInt(VertexDescription.Semantics.ID, 5, 0), 105);
+
+		// the streams grow in direct memory
+		poly.startPath(20, 20);
+		poly.lineTo(20, 30);
+		poly.lineTo(30, 30);
+		poly.addAttribute(VertexDescription.Semantics.M);
+		poly.setAttribute(VertexDescription.Semantics.M, 10, 0, 7.0);
+		assertEquals(poly.getPointCount(), 11);
+		assertEquals(poly.getAttributeAsDbl(VertexDescription.Semantics.M, 10, 0), 7.0, 0.0);
+		MultiPathImpl impl = (MultiPathImpl) poly._getImpl();
+		assertTrue(impl.getAttributeStreamRef(VertexDescription.Semantics.POSITION).isDirect());
+		assertTrue(impl.getAttributeStreamRef(VertexDescription.Semantics.M).isDirect());
+
+		Polygon copy = (Polygon) poly.copy();
+		assertTrue(copy.isInDirectMemory());
+		assertTrue(copy.equals(poly));
+
+		Geometry simple = OperatorSimplify.local().execute(poly, null, true, null);
+		assertEquals(((Polygon) simple).calculateArea2D(), 64.0 + 50.0, 0.0);
+
+		poly.moveToHeapMemory();
+		assertFalse(poly.isInDirectMemory());
+		assertTrue(poly.equals(copy));
+		assertFalse(impl.getAttributeStreamRef(VertexDescription.Semantics.POSITION).isDirect());
+
+		copy.releaseDirectMemory();
+		assertTrue(copy.isEmpty());
+		assertFalse(copy.isInDirectMemory());
+	}
+
+	@Test
+	public void testReleaseFrozenCopy() {
+		Polyline polyline = new Polyline();
+		polyline.startPath(0, 0);
+		polyline.lineTo(10, 0);
+		polyline.lineTo(10, 10);
+		polyline.moveToDirectMemory(null);
+		polyline.freeze();
+
+		// the copy shares the direct streams of the frozen polyline
+		Polyline copy = (Polyline) polyline.copy();
+		copy.releaseDirectMemory();
+		assertTrue(copy.isEmpty());
+		assertFalse(copy.isInDirectMemory());
+		assertEquals(polyline.getPointCount(), 3);
+		assertEquals(polyline.getXY(2).x, 10.0, 0.0);
+		assertEquals(polyline.getXY(2).y, 10.0, 0.0);
+		assertEquals(polyline.calculateLength2D(), 20.0, 0.0);
+	}
+
+	@Test
+	public void testMappedMultiPoint() throws Exception {
+		File dir = File.createTempFile("mapped", "");
+		dir.delete();
+		dir.mkdir();
+		try {
+			MultiPoint mp = new MultiPoint();
+			mp.moveToDirectMemory(dir);
+			for (int i = 0; i < 10000; i++)
+				mp.add(i, -i);
+
+			assertTrue(dir.list().length > 0);
+			assertEquals(mp.getPointCount(), 10000);
+			Point2D pt = mp.getXY(9999);
+			assertEquals(pt.x, 9999.0, 0.0);
+			assertEquals(pt.y, -9999.0, 0.0);
+			Envelope2D env = new Envelope2D();
+			mp.queryEnvelope2D(env);
+			assertTrue(env.equals(new Envelope2D(0, -9999, 9999, 0)));
+
+			mp.removePoint(0);
+			assertEquals(mp.getXY(0).x, 1.0, 0.0);
+
+			mp.releaseDirectMemory();
+			assertTrue(mp.isEmpty());
+			assertEquals(dir.list().length, 0);
+		} finally {
+			dir.delete();
+		}
+	}
+
+	@Test
+	public void testDirectStream() {
+		AttributeStreamOfDblDirect stream = new AttributeStreamOfDblDirect(4, 1.0);
+		AttributeStreamOfDbl heap = new AttributeStreamOfDbl(0);
+		for (int i = 0; i < 6; i++)
+			heap.add(i);
+
+		stream.addRange(heap, 0, 6, false, 2);
+		assertEquals(stream.size(), 10);
+		assertEquals(stream.read(4), 4.0, 0.0);
+		assertEquals(stream.read(5), 5.0, 0.0);
+		assertEquals(stream.read(9), 1.0, 0.0);
+
+		heap.addRange(stream, 4, 2, true, 1);
+		assertEquals(heap.read(6), 4.0, 0.0);
+		assertEquals(heap.read(7), 5.0, 0.0);
+
+		DoubleBuffer view = stream.getRangeView(4, 2);
+		stream.write(4, 42.0);
+		assertEquals(view.get(0), 42.0, 0.0);
+
+		stream.eraseRange(0, 4, 10);
+		assertEquals(stream.size(), 6);
+		assertEquals(stream.read(0), 42.0, 0.0);
+
+		stream.release();
+		assertEquals(stream.capacity(), 0);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestEnvelopeBatch extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testBulkTests() {
+		Random random = new Random(5);
+		int count = 3000;
+		Envelope2D[] envelopes = new Envelope2D[count];
+		EnvelopeBatch batch = new EnvelopeBatch();
+		for (int i = 0; i < count; i++) {
+			envelopes[i] = new Envelope2D();
+			if (i % 100 == 7) {
+				envelopes[i].setEmpty();
+			} else {
+				double x = random.nextDouble() * 100;
+				double y = random.nextDouble() * 100;
+				envelopes[i].setCoords(x, y, x + random.nextDouble() * 10, y
+						+ random.nextDouble() * 10);
+			}
+
+			batch.add(envelopes[i]);
+		}
+
+		assertEquals(batch.size(), count);
+		Envelope2D query = new Envelope2D(20, 30, 45, 50);
+		BitSet bits = new BitSet();
+		int n = batch.intersects(query, bits);
+		assertEquals(n, bits.cardinality());
+		BitSet points = new BitSet();
+		int m = batch.contains(33, 44, points);
+		assertEquals(m, points.cardinality());
+		double[] distances = new double[count];
+		batch.sqrDistance(70, 80, 0, count, distances);
+		Envelope2D merged = new Envelope2D();
+		merged.setEmpty();
+		for (int i = 0; i < count; i++) {
+			assertEquals(bits.get(i), envelopes[i].isIntersecting(query));
+			assertEquals(points.get(i), envelopes[i].contains(33, 44));
+			if (envelopes[i].isEmpty()) {
+				assertTrue(NumberUtils.isNaN(distances[i]));
+			} else {
+				assertEquals(distances[i],
+						envelopes[i].sqrDistance(new Point2D(70, 80)), 0.0);
+				merged.merge(envelopes[i]);
+			}
+		}
+
+		Envelope2D env = new Envelope2D();
+		batch.queryEnvelope(env);
+		assertTrue(env.equals(merged));
+
+		batch.merge(7, batch, 8);
+		batch.queryEnvelope(7, env);
+		assertTrue(env.equals(envelopes[8]));
+		batch.merge(7, batch, 0);
+		envelopes[8].merge(envelopes[0]);
+		batch.queryEnvelope(7, env);
+		assertTrue(env.equals(envelopes[8]));
+
+		batch.clear();
+		assertEquals(batch.size(), 0);
+		assertEquals(batch.intersects(query, bits), 0);
+	}
+}
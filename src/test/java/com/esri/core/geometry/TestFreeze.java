@@ -0,0 +1,220 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestFreeze extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Polygon makePolygon() {
+		Polygon poly = new Polygon();
+		poly.startPath(0, 0);
+		poly.lineTo(0, 10);
+		poly.lineTo(10, 10);
+		poly.lineTo(10, 0);
+		poly.startPath(2, 2);
+		poly.lineTo(8, 2);
+		poly.lineTo(8, 8);
+		poly.lineTo(2, 8);
+		return poly;
+	}
+
+	@Test
+	public void testFrozenRefusesChanges() {
+		Polygon poly = makePolygon();
+		poly.freeze();
+		assertTrue(poly.isFrozen());
+		assertEquals(poly.calculateArea2D(), 64.0, 0.0);
+
+		try {
+			poly.setXY(0, new Point2D(1, 1));
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		try {
+			poly.lineTo(5, 5);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		try {
+			poly.addAttribute(VertexDescription.Semantics.Z);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		try {
+			poly.setEmpty();
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		try {
+			poly.applyTransformation(new Transformation2D());
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		try {
+			new Polygon().copyTo(poly);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		MultiPathImpl impl = (MultiPathImpl) poly._getImpl();
+		try {
+			((AttributeStreamOfDbl) impl
+					.getAttributeStreamRef(VertexDescription.Semantics.POSITION))
+					.write(0, 5.0);
+			fail();
+		} catch (RuntimeException e) {
+		}
+
+		assertEquals(poly.getPointCount(), 8);
+		assertEquals(poly.getPathCount(), 2);
+		assertEquals(poly.calculateArea2D(), 64.0, 0.0);
+		assertTrue(poly.equals(makePolygon()));
+
+		Point pt = new Point(1, 2);
+		pt.freeze();
+		try {
+			pt.setX(3);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		Envelope env = new Envelope(0, 0, 1, 1);
+		env.freeze();
+		try {
+			env.merge(new Point2D(5, 5));
+			fail();
+		} catch (GeometryException e) {
+		}
+		assertEquals(env.getXMax(), 1.0, 0.0);
+	}
+
+	@Test
+	public void testCopyOnWrite() {
+		Polygon poly = makePolygon();
+		poly.freeze();
+		Polygon copy = (Polygon) poly.copy();
+		assertFalse(copy.isFrozen());
+		MultiPathImpl impl = (MultiPathImpl) poly._getImpl();
+		MultiPathImpl copyImpl = (MultiPathImpl) copy._getImpl();
+		assertTrue(impl.m_vertexAttributes[0] == copyImpl.m_vertexAttributes[0]);
+		assertTrue(copy.equals(poly));
+		assertEquals(copy.calculateArea2D(), 64.0, 0.0);
+
+		copy.setXY(0, new Point2D(-10, -10));
+		copy.startPath(20, 20);
+		copy.lineTo(20, 30);
+		copy.lineTo(30, 30);
+		assertTrue(impl.m_vertexAttributes[0] != copyImpl.m_vertexAttributes[0]);
+		assertEquals(copy.getPathCount(), 3);
+		assertEquals(poly.getPathCount(), 2);
+		assertEquals(poly.getXY(0).x, 0.0, 0.0);
+		assertEquals(poly.calculateArea2D(), 64.0, 0.0);
+		assertTrue(poly.equals(makePolygon()));
+
+		// a copy of the copy does not share anything
+		Polygon copy2 = (Polygon) poly.copy();
+		copy2.reverseAllPaths();
+		assertEquals(copy2.calculateArea2D(), -64.0, 0.0);
+		assertEquals(poly.calculateArea2D(), 64.0, 0.0);
+
+		MultiPoint mp = new MultiPoint();
+		mp.add(1, 2);
+		mp.add(3, 4);
+		mp.freeze();
+		MultiPoint mpCopy = (MultiPoint) mp.copy();
+		mpCopy.removePoint(0);
+		assertEquals(mpCopy.getPointCount(), 1);
+		assertEquals(mp.getPointCount(), 2);
+		assertEquals(mp.getXY(0).x, 1.0, 0.0);
+	}
+
+	@Test
+	public void testSharedAcrossThreads() throws Exception {
+		final Polygon poly = makePolygon();
+		poly.freeze();
+		final Polygon other = new Polygon();
+		other.addEnvelope(new Envelope2D(5, 5, 15, 15), false);
+		other.freeze();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() {
+						StringBuilder sb = new StringBuilder();
+						sb.append(OperatorSimplify.local().isSimpleAsFeature(
+								poly, null, null));
+						sb.append(OperatorIntersects.local().execute(poly,
+								other, null, null));
+						sb.append(OperatorContains.local().execute(poly,
+								other, null, null));
+						sb.append(poly.calculateArea2D());
+						sb.append(poly.calculateLength2D());
+						sb.append(OperatorExportToWkt.local().execute(0, poly,
+								null));
+						Geometry union = OperatorUnion.local().execute(poly,
+								other, null, null);
+						sb.append(((Polygon) union).calculateArea2D());
+						return sb.toString();
+					}
+				}));
+			}
+
+			String expected = futures.get(0).get();
+			for (Future<String> f : futures)
+				assertEquals(f.get(), expected);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertTrue(poly.equals(makePolygon()));
+		assertTrue(OperatorSimplify.local().isSimpleAsFeature(poly, null, null));
+	}
+}
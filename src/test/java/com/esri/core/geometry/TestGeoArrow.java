@@ -0,0 +1,191 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestGeoArrow extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Geometry[] fromWkt(String... wkts) {
+		Geometry[] geoms = new Geometry[wkts.length];
+		for (int i = 0; i < wkts.length; i++)
+			geoms[i] = GeometryEngine.geometryFromWkt(wkts[i], 0,
+					Geometry.Type.Unknown);
+
+		return geoms;
+	}
+
+	private static Geometry[] roundTrip(GeoArrowBuffers.Encoding encoding,
+			boolean bHasZ, boolean bHasM, Geometry[] geoms) {
+		GeoArrowBuffers buffers = OperatorExportToGeoArrow.local().execute(
+				encoding, bHasZ, bHasM, new SimpleGeometryCursor(geoms), null);
+		assertEquals(buffers.getLength(), geoms.length);
+		GeometryCursor cursor = OperatorImportFromGeoArrow.local().execute(
+				buffers, null);
+		Geometry[] result = new Geometry[geoms.length];
+		int count = 0;
+		for (Geometry geom = cursor.next(); geom != null; geom = cursor.next()) {
+			assertEquals(cursor.getGeometryID(), count);
+			result[count++] = geom;
+		}
+
+		assertEquals(count, geoms.length);
+		return result;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Geometry[] points = fromWkt("POINT (1 2)", "POINT EMPTY", "POINT (3 4)");
+		Geometry[] result = roundTrip(GeoArrowBuffers.Encoding.Point, false,
+				false, points);
+		for (int i = 0; i < points.length; i++)
+			assertTrue(result[i].equals(points[i]));
+
+		Geometry[] multiPoints = fromWkt("MULTIPOINT (1 2, 3 4)",
+				"MULTIPOINT EMPTY", "MULTIPOINT (5 6)");
+		result = roundTrip(GeoArrowBuffers.Encoding.MultiPoint, false, false,
+				multiPoints);
+		for (int i = 0; i < multiPoints.length; i++)
+			assertTrue(result[i].equals(multiPoints[i]));
+		assertTrue(result[0].isFrozen());
+
+		Geometry[] lines = fromWkt("LINESTRING (0 0, 1 1, 2 0)",
+				"LINESTRING EMPTY", "MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))");
+		result = roundTrip(GeoArrowBuffers.Encoding.MultiLineString, false,
+				false, lines);
+		for (int i = 0; i < lines.length; i++)
+			assertTrue(result[i].equals(lines[i]));
+
+		Geometry[] polygons = fromWkt(
+				"POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))",
+				"POLYGON EMPTY",
+				"MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))");
+		result = roundTrip(GeoArrowBuffers.Encoding.MultiPolygon, false,
+				false, polygons);
+		for (int i = 0; i < polygons.length; i++) {
+			assertTrue(result[i].equals(polygons[i]));
+			assertEquals(((Polygon) result[i]).calculateArea2D(),
+					((Polygon) polygons[i]).calculateArea2D(), 0.0);
+		}
+
+		// the Polygon encoding takes one polygon per geometry
+		result = roundTrip(GeoArrowBuffers.Encoding.Polygon, false, false,
+				new Geometry[] { polygons[0], polygons[1] });
+		assertTrue(result[0].equals(polygons[0]));
+		try {
+			roundTrip(GeoArrowBuffers.Encoding.Polygon, false, false,
+					new Geometry[] { polygons[2] });
+			fail();
+		} catch (GeometryException e) {
+		}
+	}
+
+	@Test
+	public void testZM() {
+		Polyline polyline = new Polyline();
+		polyline.startPath(new Point(0, 0, 1));
+		polyline.lineTo(new Point(1, 0, 2));
+		polyline.lineTo(new Point(1, 1, 3));
+		Polyline polyline2 = new Polyline();
+		polyline2.startPath(5, 5);
+		polyline2.lineTo(6, 6);
+
+		GeoArrowBuffers buffers = OperatorExportToGeoArrow.local().execute(
+				GeoArrowBuffers.Encoding.LineString, true, false,
+				new SimpleGeometryCursor(new Geometry[] { polyline, polyline2 }),
+				null);
+		assertEquals(buffers.getDimensionCount(), 3);
+		assertEquals(buffers.getVertexCount(), 5);
+		ByteBuffer coordinates = buffers.getCoordinates();
+		assertEquals(coordinates.getDouble(8 * 5), 2.0, 0.0);// z of vertex 1
+		assertEquals(coordinates.getDouble(8 * 11), 0.0, 0.0);// default z
+		assertEquals(buffers.getGeometryOffsets().getInt(4 * 2), 5);
+
+		GeometryCursor cursor = OperatorImportFromGeoArrow.local().execute(
+				buffers, null);
+		Geometry geom = cursor.next();
+		assertTrue(geom.equals(polyline));
+		geom = cursor.next();
+		assertTrue(geom.hasAttribute(VertexDescription.Semantics.Z));
+		assertEquals(((Polyline) geom).getPointCount(), 2);
+		assertTrue(cursor.next() == null);
+	}
+
+	@Test
+	public void testImport() {
+		// a counterclockwise square with a closing vertex, and a null entry
+		double[] coords = new double[] { 0, 0, 1, 0, 1, 1, 0, 1, 0, 0 };
+		ByteBuffer coordinates = ByteBuffer.allocate(8 * coords.length).order(
+				ByteOrder.LITTLE_ENDIAN);
+		coordinates.asDoubleBuffer().put(coords);
+		ByteBuffer geometryOffsets = ByteBuffer.allocate(4 * 3).order(
+				ByteOrder.LITTLE_ENDIAN);
+		geometryOffsets.asIntBuffer().put(new int[] { 0, 1, 1 });
+		ByteBuffer ringOffsets = ByteBuffer.allocate(4 * 2).order(
+				ByteOrder.LITTLE_ENDIAN);
+		ringOffsets.asIntBuffer().put(new int[] { 0, 5 });
+		ByteBuffer validity = ByteBuffer.allocate(1);
+		validity.put(0, (byte) 1);
+
+		GeoArrowBuffers buffers = new GeoArrowBuffers(
+				GeoArrowBuffers.Encoding.Polygon, false, false, 2, coordinates,
+				geometryOffsets, null, ringOffsets, validity);
+		assertTrue(buffers.isValid(0));
+		assertFalse(buffers.isValid(1));
+		GeometryCursor cursor = OperatorImportFromGeoArrow.local().execute(
+				buffers, null);
+		Polygon polygon = (Polygon) cursor.next();
+		assertEquals(polygon.getPointCount(), 4);
+		assertEquals(polygon.calculateArea2D(), 1.0, 0.0);
+		assertTrue(cursor.next().isEmpty());
+		assertTrue(cursor.next() == null);
+
+		// the offsets past the end of the coordinates
+		ringOffsets.asIntBuffer().put(new int[] { 0, 6 });
+		cursor = OperatorImportFromGeoArrow.local().execute(
+				new GeoArrowBuffers(GeoArrowBuffers.Encoding.Polygon, false,
+						false, 1, coordinates, geometryOffsets, null,
+						ringOffsets, null), null);
+		try {
+			cursor.next();
+			fail();
+		} catch (GeometryException e) {
+		}
+	}
+}
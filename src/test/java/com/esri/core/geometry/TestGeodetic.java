@@ -105,6 +105,46 @@ public class TestGeodetic extends TestCase {
 		}
 	}
 	
+	@Test
+	public void testGeodesicDistanceFilter() {
+		java.util.Random rnd = new java.util.Random(1);
+		GeodesicDistanceFilter filter = new GeodesicDistanceFilter(500);
+		Point p1 = new Point();
+		Point p2 = new Point();
+		for (int i = 0; i < 2000; i++) {
+			double lon = rnd.nextDouble() * 360 - 180;
+			double lat = rnd.nextDouble() * 178 - 89;
+			p1.setXY(lon, lat);
+			p2.setXY(lon + (rnd.nextDouble() - 0.5) * 0.02, lat
+					+ (rnd.nextDouble() - 0.5) * 0.02);
+			double d = GeometryEngine.geodesicDistanceOnWGS84(p1, p2);
+			assertTrue(filter.isWithin(p1, p2) == (d <= 500));
+		}
+
+		assertEquals(filter.getFastAcceptCount() + filter.getFastRejectCount()
+				+ filter.getExactCount(), 2000);
+		assertTrue(filter.getFastAcceptCount() > 0);
+		assertTrue(filter.getFastRejectCount() > 0);
+		assertTrue(filter.getExactCount() < 100);
+
+		filter.resetCounters();
+		assertEquals(filter.getFastAcceptCount(), 0);
+		assertEquals(filter.getExactCount(), 0);
+
+		// the bound has to hold near the poles and for antipodal points too
+		double[][] pairs = { { 0, 89.99, 180, 89.99 }, { 10, -90, 70, -89.995 },
+				{ -60.668485, -31.996013333333334, 119.13731666666666, 32.251583333333336 },
+				{ 0, 0, 179.5, 0 } };
+		for (int i = 0; i < pairs.length; i++) {
+			p1.setXY(pairs[i][0], pairs[i][1]);
+			p2.setXY(pairs[i][2], pairs[i][3]);
+			double d = GeometryEngine.geodesicDistanceOnWGS84(p1, p2);
+			assertTrue(GeometryEngine.isWithinGeodesicDistanceOnWGS84(p1, p2, d * 1.006));
+			assertFalse(GeometryEngine.isWithinGeodesicDistanceOnWGS84(p1, p2, d * 0.994));
+			assertTrue(GeometryEngine.isWithinGeodesicDistanceOnWGS84(p1, p2, d));
+		}
+	}
+
 	@Test
 	public void testLengthAccurateCR191313() {
 		/*
@@ -0,0 +1,173 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+
+package com.esri.core.geometry;
+
+import java.util.BitSet;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestGeometryBatch extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testViews() {
+		Geometry[] geoms = new Geometry[] {
+				GeometryEngine.geometryFromWkt(
+						"POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))",
+						0, Geometry.Type.Unknown),
+				GeometryEngine.geometryFromWkt(
+						"MULTILINESTRING ((0 0, 1 1, 2 0), (5 5, 6 6))", 0,
+						Geometry.Type.Unknown),
+				GeometryEngine.geometryFromWkt("MULTIPOINT (1 2, 3 4, 5 6)", 0,
+						Geometry.Type.Unknown), new Point(7, 8), new Point(),
+				new Polygon() };
+
+		GeometryBatch batch = new GeometryBatch();
+		for (int i = 0; i < geoms.length; i++)
+			assertEquals(batch.add(geoms[i]), i);
+
+		assertEquals(batch.size(), geoms.length);
+		assertEquals(batch.getTotalPointCount(), 8 + 5 + 3 + 1);
+		assertEquals(batch.getPartCount(0), 2);
+		assertEquals(batch.getPointCount(1), 5);
+		assertTrue(batch.isEmpty(4));
+		assertTrue(batch.getGeometryType(5) == Geometry.Type.Polygon);
+
+		for (int i = 0; i < geoms.length; i++) {
+			Geometry view = batch.getGeometry(i);
+			assertTrue(view.isFrozen());
+			assertTrue(view.getType() == geoms[i].getType());
+			assertTrue(view.equals(geoms[i]));
+			Envelope2D env = new Envelope2D();
+			batch.queryEnvelope2D(i, env);
+			Envelope2D expected = new Envelope2D();
+			geoms[i].queryEnvelope2D(expected);
+			assertTrue(env.equals(expected));
+		}
+
+		Polygon polygon = (Polygon) batch.getGeometry(0);
+		assertTrue(polygon.isFrozen());
+		assertEquals(polygon.calculateArea2D(), 64.0, 0.0);
+		assertTrue(OperatorContains.local().execute(polygon, new Point(1, 1),
+				null, null));
+		assertFalse(OperatorContains.local().execute(polygon, new Point(5, 5),
+				null, null));
+		try {
+			polygon.setXY(0, new Point2D(-1, -1));
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		Point point = (Point) batch.getGeometry(3);
+		try {
+			point.setXY(0, 0);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		// a copy of the view can be changed without changing the batch
+		Polygon copy = new Polygon();
+		polygon.copyTo(copy);
+		copy.setXY(0, new Point2D(-1, -1));
+		assertTrue(batch.getGeometry(0).equals(geoms[0]));
+
+		BitSet found = new BitSet();
+		assertEquals(batch.queryIntersectingEnvelopes(new Envelope2D(4, 4, 5,
+				5), 0, found), 3);
+		assertTrue(found.get(0) && found.get(1) && found.get(2));
+
+		// the views keep their coordinates after the batch is cleared
+		Geometry line = batch.getGeometry(1);
+		batch.clear();
+		batch.add(new Point(100, 100));
+		assertTrue(line.equals(geoms[1]));
+	}
+
+	@Test
+	public void testAttributes() {
+		Polyline polyline = new Polyline();
+		polyline.startPath(new Point(0, 0, 1));
+		polyline.lineTo(new Point(1, 0, 2));
+		polyline.lineTo(new Point(1, 1, 3));
+		polyline.closeAllPaths();
+
+		GeometryBatch batch = new GeometryBatch(true, false);
+		batch.add(polyline);
+		batch.add(new Envelope(0, 0, 2, 2));
+
+		Polyline view = (Polyline) batch.getGeometry(0);
+		assertTrue(view.hasAttribute(VertexDescription.Semantics.Z));
+		assertTrue(view.isClosedPath(0));
+		assertTrue(view.equals(polyline));
+
+		// the envelope is stored as a polygon with the default z
+		Polygon polygon = (Polygon) batch.getGeometry(1);
+		assertEquals(polygon.getPointCount(), 4);
+		assertEquals(polygon.getAttributeAsDbl(VertexDescription.Semantics.Z,
+				2, 0), 0.0, 0.0);
+		assertEquals(polygon.calculateArea2D(), 4.0, 0.0);
+	}
+
+	@Test
+	public void testCursorAndMemory() {
+		int count = 1000;
+		GeometryBatch batch = new GeometryBatch();
+		long geometriesSize = 0;
+		for (int i = 0; i < count; i++) {
+			Polygon polygon = new Polygon();
+			polygon.addEnvelope(new Envelope(i, 0, i + 1, 1), false);
+			geometriesSize += polygon.estimateMemorySize();
+			batch.add(polygon);
+		}
+
+		assertTrue(batch.estimateMemorySize() * 3 < geometriesSize);
+
+		GeometryCursor cursor = batch.getCursor();
+		int n = 0;
+		for (Geometry geom = cursor.next(); geom != null; geom = cursor.next()) {
+			assertEquals(cursor.getGeometryID(), n);
+			Envelope2D env = new Envelope2D();
+			geom.queryEnvelope2D(env);
+			assertTrue(env.equals(new Envelope2D(n, 0, n + 1, 1)));
+			n++;
+		}
+
+		assertEquals(n, count);
+
+		Geometry union = OperatorUnion.local().execute(batch.getCursor(),
+				null, null).next();
+		assertEquals(((Polygon) union).calculateArea2D(), count, 1e-8);
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestGeometryVisitor extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static final class PathLength extends SegmentVisitor {
+		double length;
+		int segments;
+
+		@Override
+		public boolean visit(int pathIndex, int startPointIndex, double x1,
+				double y1, double x2, double y2) {
+			length += Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
+			segments++;
+			return true;
+		}
+	}
+
+	private static final class Centroid extends VertexVisitor {
+		double sumX;
+		double sumY;
+		double sumZ;
+		double sumM;
+		int count;
+
+		@Override
+		public boolean visit(int index, double x, double y) {
+			sumX += x;
+			sumY += y;
+			count++;
+			return true;
+		}
+
+		@Override
+		public boolean visit(int index, double x, double y, double z, double m) {
+			sumZ += z;
+			sumM += m;
+			return visit(index, x, y);
+		}
+	}
+
+	@Test
+	public void testVisitSegments() {
+		Polygon polygon = new Polygon();
+		polygon.startPath(0, 0);
+		polygon.lineTo(0, 10);
+		polygon.lineTo(10, 10);
+		polygon.lineTo(10, 0);
+		polygon.startPath(2, 2);
+		polygon.lineTo(8, 2);
+		polygon.lineTo(8, 8);
+
+		PathLength visitor = new PathLength();
+		assertTrue(polygon.visitSegments(visitor));
+		assertEquals(visitor.segments, polygon.getSegmentCount());
+		assertEquals(visitor.length, polygon.calculateLength2D(), 1e-12);
+
+		Polyline polyline = new Polyline();
+		polyline.startPath(0, 0);
+		polyline.lineTo(3, 4);
+		polyline.lineTo(3, 0);
+		visitor = new PathLength();
+		assertTrue(polyline.visitSegments(visitor));
+		assertEquals(visitor.segments, 2);
+		assertEquals(visitor.length, 9.0, 0.0);
+
+		// the visit stops when the visitor returns false
+		final int[] visited = new int[1];
+		assertFalse(polygon.visitSegments(new SegmentVisitor() {
+			@Override
+			public boolean visit(int pathIndex, int startPointIndex,
+					double x1, double y1, double x2, double y2) {
+				visited[0]++;
+				return startPointIndex < 2;
+			}
+		}));
+		assertEquals(visited[0], 3);
+
+		assertTrue(new Polyline().visitSegments(visitor));
+	}
+
+	@Test
+	public void testVisitVertices() {
+		MultiPoint mp = new MultiPoint();
+		for (int i = 0; i < 100; i++)
+			mp.add(i, 2 * i);
+
+		Centroid visitor = new Centroid();
+		assertTrue(mp.visitVertices(visitor));
+		assertEquals(visitor.count, 100);
+		assertEquals(visitor.sumX, 4950.0, 0.0);
+		assertEquals(visitor.sumY, 9900.0, 0.0);
+
+		// the attributes that are not present have the default values
+		visitor = new Centroid();
+		assertTrue(mp.visitVerticesZM(visitor));
+		assertEquals(visitor.sumZ, 0.0, 0.0);
+		assertTrue(NumberUtils.isNaN(visitor.sumM));
+
+		mp.addAttribute(VertexDescription.Semantics.Z);
+		mp.addAttribute(VertexDescription.Semantics.M);
+		for (int i = 0; i < 100; i++) {
+			mp.setAttribute(VertexDescription.Semantics.Z, i, 0, 1.0);
+			mp.setAttribute(VertexDescription.Semantics.M, i, 0, i);
+		}
+
+		visitor = new Centroid();
+		assertTrue(mp.visitVerticesZM(visitor));
+		assertEquals(visitor.sumZ, 100.0, 0.0);
+		assertEquals(visitor.sumM, 4950.0, 0.0);
+
+		// the storage without a java array
+		mp.setPositionStorage(PositionStorage.singlePrecision());
+		visitor = new Centroid();
+		assertTrue(mp.visitVertices(visitor));
+		assertEquals(visitor.sumX, 4950.0, 0.0);
+		mp.setPositionStorage(PositionStorage.doublePrecision());
+		mp.moveToDirectMemory(null);
+		visitor = new Centroid();
+		assertTrue(mp.visitVertices(visitor));
+		assertEquals(visitor.sumY, 9900.0, 0.0);
+		mp.releaseDirectMemory();
+	}
+}
@@ -319,4 +319,38 @@ public class TestMultiPoint extends TestCase {
 
 		assertTrue(mpCopy.getPointCount() == 2);
 	}
+
+	@Test
+	public void testAddPointsFromArrays() {
+		int count = 1000;
+		double[] xy = new double[2 * count];
+		double[] ms = new double[count];
+		MultiPoint expected = new MultiPoint();
+		expected.addAttribute(VertexDescription.Semantics.M);
+		for (int i = 0; i < count; i++) {
+			xy[2 * i] = i;
+			xy[2 * i + 1] = -i;
+			ms[i] = i * 0.5;
+			Point pt = new Point(i, -i);
+			pt.setM(i * 0.5);
+			expected.add(pt);
+		}
+
+		MultiPoint mp = new MultiPoint();
+		mp.addPoints(xy, null, ms, count);
+		assertEquals(mp.getPointCount(), count);
+		assertTrue(mp.hasAttribute(VertexDescription.Semantics.M));
+		assertFalse(mp.hasAttribute(VertexDescription.Semantics.Z));
+		assertTrue(mp.equals(expected));
+		Envelope2D env = new Envelope2D();
+		mp.queryEnvelope2D(env);
+		assertTrue(env.equals(new Envelope2D(0, -(count - 1), count - 1, 0)));
+
+		// the quantized storage rounds the coordinates
+		MultiPoint quantized = new MultiPoint();
+		quantized.setPositionStorage(PositionStorage.quantized(0, 0, 10));
+		quantized.addPoints(new double[] { 12, 12, 27, 27 }, null, null, 2);
+		quantized.queryEnvelope2D(env);
+		assertTrue(env.equals(new Envelope2D(10, 10, 30, 30)));
+	}
 }
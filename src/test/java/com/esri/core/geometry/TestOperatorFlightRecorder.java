@@ -0,0 +1,152 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestOperatorFlightRecorder extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testVertexCount() {
+		assertEquals(OperatorTrace.vertexCount(null), 0);
+		assertEquals(OperatorTrace.vertexCount(new Point()), 0);
+		assertEquals(OperatorTrace.vertexCount(new Point(1, 2)), 1);
+		assertEquals(OperatorTrace.vertexCount(new Envelope(0, 0, 1, 1)), 4);
+		assertEquals(OperatorTrace.vertexCount(new Line(0, 0, 1, 1)), 2);
+
+		Polygon polygon = new Polygon();
+		polygon.addEnvelope(new Envelope(0, 0, 10, 10), false);
+		assertEquals(OperatorTrace.vertexCount(polygon), 4);
+
+		assertFalse(OperatorTrace.isAccelerated(polygon));
+		OperatorContains.local().accelerateGeometry(polygon, null,
+				Geometry.GeometryAccelerationDegree.enumMedium);
+		assertTrue(OperatorTrace.isAccelerated(polygon));
+		assertFalse(OperatorTrace.isAccelerated(new Point(1, 2)));
+	}
+
+	@Test
+	public void testTracedOperators() {
+		boolean bEnabled = OperatorTrace.isRecording();
+		OperatorTrace.setRecording(true);
+		try {
+			Polygon polygon = new Polygon();
+			polygon.addEnvelope(new Envelope(0, 0, 10, 10), false);
+			Point point = new Point(5, 5);
+			assertTrue(OperatorContains.local().execute(polygon, point, null,
+					null));
+			assertTrue(OperatorIntersects.local().execute(polygon, point, null,
+					null));
+			assertFalse(OperatorDisjoint.local().execute(polygon, point, null,
+					null));
+			assertEquals(OperatorDistance.local().execute(polygon,
+					new Point(13, 14), null), 5.0, 1e-12);
+
+			Geometry buffer = OperatorBuffer.local().execute(point, null, 1,
+					null);
+			assertEquals(((Polygon) buffer).calculateArea2D(), Math.PI, 1e-2);
+
+			String wkt = OperatorExportToWkt.local().execute(0, polygon, null);
+			Geometry imported = OperatorImportFromWkt.local().execute(0,
+					Geometry.Type.Unknown, wkt, null);
+			assertTrue(OperatorEquals.local().execute(polygon, imported, null,
+					null));
+
+			Geometry union = OperatorUnion.local().execute(
+					new SimpleGeometryCursor(new Geometry[] { polygon,
+							new Envelope(5, 5, 15, 15) }), null, null).next();
+			assertEquals(((Polygon) union).calculateArea2D(), 175.0, 1e-12);
+		} finally {
+			OperatorTrace.setRecording(bEnabled);
+		}
+	}
+
+	@Test
+	public void testRecording() throws Exception {
+		if (!OperatorFlightRecorder.register())
+			return; // no flight recorder on this JVM
+
+		File file = File.createTempFile("operators", ".jfr");
+		try {
+			// jdk.jfr is used by reflection so the tests build for Java 7
+			Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+			Object recording = recordingClass.newInstance();
+			recordingClass.getMethod("enable", String.class).invoke(recording,
+					OperatorFlightRecorder.EVENT_NAME);
+			recordingClass.getMethod("start").invoke(recording);
+			assertTrue(OperatorTrace.isRecording());
+
+			Polygon polygon = new Polygon();
+			polygon.addEnvelope(new Envelope(0, 0, 10, 10), false);
+			OperatorContains.local().execute(polygon, new Point(5, 5), null,
+					null);
+
+			recordingClass.getMethod("stop").invoke(recording);
+			recordingClass.getMethod("dump", Class.forName("java.nio.file.Path"))
+					.invoke(recording, File.class.getMethod("toPath")
+							.invoke(file));
+			recordingClass.getMethod("close").invoke(recording);
+
+			Method readAllEvents = Class.forName(
+					"jdk.jfr.consumer.RecordingFile").getMethod(
+					"readAllEvents", Class.forName("java.nio.file.Path"));
+			List<?> events = (List<?>) readAllEvents.invoke(null,
+					File.class.getMethod("toPath").invoke(file));
+			boolean bFound = false;
+			for (Object event : events) {
+				Method getString = event.getClass().getMethod("getString",
+						String.class);
+				if ("Contains".equals(getString.invoke(event, "operator"))) {
+					assertEquals(getString.invoke(event, "geometryType"),
+							"Polygon");
+					Method getLong = event.getClass().getMethod("getLong",
+							String.class);
+					assertEquals(getLong.invoke(event, "inputVertexCount"),
+							Long.valueOf(5));
+					bFound = true;
+				}
+			}
+
+			assertTrue(bFound);
+		} finally {
+			OperatorFlightRecorder.unregister();
+			file.delete();
+		}
+	}
+}
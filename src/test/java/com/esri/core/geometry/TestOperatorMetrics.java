@@ -0,0 +1,239 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestOperatorMetrics extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	static class CallLog implements OperatorMetricsListener {
+		List<Operator.Type> started = new ArrayList<Operator.Type>();
+		List<Operator.Type> ended = new ArrayList<Operator.Type>();
+		List<Operator.Type> aborted = new ArrayList<Operator.Type>();
+		long outputVertexCount = 0;
+
+		@Override
+		public void onStart(Operator.Type type, long inputVertexCount) {
+			started.add(type);
+		}
+
+		@Override
+		public void onEnd(Operator.Type type, long inputVertexCount,
+				long outputVertexCount, long elapsedNanos) {
+			assertTrue(elapsedNanos >= 0);
+			ended.add(type);
+			this.outputVertexCount += outputVertexCount;
+		}
+
+		@Override
+		public void onAbort(Operator.Type type, long inputVertexCount,
+				long elapsedNanos) {
+			assertTrue(elapsedNanos >= 0);
+			aborted.add(type);
+		}
+	}
+
+	@Test
+	public void testBuckets() {
+		int previous = -1;
+		for (long nanos = 0; nanos < 100000; nanos++) {
+			int index = OperatorMetricsRecorder.bucketIndex(nanos);
+			assertTrue(index == previous || index == previous + 1);
+			assertTrue(OperatorMetricsRecorder.bucketUpperBound(index) >= nanos);
+			if (index > 0)
+				assertTrue(OperatorMetricsRecorder.bucketUpperBound(index - 1) < nanos);
+
+			previous = index;
+		}
+
+		assertEquals(OperatorMetricsRecorder.bucketIndex(Long.MAX_VALUE),
+				OperatorMetricsRecorder.BUCKET_COUNT - 1);
+		assertEquals(OperatorMetricsRecorder
+				.bucketUpperBound(OperatorMetricsRecorder.BUCKET_COUNT - 1),
+				Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testRecorder() {
+		OperatorMetricsRecorder recorder = new OperatorMetricsRecorder();
+		for (int i = 1; i <= 100; i++) {
+			recorder.onStart(Operator.Type.Buffer, 10);
+			recorder.onEnd(Operator.Type.Buffer, 10, 20, i * 1000);
+		}
+
+		recorder.onStart(Operator.Type.Buffer, 10);
+		OperatorMetricsRecorder.Snapshot snapshot = recorder
+				.getSnapshot(Operator.Type.Buffer);
+		assertEquals(snapshot.getCount(), 100);
+		assertEquals(snapshot.getInFlightCount(), 1);
+		assertEquals(snapshot.getInputVertexCount(), 1000);
+		assertEquals(snapshot.getOutputVertexCount(), 2000);
+		assertEquals(snapshot.getTotalNanos(), 5050 * 1000);
+		assertEquals(snapshot.getMaxNanos(), 100000);
+		assertEquals(snapshot.getPercentileNanos(100), 100000);
+		long p50 = snapshot.getPercentileNanos(50);
+		assertTrue(p50 >= 50000 && p50 <= 50000 * 1.125);
+		long p99 = snapshot.getPercentileNanos(99);
+		assertTrue(p99 >= 99000 && p99 <= 100000);
+		assertEquals(snapshot.getCountAtOrBelow(0), 0);
+		assertEquals(snapshot.getCountAtOrBelow(Long.MAX_VALUE), 100);
+		long below = snapshot.getCountAtOrBelow(50000);
+		assertTrue(below >= 44 && below <= 50);
+
+		assertEquals(recorder.getSnapshot(Operator.Type.Union).getCount(), 0);
+		assertEquals(recorder.getSnapshot(Operator.Type.Union)
+				.getPercentileNanos(50), 0);
+
+		recorder.reset();
+		snapshot = recorder.getSnapshot(Operator.Type.Buffer);
+		assertEquals(snapshot.getCount(), 0);
+		assertEquals(snapshot.getInFlightCount(), 1);
+	}
+
+	@Test
+	public void testListeners() {
+		Polygon polygon = new Polygon();
+		polygon.addEnvelope(new Envelope(0, 0, 10, 10), false);
+		Point point = new Point(5, 5);
+
+		OperatorMetricsRecorder recorder = new OperatorMetricsRecorder();
+		OperatorMetrics.addListener(recorder);
+		try {
+			CallLog log = new CallLog();
+			OperatorMetrics.Scope scope = OperatorMetrics.open(log);
+			try {
+				OperatorContains.local().accelerateGeometry(polygon, null,
+						Geometry.GeometryAccelerationDegree.enumMedium);
+				assertTrue(OperatorContains.local().execute(polygon, point,
+						null, null));
+				OperatorBuffer.local().execute(point, null, 1, null);
+			} finally {
+				scope.close();
+			}
+
+			// the scope listener sees only the calls made inside the scope
+			OperatorContains.local().execute(polygon, point, null, null);
+			assertEquals(log.started.size(), 2);
+			assertEquals(log.ended.size(), 2);
+			assertEquals(log.ended.get(0), Operator.Type.Contains);
+			assertEquals(log.ended.get(1), Operator.Type.Buffer);
+			assertTrue(log.outputVertexCount > 0);
+
+			OperatorMetricsRecorder.Snapshot contains = recorder
+					.getSnapshot(Operator.Type.Contains);
+			assertEquals(contains.getCount(), 2);
+			assertEquals(contains.getInFlightCount(), 0);
+			assertEquals(contains.getInputVertexCount(), 10);
+			assertEquals(recorder.getSnapshot(Operator.Type.Buffer).getCount(),
+					1);
+		} finally {
+			assertTrue(OperatorMetrics.removeListener(recorder));
+		}
+
+		assertFalse(OperatorMetrics.removeListener(recorder));
+		OperatorContains.local().execute(polygon, point, null, null);
+		assertEquals(recorder.getSnapshot(Operator.Type.Contains).getCount(), 2);
+		assertFalse(OperatorTrace.isEnabled());
+	}
+
+	@Test
+	public void testCallsFinish() {
+		Polygon polygon = new Polygon();
+		polygon.addEnvelope(new Envelope(0, 0, 10, 10), false);
+		Polygon other = new Polygon();
+		other.addEnvelope(new Envelope(5, 5, 15, 15), false);
+
+		OperatorMetricsRecorder recorder = new OperatorMetricsRecorder();
+		CallLog log = new CallLog();
+		OperatorMetrics.Scope scope = OperatorMetrics.open(recorder);
+		OperatorMetrics.Scope logScope = OperatorMetrics.open(log);
+		try {
+			// the final null of a drained cursor is not a call
+			for (int i = 0; i < 3; i++) {
+				GeometryCursor union = OperatorUnion.local().execute(
+						new SimpleGeometryCursor(new Geometry[] { polygon,
+								other }), null, null);
+				while (union.next() != null) {
+				}
+				assertNull(union.next());
+			}
+
+			OperatorMetricsRecorder.Snapshot snapshot = recorder
+					.getSnapshot(Operator.Type.Union);
+			assertEquals(snapshot.getCount(), 3);
+			assertEquals(snapshot.getInFlightCount(), 0);
+			assertEquals(snapshot.getInputVertexCount(), 3 * 8);
+
+			// a call that throws is reported as aborted
+			try {
+				OperatorContains.local().execute(polygon, null, null, null);
+				fail();
+			} catch (RuntimeException e) {
+			}
+
+			ProgressTracker cancel = new ProgressTracker() {
+				@Override
+				public boolean progress(int step, int totalExpectedSteps) {
+					return false;
+				}
+			};
+			try {
+				OperatorUnion.local().execute(
+						new SimpleGeometryCursor(new Geometry[] { polygon,
+								other }), null, cancel).next();
+				fail();
+			} catch (UserCancelException e) {
+			}
+
+			snapshot = recorder.getSnapshot(Operator.Type.Contains);
+			assertEquals(snapshot.getCount(), 0);
+			assertEquals(snapshot.getAbortedCount(), 1);
+			assertEquals(snapshot.getInFlightCount(), 0);
+			snapshot = recorder.getSnapshot(Operator.Type.Union);
+			assertEquals(snapshot.getCount(), 3);
+			assertEquals(snapshot.getAbortedCount(), 1);
+			assertEquals(snapshot.getInFlightCount(), 0);
+			assertEquals(log.started.size(), log.ended.size()
+					+ log.aborted.size());
+			assertEquals(log.aborted.size(), 2);
+		} finally {
+			logScope.close();
+			scope.close();
+		}
+	}
+}
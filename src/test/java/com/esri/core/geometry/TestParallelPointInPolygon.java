@@ -0,0 +1,201 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestParallelPointInPolygon extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Polygon makeRing_(double radius, int count) {
+		// a ring with a hole, with enough vertices for a quad tree to help
+		Polygon polygon = new Polygon();
+		polygon.startPath(radius, 0);
+		for (int i = 1; i < count; i++) {
+			double a = 2 * Math.PI * i / count;
+			polygon.lineTo(radius * Math.cos(a), radius * Math.sin(a));
+		}
+
+		double hole = radius / 4;
+		polygon.startPath(hole, 0);
+		for (int i = 1; i < count; i++) {
+			double a = -2 * Math.PI * i / count;
+			polygon.lineTo(hole * Math.cos(a), hole * Math.sin(a));
+		}
+
+		return polygon;
+	}
+
+	private static MultiPoint makePoints_(Random random, int count,
+			double minRadius, double maxRadius) {
+		MultiPoint multipoint = new MultiPoint();
+		for (int i = 0; i < count; i++) {
+			double a = random.nextDouble() * 2 * Math.PI;
+			double r = minRadius + random.nextDouble() * (maxRadius - minRadius);
+			multipoint.add(r * Math.cos(a), r * Math.sin(a));
+		}
+
+		return multipoint;
+	}
+
+	// just above the number of points that is tested in parallel
+	private static final int POINT_COUNT = 40000;
+
+	@Test
+	public void testSameResults() {
+		SpatialReference sr = SpatialReference.create(4326);
+		Polygon polygon = makeRing_(100, 64);
+		// all points on the vertices of the polygon
+		MultiPoint boundary = new MultiPoint();
+		for (int i = 0; i < POINT_COUNT; i++)
+			boundary.add(polygon.getXY(i % polygon.getPointCount()));
+
+		Random random = new Random(7);
+		MultiPoint inside = makePoints_(random, POINT_COUNT, 30, 90);
+		MultiPoint mixed = makePoints_(random, POINT_COUNT, 0, 120);
+		MultiPoint[] multipoints = new MultiPoint[] { inside, mixed, boundary };
+
+		OperatorContains contains = OperatorContains.local();
+		OperatorTouches touches = OperatorTouches.local();
+		OperatorCrosses crosses = OperatorCrosses.local();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertTrue(ParallelPointInPolygon.willRunParallel(executor, 4,
+					POINT_COUNT));
+			for (int i = 0; i < multipoints.length; i++) {
+				MultiPoint mp = multipoints[i];
+				assertEquals(contains.execute(polygon, mp, sr, null),
+						contains.execute(polygon, mp, sr, null, executor, 4));
+				assertEquals(touches.execute(polygon, mp, sr, null),
+						touches.execute(polygon, mp, sr, null, executor, 4));
+				assertEquals(touches.execute(mp, polygon, sr, null),
+						touches.execute(mp, polygon, sr, null, executor, 4));
+				assertEquals(crosses.execute(polygon, mp, sr, null),
+						crosses.execute(polygon, mp, sr, null, executor, 4));
+				assertEquals(crosses.execute(mp, polygon, sr, null),
+						crosses.execute(mp, polygon, sr, null, executor, 4));
+			}
+
+			assertTrue(contains.execute(polygon, inside, sr, null, executor, 4));
+			assertFalse(contains.execute(polygon, mixed, sr, null, executor, 4));
+			assertTrue(touches.execute(polygon, boundary, sr, null, executor,
+					4));
+			assertFalse(touches.execute(polygon, inside, sr, null, executor, 4));
+			assertTrue(crosses.execute(polygon, mixed, sr, null, executor, 4));
+			assertFalse(crosses.execute(polygon, inside, sr, null, executor, 4));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEarlyTermination() {
+		Polygon polygon = makeRing_(100, 64);
+		Random random = new Random(11);
+		MultiPoint multipoint = makePoints_(random, POINT_COUNT, 0, 120);
+		Envelope2D env = new Envelope2D();
+		polygon.queryEnvelope2D(env);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			// the chunks stop soon after the first exterior point, so far
+			// fewer points are tested than there are
+			final int[] checks = new int[1];
+			ProgressTracker counter = new ProgressTracker() {
+				@Override
+				public synchronized boolean progress(int step,
+						int totalExpectedSteps) {
+					checks[0]++;
+					return true;
+				}
+			};
+			int mask = ParallelPointInPolygon.classify(polygon, multipoint,
+					0, env, ParallelPointInPolygon.OUTSIDE, counter,
+					executor, 4);
+			assertTrue((mask & ParallelPointInPolygon.OUTSIDE) != 0);
+			assertTrue(checks[0] < multipoint.getPointCount()
+					/ ProgressTracker.CHECK_INTERVAL / 2);
+
+			// the full classification finds all classes
+			mask = ParallelPointInPolygon.classify(polygon, multipoint, 0,
+					env, ParallelPointInPolygon.INSIDE
+							| ParallelPointInPolygon.BOUNDARY
+							| ParallelPointInPolygon.OUTSIDE, null, executor,
+					4);
+			assertEquals(mask, ParallelPointInPolygon.INSIDE
+					| ParallelPointInPolygon.OUTSIDE);
+
+			// the polygon is not modified
+			assertNull(((MultiPathImpl) polygon._getImpl())._getAccelerators());
+
+			// a frozen polygon gives the same result
+			Polygon frozen = (Polygon) polygon.copy();
+			frozen.freeze();
+			assertEquals(mask, ParallelPointInPolygon.classify(frozen,
+					multipoint, 0, env, ParallelPointInPolygon.INSIDE
+							| ParallelPointInPolygon.BOUNDARY
+							| ParallelPointInPolygon.OUTSIDE, null, executor,
+					4));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancel() {
+		Polygon polygon = makeRing_(100, 64);
+		MultiPoint multipoint = makePoints_(new Random(5), POINT_COUNT, 30,
+				90);
+		ProgressTracker cancel = new ProgressTracker() {
+			@Override
+			public boolean progress(int step, int totalExpectedSteps) {
+				return false;
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			OperatorContains.local().execute(polygon, multipoint, null,
+					cancel, executor, 2);
+			fail();
+		} catch (UserCancelException e) {
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
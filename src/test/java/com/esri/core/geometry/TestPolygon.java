@@ -1276,6 +1276,22 @@ public class TestPolygon extends TestCase {
 		String s = polygon.toString();
 	}
 
+	@Test
+	public void testStateFlag() {
+		Polygon poly = new Polygon();
+		int flag = poly.getStateFlag();
+		assertEquals(flag, poly.getStateFlag());
+		poly.startPath(0, 0);
+		poly.lineTo(0, 10);
+		poly.lineTo(10, 10);
+		int flag1 = poly.getStateFlag();
+		assertTrue(flag1 != flag);
+		assertTrue(flag1 >= 0);
+		assertEquals(flag1, poly.getStateFlag());
+		poly.setXY(0, 1, 1);
+		assertTrue(poly.getStateFlag() != flag1);
+	}
+
 	@Test
 	public void testSegmentIteratorCrash() {
 		Polygon poly = new Polygon();
@@ -1318,6 +1334,69 @@ public class TestPolygon extends TestCase {
 		assertEquals(segments, 15);
 	}
 
+	@Test
+	public void testAddPathsFromArrays() {
+		double[] xy = new double[] { 0, 0, 0, 10, 10, 10, 10, 0, 2, 2, 8, 2,
+				8, 8 };
+		double[] zs = new double[] { 1, 2, 3, 4, 5, 6, 7 };
+		int[] offsets = new int[] { 0, 4, 4, 7 };// the second path is empty
+
+		Polygon bulk = new Polygon();
+		bulk.addPaths(xy, zs, null, offsets, 3);
+
+		Polygon expected = new Polygon();
+		expected.addAttribute(VertexDescription.Semantics.Z);
+		for (int ipath = 0; ipath < 2; ipath++) {
+			int start = ipath == 0 ? 0 : 4;
+			int end = ipath == 0 ? 4 : 7;
+			for (int i = start; i < end; i++) {
+				Point pt = new Point(xy[2 * i], xy[2 * i + 1], zs[i]);
+				if (i == start)
+					expected.startPath(pt);
+				else
+					expected.lineTo(pt);
+			}
+		}
+
+		assertEquals(bulk.getPathCount(), 2);
+		assertTrue(bulk.isClosedPath(0) && bulk.isClosedPath(1));
+		assertTrue(bulk.equals(expected));
+		Envelope env = new Envelope();
+		bulk.queryEnvelope(env);
+		Envelope expectedEnv = new Envelope();
+		expected.queryEnvelope(expectedEnv);
+		assertTrue(env.equals(expectedEnv));
+		assertEquals(env.queryInterval(VertexDescription.Semantics.Z, 0).vmax,
+				7.0, 0.0);
+		assertEquals(bulk.calculateArea2D(), expected.calculateArea2D(), 0.0);
+
+		// appends to the existing paths
+		Polyline polyline = new Polyline();
+		polyline.startPath(-1, -1);
+		polyline.lineTo(-2, -2);
+		polyline.addPaths(xy, null, null, new int[] { 4, 7 }, 1);
+		assertEquals(polyline.getPathCount(), 2);
+		assertEquals(polyline.getPointCount(), 5);
+		assertFalse(polyline.isClosedPath(1));
+		assertEquals(polyline.getPathStart(1), 2);
+		assertTrue(polyline.getXY(4).equals(new Point2D(8, 8)));
+		Envelope2D env2D = new Envelope2D();
+		polyline.queryEnvelope2D(env2D);
+		assertTrue(env2D.equals(new Envelope2D(-2, -2, 8, 8)));
+
+		try {
+			polyline.addPaths(xy, null, null, new int[] { 4, 2 }, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		try {
+			polyline.addPaths(xy, null, null, new int[] { 0, 8 }, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
 	private static Polygon birmingham() {
 		Polygon poly = new Polygon();
 		poly.addEnvelope(new Envelope(-1.954245, 52.513531, -1.837357,
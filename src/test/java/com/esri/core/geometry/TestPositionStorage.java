@@ -0,0 +1,140 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestPositionStorage extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testSinglePrecision() {
+		Polyline line = new Polyline();
+		line.setPositionStorage(PositionStorage.singlePrecision());
+		line.startPath(0.1, 0.2);
+		line.lineTo(10.1, 0.2);
+		line.lineTo(10.1, 10.2);
+		assertEquals(line.getPositionStorage().getType(),
+				PositionStorage.Type.SinglePrecision);
+		assertEquals(line.getXY(1).x, (double) 10.1f, 0.0);
+		assertEquals(line.calculateLength2D(), 20.0, 1e-5);
+
+		Polyline copy = (Polyline) line.copy();
+		assertEquals(copy.getPositionStorage(), PositionStorage.singlePrecision());
+		assertTrue(copy.equals(line));
+
+		assertTrue(new AttributeStreamOfDblAsFloat(1000, 0).estimateMemorySize() < new AttributeStreamOfDbl(
+				1000).estimateMemorySize());
+
+		line.setPositionStorage(PositionStorage.doublePrecision());
+		assertEquals(line.getXY(1).x, (double) 10.1f, 0.0);
+		line.setXY(1, new Point2D(10.1, 0.2));
+		assertEquals(line.getXY(1).x, 10.1, 0.0);
+	}
+
+	@Test
+	public void testQuantized() {
+		PositionStorage storage = PositionStorage.quantized(-180, -90, 1e-6);
+		MultiPoint mp = new MultiPoint();
+		for (int i = 0; i < 100; i++)
+			mp.add(i * 1.23456789, i * -0.5432101234);
+
+		MultiPoint expected = (MultiPoint) mp.copy();
+		mp.setPositionStorage(storage);
+		assertEquals(mp.getPositionStorage(), storage);
+		for (int i = 0; i < 100; i++) {
+			Point2D pt = mp.getXY(i);
+			Point2D ex = expected.getXY(i);
+			assertEquals(pt.x, ex.x, 0.5e-6 + 1e-12);
+			assertEquals(pt.y, ex.y, 0.5e-6 + 1e-12);
+		}
+
+		// the points added later are snapped too
+		mp.add(1.00000011, 2.00000049);
+		Point2D pt = mp.getXY(100);
+		assertEquals(pt.x, 1.0, 1e-12);
+		assertEquals(pt.y, 2.0, 1e-12);
+
+		MultiPoint copy = (MultiPoint) mp.copy();
+		assertTrue(copy.equals(mp));
+		assertEquals(copy.getPositionStorage(), storage);
+
+		try {
+			mp.add(3000, 0);
+			fail();
+		} catch (GeometryException e) {
+		}
+
+		// the conversion fails without changing the geometry
+		MultiPoint far = new MultiPoint();
+		far.add(1e10, 0);
+		try {
+			far.setPositionStorage(storage);
+			fail();
+		} catch (GeometryException e) {
+		}
+		assertEquals(far.getPositionStorage(), PositionStorage.doublePrecision());
+		assertEquals(far.getXY(0).x, 1e10, 0.0);
+	}
+
+	@Test
+	public void testQuantizedPolygonOperations() {
+		Polygon poly = new Polygon();
+		poly.setPositionStorage(PositionStorage.quantized(0, 0, 0.001));
+		poly.startPath(0, 0);
+		poly.lineTo(0, 10);
+		poly.lineTo(10, 10);
+		poly.lineTo(10, 0);
+		poly.startPath(20, 20);
+		poly.lineTo(20, 30);
+		poly.lineTo(30, 30);
+		poly.lineTo(30, 20);
+		poly.reverseAllPaths();
+		poly.reverseAllPaths();
+		assertEquals(poly.calculateArea2D(), 200.0, 0.0);
+		poly.removePath(0);
+		assertEquals(poly.calculateArea2D(), 100.0, 0.0);
+		poly.insertPoint(0, 1, new Point2D(25.0004, 30.0004));
+		assertEquals(poly.getXY(1).x, 25.0, 0.0);
+
+		Geometry simple = OperatorSimplify.local().execute(poly, null, true,
+				null);
+		assertTrue(OperatorSimplify.local().isSimpleAsFeature(simple, null,
+				true, null, null));
+
+		Envelope2D env = new Envelope2D();
+		poly.queryEnvelope2D(env);
+		assertTrue(env.equals(new Envelope2D(20, 20, 30, 30)));
+	}
+}
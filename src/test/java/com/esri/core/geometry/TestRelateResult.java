@@ -0,0 +1,182 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestRelateResult extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static List<Geometry> makeGeometries() {
+		List<Geometry> geometries = new ArrayList<Geometry>();
+		Random random = new Random(3);
+		for (int i = 0; i < 12; i++) {
+			double x = random.nextInt(10);
+			double y = random.nextInt(10);
+			Polygon polygon = new Polygon();
+			polygon.addEnvelope(new Envelope(x, y, x + 1 + random.nextInt(6),
+					y + 1 + random.nextInt(6)), false);
+			geometries.add(polygon);
+
+			Polyline polyline = new Polyline();
+			polyline.startPath(x, y);
+			polyline.lineTo(random.nextInt(12), random.nextInt(12));
+			polyline.lineTo(random.nextInt(12), random.nextInt(12));
+			geometries.add(polyline);
+
+			geometries.add(new Point(random.nextInt(12), random.nextInt(12)));
+
+			MultiPoint multiPoint = new MultiPoint();
+			multiPoint.add(x, y);
+			multiPoint.add(random.nextInt(12), random.nextInt(12));
+			geometries.add(multiPoint);
+		}
+
+		geometries.add(new Polygon());
+		geometries.add(new Envelope(2, 2, 5, 5));
+		return geometries;
+	}
+
+	@Test
+	public void testSameAsOperators() {
+		List<Geometry> geometries = makeGeometries();
+		OperatorRelate relate = OperatorRelate.local();
+		String[] patterns = new String[] { "T********", "2FF1FF212",
+				"*T*******", "F0*******", "1*T***T**", "****T****" };
+		for (Geometry a : geometries) {
+			for (Geometry b : geometries) {
+				RelateResult result = relate.execute(a, b, null, null);
+				String matrix = result.getMatrix();
+				assertEquals(matrix.length(), 9);
+				for (int i = 0; i < 9; i++) {
+					assertTrue(result.getDimension(i) >= -1);
+					assertTrue(result.getDimension(i) <= 2);
+				}
+
+				assertTrue(result.matches(matrix));
+				for (String pattern : patterns)
+					assertEquals(result.matches(pattern), relate.execute(a, b,
+							null, pattern, null));
+
+				assertEquals(result.isEqual(), OperatorEquals.local().execute(
+						a, b, null, null));
+				assertEquals(result.isDisjoint(), OperatorDisjoint.local()
+						.execute(a, b, null, null));
+				assertEquals(result.isIntersects(), OperatorIntersects.local()
+						.execute(a, b, null, null));
+				assertEquals(result.isTouches(), OperatorTouches.local()
+						.execute(a, b, null, null));
+				assertEquals(result.isCrosses(), OperatorCrosses.local()
+						.execute(a, b, null, null));
+				// see the testPolylineContainsMultiPoint
+				if (!isPolylineAndMultiPoint(a, b)) {
+					assertEquals(result.isWithin(), OperatorWithin.local()
+							.execute(a, b, null, null));
+					assertEquals(result.isContains(), OperatorContains.local()
+							.execute(a, b, null, null));
+				}
+				assertEquals(result.isOverlaps(), OperatorOverlaps.local()
+						.execute(a, b, null, null));
+			}
+		}
+	}
+
+	private static boolean isPolylineAndMultiPoint(Geometry a, Geometry b) {
+		Geometry.Type ta = a.getType();
+		Geometry.Type tb = b.getType();
+		return (ta == Geometry.Type.Polyline && tb == Geometry.Type.MultiPoint)
+				|| (ta == Geometry.Type.MultiPoint && tb == Geometry.Type.Polyline);
+	}
+
+	@Test
+	public void testPolylineContainsMultiPoint() {
+		Polyline polyline = new Polyline();
+		polyline.startPath(0, 0);
+		polyline.lineTo(10, 0);
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.add(0, 0);
+		multiPoint.add(5, 0);
+
+		// the matrix follows DE-9IM, the operator excludes the boundary
+		RelateResult result = OperatorRelate.local().execute(polyline,
+				multiPoint, null, null);
+		assertEquals(result.getMatrix(), "0F10F0FF2");
+		assertTrue(result.isContains());
+		assertFalse(OperatorContains.local().execute(polyline, multiPoint,
+				null, null));
+
+		multiPoint.setEmpty();
+		multiPoint.add(5, 0);
+		multiPoint.add(7, 0);
+		result = OperatorRelate.local().execute(polyline, multiPoint, null,
+				null);
+		assertTrue(result.isContains());
+		assertTrue(OperatorContains.local().execute(polyline, multiPoint,
+				null, null));
+	}
+
+	@Test
+	public void testMatrix() {
+		Polygon a = new Polygon();
+		a.addEnvelope(new Envelope(0, 0, 10, 10), false);
+		Polygon b = new Polygon();
+		b.addEnvelope(new Envelope(5, 5, 15, 15), false);
+		RelateResult result = OperatorRelate.local().execute(a, b, null, null);
+		assertEquals(result.getMatrix(), "212101212");
+		assertTrue(result.isOverlaps());
+		assertFalse(result.isTouches());
+
+		Polyline line = new Polyline();
+		line.startPath(-5, 5);
+		line.lineTo(5, 5);
+		result = OperatorRelate.local().execute(line, a, null, null);
+		assertEquals(result.getMatrix(), "1010F0212");
+		assertTrue(result.isCrosses());
+
+		result = OperatorRelate.local().execute(new Point(20, 20), a, null,
+				null);
+		assertEquals(result.getMatrix(), "FF0FFF212");
+		assertTrue(result.isDisjoint());
+
+		try {
+			result.matches("T*");
+			fail();
+		} catch (GeometryException e) {
+		}
+	}
+}
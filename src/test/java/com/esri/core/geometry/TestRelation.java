@@ -25,6 +25,7 @@
 package com.esri.core.geometry;
 
 import java.io.IOException;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
@@ -5528,4 +5529,93 @@ public class TestRelation extends TestCase {
 		boolean res = OperatorDisjoint.local().execute(geometry1.getGeometry(), geometry2.getGeometry(), geometry1.getSpatialReference(), null);
 		assertTrue(!res);
 	}
+
+	@Test
+	public void testPolylineRasterizedDisjoint() {
+		// two combs whose teeth interleave, so the envelopes overlap
+		Polyline combA = new Polyline();
+		Polyline combB = new Polyline();
+		for (int i = 0; i < 10; i++) {
+			combA.startPath(0, i * 10);
+			combA.lineTo(100, i * 10);
+			combB.startPath(0, i * 10 + 5);
+			combB.lineTo(100, i * 10 + 5);
+		}
+
+		double tolerance = InternalUtils.calculateToleranceFromGeometry(null,
+				combA, false);
+		assertEquals(RelationalOperations.tryRasterizedContainsOrDisjoint_(
+				combA, combB, tolerance, false),
+				RelationalOperations.Relation.unknown);
+		OperatorDisjoint.local().accelerateGeometry(combA, null,
+				GeometryAccelerationDegree.enumMedium);
+		assertEquals(RelationalOperations.tryRasterizedContainsOrDisjoint_(
+				combA, combB, tolerance, false),
+				RelationalOperations.Relation.disjoint);
+		assertEquals(RelationalOperations.tryRasterizedContainsOrDisjoint_(
+				combB, combA, tolerance, false),
+				RelationalOperations.Relation.disjoint);
+
+		assertTrue(OperatorDisjoint.local().execute(combA, combB, null, null));
+		assertFalse(OperatorTouches.local().execute(combA, combB, null, null));
+		assertEquals(OperatorRelate.local().execute(combA, combB, null, null)
+				.getMatrix(), "FF1FF0102");
+		Envelope between = new Envelope(10, 2, 20, 8);
+		assertTrue(OperatorDisjoint.local().execute(combA, between, null, null));
+		assertFalse(OperatorTouches.local().execute(combA, between, null, null));
+
+		// a crossing polyline is not rejected by the prefilter
+		Polyline crossing = new Polyline();
+		crossing.startPath(50, -5);
+		crossing.lineTo(52, 95);
+		assertEquals(RelationalOperations.tryRasterizedContainsOrDisjoint_(
+				combA, crossing, tolerance, false),
+				RelationalOperations.Relation.unknown);
+		assertTrue(OperatorCrosses.local().execute(combA, crossing, null, null));
+		Envelope touching = new Envelope(10, 10, 20, 15);
+		assertTrue(OperatorTouches.local().execute(combA, touching, null, null));
+		assertFalse(OperatorDisjoint.local().execute(combA, touching, null,
+				null));
+	}
+
+	@Test
+	public void testPolylineRasterizedSameResults() {
+		Random random = new Random(5);
+		Polyline[] polylines = new Polyline[40];
+		Polyline[] accelerated = new Polyline[polylines.length];
+		for (int i = 0; i < polylines.length; i++) {
+			// random walks, so that many pairs have overlapping envelopes
+			// but do not intersect
+			int x = random.nextInt(40);
+			int y = random.nextInt(40);
+			polylines[i] = new Polyline();
+			polylines[i].startPath(x, y);
+			for (int j = 0; j < 30; j++) {
+				x += random.nextInt(5) - 2;
+				y += random.nextInt(5) - 2;
+				polylines[i].lineTo(x, y);
+			}
+
+			accelerated[i] = (Polyline) polylines[i].copy();
+			OperatorIntersects.local().accelerateGeometry(accelerated[i], null,
+					GeometryAccelerationDegree.enumHot);
+		}
+
+		for (int i = 0; i < polylines.length; i++) {
+			for (int j = 0; j < polylines.length; j++) {
+				Polyline a = polylines[i];
+				Polyline b = polylines[j];
+				Polyline aa = accelerated[i];
+				assertEquals(OperatorDisjoint.local().execute(a, b, null, null),
+						OperatorDisjoint.local().execute(aa, b, null, null));
+				assertEquals(OperatorTouches.local().execute(a, b, null, null),
+						OperatorTouches.local().execute(aa, b, null, null));
+				assertEquals(OperatorCrosses.local().execute(a, b, null, null),
+						OperatorCrosses.local().execute(aa, b, null, null));
+				assertEquals(OperatorRelate.local().execute(a, b, null, null)
+						.getMatrix(), OperatorRelate.local().execute(aa, b,
+						null, null).getMatrix());
+			}
+		}
+	}
 }
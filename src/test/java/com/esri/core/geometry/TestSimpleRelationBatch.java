@@ -0,0 +1,229 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestSimpleRelationBatch extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static Geometry[] makeCandidates(int count) {
+		Random random = new Random(7);
+		Geometry[] candidates = new Geometry[count];
+		for (int i = 0; i < count; i++) {
+			double x = random.nextInt(120) - 10;
+			double y = random.nextInt(120) - 10;
+			switch (i % 4) {
+			case 0:
+				candidates[i] = new Point(x, y);
+				break;
+			case 1:
+				candidates[i] = new Envelope(x, y, x + 5, y + 5);
+				break;
+			case 2: {
+				Polyline polyline = new Polyline();
+				polyline.startPath(x, y);
+				polyline.lineTo(x + 10, y + 3);
+				candidates[i] = polyline;
+				break;
+			}
+			default: {
+				Polygon polygon = new Polygon();
+				polygon.addEnvelope(new Envelope(x, y, x + 3, y + 3), false);
+				candidates[i] = polygon;
+			}
+			}
+		}
+
+		return candidates;
+	}
+
+	@Test
+	public void testSameAsPairs() {
+		Geometry fixed = new SyntheticGeometryGenerator(11).generate(
+				SyntheticGeometryGenerator.Shape.PolygonWithHoles, 400,
+				new Envelope2D(0, 0, 100, 100));
+		Geometry[] candidates = makeCandidates(400);
+		OperatorSimpleRelation[] operators = new OperatorSimpleRelation[] {
+				OperatorContains.local(), OperatorWithin.local(),
+				OperatorEquals.local(), OperatorDisjoint.local(),
+				OperatorIntersects.local(), OperatorTouches.local(),
+				OperatorCrosses.local(), OperatorOverlaps.local() };
+		for (OperatorSimpleRelation operator : operators) {
+			boolean[] result = operator.executeMany(fixed, candidates, null, null);
+			BitSet bits = operator.executeMany(fixed, new SimpleGeometryCursor(
+					candidates), null, null);
+			int count = 0;
+			for (int i = 0; i < candidates.length; i++) {
+				boolean expected = operator.execute(fixed, candidates[i], null,
+						null);
+				assertEquals(result[i], expected);
+				assertEquals(bits.get(i), expected);
+				count += expected ? 1 : 0;
+			}
+
+			assertEquals(bits.cardinality(), count);
+		}
+
+		// the batch accelerates a copy
+		assertFalse(OperatorTrace.isAccelerated(fixed));
+	}
+
+	@Test
+	public void testFixedPoint() {
+		Geometry[] candidates = makeCandidates(40);
+		Point fixed = new Point(50, 50);
+		boolean[] result = OperatorWithin.local().executeMany(fixed, candidates,
+				null, null);
+		for (int i = 0; i < candidates.length; i++)
+			assertEquals(result[i], OperatorWithin.local().execute(fixed,
+					candidates[i], null, null));
+
+		assertEquals(OperatorContains.local().executeMany(new Polygon(),
+				candidates, null, null).length, candidates.length);
+		assertTrue(OperatorContains.local().executeMany(fixed,
+				new SimpleGeometryCursor(new Geometry[0]), null, null)
+				.isEmpty());
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		Geometry fixed = new SyntheticGeometryGenerator(5).generate(
+				SyntheticGeometryGenerator.Shape.ContinentalPolygon, 2000,
+				new Envelope2D(0, 0, 100, 100));
+		Random random = new Random(1);
+		Geometry[] points = new Geometry[5000];
+		for (int i = 0; i < points.length; i++)
+			points[i] = new Point(random.nextDouble() * 100,
+					random.nextDouble() * 100);
+
+		boolean[] expected = OperatorContains.local().executeMany(fixed, points,
+				null, null);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			boolean[] actual = OperatorContains.local().executeMany(fixed, points,
+					null, null, executor, 8);
+			assertTrue(Arrays.equals(actual, expected));
+		} finally {
+			executor.shutdown();
+		}
+
+		int inside = 0;
+		for (int i = 0; i < expected.length; i++)
+			inside += expected[i] ? 1 : 0;
+
+		assertTrue(inside > 0 && inside < points.length);
+	}
+
+	@Test
+	public void testParallelRelations() throws Exception {
+		final Geometry fixed = new SyntheticGeometryGenerator(3).generate(
+				SyntheticGeometryGenerator.Shape.ContinentalPolygon, 200,
+				new Envelope2D(0, 0, 100, 100));
+		Geometry[] all = makeCandidates(2048);
+		final Geometry[] candidates = new Geometry[all.length / 2];
+		MultiPath boundary = (MultiPath) fixed;
+		for (int i = 0; i < candidates.length; i++) {
+			if (i % 8 == 0) {
+				// a segment of the boundary touches the fixed geometry
+				Polyline polyline = new Polyline();
+				int v = i % (boundary.getPathSize(0) - 1);
+				polyline.startPath(boundary.getXY(v));
+				polyline.lineTo(boundary.getXY(v + 1));
+				candidates[i] = polyline;
+			} else
+				candidates[i] = all[4 * (i / 2) + 2 + i % 2];// polylines and polygons
+		}
+
+		OperatorSimpleRelation[] operators = new OperatorSimpleRelation[] {
+				OperatorTouches.local(), OperatorOverlaps.local(),
+				OperatorCrosses.local(), OperatorContains.local() };
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int k = 0; k < operators.length; k++) {
+				boolean[] expected = new boolean[candidates.length];
+				for (int i = 0; i < candidates.length; i++)
+					expected[i] = operators[k].execute(fixed, candidates[i],
+							null, null);
+
+				boolean[] actual = operators[k].executeMany(fixed,
+						candidates, null, null, executor, 4);
+				assertTrue(Arrays.equals(actual, expected));
+			}
+
+			// the threads share one frozen geometry, which Relate reads too
+			final Geometry shared = fixed.copy();
+			shared.freeze();
+			final String de9im = "T********";
+			final boolean[] expected = new boolean[candidates.length];
+			for (int i = 0; i < candidates.length; i++)
+				expected[i] = OperatorRelate.local().execute(fixed,
+						candidates[i], null, de9im, null);
+
+			final boolean[] actual = new boolean[candidates.length];
+			ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0; t < 4; t++) {
+				final int from = candidates.length * t / 4;
+				final int to = candidates.length * (t + 1) / 4;
+				futures.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = from; i < to; i++)
+							actual[i] = OperatorRelate.local().execute(shared,
+									candidates[i], null, de9im, null);
+					}
+				}));
+			}
+			for (int t = 0; t < futures.size(); t++)
+				futures.get(t).get();
+
+			assertTrue(Arrays.equals(actual, expected));
+		} finally {
+			executor.shutdown();
+		}
+
+		// the fixed geometry of the caller is not used by the threads
+		assertFalse(fixed.isFrozen());
+		assertNull(((MultiVertexGeometryImpl) fixed._getImpl())
+				._getAccelerators());
+	}
+}
@@ -30,6 +30,9 @@ package com.esri.core.geometry;
 //import java.util.List;
 //import java.util.Random;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 
@@ -1365,4 +1368,96 @@ public class TestSimplify extends TestCase {
 		assertTrue(equals);
 	}
 
+	@Test
+	public void testParallelWindow() throws Exception {
+		Geometry[] input = new Geometry[40];
+		for (int i = 0; i < input.length; i++)
+			input[i] = new Point(i, i);
+
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger maxActive = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			GeometryCursor cursor = new ParallelGeometryCursor(
+					new SimpleGeometryCursor(input), executor, 4, null) {
+				@Override
+				Geometry process(Geometry geometry) {
+					int n = active.incrementAndGet();
+					int max = maxActive.get();
+					while (n > max && !maxActive.compareAndSet(max, n))
+						max = maxActive.get();
+
+					try {
+						Thread.sleep(2);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+
+					active.decrementAndGet();
+					return geometry;
+				}
+			};
+
+			int count = 0;
+			while (cursor.next() != null)
+				count++;
+
+			assertEquals(count, input.length);
+			assertEquals(maxActive.get(), 4);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelSimplify() throws Exception {
+		Geometry[] input = new Geometry[50];
+		for (int i = 0; i < input.length; i++) {
+			Polygon poly = new Polygon();
+			// bowtie, needs cracking
+			poly.startPath(i, 0);
+			poly.lineTo(i + 10, 10);
+			poly.lineTo(i + 10, 0);
+			poly.lineTo(i, 10 + i % 3);
+			input[i] = poly;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			GeometryCursor cursor = simplifyOp.execute(new SimpleGeometryCursor(input), null, true, null, executor, 8);
+			GeometryCursor cursorOGC = simplifyOpOGC.execute(new SimpleGeometryCursor(input), null, true, null,
+					executor, 3);
+			for (int i = 0; i < input.length; i++) {
+				Geometry expected = simplifyOp.execute(input[i], null, true, null);
+				Geometry result = cursor.next();
+				assertEquals(cursor.getGeometryID(), i);
+				assertTrue(expected.equals(result));
+				assertTrue(simplifyOp.isSimpleAsFeature(result, null, null));
+
+				Geometry expectedOGC = simplifyOpOGC.execute(input[i], null, true, null);
+				Geometry resultOGC = cursorOGC.next();
+				assertEquals(cursorOGC.getGeometryID(), i);
+				assertTrue(expectedOGC.equals(resultOGC));
+			}
+
+			assertNull(cursor.next());
+			assertNull(cursorOGC.next());
+
+			ProgressTracker cancel = new ProgressTracker() {
+				@Override
+				public boolean progress(int step, int totalExpectedSteps) {
+					return false;
+				}
+			};
+			cursor = simplifyOp.execute(new SimpleGeometryCursor(input), null, true, cancel, executor, 8);
+			try {
+				cursor.next();
+				fail();
+			} catch (GeometryException e) {
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
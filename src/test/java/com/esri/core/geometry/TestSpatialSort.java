@@ -0,0 +1,159 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestSpatialSort extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testCurveCodes() {
+		// the first order curves visit the four cells in these orders
+		assertEquals(SpatialSort.mortonCode(0, 0), 0);
+		assertEquals(SpatialSort.mortonCode(1, 0), 1);
+		assertEquals(SpatialSort.mortonCode(0, 1), 2);
+		assertEquals(SpatialSort.mortonCode(1, 1), 3);
+
+		// consecutive Hilbert codes are adjacent cells
+		int n = 64;
+		int[] xs = new int[n * n];
+		int[] ys = new int[n * n];
+		int scale = SpatialSort.GRID_SIZE / n;
+		for (int x = 0; x < n; x++) {
+			for (int y = 0; y < n; y++) {
+				// the code of a coarse cell is the code of any of its cells
+				// divided by the number of cells in it
+				int d = SpatialSort.hilbertCode(x * scale, y * scale)
+						/ (scale * scale);
+				xs[d] = x;
+				ys[d] = y;
+			}
+		}
+
+		for (int d = 1; d < n * n; d++) {
+			int dist = Math.abs(xs[d] - xs[d - 1]) + Math.abs(ys[d] - ys[d - 1]);
+			assertEquals(dist, 1);
+		}
+	}
+
+	@Test
+	public void testSortEnvelopes() {
+		Envelope2D[] envelopes = new Envelope2D[5];
+		envelopes[0] = new Envelope2D(9, 9, 10, 10);
+		envelopes[1] = new Envelope2D();
+		envelopes[1].setEmpty();
+		envelopes[2] = new Envelope2D(0, 0, 1, 1);
+		envelopes[3] = new Envelope2D(9, 0, 10, 1);
+		envelopes[4] = new Envelope2D(0, 9, 1, 10);
+
+		int[] hilbert = SpatialSort.sort(envelopes, SpatialSort.Curve.Hilbert);
+		assertTrue(Arrays.equals(hilbert, new int[] { 2, 4, 0, 3, 1 }));
+		int[] morton = SpatialSort.sort(envelopes, SpatialSort.Curve.Morton);
+		assertTrue(Arrays.equals(morton, new int[] { 2, 3, 4, 0, 1 }));
+	}
+
+	@Test
+	public void testParallelSort() throws Exception {
+		Random random = new Random(1);
+		Envelope2D[] envelopes = new Envelope2D[50000];
+		for (int i = 0; i < envelopes.length; i++) {
+			double x = random.nextDouble() * 1000;
+			double y = random.nextDouble() * 1000;
+			envelopes[i] = new Envelope2D(x, y, x + 1, y + 1);
+		}
+
+		int[] expected = SpatialSort.sort(envelopes, SpatialSort.Curve.Hilbert);
+		boolean[] seen = new boolean[envelopes.length];
+		for (int i = 0; i < expected.length; i++) {
+			assertFalse(seen[expected[i]]);
+			seen[expected[i]] = true;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			int[] actual = SpatialSort.sort(envelopes,
+					SpatialSort.Curve.Hilbert, executor, 5);
+			assertTrue(Arrays.equals(actual, expected));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSortCursor() {
+		Geometry[] geoms = new Geometry[] { new Point(10, 10), new Point(0, 0),
+				new Point(10, 0), new Point(0, 10) };
+		GeometryCursor cursor = SpatialSort.sort(new SimpleGeometryCursor(
+				geoms), SpatialSort.Curve.Hilbert);
+		int[] ids = new int[4];
+		int count = 0;
+		for (Geometry geom = cursor.next(); geom != null; geom = cursor.next()) {
+			assertTrue(geom == geoms[cursor.getGeometryID()]);
+			ids[count++] = cursor.getGeometryID();
+		}
+
+		assertTrue(Arrays.equals(ids, new int[] { 1, 3, 0, 2 }));
+	}
+
+	@Test
+	public void testUnionOfManyPolygons() {
+		Polygon[] polygons = new Polygon[200];
+		Random random = new Random(3);
+		double area = 0;
+		for (int i = 0; i < polygons.length; i++) {
+			// disjoint squares at random heights
+			int cell = random.nextInt(1000000);
+			polygons[i] = new Polygon();
+			polygons[i].addEnvelope(new Envelope(i * 3, cell % 7, i * 3 + 2,
+					cell % 7 + 2), false);
+			area += 4;
+		}
+
+		Geometry union = OperatorUnion.local().execute(
+				new SimpleGeometryCursor(polygons), null, null).next();
+		assertEquals(((Polygon) union).calculateArea2D(), area, 1e-8);
+		assertEquals(((Polygon) union).getPathCount(), polygons.length);
+
+		QuadTreeImpl quadTree = InternalUtils
+				.buildQuadTreeForPaths((MultiPathImpl) ((Polygon) union)
+						._getImpl());
+		assertEquals(quadTree.getElementCount(), polygons.length);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ Copyright 1995-2017 Esri
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ For additional information, contact:
+ Environmental Systems Research Institute, Inc.
+ Attn: Contracts Dept
+ 380 New York Street
+ Redlands, California, USA 92373
+
+ email: contracts@esri.com
+ */
+
+package com.esri.core.geometry;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+public class TestSyntheticGeometryGenerator extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	@Test
+	public void testShapes() {
+		SyntheticGeometryGenerator generator = new SyntheticGeometryGenerator(7);
+		Envelope2D extent = new Envelope2D(-180, -90, 180, 90);
+		for (SyntheticGeometryGenerator.Shape shape : SyntheticGeometryGenerator.Shape
+				.values()) {
+			Geometry geom = generator.generate(shape, 10000, extent);
+			// the same seed makes the same geometry
+			assertTrue(geom.equals(generator.generate(shape, 10000, extent)));
+			assertFalse(geom.equals(new SyntheticGeometryGenerator(8).generate(
+					shape, 10000, extent)));
+
+			int pointCount = ((MultiVertexGeometry) geom).getPointCount();
+			assertTrue(pointCount > 9000 && pointCount <= 10000);
+			Envelope2D env = new Envelope2D();
+			geom.queryEnvelope2D(env);
+			assertTrue(extent.contains(env));
+		}
+
+		Polygon holes = (Polygon) generator.generate(
+				SyntheticGeometryGenerator.Shape.PolygonWithHoles, 1000, extent);
+		assertEquals(holes.getExteriorRingCount(), 1);
+		assertTrue(holes.getPathCount() > 90);
+		assertTrue(OperatorSimplify.local().isSimpleAsFeature(holes, null,
+				true, null, null));
+
+		Polygon continent = (Polygon) generator.generate(
+				SyntheticGeometryGenerator.Shape.ContinentalPolygon, 100000,
+				extent);
+		assertTrue(continent.calculateArea2D() > 0);
+		assertTrue(OperatorSimplify.local().isSimpleAsFeature(continent, null,
+				true, null, null));
+
+		// the petals touch at the center, which is simple as a feature but not
+		// in OGC terms, where each petal is a separate ring
+		Polygon petals = (Polygon) generator.generate(
+				SyntheticGeometryGenerator.Shape.SelfTouchingPolygon, 64,
+				extent);
+		assertEquals(petals.getPathCount(), 1);
+		assertTrue(OperatorSimplify.local().isSimpleAsFeature(petals, null,
+				true, null, null));
+		assertFalse(OperatorSimplifyOGC.local().isSimpleOGC(petals, null,
+				true, null, null));
+		Polygon simple = (Polygon) OperatorSimplifyOGC.local().execute(petals,
+				null, true, null);
+		assertEquals(simple.getPathCount(), 4);
+		assertEquals(simple.calculateArea2D(), petals.calculateArea2D(), 1e-6);
+	}
+
+	@Test
+	public void testCursor() {
+		SyntheticGeometryGenerator generator = new SyntheticGeometryGenerator(7);
+		Envelope2D extent = new Envelope2D(0, 0, 1000, 1000);
+		GeometryCursor cursor = generator.generate(
+				SyntheticGeometryGenerator.Shape.RoadNetwork, 10, 200, extent);
+		Geometry[] geoms = new Geometry[10];
+		int count = 0;
+		for (Geometry geom = cursor.next(); geom != null; geom = cursor.next()) {
+			assertEquals(cursor.getGeometryID(), count);
+			geoms[count++] = geom;
+		}
+
+		assertEquals(count, 10);
+		// the geometries are in separate cells of the extent
+		Envelope2D env0 = new Envelope2D();
+		Envelope2D env1 = new Envelope2D();
+		geoms[0].queryEnvelope2D(env0);
+		geoms[1].queryEnvelope2D(env1);
+		assertFalse(env0.isIntersecting(env1));
+		assertTrue(extent.contains(env1));
+
+		// a second cursor repeats the geometries
+		cursor = generator.generate(
+				SyntheticGeometryGenerator.Shape.RoadNetwork, 10, 200, extent);
+		for (int i = 0; i < 10; i++)
+			assertTrue(cursor.next().equals(geoms[i]));
+
+		assertNull(cursor.next());
+	}
+}
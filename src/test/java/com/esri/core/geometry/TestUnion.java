@@ -177,4 +177,36 @@ public class TestUnion extends TestCase {
 		assertEquals(new Point2D(3, 4), path.getXY(2));
 		assertEquals(new Point2D(3, 2), path.getXY(3));
 	}
+
+	@Test
+	public void testUnionWithWorkingMemory() {
+		Polygon star = new Polygon();
+		star.startPath(0, 10);
+		for (int i = 1; i < 100; i++) {
+			double angle = i * 4 * Math.PI / 100;
+			double r = i % 2 == 0 ? 10 : 3;
+			star.lineTo(r * Math.sin(angle), r * Math.cos(angle));
+		}
+
+		Envelope env = new Envelope(-2, -2, 12, 2);
+		Geometry expectedUnion = GeometryEngine.union(new Geometry[] { star, env }, null);
+		Geometry expectedSimple = GeometryEngine.simplify(star, null);
+
+		long limit = WorkingMemory.getThreadLimit();
+		WorkingMemory.setThreadLimit(1 << 20);
+		try {
+			for (int i = 0; i < 3; i++) {
+				assertTrue(GeometryEngine.union(new Geometry[] { star, env }, null).equals(expectedUnion));
+				assertTrue(GeometryEngine.simplify(star, null).equals(expectedSimple));
+			}
+
+			assertTrue(WorkingMemory.getThreadMemorySize() > 0);
+			assertTrue(WorkingMemory.getThreadMemorySize() <= 1 << 20);
+		} finally {
+			WorkingMemory.setThreadLimit(limit);
+			WorkingMemory.releaseThreadMemory();
+		}
+
+		assertEquals(WorkingMemory.getThreadMemorySize(), 0);
+	}
 }